@@ -1,17 +1,45 @@
 package cn.com.qjun.dmsoft;
 
+import cn.com.qjun.dmsoft.async.VirtualThreads;
+import cn.com.qjun.dmsoft.backend.DmBackendFactory;
+import cn.com.qjun.dmsoft.backend.JacobDmBackend;
 import cn.com.qjun.dmsoft.functions.*;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 每个线程使用各自的大漠对象
+ * <p>
+ * 只适合线程数量固定且不多的场景. 虚拟线程请使用{@link cn.com.qjun.dmsoft.async.DmSoftDispatcher}.
+ *
  * @author 81062
  * @date 2025/11/24
  */
+@Slf4j
 public class DmSoftThreadSafe implements AutoCloseable {
     private final ThreadLocal<DmSoftWrapper> localDmSoft;
+    /**
+     * 所有线程创建的大漠对象, 关闭时一起关闭
+     */
+    private final Set<DmSoftWrapper> instances = ConcurrentHashMap.newKeySet();
+    private final DmBackendFactory backendFactory;
     private final DmSoftInitFunction initFunction;
+    private volatile boolean closed;
 
     public DmSoftThreadSafe(DmSoftInitFunction initFunction) {
+        this(JacobDmBackend::new, initFunction);
+    }
+
+    /**
+     * @param backendFactory 每个线程第一次使用时通过它创建调用后端
+     * @param initFunction   大漠对象创建后的初始化逻辑, 可以为null
+     */
+    public DmSoftThreadSafe(@NonNull DmBackendFactory backendFactory, DmSoftInitFunction initFunction) {
         this.localDmSoft = new ThreadLocal<>();
+        this.backendFactory = backendFactory;
         this.initFunction = initFunction;
     }
 
@@ -70,28 +98,58 @@ public class DmSoftThreadSafe implements AutoCloseable {
         return dmSoft.windowFunctions();
     }
 
+    /**
+     * @throws IllegalStateException 已经关闭. 其它线程的ThreadLocal中可能还留着已经关闭的对象, 不能再交出去
+     */
     private DmSoftWrapper getInstance() {
+        if (closed) {
+            throw new IllegalStateException("DmSoftThreadSafe已经关闭");
+        }
         DmSoftWrapper dmSoft = localDmSoft.get();
         if (dmSoft == null) {
             dmSoft = initDmSoft();
             localDmSoft.set(dmSoft);
+            instances.add(dmSoft);
+            // 和close()并发时, close()可能已经遍历完instances, 由创建它的线程自己关闭
+            if (closed && instances.remove(dmSoft)) {
+                localDmSoft.remove();
+                dmSoft.close();
+                throw new IllegalStateException("DmSoftThreadSafe已经关闭");
+            }
         }
         return dmSoft;
     }
 
     private DmSoftWrapper initDmSoft() {
-        DmSoftWrapper dmSoft = new DmSoftWrapper();
+        if (VirtualThreads.isVirtual(Thread.currentThread())) {
+            log.warn("在虚拟线程中创建了大漠对象, 每个虚拟线程都会占用一个大漠对象, 请改用DmSoftDispatcher");
+        }
+        DmSoftWrapper dmSoft = new DmSoftWrapper(backendFactory.create());
         if (initFunction != null) {
-            initFunction.accept(dmSoft);
+            try {
+                initFunction.accept(dmSoft);
+            } catch (RuntimeException e) {
+                dmSoft.close();
+                throw e;
+            }
         }
         return dmSoft;
     }
 
+    /**
+     * 关闭所有线程创建的大漠对象. 之前只关闭当前线程的对象, 其它线程的对象会一直占用授权直到进程退出.
+     * <p>
+     * 关闭后所有线程再获取大漠对象都会抛出{@link IllegalStateException}, 其它线程的ThreadLocal中残留的对象不会再被使用.
+     * 其它线程创建的对象在当前线程关闭, Jacob后端只释放组件, 那些线程的COM在线程结束时由系统回收.
+     */
     @Override
     public void close() {
-        DmSoftWrapper dmSoft = localDmSoft.get();
-        if (dmSoft != null) {
-            dmSoft.close();
+        closed = true;
+        localDmSoft.remove();
+        for (DmSoftWrapper dmSoft : instances) {
+            if (instances.remove(dmSoft)) {
+                dmSoft.close();
+            }
         }
     }
 }
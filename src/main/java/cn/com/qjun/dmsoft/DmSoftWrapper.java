@@ -1,20 +1,15 @@
 package cn.com.qjun.dmsoft;
 
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.backend.JacobDmBackend;
 import cn.com.qjun.dmsoft.functions.*;
-import cn.com.qjun.dmsoft.utils.RuntimeUtils;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.ComThread;
-import com.jacob.com.LibraryLoader;
-import com.sun.jna.Library;
-import com.sun.jna.Native;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
+import cn.com.qjun.dmsoft.metrics.DmMetricsRegistry;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
-import java.nio.file.Path;
-import java.util.Properties;
-
 /**
  * @author RenQiang
  * @date 2025/11/23
@@ -22,8 +17,13 @@ import java.util.Properties;
 @Slf4j
 @Accessors(fluent = true)
 public class DmSoftWrapper implements AutoCloseable {
-    private final ActiveXComponent component;
+    private final DmBackend backend;
     private final long id;
+    /**
+     * 当前大漠对象的函数调用统计
+     */
+    @Getter
+    private final DmCallMetrics metrics;
 
     @Getter
     private final DmAiFunctions aiFunctions;
@@ -49,55 +49,45 @@ public class DmSoftWrapper implements AutoCloseable {
     private final DmWindowFunctions windowFunctions;
 
     public DmSoftWrapper() {
-        ComThread.InitMTA();
-        this.component = new ActiveXComponent("dm.dmsoft");
-        this.aiFunctions = new DmAiFunctions(component);
-        this.backgroundFunctions = new DmBackgroundFunctions(component);
-        this.basicFunctions = new DmBasicFunctions(component);
-        this.textFunctions = new DmTextFunctions(component);
-        this.colourFunctions = new DmColourFunctions(component, textFunctions);
-        this.fileFunctions = new DmFileFunctions(component);
-        this.inputFunctions = new DmInputFunctions(component);
-        this.memoryFunctions = new DmMemoryFunctions(component);
-        this.otherFunctions = new DmOtherFunctions(component);
-        this.systemFunctions = new DmSystemFunctions(component);
-        this.windowFunctions = new DmWindowFunctions(component);
+        this(new JacobDmBackend());
+    }
+
+    /**
+     * 使用指定的后端创建大漠对象, 关闭大漠对象时后端也会一起关闭
+     *
+     * @param backend 调用后端
+     */
+    public DmSoftWrapper(@NonNull DmBackend backend) {
+        this.backend = backend;
+        this.metrics = new DmCallMetrics();
+        this.aiFunctions = new DmAiFunctions(backend, metrics);
+        this.backgroundFunctions = new DmBackgroundFunctions(backend, metrics);
+        this.basicFunctions = new DmBasicFunctions(backend, metrics);
+        this.textFunctions = new DmTextFunctions(backend, metrics);
+        this.colourFunctions = new DmColourFunctions(backend, metrics, textFunctions);
+        this.fileFunctions = new DmFileFunctions(backend, metrics);
+        this.inputFunctions = new DmInputFunctions(backend, metrics);
+        this.memoryFunctions = new DmMemoryFunctions(backend, metrics);
+        this.otherFunctions = new DmOtherFunctions(backend, metrics);
+        this.systemFunctions = new DmSystemFunctions(backend, metrics);
+        this.windowFunctions = new DmWindowFunctions(backend, metrics);
         this.id = basicFunctions().getId();
+        this.metrics.bind(id);
+        DmMetricsRegistry.getInstance().register(metrics);
         log.info("创建大漠对象成功: ID={}", this.id);
     }
 
     @Override
     public void close() {
+        DmMetricsRegistry.getInstance().unregister(metrics);
+        // 插件对象释放后它的缓冲区也随之释放, 先让各函数组作废指向这些缓冲区的视图
+        for (AbstractDmFunctions functions : new AbstractDmFunctions[]{aiFunctions, backgroundFunctions, basicFunctions,
+                colourFunctions, fileFunctions, inputFunctions, memoryFunctions, textFunctions, otherFunctions,
+                systemFunctions, windowFunctions}) {
+            functions.onClose();
+        }
         otherFunctions().releaseRef();
-        this.component.safeRelease();
-        ComThread.Release();
+        this.backend.close();
         log.info("关闭大漠对象成功: ID={}", this.id);
     }
-
-    static {
-        try {
-            Properties versions = RuntimeUtils.readProperties("/version.properties");
-            String jacobDllName = "jacob-" + versions.getProperty("jacob.version") + "-x86";
-            Path jacobDll = RuntimeUtils.releaseFileToTempDir("/" + jacobDllName + ".dll", jacobDllName, ".dll");
-            System.setProperty(LibraryLoader.JACOB_DLL_PATH, jacobDll.toAbsolutePath().toString());
-            LibraryLoader.loadJacobLibrary();
-
-            Path dmDll = RuntimeUtils.releaseFileToTempDir("/win32-x86/dm.dll", "dm", ".dll");
-            DmReg.INSTANCE.SetDllPathA(dmDll.toAbsolutePath().toString(), 1);
-        } catch (IOException e) {
-            throw new RuntimeException("Library release fail.", e);
-        }
-    }
-
-    private interface DmReg extends Library {
-        DmReg INSTANCE = Native.load("DmReg", DmReg.class);
-
-        /**
-         * 加载大漠插件
-         *
-         * @param dllPath dm.dll路径
-         * @param mode    0表示STA，1表示MTA
-         */
-        void SetDllPathA(String dllPath, int mode);
-    }
 }
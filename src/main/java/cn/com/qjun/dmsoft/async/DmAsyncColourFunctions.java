@@ -0,0 +1,85 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.enums.FindDirection;
+import cn.com.qjun.dmsoft.functions.DmColourFunctions;
+import cn.com.qjun.dmsoft.model.FindResult;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 常用颜色和图片函数的异步版本, 参数和返回值与{@link DmColourFunctions}中的同名函数相同.
+ * 其它函数可以通过{@link DmCallExecutor#submit(DmCall)}调用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmAsyncColourFunctions {
+    private final DmCallExecutor executor;
+
+    public DmAsyncColourFunctions(@NonNull DmCallExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @see DmColourFunctions#capture(Rect, String)
+     */
+    public CompletableFuture<Void> captureAsync(Rect rect, String file) {
+        return executor.submit(dmSoft -> {
+            dmSoft.colourFunctions().capture(rect, file);
+            return null;
+        });
+    }
+
+    /**
+     * @see DmColourFunctions#findColor(Rect, String, double, FindDirection)
+     */
+    public CompletableFuture<Point> findColorAsync(Rect rect, String color, double sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findColor(rect, color, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#findColorEx(Rect, String, double, FindDirection)
+     */
+    public CompletableFuture<String> findColorExAsync(Rect rect, String color, double sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findColorEx(rect, color, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#findMultiColor(Rect, String, String, double, FindDirection)
+     */
+    public CompletableFuture<Point> findMultiColorAsync(Rect rect, String firstColor, String offsetColor, double sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findMultiColor(rect, firstColor, offsetColor, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#findPic(Rect, List, String, double, FindDirection)
+     */
+    public CompletableFuture<FindResult> findPicAsync(Rect rect, List<String> picNames, String deltaColor, double sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findPic(rect, picNames, deltaColor, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#findPicEx(Rect, List, String, double, FindDirection)
+     */
+    public CompletableFuture<FindResult> findPicExAsync(Rect rect, List<String> picNames, String deltaColor, double sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findPicEx(rect, picNames, deltaColor, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#findPicSim(Rect, List, String, int, FindDirection)
+     */
+    public CompletableFuture<FindResult> findPicSimAsync(Rect rect, List<String> picNames, String deltaColor, int sim, FindDirection dir) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().findPicSim(rect, picNames, deltaColor, sim, dir));
+    }
+
+    /**
+     * @see DmColourFunctions#getColor(Point)
+     */
+    public CompletableFuture<String> getColorAsync(Point point) {
+        return executor.submit(dmSoft -> dmSoft.colourFunctions().getColor(point));
+    }
+}
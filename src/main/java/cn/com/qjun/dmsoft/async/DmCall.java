@@ -0,0 +1,20 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+
+/**
+ * 在大漠对象所属的工作线程中执行的调用
+ *
+ * @param <T> 返回值类型
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface DmCall<T> {
+
+    /**
+     * @param dmSoft 工作线程持有的大漠对象, 不要把它传到工作线程之外使用
+     * @return 调用结果
+     */
+    T call(DmSoftWrapper dmSoft);
+}
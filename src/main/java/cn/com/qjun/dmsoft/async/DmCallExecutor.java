@@ -0,0 +1,29 @@
+package cn.com.qjun.dmsoft.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步执行大漠调用
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public interface DmCallExecutor {
+
+    /**
+     * 提交一次调用, 立即返回
+     *
+     * @param call 调用逻辑
+     * @param <T>  返回值类型
+     * @return 调用结果, 调用抛出的异常通过它传递. 默认在工作线程中完成, 后续的同步回调也会在工作线程中执行,
+     * 耗时的回调应该使用xxxAsync系列方法交给其它线程
+     */
+    <T> CompletableFuture<T> submit(DmCall<T> call);
+
+    /**
+     * @return 颜色和图片相关函数的异步版本
+     */
+    default DmAsyncColourFunctions colourFunctions() {
+        return new DmAsyncColourFunctions(this);
+    }
+}
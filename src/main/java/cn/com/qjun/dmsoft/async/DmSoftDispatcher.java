@@ -0,0 +1,99 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.dmsoft.DmSoftInitFunction;
+import cn.com.qjun.dmsoft.backend.DmBackendFactory;
+import cn.com.qjun.dmsoft.backend.JacobDmBackend;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 让大量脚本任务(比如每个窗口一个)以同步的写法共用少量大漠对象
+ * <p>
+ * 大漠对象由固定个数的COM工作线程({@link DmSoftWorker})持有, 脚本任务通过{@link #call(DmCall)}把调用交给工作线程后等待结果.
+ * 在JDK 21上配合{@link #newScriptExecutor()}创建的虚拟线程使用时, 等待期间虚拟线程会让出载体线程,
+ * 上万个脚本任务只占用几个COM线程. 调用链路上没有synchronized, 不会把虚拟线程钉在载体线程上.
+ * <p>
+ * 不要在虚拟线程中使用{@link cn.com.qjun.dmsoft.DmSoftThreadSafe}, 它会为每个虚拟线程创建一个大漠对象,
+ * 并且在载体线程上初始化COM.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftDispatcher implements DmCallExecutor, AutoCloseable {
+    private final DmSoftWorkerGroup workers;
+
+    public DmSoftDispatcher(int workerCount, DmSoftInitFunction initFunction) {
+        this(workerCount, JacobDmBackend::new, initFunction);
+    }
+
+    /**
+     * @param workerCount    COM工作线程(大漠对象)个数
+     * @param backendFactory 调用后端的创建方式
+     * @param initFunction   大漠对象创建后的初始化逻辑, 可以为null
+     */
+    public DmSoftDispatcher(int workerCount, @NonNull DmBackendFactory backendFactory, DmSoftInitFunction initFunction) {
+        this.workers = new DmSoftWorkerGroup(workerCount, backendFactory, initFunction);
+    }
+
+    /**
+     * 在工作线程中执行调用, 当前线程等待结果
+     *
+     * @param call 调用逻辑
+     * @param <T>  返回值类型
+     * @return 调用结果
+     */
+    public <T> T call(@NonNull DmCall<T> call) {
+        return await(workers.submit(call));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(@NonNull DmCall<T> call) {
+        return workers.submit(call);
+    }
+
+    /**
+     * @return 固定在同一个大漠对象上调用的分发器, 用于需要按顺序在同一个对象上执行的调用, 比如绑定窗口后找图
+     */
+    public DmSoftWorker pin() {
+        return workers.pin();
+    }
+
+    /**
+     * 创建执行脚本任务的执行器, JDK 21及以上每个任务一个虚拟线程, 否则使用普通线程.
+     * 执行器由调用方关闭.
+     *
+     * @return 执行器
+     */
+    public ExecutorService newScriptExecutor() {
+        return VirtualThreads.newTaskExecutor("dmsoft-script-");
+    }
+
+    /**
+     * 关闭所有工作线程, 已经提交的调用会先执行完
+     */
+    @Override
+    public void close() {
+        workers.close();
+    }
+
+    /**
+     * 等待调用完成, 调用抛出的运行时异常原样抛出
+     */
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
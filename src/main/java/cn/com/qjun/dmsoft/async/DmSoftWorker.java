@@ -0,0 +1,198 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.dmsoft.DmSoftInitFunction;
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+import cn.com.qjun.dmsoft.backend.DmBackendFactory;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 独占一个大漠对象的工作线程
+ * <p>
+ * 大漠对象在工作线程中创建, 所有调用也都在这个线程中执行, 所以COM只需要在这个线程初始化一次.
+ * 其它线程通过{@link #submit(DmCall)}把调用放入队列后立即返回, 工作线程按提交顺序逐个执行,
+ * 同一个线程连续提交的调用不需要等待前一个完成, 执行顺序和提交顺序一致.
+ * <p>
+ * 队列是多生产者单消费者的无锁队列, 工作线程没有任务时挂起, 有新任务时才唤醒.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class DmSoftWorker implements DmCallExecutor, AutoCloseable {
+    private static final AtomicInteger NEXT_WORKER_ID = new AtomicInteger(1);
+
+    private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Thread thread;
+    private final CompletableFuture<DmSoftWrapper> ready = new CompletableFuture<>();
+    private volatile boolean parked;
+    private volatile boolean closed;
+    /**
+     * 工作线程已经退出循环, 之后放入队列的任务由提交方自己清理
+     */
+    private volatile boolean terminated;
+
+    /**
+     * 创建工作线程并等待大漠对象创建完成
+     *
+     * @param backendFactory 调用后端的创建方式, 在工作线程中调用
+     * @param initFunction   大漠对象创建后的初始化逻辑, 在工作线程中调用, 可以为null
+     */
+    public DmSoftWorker(@NonNull DmBackendFactory backendFactory, DmSoftInitFunction initFunction) {
+        this.thread = new Thread(() -> run(backendFactory, initFunction), "dmsoft-worker-" + NEXT_WORKER_ID.getAndIncrement());
+        this.thread.setDaemon(true);
+        this.thread.start();
+        try {
+            ready.join();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("创建大漠对象失败", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(@NonNull DmCall<T> call) {
+        Task<T> task = new Task<>(call);
+        if (closed) {
+            task.future.completeExceptionally(new IllegalStateException("大漠工作线程已经关闭"));
+            return task.future;
+        }
+        pendingCount.incrementAndGet();
+        queue.offer(task);
+        if (terminated) {
+            // 工作线程在offer之前已经退出, 没有人会再处理这个任务
+            if (queue.remove(task)) {
+                pendingCount.decrementAndGet();
+                task.future.completeExceptionally(new IllegalStateException("大漠工作线程已经关闭"));
+            }
+        } else if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return task.future;
+    }
+
+    /**
+     * @return 已提交还没有执行完的调用个数
+     */
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * @return 是否已经关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 停止接收新的调用, 等已经提交的调用执行完后关闭大漠对象. 在工作线程中调用(比如回调里)时不等待.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(DmBackendFactory backendFactory, DmSoftInitFunction initFunction) {
+        DmSoftWrapper dmSoft;
+        try {
+            dmSoft = new DmSoftWrapper(backendFactory.create());
+        } catch (Throwable e) {
+            terminate(e);
+            return;
+        }
+        try {
+            if (initFunction != null) {
+                initFunction.accept(dmSoft);
+            }
+        } catch (Throwable e) {
+            dmSoft.close();
+            terminate(e);
+            return;
+        }
+        ready.complete(dmSoft);
+        try {
+            loop(dmSoft);
+        } finally {
+            terminate(new IllegalStateException("大漠工作线程已经关闭"));
+            try {
+                dmSoft.close();
+            } catch (RuntimeException e) {
+                log.warn("关闭大漠对象失败", e);
+            }
+        }
+    }
+
+    private void loop(DmSoftWrapper dmSoft) {
+        while (true) {
+            Task<?> task = queue.poll();
+            if (task != null) {
+                pendingCount.decrementAndGet();
+                task.run(dmSoft);
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            // 先声明要挂起再检查一次队列, 避免错过挂起前刚放进来的任务
+            parked = true;
+            if (queue.isEmpty() && !closed) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+
+    private void terminate(Throwable cause) {
+        closed = true;
+        terminated = true;
+        ready.completeExceptionally(cause);
+        Task<?> task;
+        while ((task = queue.poll()) != null) {
+            pendingCount.decrementAndGet();
+            task.future.completeExceptionally(cause);
+        }
+    }
+
+    private static class Task<T> {
+        private final DmCall<T> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Task(DmCall<T> call) {
+            this.call = call;
+        }
+
+        void run(DmSoftWrapper dmSoft) {
+            // 调用方已经取消的任务不再执行
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(call.call(dmSoft));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
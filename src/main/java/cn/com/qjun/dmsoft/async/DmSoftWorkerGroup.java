@@ -0,0 +1,82 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.dmsoft.DmSoftInitFunction;
+import cn.com.qjun.dmsoft.backend.DmBackendFactory;
+import cn.com.qjun.dmsoft.backend.JacobDmBackend;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 一组大漠工作线程, 让大量轻量的任务共用少量大漠对象
+ * <p>
+ * 每次调用交给待执行调用最少的工作线程. 需要在同一个大漠对象上按顺序执行的调用(比如先绑定窗口再找图),
+ * 通过{@link #pin()}选定一个工作线程后提交, 或者放在同一个{@link DmCall}里.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftWorkerGroup implements DmCallExecutor, AutoCloseable {
+    private final DmSoftWorker[] workers;
+
+    public DmSoftWorkerGroup(int size, DmSoftInitFunction initFunction) {
+        this(size, JacobDmBackend::new, initFunction);
+    }
+
+    /**
+     * @param size           工作线程(大漠对象)个数
+     * @param backendFactory 调用后端的创建方式
+     * @param initFunction   大漠对象创建后的初始化逻辑, 可以为null
+     */
+    public DmSoftWorkerGroup(int size, @NonNull DmBackendFactory backendFactory, DmSoftInitFunction initFunction) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("工作线程个数必须大于0: " + size);
+        }
+        this.workers = new DmSoftWorker[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                workers[i] = new DmSoftWorker(backendFactory, initFunction);
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(@NonNull DmCall<T> call) {
+        return pin().submit(call);
+    }
+
+    /**
+     * @return 当前待执行调用最少的工作线程
+     */
+    public DmSoftWorker pin() {
+        DmSoftWorker selected = workers[0];
+        int min = selected.pendingCount();
+        for (int i = 1; i < workers.length && min > 0; i++) {
+            int pending = workers[i].pendingCount();
+            if (pending < min) {
+                min = pending;
+                selected = workers[i];
+            }
+        }
+        return selected;
+    }
+
+    public int size() {
+        return workers.length;
+    }
+
+    /**
+     * 关闭所有工作线程, 已经提交的调用会先执行完
+     */
+    @Override
+    public void close() {
+        for (DmSoftWorker worker : workers) {
+            if (worker != null) {
+                worker.close();
+            }
+        }
+    }
+}
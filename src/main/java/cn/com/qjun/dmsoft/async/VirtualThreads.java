@@ -0,0 +1,50 @@
+package cn.com.qjun.dmsoft.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 创建执行脚本任务的线程
+ * <p>
+ * 这是Java 8下的实现, 使用普通线程. 在JDK 21及以上运行时, 多版本jar中META-INF/versions/21下的同名类会替换这里的实现,
+ * 使用虚拟线程.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return 当前运行环境是否支持虚拟线程
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * @param thread 线程
+     * @return 是否是虚拟线程
+     */
+    public static boolean isVirtual(Thread thread) {
+        return false;
+    }
+
+    /**
+     * 创建每个任务一个线程的执行器
+     *
+     * @param namePrefix 线程名前缀
+     * @return 执行器, 支持虚拟线程时每个任务一个虚拟线程, 否则使用可复用的普通线程
+     */
+    public static ExecutorService newTaskExecutor(String namePrefix) {
+        AtomicInteger nextId = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + nextId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package cn.com.qjun.dmsoft.backend;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 每个线程的COM初始化状态, 以及依赖它的线程资源(比如复用的Variant)
+ * <p>
+ * ComThread.Release会释放当前线程上注册的所有Dispatch和Variant, 不只是某一个实例的. 所以每个线程记录在这个线程上创建、
+ * 还没有关闭的实例个数, {@link #acquire()}时加一, {@link #release(Owner)}时减一, 减到0时才释放COM,
+ * 关闭一个实例不会影响同一线程上创建的其它实例. 释放前先丢弃当前线程的资源,
+ * 之后这个线程再调用时重新初始化COM并重新创建资源, 不会用到已经释放的Variant.
+ * <p>
+ * ComThread.Release只能在创建实例的线程上执行. 在其它线程上关闭时只减少计数, 计数减到0也不释放,
+ * 等创建线程上之后的实例都关闭时再一起释放.
+ *
+ * @param <T> 线程资源的类型
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+final class ComThreadState<T> {
+    private final Runnable initializer;
+    private final Runnable releaser;
+    private final Supplier<T> resourceFactory;
+    private final ThreadLocal<Boolean> initialized = new ThreadLocal<>();
+    private final ThreadLocal<T> resources = new ThreadLocal<>();
+    private final ThreadLocal<Owner> owners = ThreadLocal.withInitial(() -> new Owner(Thread.currentThread()));
+
+    /**
+     * @param initializer     初始化当前线程的COM, 比如ComThread::InitMTA
+     * @param releaser        释放当前线程的COM, 比如ComThread::Release
+     * @param resourceFactory 在已经初始化COM的线程中创建资源
+     */
+    ComThreadState(Runnable initializer, Runnable releaser, Supplier<T> resourceFactory) {
+        this.initializer = initializer;
+        this.releaser = releaser;
+        this.resourceFactory = resourceFactory;
+    }
+
+    /**
+     * 创建实例时调用: 初始化当前线程的COM, 并把当前线程的实例个数加一
+     *
+     * @return 当前线程的计数, 关闭实例时传给{@link #release(Owner)}
+     */
+    Owner acquire() {
+        ensureInitialized();
+        Owner owner = owners.get();
+        owner.live.incrementAndGet();
+        return owner;
+    }
+
+    /**
+     * @return 当前线程的资源, 第一次使用或者释放COM后重新创建
+     */
+    T resources() {
+        T value = resources.get();
+        if (value == null) {
+            ensureInitialized();
+            value = resourceFactory.get();
+            resources.set(value);
+        }
+        return value;
+    }
+
+    /**
+     * 关闭实例时调用: 实例个数减一, 减到0并且当前线程就是创建线程时丢弃当前线程的资源, 然后释放当前线程的COM
+     *
+     * @param owner {@link #acquire()}的返回值
+     */
+    void release(Owner owner) {
+        if (owner.live.decrementAndGet() > 0 || Thread.currentThread() != owner.thread) {
+            return;
+        }
+        resources.remove();
+        if (initialized.get() != null) {
+            initialized.remove();
+            releaser.run();
+        }
+    }
+
+    private void ensureInitialized() {
+        if (initialized.get() == null) {
+            initializer.run();
+            initialized.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 一个线程上创建的、还没有关闭的实例个数
+     */
+    static final class Owner {
+        private final Thread thread;
+        private final AtomicInteger live = new AtomicInteger();
+
+        private Owner(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
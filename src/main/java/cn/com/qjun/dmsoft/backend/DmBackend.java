@@ -0,0 +1,49 @@
+package cn.com.qjun.dmsoft.backend;
+
+import cn.com.qjun.dmsoft.functions.FunctionArgs;
+
+/**
+ * 大漠函数的调用后端
+ * <p>
+ * 函数组只负责组装参数和解析结果, 真正的调用交给后端完成. 默认使用{@link JacobDmBackend}通过COM调用大漠插件,
+ * 在没有插件的环境(比如Linux上的CI)可以换成{@link InMemoryDmBackend}.
+ * <p>
+ * 后端从{@link FunctionArgs}读取参数, 调用完成后把返回值和输出参数写回同一个{@link FunctionArgs}.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public interface DmBackend extends AutoCloseable {
+
+    /**
+     * 把函数名解析成调用ID, 同一个后端实例内结果不变, 调用方可以缓存
+     *
+     * @param method 函数名
+     * @return 调用ID
+     */
+    int getIdOfName(String method);
+
+    /**
+     * 按调用ID调用大漠函数
+     *
+     * @param dispatchId 调用ID
+     * @param args       调用参数, 返回值和输出参数也写回这里
+     */
+    void invoke(int dispatchId, FunctionArgs args);
+
+    /**
+     * 按函数名调用大漠函数
+     *
+     * @param method 函数名
+     * @param args   调用参数, 返回值和输出参数也写回这里
+     */
+    default void invoke(String method, FunctionArgs args) {
+        invoke(getIdOfName(method), args);
+    }
+
+    /**
+     * 释放后端持有的资源
+     */
+    @Override
+    void close();
+}
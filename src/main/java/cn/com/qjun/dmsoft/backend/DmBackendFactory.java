@@ -0,0 +1,16 @@
+package cn.com.qjun.dmsoft.backend;
+
+/**
+ * 创建大漠函数调用后端, 每次调用返回一个新的后端实例
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface DmBackendFactory {
+
+    /**
+     * @return 新的后端实例
+     */
+    DmBackend create();
+}
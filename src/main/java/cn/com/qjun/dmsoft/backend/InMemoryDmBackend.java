@@ -0,0 +1,200 @@
+package cn.com.qjun.dmsoft.backend;
+
+import cn.com.qjun.dmsoft.functions.FunctionArgs;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 在进程内模拟大漠插件的后端, 不依赖COM和dll, 可以在任意平台运行
+ * <p>
+ * 每个函数的返回值和输出参数由预先设置的{@link Handler}决定, 还可以为每次调用加上固定的延迟来模拟插件的耗时.
+ * 用于在Linux上测试和压测实例管理、参数组装、结果解析等逻辑. 默认已经模拟了GetID、GetLastError和ReleaseRef,
+ * 其它未设置的函数被调用时抛出异常.
+ * <p>
+ * 函数名不区分大小写, 和COM的行为一致. 设置Handler和调用可以在不同线程中同时进行.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class InMemoryDmBackend implements DmBackend {
+    private static final AtomicLong NEXT_OBJECT_ID = new AtomicLong(1);
+
+    private final Map<String, Integer> idsOfNames = new ConcurrentHashMap<>();
+    private final Object registerLock = new Object();
+    /**
+     * 下标即调用ID, 只在注册新函数时整体替换
+     */
+    private volatile Entry[] entries = new Entry[0];
+    private volatile long latencyNanos;
+    private volatile boolean closed;
+
+    public InMemoryDmBackend() {
+        long objectId = NEXT_OBJECT_ID.getAndIncrement();
+        returning("GetID", objectId);
+        returning("GetLastError", 0);
+        returning("ReleaseRef", 1);
+    }
+
+    /**
+     * 设置函数的处理逻辑
+     *
+     * @param method  函数名
+     * @param handler 处理逻辑, 返回值作为函数的返回值, 输出参数通过{@link FunctionArgs#setOutInt(int, int)}写回
+     * @return 当前对象
+     */
+    public InMemoryDmBackend on(@NonNull String method, @NonNull Handler handler) {
+        entry(method).handler = handler;
+        return this;
+    }
+
+    /**
+     * 设置函数的固定返回值
+     *
+     * @param method 函数名
+     * @param result 返回值, 支持整数、小数、布尔、字符串和null
+     * @return 当前对象
+     */
+    public InMemoryDmBackend returning(@NonNull String method, Object result) {
+        return on(method, args -> result);
+    }
+
+    /**
+     * 设置每次调用的模拟耗时
+     *
+     * @param latency 耗时, 0表示不延迟
+     * @param unit    时间单位
+     * @return 当前对象
+     */
+    public InMemoryDmBackend latency(long latency, @NonNull TimeUnit unit) {
+        this.latencyNanos = unit.toNanos(latency);
+        return this;
+    }
+
+    /**
+     * @param method 函数名
+     * @return 函数被调用的次数
+     */
+    public long invocationCount(@NonNull String method) {
+        Integer dispatchId = idsOfNames.get(normalize(method));
+        return dispatchId == null ? 0L : entries[dispatchId].invocations.sum();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int getIdOfName(String method) {
+        return entry(method).dispatchId;
+    }
+
+    @Override
+    public void invoke(int dispatchId, FunctionArgs args) {
+        if (closed) {
+            throw new IllegalStateException("大漠对象已经关闭");
+        }
+        Entry[] current = entries;
+        if (dispatchId < 0 || dispatchId >= current.length) {
+            throw new RuntimeException(String.format("调用ID'%d'不存在.", dispatchId));
+        }
+        Entry entry = current[dispatchId];
+        Handler handler = entry.handler;
+        if (handler == null) {
+            throw new RuntimeException(String.format("未模拟大漠插件'%s'函数.", entry.method));
+        }
+        entry.invocations.increment();
+        simulateLatency();
+        setResult(args, handler.handle(args));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private Entry entry(String method) {
+        String key = normalize(method);
+        Integer dispatchId = idsOfNames.get(key);
+        if (dispatchId != null) {
+            return entries[dispatchId];
+        }
+        synchronized (registerLock) {
+            dispatchId = idsOfNames.get(key);
+            if (dispatchId != null) {
+                return entries[dispatchId];
+            }
+            Entry[] current = entries;
+            Entry entry = new Entry(current.length, method);
+            Entry[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[entry.dispatchId] = entry;
+            entries = updated;
+            idsOfNames.put(key, entry.dispatchId);
+            return entry;
+        }
+    }
+
+    private void simulateLatency() {
+        long nanos = latencyNanos;
+        if (nanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        while (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+            nanos = deadline - System.nanoTime();
+        }
+    }
+
+    private static void setResult(FunctionArgs args, Object result) {
+        if (result == null) {
+            args.setEmptyResult();
+        } else if (result instanceof Double || result instanceof Float) {
+            args.setResult(((Number) result).doubleValue());
+        } else if (result instanceof Number) {
+            args.setResult(((Number) result).longValue());
+        } else if (result instanceof Boolean) {
+            args.setResult((Boolean) result ? 1L : 0L);
+        } else if (result instanceof String) {
+            args.setResult((String) result);
+        } else {
+            throw new IllegalArgumentException("不支持的返回值类型: " + result.getClass().getName());
+        }
+    }
+
+    private static String normalize(String method) {
+        return method.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 模拟的函数处理逻辑
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * @param args 调用参数, 输出参数可以通过{@link FunctionArgs#setOutInt(int, int)}写回
+         * @return 函数返回值
+         */
+        Object handle(FunctionArgs args);
+    }
+
+    private static class Entry {
+        private final int dispatchId;
+        private final String method;
+        private final LongAdder invocations = new LongAdder();
+        private volatile Handler handler;
+
+        Entry(int dispatchId, String method) {
+            this.dispatchId = dispatchId;
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package cn.com.qjun.dmsoft.backend;
+
+import cn.com.qjun.dmsoft.functions.FunctionArgs;
+import cn.com.qjun.dmsoft.utils.NativeLibraryCache;
+import cn.com.qjun.dmsoft.utils.RuntimeUtils;
+import com.jacob.activeX.ActiveXComponent;
+import com.jacob.com.ComThread;
+import com.jacob.com.Dispatch;
+import com.jacob.com.LibraryLoader;
+import com.jacob.com.Variant;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过Jacob以COM方式调用大漠插件的后端
+ * <p>
+ * 参数转换用的Variant按线程复用, 每次调用只重置其中的值, 不创建新的Variant.
+ * 创建实例时会在当前线程初始化COM(MTA), 其它线程第一次通过它调用时也会初始化COM,
+ * 所以同一个实例可以交给其它线程使用(比如对象池). 创建线程上的实例全部关闭后才释放这个线程的COM,
+ * 关闭一个实例不会影响同一线程上创建的其它实例. 释放前先丢弃这个线程复用的Variant,
+ * 之后在这个线程上创建的实例会重新初始化COM和Variant, 见{@link ComThreadState}.
+ * <p>
+ * Jacob和大漠的dll在第一次创建实例时从jar中释放到{@link NativeLibraryCache}并加载.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class JacobDmBackend implements DmBackend {
+    private static final int INVOKE_FLAGS = Dispatch.Method | Dispatch.Get;
+    private static final ComThreadState<VariantSlots> COM_THREAD = new ComThreadState<>(ComThread::InitMTA, ComThread::Release, VariantSlots::new);
+
+    private final ActiveXComponent component;
+    private final ComThreadState.Owner comOwner;
+
+    public JacobDmBackend() {
+        NativeLibraries.load();
+        ComThreadState.Owner owner = COM_THREAD.acquire();
+        try {
+            this.component = new ActiveXComponent("dm.dmsoft");
+        } catch (RuntimeException e) {
+            COM_THREAD.release(owner);
+            throw e;
+        }
+        this.comOwner = owner;
+    }
+
+    @Override
+    public int getIdOfName(String method) {
+        return Dispatch.getIDOfName(component, method);
+    }
+
+    @Override
+    public void invoke(int dispatchId, FunctionArgs args) {
+        VariantSlots slots = COM_THREAD.resources();
+        int size = args.size();
+        Variant[] variants = slots.fill(args);
+        Variant result = Dispatch.invokev(component, dispatchId, INVOKE_FLAGS, variants, slots.argErrors);
+        for (int i = 0; i < size; i++) {
+            if (args.type(i) == FunctionArgs.Type.OUT_INT) {
+                args.setOutInt(i, variants[i].getInt());
+            }
+        }
+        readResult(result, args);
+    }
+
+    @Override
+    public void close() {
+        this.component.safeRelease();
+        COM_THREAD.release(comOwner);
+    }
+
+    private static void readResult(Variant result, FunctionArgs args) {
+        if (result == null) {
+            args.setEmptyResult();
+            return;
+        }
+        switch (result.getvt()) {
+            case Variant.VariantEmpty:
+            case Variant.VariantNull:
+                args.setEmptyResult();
+                break;
+            case Variant.VariantString:
+                args.setResult(result.getString());
+                break;
+            case Variant.VariantDouble:
+                args.setResult(result.getDouble());
+                break;
+            case Variant.VariantFloat:
+                args.setResult(result.getFloat());
+                break;
+            case Variant.VariantLongInt:
+                args.setResult(result.getLong());
+                break;
+            case Variant.VariantBoolean:
+                args.setResult(result.getBoolean() ? 1L : 0L);
+                break;
+            default:
+                args.setResult(result.getInt());
+        }
+        result.safeRelease();
+    }
+
+    /**
+     * 当前线程复用的Variant数组, 只在已经初始化COM的线程中创建
+     */
+    private static class VariantSlots {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Variant[] slots = new Variant[0];
+        /**
+         * views[n]是slots前n个元素组成的数组, 调用时按参数个数直接取用, 避免每次调用都复制数组
+         */
+        private Variant[][] views;
+        private int[] argErrors;
+
+        VariantSlots() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        Variant[] fill(FunctionArgs args) {
+            int size = args.size();
+            if (size > slots.length) {
+                allocate(Math.max(size, slots.length * 2));
+            }
+            for (int i = 0; i < size; i++) {
+                Variant variant = slots[i];
+                switch (args.type(i)) {
+                    case INT:
+                        variant.putInt((int) args.longValue(i));
+                        break;
+                    case LONG:
+                        variant.putLong(args.longValue(i));
+                        break;
+                    case FLOAT:
+                        variant.putFloat((float) args.doubleValue(i));
+                        break;
+                    case DOUBLE:
+                        variant.putDouble(args.doubleValue(i));
+                        break;
+                    case STRING:
+                        variant.putString(args.stringValue(i));
+                        break;
+                    case OUT_INT:
+                        variant.putIntRef((int) args.longValue(i));
+                        break;
+                    default:
+                        variant.putEmpty();
+                }
+            }
+            return views[size];
+        }
+
+        private void allocate(int capacity) {
+            int oldCapacity = slots.length;
+            slots = Arrays.copyOf(slots, capacity);
+            for (int i = oldCapacity; i < capacity; i++) {
+                slots[i] = new Variant();
+            }
+            argErrors = new int[capacity];
+            views = new Variant[capacity + 1][];
+            for (int i = 0; i <= capacity; i++) {
+                views[i] = Arrays.copyOf(slots, i);
+            }
+        }
+    }
+
+    /**
+     * 第一次创建实例时才释放和加载dll, 只使用模拟后端时不会触发
+     */
+    private static final class NativeLibraries {
+        static {
+            long start = System.nanoTime();
+            NativeLibraryCache cache = NativeLibraryCache.getDefault();
+            try {
+                Properties versions = RuntimeUtils.readProperties("/version.properties");
+                String jacobDllName = "jacob-" + versions.getProperty("jacob.version") + "-x86";
+                Path jacobDll = extract(cache, "/" + jacobDllName + ".dll", jacobDllName, ".dll");
+                System.setProperty(LibraryLoader.JACOB_DLL_PATH, jacobDll.toAbsolutePath().toString());
+                LibraryLoader.loadJacobLibrary();
+
+                Path dmDll = extract(cache, "/win32-x86/dm.dll", "dm", ".dll");
+                DmReg.INSTANCE.SetDllPathA(dmDll.toAbsolutePath().toString(), 1);
+            } catch (IOException e) {
+                throw new RuntimeException("Library release fail.", e);
+            }
+            log.info("加载本地库完成, 耗时{}ms, 缓存目录: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), cache.getCacheDir());
+        }
+
+        static void load() {
+            // 触发类初始化
+        }
+
+        /**
+         * 优先使用持久化缓存, 缓存目录不可写(比如权限不足, 或者旧文件被其它进程占用无法替换)时退回到释放到临时目录
+         */
+        private static Path extract(NativeLibraryCache cache, String resourcePath, String prefix, String suffix) throws IOException {
+            try {
+                return cache.extract(resourcePath, prefix + suffix);
+            } catch (IOException e) {
+                log.warn("释放本地库到缓存目录失败, 改为释放到临时目录: {}", resourcePath, e);
+                return RuntimeUtils.releaseFileToTempDir(resourcePath, prefix, suffix);
+            }
+        }
+    }
+
+    private interface DmReg extends Library {
+        DmReg INSTANCE = Native.load("DmReg", DmReg.class);
+
+        /**
+         * 加载大漠插件
+         *
+         * @param dllPath dm.dll路径
+         * @param mode    0表示STA，1表示MTA
+         */
+        void SetDllPathA(String dllPath, int mode);
+    }
+}
@@ -1,11 +1,10 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.jfr.DmFlightRecorder;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Objects;
 import java.util.function.BiFunction;
@@ -15,32 +14,49 @@ import java.util.function.BiFunction;
  * @date 2025/11/23
  */
 @Slf4j
-@RequiredArgsConstructor
 public abstract class AbstractDmFunctions {
-    @NonNull
-    protected final ActiveXComponent dmSoft;
+    protected final DmBackend backend;
+    private final DispatchIdCache dispatchIds;
+    private final DmCallMetrics metrics;
 
-    protected Variant call(String method) {
-        Variant result = dmSoft.invoke(method);
-        if (log.isDebugEnabled()) {
-            log.debug("调用大漠函数完成: 函数名={}, 返回值={}", method, result);
-        }
-        return result;
+    protected AbstractDmFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        this.backend = backend;
+        this.dispatchIds = new DispatchIdCache(backend::getIdOfName);
+        this.metrics = metrics;
+    }
+
+    protected FunctionArgs call(String method) {
+        return call(method, FunctionArgs.begin());
     }
 
-    protected Variant call(String method, FunctionArgs args) {
-        if (ArrayUtils.isEmpty(args.variants())) {
-            return call(method);
+    /**
+     * 按缓存的调用ID调用大漠函数, 省去每次调用时的函数名解析. 同时按函数名记录调用次数和耗时, 并提交JFR事件.
+     *
+     * @return 传入的参数对象, 返回值和输出参数已经写入
+     */
+    protected FunctionArgs call(String method, FunctionArgs args) {
+        int dispatchId = dispatchIds.get(method);
+        Object event = DmFlightRecorder.beginCall();
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
+        boolean success = false;
+        try {
+            backend.invoke(dispatchId, args);
+            success = true;
+        } finally {
+            if (timed) {
+                metrics.record(method, System.nanoTime() - start, success);
+            }
+            DmFlightRecorder.endCall(event, method, args.size(), metrics.getDmSoftId(), success);
         }
-        Variant result = dmSoft.invoke(method, args.variants());
         if (log.isDebugEnabled()) {
-            log.debug("调用大漠函数完成: 函数名={}, 参数={}, 返回值={}", method, args.variants(), result);
+            log.debug("调用大漠函数完成: 函数名={}, 参数={}, 返回值类型={}", method, args, args.resultType());
         }
-        return result;
+        return args;
     }
 
     protected long callForLong(String method, FunctionArgs args) {
-        return call(method, args).getInt();
+        return call(method, args).resultAsLong();
     }
 
     protected boolean callForBool(String method, FunctionArgs args) {
@@ -48,34 +64,55 @@ public abstract class AbstractDmFunctions {
     }
 
     protected double callForDouble(String method, FunctionArgs args) {
-        return call(method, args).getDouble();
+        return call(method, args).resultAsDouble();
     }
 
     protected float callForFloat(String method, FunctionArgs args) {
-        return call(method, args).getFloat();
+        return (float) call(method, args).resultAsDouble();
     }
 
     protected String callForString(String method, FunctionArgs args) {
-        return call(method, args).getString();
+        return call(method, args).resultAsString();
     }
 
     protected void callExpect1(String method, FunctionArgs args) {
-        callAndValidateResult(this::callForLong, 1L, method, args);
+        long result = callForLong(method, args);
+        if (result != 1L) {
+            throw callFailure(method, result);
+        }
     }
 
     protected <T> void callAndValidateResult(BiFunction<String, FunctionArgs, T> callFun, T expectResult, String method, FunctionArgs args) {
         T result = callFun.apply(method, args);
         if (!Objects.equals(result, expectResult)) {
-            long errorCode = getLastError();
-            if (errorCode != 0) {
-                throw new RuntimeException(String.format("调用大漠插件'%s'函数失败, 错误码: %d.", method, errorCode));
-            } else {
-                throw new RuntimeException(String.format("调用大漠插件'%s'函数结果为: '%s'不符合预期, 但未获取到错误码.", method, result.toString()));
-            }
+            throw callFailure(method, result);
+        }
+    }
+
+    /**
+     * 所属的大漠对象关闭时调用, 在释放插件对象之前. 持有插件缓冲区等状态的函数组在这里作废这些状态.
+     */
+    public void onClose() {
+    }
+
+    /**
+     * @return 所属大漠对象的ID
+     */
+    protected long dmSoftId() {
+        return metrics.getDmSoftId();
+    }
+
+    private RuntimeException callFailure(String method, Object result) {
+        metrics.recordFailure(method);
+        long errorCode = getLastError();
+        if (errorCode != 0) {
+            return new RuntimeException(String.format("调用大漠插件'%s'函数失败, 错误码: %d.", method, errorCode));
+        } else {
+            return new RuntimeException(String.format("调用大漠插件'%s'函数结果为: '%s'不符合预期, 但未获取到错误码.", method, result));
         }
     }
 
     private long getLastError() {
-        return call("GetLastError").getInt();
+        return call("GetLastError").resultAsLong();
     }
 }
@@ -0,0 +1,59 @@
+package cn.com.qjun.dmsoft.functions;
+
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * 大漠函数名到DISPID的缓存
+ * <p>
+ * 按函数名调用时, 每次都要经过GetIDsOfNames把函数名解析成DISPID. 大漠对象的函数表在对象的生命周期内不会变化,
+ * 所以每个函数名只需要解析一次, 之后直接按DISPID调用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DispatchIdCache {
+    private final ToIntFunction<String> resolver;
+    private final ConcurrentMap<String, Integer> dispatchIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param resolver 函数名解析器, 缓存未命中时调用, 一般为GetIDsOfNames
+     */
+    public DispatchIdCache(@NonNull ToIntFunction<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * 获取函数名对应的DISPID, 第一次获取时解析并缓存
+     *
+     * @param method 函数名
+     * @return DISPID
+     */
+    public int get(String method) {
+        Integer dispatchId = dispatchIds.get(method);
+        if (dispatchId == null) {
+            dispatchId = dispatchIds.computeIfAbsent(method, resolver::applyAsInt);
+        }
+        return dispatchId;
+    }
+
+    /**
+     * 预先解析一批函数名, 避免首次调用时的解析开销
+     *
+     * @param methods 函数名集合
+     */
+    public void preload(Collection<String> methods) {
+        methods.forEach(this::get);
+    }
+
+    /**
+     * @return 已缓存的函数名个数
+     */
+    public int size() {
+        return dispatchIds.size();
+    }
+}
@@ -1,11 +1,12 @@
 package cn.com.qjun.dmsoft.functions;
 
 import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
 import cn.com.qjun.dmsoft.model.MemoryInfo;
 import cn.com.qjun.dmsoft.utils.DirectMemoryUtils;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
 import lombok.NonNull;
 
 /**
@@ -16,8 +17,8 @@ import lombok.NonNull;
  */
 public class DmAiFunctions extends AbstractDmFunctions {
 
-    public DmAiFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmAiFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -33,8 +34,20 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @return 检测到的对象列表
      */
     public FindResult aiYoloDetectObjects(Rect rect, float prob, float iou) {
-        String result = callForString("AiYoloDetectObjects", FunctionArgs.of(rect, prob, iou));
-        return DmResultParser.parseFindResult(result, parts -> new FindResult.Item(parts[0], Integer.parseInt(parts[1]), Rect.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]))));
+        return aiYoloDetectObjectsResults(rect, prob, iou).toFindResult();
+    }
+
+    /**
+     * 同{@link #aiYoloDetectObjects(Rect, float, float)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect 查找区域
+     * @param prob 置信度,也可以认为是相似度. 超过这个prob的对象才会被检测
+     * @param iou  用于对多个检测框进行合并.  越大越不容易合并(很多框重叠). 越小越容易合并(可能会把正常的框也给合并). 所以这个值一般建议0.4-0.6之间.
+     * @return 检测到的对象列表
+     */
+    public FindResults aiYoloDetectObjectsResults(Rect rect, float prob, float iou) {
+        String result = callForString("AiYoloDetectObjects", FunctionArgs.begin().add(rect).add(prob).add(iou));
+        return DmResultParser.readLabeledRects(result);
     }
 
     /**
@@ -48,10 +61,22 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @return 排序后的识别结果
      */
     public FindResult aiYoloDetectObjectsAndSort(Rect rect, float prob, float iou, int lineHeight) {
-        String result = callForString("AiYoloDetectObjects", FunctionArgs.of(rect, prob, iou));
-        String sortedResult = callForString("AiYoloSortsObjects", FunctionArgs.of(result, lineHeight));
-        return DmResultParser.parseFindResult(sortedResult, parts ->
-                new FindResult.Item(parts[0], Integer.parseInt(parts[1]), Rect.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]))));
+        return aiYoloDetectObjectsAndSortResults(rect, prob, iou, lineHeight).toFindResult();
+    }
+
+    /**
+     * 同{@link #aiYoloDetectObjectsAndSort(Rect, float, float, int)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect       查找区域
+     * @param prob       置信度,也可以认为是相似度. 超过这个prob的对象才会被检测
+     * @param iou        用于对多个检测框进行合并.  越大越不容易合并(很多框重叠). 越小越容易合并(可能会把正常的框也给合并). 所以这个值一般建议0.4-0.6之间.
+     * @param lineHeight 行高信息. 排序时需要使用此行高. 用于确定两个检测框是否处于同一行. 如果两个框的Y坐标相差绝对值小于此行高,认为是同一行.
+     * @return 排序后的识别结果
+     */
+    public FindResults aiYoloDetectObjectsAndSortResults(Rect rect, float prob, float iou, int lineHeight) {
+        String result = callForString("AiYoloDetectObjects", FunctionArgs.begin().add(rect).add(prob).add(iou));
+        String sortedResult = callForString("AiYoloSortsObjects", FunctionArgs.begin().add(result).add(lineHeight));
+        return DmResultParser.readLabeledRects(sortedResult);
     }
 
     /**
@@ -68,9 +93,24 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @return 图片在内存中的信息
      */
     public MemoryInfo aiYoloDetectObjectsToDataBmp(Rect rect, float prob, float iou, boolean drawProb) {
-        FunctionArgs args = FunctionArgs.of(rect, prob, iou, new Variant(0, true), new Variant(0, true), drawProb);
+        MemoryInfo out = new MemoryInfo();
+        aiYoloDetectObjectsToDataBmp(rect, prob, iou, drawProb, out);
+        return out;
+    }
+
+    /**
+     * 同{@link #aiYoloDetectObjectsToDataBmp(Rect, float, float, boolean)}, 图片的内存信息写入调用方提供的输出对象
+     *
+     * @param rect     查找区域
+     * @param prob     置信度,也可以认为是相似度. 超过这个prob的对象才会被检测
+     * @param iou      用于对多个检测框进行合并. 一般建议0.4-0.6之间.
+     * @param drawProb 绘制的文字信息里是否包含置信度
+     * @param out      图片在内存中的信息写入此对象, 可以在多次调用间复用
+     */
+    public void aiYoloDetectObjectsToDataBmp(Rect rect, float prob, float iou, boolean drawProb, MemoryInfo out) {
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(prob).add(iou).addOutInt().addOutInt().add(drawProb);
         callExpect1("AiYoloDetectObjectsToDataBmp", args);
-        return args.getMemoryInfo(-3, -2);
+        args.getMemoryInfo(-3, -2, out);
     }
 
     /**
@@ -84,7 +124,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @param drawProb 绘制的文字信息里是否包含置信度
      */
     public void aiYoloDetectObjectsToFile(Rect rect, float prob, float iou, String file, boolean drawProb) {
-        callExpect1("AiYoloDetectObjectsToFile", FunctionArgs.of(rect, prob, iou, file, drawProb));
+        callExpect1("AiYoloDetectObjectsToFile", FunctionArgs.begin().add(rect).add(prob).add(iou).add(file).add(drawProb));
     }
 
     /**
@@ -95,7 +135,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @param index 模型的序号. 最多支持20个. 从0开始
      */
     public void aiYoloFreeModel(int index) {
-        callExpect1("AiYoloFreeModel", FunctionArgs.of(index));
+        callExpect1("AiYoloFreeModel", FunctionArgs.begin().add(index));
     }
 
     /**
@@ -109,7 +149,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @param pwd   模型的密码. 仅对dmx格式有效.
      */
     public void aiYoloSetModel(int index, String file, String pwd) {
-        callExpect1("AiYoloSetModel", FunctionArgs.of(index, file, pwd));
+        callExpect1("AiYoloSetModel", FunctionArgs.begin().add(index).add(file).add(pwd));
     }
 
     /**
@@ -123,7 +163,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      */
     public void aiYoloSetModelMemory(int index, byte[] modelData, String pwd) {
         DirectMemoryUtils.loadToMemAndConsume(modelData, memoryInfo ->
-                callExpect1("AiYoloSetModelMemory", FunctionArgs.of(index, memoryInfo, pwd)));
+                callExpect1("AiYoloSetModelMemory", FunctionArgs.begin().add(index).add(memoryInfo).add(pwd)));
     }
 
     /**
@@ -132,7 +172,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @param ver Yolo的版本信息. 需要在加载Ai模块后,第一时间调用. 目前可选的值只有"v5-7.0"
      */
     public void aiYoloSetVersion(String ver) {
-        callExpect1("AiYoloSetVersion", FunctionArgs.of(ver));
+        callExpect1("AiYoloSetVersion", FunctionArgs.begin().add(ver));
     }
 
     /**
@@ -141,7 +181,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * @param index 模型的序号. 最多支持20个. 从0开始
      */
     public void aiYoloUseModel(int index) {
-        callExpect1("AiYoloUseModel", FunctionArgs.of(index));
+        callExpect1("AiYoloUseModel", FunctionArgs.begin().add(index));
     }
 
     /**
@@ -157,7 +197,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      * -6 内存分配失败
      */
     public int loadAi(String file) {
-        return (int) callForLong("LoadAi", FunctionArgs.of(file));
+        return (int) callForLong("LoadAi", FunctionArgs.begin().add(file));
     }
 
     /**
@@ -174,6 +214,7 @@ public class DmAiFunctions extends AbstractDmFunctions {
      */
     public int loadAiMemory(byte[] modelData) {
         return DirectMemoryUtils.loadToMemAndApply(modelData, memoryInfo ->
-                (int) callForLong("LoadAiMemory", FunctionArgs.of(memoryInfo)));
+                (int) callForLong("LoadAiMemory", FunctionArgs.begin().add(memoryInfo)));
     }
+
 }
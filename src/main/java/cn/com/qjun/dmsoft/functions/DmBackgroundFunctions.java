@@ -1,10 +1,11 @@
 package cn.com.qjun.dmsoft.functions;
 
 import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.backend.DmBackend;
 import cn.com.qjun.dmsoft.enums.DisplayMode;
 import cn.com.qjun.dmsoft.enums.KeypadMode;
 import cn.com.qjun.dmsoft.enums.MouseMode;
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
 
 /**
@@ -15,8 +16,8 @@ import lombok.NonNull;
  */
 public class DmBackgroundFunctions extends AbstractDmFunctions {
 
-    public DmBackgroundFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmBackgroundFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -65,7 +66,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      *                鼠标指向一个可以输入文字的窗口，比如一个文本框，最好能激活这个文本框，这样可以保证绑定的成功.
      */
     public void bindWindow(long hwnd, DisplayMode display, MouseMode mouse, KeypadMode keypad, int mode) {
-        callExpect1("BindWindow", FunctionArgs.of(hwnd, display, mouse, keypad, mode));
+        callExpect1("BindWindow", FunctionArgs.begin().add(hwnd).add(display).add(mouse).add(keypad).add(mode));
     }
 
     /**
@@ -171,7 +172,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      *                         需要注意的是: 模式101 103在大部分窗口下绑定都没问题。但也有少数特殊的窗口，比如有很多子窗口的窗口，对于这种窗口，在绑定时，一定要把鼠标指向一个可以输入文字的窗口，比如一个文本框，最好能激活这个文本框，这样可以保证绑定的成功.
      */
     public void bindWindowEx(long hwnd, String display, String mouse, String keypad, String publicProperties, int mode) {
-        callExpect1("BindWindowEx", FunctionArgs.of(hwnd, display, mouse, keypad, publicProperties, mode));
+        callExpect1("BindWindowEx", FunctionArgs.begin().add(hwnd).add(display).add(mouse).add(keypad).add(publicProperties).add(mode));
     }
 
     /**
@@ -185,7 +186,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param rate 取值取决于type. 为0表示关闭
      */
     public void downCpu(int type, int rate) {
-        callExpect1("DownCpu", FunctionArgs.of(type, rate));
+        callExpect1("DownCpu", FunctionArgs.begin().add(type).add(rate));
     }
 
     /**
@@ -201,7 +202,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      *               5 同0，也是全部关闭，但是这个模式下，就算窗口在前后台切换时，属性dx.public.active.message的效果也一样不会失效.
      */
     public void enableBind(int enable) {
-        callExpect1("EnableBind", FunctionArgs.of(enable));
+        callExpect1("EnableBind", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -217,7 +218,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableFakeActive(boolean enable) {
-        callExpect1("EnableFakeActive", FunctionArgs.of(enable));
+        callExpect1("EnableFakeActive", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -228,7 +229,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableIme(boolean enable) {
-        callExpect1("EnableIme", FunctionArgs.of(enable));
+        callExpect1("EnableIme", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -239,7 +240,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableKeypadMsg(boolean enable) {
-        callExpect1("EnableKeypadMsg", FunctionArgs.of(enable));
+        callExpect1("EnableKeypadMsg", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -250,7 +251,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableKeypadPatch(boolean enable) {
-        callExpect1("EnableKeypadPatch", FunctionArgs.of(enable));
+        callExpect1("EnableKeypadPatch", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -264,7 +265,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param timeoutMills 位是毫秒,表示同步等待的最大时间.
      */
     public void enableKeypadSync(boolean enable, long timeoutMills) {
-        callExpect1("EnableKeypadSync", FunctionArgs.of(enable, timeoutMills));
+        callExpect1("EnableKeypadSync", FunctionArgs.begin().add(enable).add(timeoutMills));
     }
 
     /**
@@ -275,7 +276,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableMouseMsg(boolean enable) {
-        callExpect1("EnableMouseMsg", FunctionArgs.of(enable));
+        callExpect1("EnableMouseMsg", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -289,7 +290,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param timeoutMills 单位是毫秒,表示同步等待的最大时间.
      */
     public void enableMouseSync(boolean enable, long timeoutMills) {
-        callExpect1("EnableMouseSync", FunctionArgs.of(enable, timeoutMills));
+        callExpect1("EnableMouseSync", FunctionArgs.begin().add(enable).add(timeoutMills));
     }
 
     /**
@@ -302,7 +303,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableRealKeypad(boolean enable) {
-        callExpect1("EnableRealKeypad", FunctionArgs.of(enable));
+        callExpect1("EnableRealKeypad", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -321,7 +322,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param mouseStep       表示在模拟鼠标移动轨迹时,每移动一次的距离. 这个值越大，鼠标移动越快速.
      */
     public void enableRealMouse(int enable, long mouseDelayMills, int mouseStep) {
-        callExpect1("EnableRealMouse", FunctionArgs.of(enable, mouseDelayMills, mouseStep));
+        callExpect1("EnableRealMouse", FunctionArgs.begin().add(enable).add(mouseDelayMills).add(mouseStep));
     }
 
     /**
@@ -334,7 +335,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableSpeedDx(boolean enable) {
-        callExpect1("EnableSpeedDx", FunctionArgs.of(enable));
+        callExpect1("EnableSpeedDx", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -348,7 +349,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param hwnd 需要强制解除绑定的窗口句柄.
      */
     public void forceUnBindWindow(long hwnd) {
-        callExpect1("ForceUnBindWindow", FunctionArgs.of(hwnd));
+        callExpect1("ForceUnBindWindow", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -357,7 +358,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @return 窗口句柄
      */
     public long getBindWindow() {
-        return callForLong("GetBindWindow", FunctionArgs.of());
+        return callForLong("GetBindWindow", FunctionArgs.begin());
     }
 
     /**
@@ -368,7 +369,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @return fps
      */
     public int getFps() {
-        return (int) callForLong("GetFps", FunctionArgs.of());
+        return (int) callForLong("GetFps", FunctionArgs.begin());
     }
 
     /**
@@ -379,7 +380,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param rate 取值范围大于0. 默认是1.0 表示不加速，也不减速. 小于1.0表示减速,大于1.0表示加速. 精度为小数点后1位. 也就是说1.5 和 1.56其实是一样的.
      */
     public void hackSpeed(double rate) {
-        callExpect1("HackSpeed", FunctionArgs.of(rate));
+        callExpect1("HackSpeed", FunctionArgs.begin().add(rate));
     }
 
     /**
@@ -389,7 +390,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @return false-没绑定,或者窗口不存在. true-已经绑定.
      */
     public boolean isBind(long hwnd) {
-        long result = callForLong("IsBind", FunctionArgs.of(hwnd));
+        long result = callForLong("IsBind", FunctionArgs.begin().add(hwnd));
         return result == 1;
     }
 
@@ -401,7 +402,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param lock 是否锁定
      */
     public void lockDisplay(boolean lock) {
-        callExpect1("LockDisplay", FunctionArgs.of(lock));
+        callExpect1("LockDisplay", FunctionArgs.begin().add(lock));
     }
 
     /**
@@ -420,7 +421,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      *             5同3,但当您发现某些特殊按键无法锁定时,比如(回车，ESC等)，那就用这个模式吧. 但此模式会让SendString函数后台失效，或者采用和SendString类似原理发送字符串的其他3方函数失效.
      */
     public void lockInput(int lock) {
-        callExpect1("LockInput", FunctionArgs.of(lock));
+        callExpect1("LockInput", FunctionArgs.begin().add(lock));
     }
 
     /**
@@ -431,7 +432,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param rect 锁定的区域
      */
     public void lockMouseRect(Rect rect) {
-        callExpect1("LockMouseRect", FunctionArgs.of(rect));
+        callExpect1("LockMouseRect", FunctionArgs.begin().add(rect));
     }
 
     /**
@@ -442,7 +443,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void setAero(boolean enable) {
-        callExpect1("SetAero", FunctionArgs.of(enable));
+        callExpect1("SetAero", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -454,7 +455,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param mills 等待时间，单位是毫秒。 注意这里不能设置的过小，否则可能会导致截图失败,从而导致图色函数和文字识别失败.
      */
     public void setDisplayDelay(long mills) {
-        callExpect1("SetDisplayDelay", FunctionArgs.of(mills));
+        callExpect1("SetDisplayDelay", FunctionArgs.begin().add(mills));
     }
 
     /**
@@ -473,7 +474,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param mills 等待时间，单位是毫秒。 这个值越小,强制刷新的越频繁，相应的窗口可能会导致闪烁.
      */
     public void setDisplayRefreshDelay(long mills) {
-        callExpect1("SetDisplayRefreshDelay", FunctionArgs.of(mills));
+        callExpect1("SetDisplayRefreshDelay", FunctionArgs.begin().add(mills));
     }
 
     /**
@@ -499,7 +500,7 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param ry   两个对象绑定的窗口的左上角坐标的y偏移. 是用dm_id对应的窗口的左上角y坐标减去当前窗口左上角坐标的y坐标. 一般是0
      */
     public void setInputDm(long dmId, int rx, int ry) {
-        callExpect1("SetInputDm", FunctionArgs.of(dmId, rx, ry));
+        callExpect1("SetInputDm", FunctionArgs.begin().add(dmId).add(rx).add(ry));
     }
 
     /**
@@ -510,13 +511,13 @@ public class DmBackgroundFunctions extends AbstractDmFunctions {
      * @param hwnd 需要切换过去的窗口句柄
      */
     public void switchBindWindow(long hwnd) {
-        callExpect1("SwitchBindWindow", FunctionArgs.of(hwnd));
+        callExpect1("SwitchBindWindow", FunctionArgs.begin().add(hwnd));
     }
 
     /**
      * 解除绑定窗口,并释放系统资源.一般在OnScriptExit调用
      */
     public void unBindWindow() {
-        callExpect1("UnBindWindow", FunctionArgs.of());
+        callExpect1("UnBindWindow", FunctionArgs.begin());
     }
 }
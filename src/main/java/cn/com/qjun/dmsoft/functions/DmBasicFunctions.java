@@ -1,6 +1,7 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
 
 /**
@@ -8,8 +9,8 @@ import lombok.NonNull;
  * @date 2025/12/5
  */
 public class DmBasicFunctions extends AbstractDmFunctions {
-    public DmBasicFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmBasicFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -18,14 +19,14 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @param enable 是否打开
      */
     public void enablePicCache(boolean enable) {
-        callExpect1("EnablePicCache", FunctionArgs.of(enable ? 1 : 0));
+        callExpect1("EnablePicCache", FunctionArgs.begin().add(enable ? 1 : 0));
     }
 
     /**
      * 获取注册在系统中的dm.dll的路径.
      */
     public void getBasePath() {
-        callExpect1("GetBasePath", FunctionArgs.of());
+        callExpect1("GetBasePath", FunctionArgs.begin());
     }
 
     /**
@@ -34,7 +35,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @return 个数
      */
     public long getDmCount() {
-        return callForLong("GetDmCount", FunctionArgs.of());
+        return callForLong("GetDmCount", FunctionArgs.begin());
     }
 
     /**
@@ -43,7 +44,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @return 当前对象的ID值.
      */
     public long getId() {
-        return callForLong("GetID", FunctionArgs.of());
+        return callForLong("GetID", FunctionArgs.begin());
     }
 
     /**
@@ -91,7 +92,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * -202 : AsmCall平台兼容问题.联系我解决.
      */
     public long getLastError() {
-        return callForLong("GetLastError", FunctionArgs.of());
+        return callForLong("GetLastError", FunctionArgs.begin());
     }
 
     /**
@@ -100,7 +101,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @return 以字符串的形式返回当前设置的全局路径
      */
     public String getPath() {
-        return callForString("GetPath", FunctionArgs.of());
+        return callForString("GetPath", FunctionArgs.begin());
     }
 
     /**
@@ -136,7 +137,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      *                不可留空. 长度不能超过20. 并且只能包含数字和字母以及小数点. 这个版本信息不是插件版本。而是在网站www.52hsxx.com获取到的附加码.
      */
     public void reg(String regCode, String addCode) {
-        callExpect1("Reg", FunctionArgs.of(regCode, addCode));
+        callExpect1("Reg", FunctionArgs.begin().add(regCode).add(addCode));
     }
 
     /**
@@ -174,7 +175,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      *                比如"1.xxx.com|2.xxx.com"。1.xxx.com和2.xxx.com是自己的域名,解析到我的IP即可.
      */
     public void regEx(String regCode, String addCode, String ip) {
-        callExpect1("RegEx", FunctionArgs.of(regCode, addCode, ip));
+        callExpect1("RegEx", FunctionArgs.begin().add(regCode).add(addCode).add(ip));
     }
 
     /**
@@ -213,7 +214,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      *                比如"1.xxx.com|2.xxx.com"。1.xxx.com和2.xxx.com是自己的域名,解析到我的IP即可.
      */
     public void regExNoMac(String regCode, String addCode, String ip) {
-        callExpect1("RegExNoMac", FunctionArgs.of(regCode, addCode, ip));
+        callExpect1("RegExNoMac", FunctionArgs.begin().add(regCode).add(addCode).add(ip));
     }
 
     /**
@@ -248,7 +249,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      *                长度不能超过20. 并且只能包含数字和字母以及小数点. 这个版本信息不是插件版本.而是附加码.
      */
     public void regNoMac(String regCode, String addCode) {
-        callExpect1("RegNoMac", FunctionArgs.of(regCode, addCode));
+        callExpect1("RegNoMac", FunctionArgs.begin().add(regCode).add(addCode));
     }
 
     /**
@@ -265,7 +266,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      *             比如文字识别 查找图片 颜色 等等一切图色函数.
      */
     public void setDisplayInput(String mode) {
-        callExpect1("SetDisplayInput", FunctionArgs.of(mode));
+        callExpect1("SetDisplayInput", FunctionArgs.begin().add(mode));
     }
 
     /**
@@ -275,7 +276,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @param delay 单位毫秒
      */
     public void setEnumWindowDelay(long delay) {
-        callExpect1("SetEnumWindowDelay", FunctionArgs.of(delay));
+        callExpect1("SetEnumWindowDelay", FunctionArgs.begin().add(delay));
     }
 
     /**
@@ -284,7 +285,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @param path 路径,可以是相对路径,也可以是绝对路径
      */
     public void setPath(String path) {
-        callExpect1("SetPath", FunctionArgs.of(path));
+        callExpect1("SetPath", FunctionArgs.begin().add(path));
     }
 
     /**
@@ -293,7 +294,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @param show 是否打开
      */
     public void setShowErrorMsg(boolean show) {
-        callExpect1("SetShowErrorMsg", FunctionArgs.of(show));
+        callExpect1("SetShowErrorMsg", FunctionArgs.begin().add(show));
     }
 
     /**
@@ -310,7 +311,7 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @param enable 是否开启加速
      */
     public void speedNormalGraphic(boolean enable) {
-        callExpect1("SpeedNormalGraphic", FunctionArgs.of(enable));
+        callExpect1("SpeedNormalGraphic", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -319,6 +320,6 @@ public class DmBasicFunctions extends AbstractDmFunctions {
      * @return 当前插件的版本描述字符串
      */
     public String ver() {
-        return callForString("Ver", FunctionArgs.of());
+        return callForString("Ver", FunctionArgs.begin());
     }
 }
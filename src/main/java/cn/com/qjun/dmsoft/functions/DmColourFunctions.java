@@ -3,19 +3,22 @@ package cn.com.qjun.dmsoft.functions;
 import cn.com.qjun.commons.geometry.Point;
 import cn.com.qjun.commons.geometry.Rect;
 import cn.com.qjun.commons.geometry.Size;
+import cn.com.qjun.dmsoft.backend.DmBackend;
 import cn.com.qjun.dmsoft.enums.FindDirection;
+import cn.com.qjun.dmsoft.jfr.DmFlightRecorder;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
 import cn.com.qjun.dmsoft.model.MemoryInfo;
+import cn.com.qjun.dmsoft.model.NativeBufferOwner;
+import cn.com.qjun.dmsoft.model.NativeBufferView;
+import cn.com.qjun.dmsoft.model.PointHolder;
 import cn.com.qjun.dmsoft.utils.DirectMemoryUtils;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
 import lombok.NonNull;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * 图色相关操作
@@ -25,12 +28,21 @@ import java.util.stream.IntStream;
  */
 public class DmColourFunctions extends AbstractDmFunctions {
     private final DmTextFunctions textFunctions;
+    /**
+     * GetScreenData、GetScreenDataBmp返回的图像缓冲区
+     */
+    private final NativeBufferOwner screenBuffer = new NativeBufferOwner("GetScreenData");
 
-    public DmColourFunctions(@NonNull ActiveXComponent dmSoft, @NonNull DmTextFunctions textFunctions) {
-        super(dmSoft);
+    public DmColourFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics, @NonNull DmTextFunctions textFunctions) {
+        super(backend, metrics);
         this.textFunctions = textFunctions;
     }
 
+    @Override
+    public void onClose() {
+        screenBuffer.close();
+    }
+
     /**
      * 对指定的数据地址和长度，组合成新的参数. FindPicMem FindPicMemE 以及FindPicMemEx专用
      *
@@ -40,7 +52,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 新的地址描述串
      */
     public String appendPicAddr(String picInfo, long addr, long size) {
-        return callForString("AppendPicAddr", FunctionArgs.of(picInfo, addr, size));
+        return callForString("AppendPicAddr", FunctionArgs.begin().add(picInfo).add(addr).add(size));
     }
 
     /**
@@ -50,7 +62,11 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return RGB格式的字符串
      */
     public String bgr2Rgb(String bgrColor) {
-        return callForString("BGR2RGB", FunctionArgs.of(bgrColor));
+        String color = DmConversions.isEnabled() ? DmConversions.swapRedBlue(bgrColor) : null;
+        if (color != null) {
+            return color;
+        }
+        return callForString("BGR2RGB", FunctionArgs.begin().add(bgrColor));
     }
 
     /**
@@ -61,7 +77,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *             当然这里也可以指定全路径名.
      */
     public void capture(Rect rect, String file) {
-        callExpect1("Capture", FunctionArgs.of(rect, file));
+        callExpect1("Capture", FunctionArgs.begin().add(rect).add(file));
     }
 
     /**
@@ -74,7 +90,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param time  总共截取多久的动画，单位毫秒。
      */
     public void captureGif(Rect rect, String file, long delay, long time) {
-        callExpect1("CaptureGif", FunctionArgs.of(rect, file, delay, time));
+        callExpect1("CaptureGif", FunctionArgs.begin().add(rect).add(file).add(delay).add(time));
     }
 
     /**
@@ -86,7 +102,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param quality jpg压缩比率(1-100) 越大图片质量越好
      */
     public void captureJpg(Rect rect, String file, int quality) {
-        callExpect1("CaptureJpg", FunctionArgs.of(rect, file, quality));
+        callExpect1("CaptureJpg", FunctionArgs.begin().add(rect).add(file).add(quality));
     }
 
     /**
@@ -97,7 +113,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *             当然这里也可以指定全路径名.
      */
     public void capturePng(Rect rect, String file) {
-        callExpect1("CapturePng", FunctionArgs.of(rect, file));
+        callExpect1("CapturePng", FunctionArgs.begin().add(rect).add(file));
     }
 
     /**
@@ -109,7 +125,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *             当然这里也可以指定全路径名.
      */
     public void capturePre(String file) {
-        callExpect1("CapturePre", FunctionArgs.of(file));
+        callExpect1("CapturePre", FunctionArgs.begin().add(file));
     }
 
     /**
@@ -122,7 +138,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色是否匹配
      */
     public boolean cmpColor(Point point, String color, double sim) {
-        long result = callForLong("CmpColor", FunctionArgs.of(point, color, sim));
+        long result = callForLong("CmpColor", FunctionArgs.begin().add(point).add(color).add(sim));
         return result == 1L;
     }
 
@@ -132,7 +148,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param enable 是否开启调试
      */
     public void enableDisplayDebug(boolean enable) {
-        callExpect1("EnableDisplayDebug", FunctionArgs.of(enable ? 1 : 0));
+        callExpect1("EnableDisplayDebug", FunctionArgs.begin().add(enable ? 1 : 0));
     }
 
     /**
@@ -143,7 +159,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableFindPicMultiThread(boolean enable) {
-        callExpect1("EnableFindPicMultithread", FunctionArgs.of(enable ? 1 : 0));
+        callExpect1("EnableFindPicMultithread", FunctionArgs.begin().add(enable ? 1 : 0));
     }
 
     /**
@@ -153,7 +169,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void enableGetColorByCapture(boolean enable) {
-        callExpect1("EnableGetColorByCapture", FunctionArgs.of(enable ? 1 : 0));
+        callExpect1("EnableGetColorByCapture", FunctionArgs.begin().add(enable ? 1 : 0));
     }
 
     /**
@@ -168,9 +184,31 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的坐标，如果没有找到返回null
      */
     public Point findColor(Rect rect, String color, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, color, sim, dir, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindColor", args);
-        return result == 0L ? null : args.getPoint(-2, -1);
+        PointHolder out = new PointHolder();
+        return findColor(rect, color, sim, dir, out) ? out.toPoint() : null;
+    }
+
+    /**
+     * 查找指定区域内的颜色,颜色格式"RRGGBB-DRDGDB",注意,和按键的颜色格式相反
+     * 注: 反色模式是指匹配任意一个指定颜色之外的颜色. 比如"@123456|333333". 在匹配时,会匹配除了123456或者333333之外的颜色.
+     *
+     * @param rect  查找的区域
+     * @param color 颜色 格式为"RRGGBB-DRDGDB",比如"123456-000000|aabbcc-202020". 也可以支持反色模式. 前面加@即可. 比如"@123456-000000|aabbcc-202020". 具体可以看下放注释.
+     *              注意，这里只支持RGB颜色.
+     * @param sim   相似度,取值范围0.1-1.0
+     * @param dir   查找方向
+     * @param out   找到的坐标写入此对象, 可以在多次调用间复用
+     * @return 是否找到
+     */
+    public boolean findColor(Rect rect, String color, double sim, FindDirection dir, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(color).add(sim).add(dir).addOutInt().addOutInt();
+        boolean found = callForLong("FindColor", args) != 0L;
+        if (found) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindColor", rect, color, '|', found ? 1 : 0);
+        return found;
     }
 
     /**
@@ -186,9 +224,32 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的坐标，如果没有找到返回null
      */
     public Point findColorBlock(Rect rect, String color, double sim, int count, Size size) {
-        FunctionArgs args = FunctionArgs.of(rect, color, sim, count, size, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindColorBlock", args);
-        return result == 0L ? null : args.getPoint(-2, -1);
+        PointHolder out = new PointHolder();
+        return findColorBlock(rect, color, sim, count, size, out) ? out.toPoint() : null;
+    }
+
+    /**
+     * 查找指定区域内的颜色块,颜色格式"RRGGBB-DRDGDB",注意,和按键的颜色格式相反
+     * 注: 反色模式是指匹配任意一个指定颜色之外的颜色. 比如"@123456|333333". 在匹配时,会匹配除了123456或者333333之外的颜色.
+     *
+     * @param rect  查找的区域
+     * @param color 颜色 格式为"RRGGBB-DRDGDB",比如"123456-000000|aabbcc-202020".也可以支持反色模式. 前面加@即可. 比如"@123456-000000|aabbcc-202020". 具体可以看下放注释.
+     *              注意，这里只支持RGB颜色.
+     * @param sim   相似度,取值范围0.1-1.0
+     * @param count 在宽度为width,高度为height的颜色块中，符合color颜色的最小数量.(注意,这个颜色数量可以在综合工具的二值化区域中看到)
+     * @param size  颜色块的尺寸
+     * @param out   找到的坐标写入此对象, 可以在多次调用间复用
+     * @return 是否找到
+     */
+    public boolean findColorBlock(Rect rect, String color, double sim, int count, Size size, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(color).add(sim).add(count).add(size).addOutInt().addOutInt();
+        boolean found = callForLong("FindColorBlock", args) != 0L;
+        if (found) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindColorBlock", rect, color, '|', found ? 1 : 0);
+        return found;
     }
 
     /**
@@ -204,7 +265,10 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 返回所有颜色块信息的坐标值, 然后通过GetResultCount等接口来解析 (由于内存限制,返回的颜色数量最多为1800个左右)
      */
     public String findColorBlockEx(Rect rect, String color, double sim, int count, Size size) {
-        return callForString("FindColorBlockEx", FunctionArgs.of(rect, color, sim, count, size));
+        Object event = DmFlightRecorder.beginSearch();
+        String result = callForString("FindColorBlockEx", FunctionArgs.begin().add(rect).add(color).add(sim).add(count).add(size));
+        endSearch(event, "FindColorBlockEx", rect, color, '|', result);
+        return result;
     }
 
     /**
@@ -219,7 +283,24 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 返回所有颜色信息的坐标值, 然后通过GetResultCount等接口来解析 (由于内存限制,返回的颜色数量最多为1800个左右)
      */
     public String findColorEx(Rect rect, String color, double sim, FindDirection dir) {
-        return callForString("FindColorEx", FunctionArgs.of(rect, color, sim, dir));
+        Object event = DmFlightRecorder.beginSearch();
+        String result = callForString("FindColorEx", FunctionArgs.begin().add(rect).add(color).add(sim).add(dir));
+        endSearch(event, "FindColorEx", rect, color, '|', result);
+        return result;
+    }
+
+    /**
+     * 和{@link #findColorEx(Rect, String, double, FindDirection)}相同, 直接在本地解析返回的坐标,
+     * 不需要再通过GetResultCount、GetResultPos逐个调用插件
+     *
+     * @param rect  查找的区域
+     * @param color 颜色 格式为"RRGGBB-DRDGDB"
+     * @param sim   相似度,取值范围0.1-1.0
+     * @param dir   查找方向
+     * @return 找到的所有坐标(由于内存限制,返回的颜色数量最多为1800个左右)
+     */
+    public FindResults findColorExResults(Rect rect, String color, double sim, FindDirection dir) {
+        return DmResultParser.readPoints(findColorEx(rect, color, sim, dir));
     }
 
     /**
@@ -232,9 +313,29 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的坐标，如果没有找到或部分颜色没有找到，返回null
      */
     public Point findMulColor(Rect rect, String color, double sim) {
-        FunctionArgs args = FunctionArgs.of(rect, color, sim, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindMulColor", args);
-        return result == 0L ? null : args.getPoint(-2, -1);
+        PointHolder out = new PointHolder();
+        return findMulColor(rect, color, sim, out) ? out.toPoint() : null;
+    }
+
+    /**
+     * 查找指定区域内的所有颜色.
+     *
+     * @param rect  查找区域
+     * @param color 颜色 格式为"RRGGBB-DRDGDB",比如"123456-000000|aabbcc-202020".也可以支持反色模式. 前面加@即可. 比如"@123456-000000|aabbcc-202020". 具体可以看下放注释.
+     *              注意，这里只支持RGB颜色.
+     * @param sim   相似度,取值范围0.1-1.0
+     * @param out   找到的坐标写入此对象, 可以在多次调用间复用
+     * @return 是否找到
+     */
+    public boolean findMulColor(Rect rect, String color, double sim, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(color).add(sim).addOutInt().addOutInt();
+        boolean found = callForLong("FindMulColor", args) != 0L;
+        if (found) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindMulColor", rect, color, '|', found ? 1 : 0);
+        return found;
     }
 
     /**
@@ -253,9 +354,35 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的坐标(坐标为first_color所在坐标)，没有找到返回null
      */
     public Point findMultiColor(Rect rect, String firstColor, String offsetColor, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, firstColor, offsetColor, sim, dir, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindMultiColor", args);
-        return result == 0L ? null : args.getPoint(-2, -1);
+        PointHolder out = new PointHolder();
+        return findMultiColor(rect, firstColor, offsetColor, sim, dir, out) ? out.toPoint() : null;
+    }
+
+    /**
+     * 根据指定的多点查找颜色坐标
+     *
+     * @param rect        查找区域
+     * @param firstColor  颜色格式为"RRGGBB-DRDGDB|RRGGBB-DRDGDB|…………",比如"123456-000000"
+     *                    这里的含义和按键自带Color插件的意义相同，只不过我的可以支持偏色和多种颜色组合
+     *                    所有的偏移色坐标都相对于此颜色.注意，这里只支持RGB颜色.
+     * @param offsetColor 偏移颜色可以支持任意多个点 格式和按键自带的Color插件意义相同, 只不过我的可以支持偏色和多种颜色组合
+     *                    格式为"x1|y1|RRGGBB-DRDGDB|RRGGBB-DRDGDB……,……xn|yn|RRGGBB-DRDGDB|RRGGBB-DRDGDB……"
+     *                    比如"1|3|aabbcc|aaffaa-101010,-5|-3|123456-000000|454545-303030|565656"等任意组合都可以，支持偏色
+     *                    还可以支持反色模式，比如"1|3|-aabbcc|-334455-101010,-5|-3|-123456-000000|-353535|454545-101010","-"表示除了指定颜色之外的颜色.
+     * @param sim         相似度,取值范围0.1-1.0
+     * @param dir         查找方向
+     * @param out   找到的坐标写入此对象, 可以在多次调用间复用
+     * @return 是否找到
+     */
+    public boolean findMultiColor(Rect rect, String firstColor, String offsetColor, double sim, FindDirection dir, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(firstColor).add(offsetColor).add(sim).add(dir).addOutInt().addOutInt();
+        boolean found = callForLong("FindMultiColor", args) != 0L;
+        if (found) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindMultiColor", rect, offsetColor, ',', found ? 1 : 0);
+        return found;
     }
 
     /**
@@ -274,7 +401,10 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 返回所有颜色信息的坐标值, 然后通过GetResultCount等接口来解析(由于内存限制, 返回的坐标数量最多为1800个左右)，坐标是first_color所在的坐标
      */
     public String findMultiColorEx(Rect rect, String firstColor, String offsetColor, double sim, FindDirection dir) {
-        return callForString("FindMultiColorEx", FunctionArgs.of(rect, firstColor, offsetColor, sim, dir));
+        Object event = DmFlightRecorder.beginSearch();
+        String result = callForString("FindMultiColorEx", FunctionArgs.begin().add(rect).add(firstColor).add(offsetColor).add(sim).add(dir));
+        endSearch(event, "FindMultiColorEx", rect, offsetColor, ',', result);
+        return result;
     }
 
     /**
@@ -289,10 +419,32 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)，没有找到返回null
      */
     public FindResult findPic(Rect rect, List<String> picNames, String deltaColor, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, String.join("|", picNames), deltaColor, sim, dir, new Variant(0, true), new Variant(0, true));
-        int result = (int) callForLong("FindPic", args);
+        PointHolder out = new PointHolder();
+        int result = findPic(rect, String.join("|", picNames), deltaColor, sim, dir, out);
         return result == -1 ? FindResult.ofNone()
-                : FindResult.ofOne(new FindResult.Item(result, picNames.get(result), args.getPoint(-2, -1)));
+                : FindResult.ofOne(new FindResult.Item(result, picNames.get(result), out.toPoint()));
+    }
+
+    /**
+     * 同{@link #findPic(Rect, List, String, double, FindDirection)}, 坐标写入调用方提供的输出对象, 适合在循环中反复查找
+     *
+     * @param rect       查找区域
+     * @param picNames   图片名,可以是多个图片,比如"test.bmp|test2.bmp|test3.bmp"
+     * @param deltaColor 颜色色偏比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示). 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        相似度,取值范围0.1-1.0
+     * @param dir        查找方向
+     * @param out        找到的坐标(图片左上角坐标)写入此对象, 可以在多次调用间复用
+     * @return 找到的图片序号(从0开始索引), 没有找到返回-1
+     */
+    public int findPic(Rect rect, String picNames, String deltaColor, double sim, FindDirection dir, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(picNames).add(deltaColor).add(sim).add(dir).addOutInt().addOutInt();
+        int result = (int) callForLong("FindPic", args);
+        if (result != -1) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindPic", rect, picNames, '|', result == -1 ? 0 : 1);
+        return result;
     }
 
     /**
@@ -307,12 +459,26 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
      */
     public FindResult findPicEx(Rect rect, List<String> picNames, String deltaColor, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, String.join("|", picNames), deltaColor, sim, dir);
+        return findPicExResults(rect, picNames, deltaColor, sim, dir).toFindResult();
+    }
+
+    /**
+     * 同{@link #findPicEx(Rect, List, String, double, FindDirection)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect       查找区域
+     * @param picNames   图片名,可以是多个图片,比如"test.bmp|test2.bmp|test3.bmp"
+     * @param deltaColor 颜色色偏 比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示) . 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        相似度,取值范围0.1-1.0
+     * @param dir        查找方向
+     * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
+     */
+    public FindResults findPicExResults(Rect rect, List<String> picNames, String deltaColor, double sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(String.join("|", picNames)).add(deltaColor).add(sim).add(dir);
         String result = callForString("FindPicEx", args);
-        return DmResultParser.parseFindResult(result, parts -> {
-            int index = Integer.parseInt(parts[0]);
-            return new FindResult.Item(index, picNames.get(index), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
-        });
+        FindResults findResult = DmResultParser.readIndexedPoints(result, picNames);
+        endSearch(event, "FindPicEx", rect, picNames.size(), findResult.size());
+        return findResult;
     }
 
     /**
@@ -330,12 +496,14 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)，没有找到返回null
      */
     public FindResult findPicMem(Rect rect, List<byte[]> picInfos, String deltaColor, double sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
         AtomicReference<FunctionArgs> args = new AtomicReference<>();
         long result = DirectMemoryUtils.continueLoadToMemAndApply(picInfos, memoryInfoList -> {
             String picInfo = memoryInfoList.stream().map(MemoryInfo::toDmString).collect(Collectors.joining("|"));
-            args.set(FunctionArgs.of(rect, picInfo, deltaColor, sim, dir, new Variant(0, true), new Variant(0, true)));
+            args.set(FunctionArgs.begin().add(rect).add(picInfo).add(deltaColor).add(sim).add(dir).addOutInt().addOutInt());
             return callForLong("FindPicMem", args.get());
         });
+        endSearch(event, "FindPicMem", rect, picInfos.size(), result == -1 ? 0 : 1);
         return result == -1 ? FindResult.ofNone()
                 : FindResult.ofOne(new FindResult.Item((int) result, args.get().getPoint(-2, -1)));
     }
@@ -356,12 +524,29 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
      */
     public FindResult findPicMemEx(Rect rect, List<byte[]> picInfos, String deltaColor, double sim, FindDirection dir) {
+        return findPicMemExResults(rect, picInfos, deltaColor, sim, dir).toFindResult();
+    }
+
+    /**
+     * 同{@link #findPicMemEx(Rect, List, String, double, FindDirection)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect       查找区域
+     * @param picInfos   图片数据地址集合. 格式为"地址1,长度1|地址2,长度2.....|地址n,长度n". 可以用AppendPicAddr来组合.
+     * @param deltaColor 颜色色偏比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示) . 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        相似度,取值范围0.1-1.0
+     * @param dir        查找方向
+     * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
+     */
+    public FindResults findPicMemExResults(Rect rect, List<byte[]> picInfos, String deltaColor, double sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
         String result = DirectMemoryUtils.continueLoadToMemAndApply(picInfos, memoryInfoList -> {
             String picInfo = memoryInfoList.stream().map(MemoryInfo::toDmString).collect(Collectors.joining("|"));
-            FunctionArgs args = FunctionArgs.of(rect, picInfo, deltaColor, sim, dir);
+            FunctionArgs args = FunctionArgs.begin().add(rect).add(picInfo).add(deltaColor).add(sim).add(dir);
             return callForString("FindPicMemEx", args);
         });
-        return DmResultParser.parseFindResult(result, parts -> new FindResult.Item(Integer.parseInt(parts[0]), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+        FindResults findResult = DmResultParser.readIndexedPoints(result, null);
+        endSearch(event, "FindPicMemEx", rect, picInfos.size(), findResult.size());
+        return findResult;
     }
 
     /**
@@ -380,10 +565,32 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)，没有找到返回null
      */
     public FindResult findPicSim(Rect rect, List<String> picNames, String deltaColor, int sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, String.join("|", picNames), deltaColor, sim, dir, new Variant(0, true), new Variant(0, true));
-        int result = (int) callForLong("FindPicSim", args);
+        PointHolder out = new PointHolder();
+        int result = findPicSim(rect, String.join("|", picNames), deltaColor, sim, dir, out);
         return result == -1 ? FindResult.ofNone()
-                : FindResult.ofOne(new FindResult.Item(result, picNames.get(result), args.getPoint(-2, -1)));
+                : FindResult.ofOne(new FindResult.Item(result, picNames.get(result), out.toPoint()));
+    }
+
+    /**
+     * 同{@link #findPicSim(Rect, List, String, int, FindDirection)}, 坐标写入调用方提供的输出对象, 适合在循环中反复查找
+     *
+     * @param rect       查找区域
+     * @param picNames   图片名,可以是多个图片,比如"test.bmp|test2.bmp|test3.bmp"
+     * @param deltaColor 颜色色偏比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示). 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        最小百分比相似率. 取值为0到100. 100表示必须完全匹配. 0表示任意颜色都匹配
+     * @param dir        查找方向
+     * @param out        找到的坐标(图片左上角坐标)写入此对象, 可以在多次调用间复用
+     * @return 找到的图片序号(从0开始索引), 没有找到返回-1
+     */
+    public int findPicSim(Rect rect, String picNames, String deltaColor, int sim, FindDirection dir, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(picNames).add(deltaColor).add(sim).add(dir).addOutInt().addOutInt();
+        int result = (int) callForLong("FindPicSim", args);
+        if (result != -1) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindPicSim", rect, picNames, '|', result == -1 ? 0 : 1);
+        return result;
     }
 
     /**
@@ -402,12 +609,26 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)、匹配百分比和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
      */
     public FindResult findPicSimEx(Rect rect, List<String> picNames, String deltaColor, int sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, String.join("|", picNames), deltaColor, sim, dir);
+        return findPicSimExResults(rect, picNames, deltaColor, sim, dir).toFindResult();
+    }
+
+    /**
+     * 同{@link #findPicSimEx(Rect, List, String, int, FindDirection)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect       查找区域
+     * @param picNames   图片名,可以是多个图片,比如"test.bmp|test2.bmp|test3.bmp"
+     * @param deltaColor 颜色色偏比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示) . 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        最小百分比相似率. 表示匹配的颜色占总颜色数的百分比. 其中透明色也算作匹配色. 取值为0到100. 100表示必须完全匹配. 0表示任意颜色都匹配. 只有大于sim的相似率的才会被匹配
+     * @param dir        查找方向
+     * @return 找到的图片序号(从0开始索引)、匹配百分比和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
+     */
+    public FindResults findPicSimExResults(Rect rect, List<String> picNames, String deltaColor, int sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(String.join("|", picNames)).add(deltaColor).add(sim).add(dir);
         String result = callForString("FindPicSimEx", args);
-        return DmResultParser.parseFindResult(result, parts -> {
-            int index = Integer.parseInt(parts[0]);
-            return new FindResult.Item(index, picNames.get(index), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
-        });
+        FindResults findResult = DmResultParser.readScoredIndexedPoints(result, picNames);
+        endSearch(event, "FindPicSimEx", rect, picNames.size(), findResult.size());
+        return findResult;
     }
 
     /**
@@ -429,12 +650,14 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)和对应坐标(图片左上角坐标)，没有找到返回null
      */
     public FindResult findPicSimMem(Rect rect, List<byte[]> picInfos, String deltaColor, int sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
         AtomicReference<FunctionArgs> args = new AtomicReference<>();
         long result = DirectMemoryUtils.continueLoadToMemAndApply(picInfos, memoryInfoList -> {
             String picInfo = memoryInfoList.stream().map(MemoryInfo::toDmString).collect(Collectors.joining("|"));
-            args.set(FunctionArgs.of(rect, picInfo, deltaColor, sim, dir, new Variant(0, true), new Variant(0, true)));
+            args.set(FunctionArgs.begin().add(rect).add(picInfo).add(deltaColor).add(sim).add(dir).addOutInt().addOutInt());
             return callForLong("FindPicSimMem", args.get());
         });
+        endSearch(event, "FindPicSimMem", rect, picInfos.size(), result == -1 ? 0 : 1);
         return result == -1 ? FindResult.ofNone()
                 : FindResult.ofOne(new FindResult.Item((int) result, args.get().getPoint(-2, -1)));
     }
@@ -458,12 +681,29 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的图片序号(从0开始索引)、匹配百分比和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
      */
     public FindResult findPicSimMemEx(Rect rect, List<byte[]> picInfos, String deltaColor, int sim, FindDirection dir) {
+        return findPicSimMemExResults(rect, picInfos, deltaColor, sim, dir).toFindResult();
+    }
+
+    /**
+     * 同{@link #findPicSimMemEx(Rect, List, String, int, FindDirection)}, 结果按字段存放在数组中, 不为每个结果创建Item
+     *
+     * @param rect       查找区域
+     * @param picInfos   图片数据地址集合. 格式为"地址1,长度1|地址2,长度2.....|地址n,长度n". 可以用AppendPicAddr来组合.
+     * @param deltaColor 颜色色偏比如"203040" 表示RGB的色偏分别是20 30 40 (这里是16进制表示) . 如果这里的色偏是2位，表示使用灰度找图. 比如"20"
+     * @param sim        最小百分比相似率. 表示匹配的颜色占总颜色数的百分比. 其中透明色也算作匹配色. 取值为0到100. 100表示必须完全匹配. 0表示任意颜色都匹配. 只有大于sim的相似率的才会被匹配
+     * @param dir        查找方向
+     * @return 找到的图片序号(从0开始索引)、匹配百分比和对应坐标(图片左上角坐标)(由于内存限制, 返回的图片数量最多为1500个左右)
+     */
+    public FindResults findPicSimMemExResults(Rect rect, List<byte[]> picInfos, String deltaColor, int sim, FindDirection dir) {
+        Object event = DmFlightRecorder.beginSearch();
         String result = DirectMemoryUtils.continueLoadToMemAndApply(picInfos, memoryInfoList -> {
             String picInfo = memoryInfoList.stream().map(MemoryInfo::toDmString).collect(Collectors.joining("|"));
-            FunctionArgs args = FunctionArgs.of(rect, picInfo, deltaColor, sim, dir);
+            FunctionArgs args = FunctionArgs.begin().add(rect).add(picInfo).add(deltaColor).add(sim).add(dir);
             return callForString("FindPicSimMemEx", args);
         });
-        return DmResultParser.parseFindResult(result, parts -> new FindResult.Item(Integer.parseInt(parts[0]), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+        FindResults findResult = DmResultParser.readScoredIndexedPoints(result, null);
+        endSearch(event, "FindPicSimMemEx", rect, picInfos.size(), findResult.size());
+        return findResult;
     }
 
     /**
@@ -479,9 +719,32 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的形状所在坐标，没有找到返回null
      */
     public Point findShape(Rect rect, String offsetColor, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, offsetColor, sim, dir, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindShape", args);
-        return result == 0 ? null : args.getPoint(-2, -1);
+        PointHolder out = new PointHolder();
+        return findShape(rect, offsetColor, sim, dir, out) ? out.toPoint() : null;
+    }
+
+    /**
+     * 查找指定的形状. 形状的描述同按键的抓抓. 具体可以参考按键的抓抓.
+     * 和按键的语法不同，需要用大漠综合工具的颜色转换.
+     *
+     * @param rect        查找区域
+     * @param offsetColor 坐标偏移描述 可以支持任意多个点 格式和按键自带的Color插件意义相同
+     *                    格式为"x1|y1|e1,……xn|yn|en"
+     *                    比如"1|3|1,-5|-3|0"等任意组合都可以
+     * @param sim         相似度,取值范围0.1-1.0
+     * @param dir         查找方向
+     * @param out   找到的坐标写入此对象, 可以在多次调用间复用
+     * @return 是否找到
+     */
+    public boolean findShape(Rect rect, String offsetColor, double sim, FindDirection dir, PointHolder out) {
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(offsetColor).add(sim).add(dir).addOutInt().addOutInt();
+        boolean found = callForLong("FindShape", args) != 0L;
+        if (found) {
+            args.getPoint(-2, -1, out);
+        }
+        endSearch(event, "FindShape", rect, offsetColor, ',', found ? 1 : 0);
+        return found;
     }
 
     /**
@@ -497,12 +760,13 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 找到的所有形状的坐标(由于内存限制,返回的坐标数量最多为1800个左右)
      */
     public List<Point> findShapeEx(Rect rect, String offsetColor, double sim, FindDirection dir) {
-        FunctionArgs args = FunctionArgs.of(rect, offsetColor, sim, dir);
+        Object event = DmFlightRecorder.beginSearch();
+        FunctionArgs args = FunctionArgs.begin().add(rect).add(offsetColor).add(sim).add(dir);
         String result = callForString("FindShapeEx", args);
-        int resultCount = textFunctions.getResultCount(result);
-        return IntStream.range(0, resultCount)
-                .mapToObj(i -> textFunctions.getResultPos(result, i))
-                .collect(Collectors.toList());
+        // 结果格式为"x,y|x,y|...", 在本地解析, 不再按个数调用GetResultPos
+        FindResults findResult = DmResultParser.readPoints(result);
+        endSearch(event, "FindShapeEx", rect, offsetColor, ',', findResult.size());
+        return findResult.points();
     }
 
     /**
@@ -514,7 +778,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *                 "abc???.bmp|1.bmp|aa??.bmp" 可以这样任意组合.
      */
     public void freePic(List<String> picNames) {
-        callExpect1("FreePic", FunctionArgs.of(String.join("|", picNames)));
+        callExpect1("FreePic", FunctionArgs.begin().add(String.join("|", picNames)));
     }
 
     /**
@@ -524,7 +788,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色字符串
      */
     public String getAveHsv(Rect rect) {
-        return callForString("GetAveHSV", FunctionArgs.of(rect));
+        return callForString("GetAveHSV", FunctionArgs.begin().add(rect));
     }
 
     /**
@@ -534,7 +798,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色字符串
      */
     public String getAveRgb(Rect rect) {
-        return callForString("GetAveRGB", FunctionArgs.of(rect));
+        return callForString("GetAveRGB", FunctionArgs.begin().add(rect));
     }
 
     /**
@@ -544,7 +808,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色字符串(注意这里都是小写字符 ， 和工具相匹配)
      */
     public String getColor(Point point) {
-        return callForString("GetColor", FunctionArgs.of(point));
+        return callForString("GetColor", FunctionArgs.begin().add(point));
     }
 
     /**
@@ -554,7 +818,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色字符串
      */
     public String getColorHsv(Point point) {
-        return callForString("GetColorHSV", FunctionArgs.of(point));
+        return callForString("GetColorHSV", FunctionArgs.begin().add(point));
     }
 
     /**
@@ -566,7 +830,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 颜色数量
      */
     public int getColorNum(Rect rect, String color, double sim) {
-        return (int) callForLong("GetColorNum", FunctionArgs.of(rect, color, sim));
+        return (int) callForLong("GetColorNum", FunctionArgs.begin().add(rect).add(color).add(sim));
     }
 
     /**
@@ -577,9 +841,9 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 图片尺寸
      */
     public Size getPicSize(String picName) {
-        String result = callForString("GetPicSize", FunctionArgs.of(picName));
-        String[] parts = result.split(",");
-        return Size.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        String result = callForString("GetPicSize", FunctionArgs.begin().add(picName));
+        ResultCursor cursor = new ResultCursor(result);
+        return Size.of(cursor.nextInt(), cursor.nextInt());
     }
 
     /**
@@ -589,7 +853,8 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 返回的是指定区域的二进制颜色数据地址, 每个颜色是4个字节, 表示方式为(00RRGGBB)
      */
     public long getScreenData(Rect rect) {
-        return callForLong("GetScreenData", FunctionArgs.of(rect));
+        screenBuffer.advance();
+        return callForLong("GetScreenData", FunctionArgs.begin().add(rect));
     }
 
     /**
@@ -602,9 +867,52 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 内存信息
      */
     public MemoryInfo getScreenDataBmp(Rect rect) {
-        FunctionArgs args = FunctionArgs.of(rect, new Variant(0, true), new Variant(0, true));
-        long result = callForLong("FindPicSimMem", args);
-        return result == 0 ? null : args.getMemoryInfo(-2, -1);
+        MemoryInfo out = new MemoryInfo();
+        return getScreenDataBmp(rect, out) ? out : null;
+    }
+
+    /**
+     * 同{@link #getScreenDataBmp(Rect)}, 数据地址和长度写入调用方提供的输出对象
+     *
+     * @param rect 要获取的区域
+     * @param out  数据地址和长度写入此对象, 可以在多次调用间复用
+     * @return 是否成功
+     */
+    public boolean getScreenDataBmp(Rect rect, MemoryInfo out) {
+        screenBuffer.advance();
+        FunctionArgs args = FunctionArgs.begin().add(rect).addOutInt().addOutInt();
+        if (callForLong("GetScreenDataBmp", args) == 0) {
+            return false;
+        }
+        args.getMemoryInfo(-2, -1, out);
+        return true;
+    }
+
+    /**
+     * 同{@link #getScreenData(Rect)}, 返回插件图像缓冲区的只读视图, 不复制数据.
+     * <p>
+     * 下次调用GetScreenData或GetScreenDataBmp后视图失效, 再使用时抛出{@link IllegalStateException}.
+     *
+     * @param rect 区域
+     * @return 宽*高*4字节的颜色数据(宽为x2-x1, 高为y2-y1), 每个颜色按小端读取int为00RRGGBB; 获取失败时返回null
+     * @throws ArithmeticException 数据长度超出int范围
+     */
+    public NativeBufferView getScreenDataView(Rect rect) {
+        long data = getScreenData(rect);
+        return data == 0 ? null : screenBuffer.view(data, Math.toIntExact((long) (rect.x2() - rect.x1()) * (rect.y2() - rect.y1()) * 4));
+    }
+
+    /**
+     * 同{@link #getScreenDataBmp(Rect)}, 返回插件图像缓冲区的只读视图, 不复制数据.
+     * <p>
+     * 下次调用GetScreenData或GetScreenDataBmp后视图失效, 再使用时抛出{@link IllegalStateException}.
+     *
+     * @param rect 要获取的区域
+     * @return 24位位图文件的数据; 获取失败时返回null
+     */
+    public NativeBufferView getScreenDataBmpView(Rect rect) {
+        MemoryInfo info = new MemoryInfo();
+        return getScreenDataBmp(rect, info) ? screenBuffer.view(info.getAddress(), Math.toIntExact(info.getSize())) : null;
     }
 
     /**
@@ -614,7 +922,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param bmpName 要保存的BMP图片名
      */
     public void imageToBmp(String picName, String bmpName) {
-        callExpect1("ImageToBmp", FunctionArgs.of(picName, bmpName));
+        callExpect1("ImageToBmp", FunctionArgs.begin().add(picName).add(bmpName));
     }
 
     /**
@@ -627,7 +935,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return false-没有卡屏，图像数据在变化. true-卡屏. 图像数据在指定的时间内一直没有变化. 或者绑定的窗口不见了.
      */
     public boolean isDisplayDead(Rect rect, long seconds) {
-        long result = callForLong("IsDisplayDead", FunctionArgs.of(rect, seconds));
+        long result = callForLong("IsDisplayDead", FunctionArgs.begin().add(rect).add(seconds));
         return result == 1;
     }
 
@@ -645,7 +953,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *                 "abc???.bmp|1.bmp|aa??.bmp" 可以这样任意组合.
      */
     public void loadPic(List<String> picNames) {
-        callExpect1("LoadPic", FunctionArgs.of(String.join("|", picNames)));
+        callExpect1("LoadPic", FunctionArgs.begin().add(String.join("|", picNames)));
     }
 
     /**
@@ -661,7 +969,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param picName 文件名,指定这个地址对应的图片名. 用于找图时使用.
      */
     public void loadPicByte(byte[] picInfo, String picName) {
-        DirectMemoryUtils.loadToMemAndConsume(picInfo, memoryInfo -> callExpect1("LoadPicByte", FunctionArgs.of(memoryInfo, picName)));
+        DirectMemoryUtils.loadToMemAndConsume(picInfo, memoryInfo -> callExpect1("LoadPicByte", FunctionArgs.begin().add(memoryInfo).add(picName)));
     }
 
     /**
@@ -674,9 +982,8 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return 匹配到的文件名列表
      */
     public List<String> matchPicName(List<String> picNames) {
-        String result = callForString("MatchPicName", FunctionArgs.of(String.join("|", picNames)));
-        return Arrays.stream(result.split("\\|"))
-                .collect(Collectors.toList());
+        String result = callForString("MatchPicName", FunctionArgs.begin().add(String.join("|", picNames)));
+        return DmResultParser.parseStringList(result);
     }
 
     /**
@@ -686,7 +993,11 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @return BGR格式的字符串
      */
     public String rgb2Bgr(String rgbColor) {
-        return callForString("Rgb2Bgr", FunctionArgs.of(rgbColor));
+        String color = DmConversions.isEnabled() ? DmConversions.swapRedBlue(rgbColor) : null;
+        if (color != null) {
+            return color;
+        }
+        return callForString("Rgb2Bgr", FunctionArgs.begin().add(rgbColor));
     }
 
     /**
@@ -702,7 +1013,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      *             当mode为2时,此参数无效
      */
     public void setExcludeRegion(int mode, String info) {
-        callExpect1("SetExcludeRegion", FunctionArgs.of(mode, info));
+        callExpect1("SetExcludeRegion", FunctionArgs.begin().add(mode).add(info));
     }
 
     /**
@@ -711,7 +1022,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param count 图片数量. 最小不能小于2. 因为1个图片必定是单线程. 这个值默认是4.如果你不更改的话.
      */
     public void setFindPicMultiThreadCount(int count) {
-        callExpect1("SetFindPicMultithreadCount", FunctionArgs.of(count));
+        callExpect1("SetFindPicMultithreadCount", FunctionArgs.begin().add(count));
     }
 
     /**
@@ -720,7 +1031,7 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param limit 最大线程数,不能超过当前CPU核心数. 超过无效. 0表示无限制.
      */
     public void setFindPicMultiThreadLimit(int limit) {
-        callExpect1("SetFindPicMultithreadLimit", FunctionArgs.of(limit));
+        callExpect1("SetFindPicMultithreadLimit", FunctionArgs.begin().add(limit));
     }
 
     /**
@@ -730,6 +1041,41 @@ public class DmColourFunctions extends AbstractDmFunctions {
      * @param pwd 图片密码
      */
     public void setPicPwd(String pwd) {
-        callExpect1("SetPicPwd", FunctionArgs.of(pwd));
+        callExpect1("SetPicPwd", FunctionArgs.begin().add(pwd));
+    }
+
+    private void endSearch(Object event, String method, Rect rect, int templateCount, int hitCount) {
+        if (event != null) {
+            long rectArea = (long) (rect.x2() - rect.x1()) * (rect.y2() - rect.y1());
+            DmFlightRecorder.endSearch(event, method, rectArea, templateCount, hitCount, dmSoftId());
+        }
+    }
+
+    private void endSearch(Object event, String method, Rect rect, String templates, char separator, int hitCount) {
+        if (event != null) {
+            endSearch(event, method, rect, countItems(templates, separator), hitCount);
+        }
+    }
+
+    /**
+     * @param result 以"|"分隔的查找结果
+     */
+    private void endSearch(Object event, String method, Rect rect, String templates, char separator, String result) {
+        if (event != null) {
+            endSearch(event, method, rect, countItems(templates, separator), countItems(result, '|'));
+        }
+    }
+
+    private static int countItems(String value, char separator) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == separator) {
+                count++;
+            }
+        }
+        return count;
     }
 }
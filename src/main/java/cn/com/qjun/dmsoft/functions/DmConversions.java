@@ -0,0 +1,209 @@
+package cn.com.qjun.dmsoft.functions;
+
+import cn.com.qjun.dmsoft.model.PointHolder;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 插件中纯字符串、数值转换函数的Java实现, 结果和插件逐字节一致, 省去每次调用的COM开销
+ * <p>
+ * 包括IntToData、FloatToData、DoubleToData、StringToData、BGR2RGB、RGB2BGR、GetResultCount、GetResultPos.
+ * 二进制数据的格式为小端字节的两位小写十六进制, 以空格分隔, 比如IntToData(0x12345678, 0)为"78 56 34 12".
+ * <p>
+ * 每个方法只处理能确定插件行为的输入(合法的类型、格式正确的颜色和结果串), 其它输入返回null或false,
+ * 调用方转而调用插件, 错误码和异常和以前一样.
+ * <p>
+ * 测试用的对照数据还没有从插件实际录制, 所以默认关闭, 全部调用插件. 可以通过系统属性
+ * {@code dmsoft.localConversion.enabled=true}或者{@link #setEnabled(boolean)}开启.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class DmConversions {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Charset GBK = Charset.forName("GBK");
+
+    private static volatile boolean enabled = "true".equalsIgnoreCase(System.getProperty("dmsoft.localConversion.enabled"));
+
+    private DmConversions() {
+    }
+
+    /**
+     * @return 是否使用Java实现, 关闭时全部调用插件
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        DmConversions.enabled = enabled;
+    }
+
+    /**
+     * IntToData
+     *
+     * @param type 0: 4字节, 1: 2字节, 2: 1字节, 3: 8字节
+     * @return 二进制数据, type不支持时返回null
+     */
+    public static String intToData(long value, int type) {
+        int size;
+        switch (type) {
+            case 0:
+                size = 4;
+                break;
+            case 1:
+                size = 2;
+                break;
+            case 2:
+                size = 1;
+                break;
+            case 3:
+                size = 8;
+                break;
+            default:
+                return null;
+        }
+        return toData(value, size);
+    }
+
+    public static String floatToData(float value) {
+        return toData(Float.floatToRawIntBits(value), 4);
+    }
+
+    public static String doubleToData(double value) {
+        return toData(Double.doubleToRawLongBits(value), 8);
+    }
+
+    /**
+     * StringToData, 不包含结尾的0
+     *
+     * @param type 0: Ascii(GBK), 1: Unicode(UTF-16LE)
+     * @return 二进制数据, value为null或者type不支持时返回null
+     */
+    public static String stringToData(String value, int type) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes;
+        switch (type) {
+            case 0:
+                bytes = value.getBytes(GBK);
+                break;
+            case 1:
+                bytes = value.getBytes(StandardCharsets.UTF_16LE);
+                break;
+            default:
+                return null;
+        }
+        if (bytes.length == 0) {
+            return "";
+        }
+        char[] chars = new char[bytes.length * 3 - 1];
+        for (int i = 0; i < bytes.length; i++) {
+            writeByte(chars, i, bytes[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * BGR2RGB、RGB2BGR: 交换第一个和第三个字节, 保留原来的大小写
+     *
+     * @param color 6位十六进制颜色
+     * @return 转换后的颜色, 格式不正确时返回null
+     */
+    public static String swapRedBlue(String color) {
+        if (color == null || color.length() != 6) {
+            return null;
+        }
+        for (int i = 0; i < 6; i++) {
+            if (Character.digit(color.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return new String(new char[]{color.charAt(4), color.charAt(5), color.charAt(2), color.charAt(3), color.charAt(0), color.charAt(1)});
+    }
+
+    /**
+     * GetResultCount: 以"|"分隔的记录个数
+     *
+     * @param result FindStrEx、FindColorEx等接口的返回串
+     * @return 记录个数, null或空字符串为0
+     */
+    public static int resultCount(String result) {
+        if (result == null || result.isEmpty()) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = 0, last = result.length() - 1; i < last; i++) {
+            if (result.charAt(i) == ResultCursor.RECORD_SEPARATOR) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * GetResultPos: 第index条记录的坐标, "id,x,y"取后两个字段, "x,y"取两个字段
+     *
+     * @param out 坐标写入此对象
+     * @return 是否成功, index越界或者记录格式不正确时返回false
+     */
+    public static boolean resultPos(String result, int index, PointHolder out) {
+        if (result == null || index < 0) {
+            return false;
+        }
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start = result.indexOf(ResultCursor.RECORD_SEPARATOR, start) + 1;
+            if (start == 0) {
+                return false;
+            }
+        }
+        int end = result.indexOf(ResultCursor.RECORD_SEPARATOR, start);
+        if (end < 0) {
+            end = result.length();
+        }
+        int first = result.indexOf(ResultCursor.FIELD_SEPARATOR, start);
+        if (first < 0 || first >= end) {
+            return false;
+        }
+        int second = result.indexOf(ResultCursor.FIELD_SEPARATOR, first + 1);
+        if (second >= end) {
+            second = -1;
+        }
+        if (second >= 0) {
+            int third = result.indexOf(ResultCursor.FIELD_SEPARATOR, second + 1);
+            if (third >= 0 && third < end) {
+                return false;
+            }
+        }
+        try {
+            if (second < 0) {
+                out.set(Integer.parseInt(result.substring(start, first)), Integer.parseInt(result.substring(first + 1, end)));
+            } else {
+                out.set(Integer.parseInt(result.substring(first + 1, second)), Integer.parseInt(result.substring(second + 1, end)));
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String toData(long value, int size) {
+        char[] chars = new char[size * 3 - 1];
+        for (int i = 0; i < size; i++) {
+            writeByte(chars, i, (int) (value >>> (i * 8)));
+        }
+        return new String(chars);
+    }
+
+    private static void writeByte(char[] chars, int index, int value) {
+        int position = index * 3;
+        if (index > 0) {
+            chars[position - 1] = ' ';
+        }
+        chars[position] = HEX[(value >> 4) & 0xF];
+        chars[position + 1] = HEX[value & 0xF];
+    }
+}
@@ -1,6 +1,7 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
 
 import java.util.List;
@@ -13,8 +14,8 @@ import java.util.List;
  */
 public class DmFileFunctions extends AbstractDmFunctions {
 
-    public DmFileFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmFileFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -24,7 +25,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param pwd  密码.
      */
     public void decodeFile(String file, String pwd) {
-        callExpect1("DecodeFile", FunctionArgs.of(file, pwd));
+        callExpect1("DecodeFile", FunctionArgs.begin().add(file).add(pwd));
     }
 
     /**
@@ -37,7 +38,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param file    ini文件名.
      */
     public void deleteIni(String section, String key, String file) {
-        callExpect1("DeleteIni", FunctionArgs.of(section, key, file));
+        callExpect1("DeleteIni", FunctionArgs.begin().add(section).add(key).add(file));
     }
 
     /**
@@ -52,7 +53,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param pwd     密码.
      */
     public void deleteIniPwd(String section, String key, String file, String pwd) {
-        callExpect1("DeleteIniPwd", FunctionArgs.of(section, key, file, pwd));
+        callExpect1("DeleteIniPwd", FunctionArgs.begin().add(section).add(key).add(file).add(pwd));
     }
 
     /**
@@ -66,7 +67,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * -2 : 写入文件失败
      */
     public int downloadFile(String url, String saveFile, long timeoutMills) {
-        return (int) callForLong("DownloadFile", FunctionArgs.of(url, saveFile, timeoutMills));
+        return (int) callForLong("DownloadFile", FunctionArgs.begin().add(url).add(saveFile).add(timeoutMills));
     }
 
     /**
@@ -79,7 +80,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param pwd  密码.
      */
     public void encodeFile(String file, String pwd) {
-        callExpect1("EncodeFile", FunctionArgs.of(file, pwd));
+        callExpect1("EncodeFile", FunctionArgs.begin().add(file).add(pwd));
     }
 
     /**
@@ -93,7 +94,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 每个key用"|"来连接，如果没有key，则返回空字符串. 比如"aaa|bbb|ccc"
      */
     public List<String> enumIniKey(String section, String file) {
-        String result = callForString("EnumIniKey", FunctionArgs.of(section, file));
+        String result = callForString("EnumIniKey", FunctionArgs.begin().add(section).add(file));
         return DmResultParser.parseStringList(result);
     }
 
@@ -110,7 +111,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 每个key用"|"来连接，如果没有key，则返回空字符串. 比如"aaa|bbb|ccc"
      */
     public List<String> enumIniKeyPwd(String section, String file, String pwd) {
-        String result = callForString("EnumIniKeyPwd", FunctionArgs.of(section, file, pwd));
+        String result = callForString("EnumIniKeyPwd", FunctionArgs.begin().add(section).add(file).add(pwd));
         return DmResultParser.parseStringList(result);
     }
 
@@ -123,7 +124,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 每个小节名用"|"来连接，如果没有小节，则返回空字符串. 比如"aaa|bbb|ccc"
      */
     public List<String> enumIniSection(String file) {
-        String result = callForString("EnumIniSection", FunctionArgs.of(file));
+        String result = callForString("EnumIniSection", FunctionArgs.begin().add(file));
         return DmResultParser.parseStringList(result);
     }
 
@@ -138,7 +139,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 每个小节名用"|"来连接，如果没有小节，则返回空字符串. 比如"aaa|bbb|ccc"
      */
     public List<String> enumIniSectionPwd(String file, String pwd) {
-        String result = callForString("EnumIniSectionPwd", FunctionArgs.of(file, pwd));
+        String result = callForString("EnumIniSectionPwd", FunctionArgs.begin().add(file).add(pwd));
         return DmResultParser.parseStringList(result);
     }
 
@@ -149,7 +150,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 文件长度(字节数)
      */
     public long getFileLength(String file) {
-        return callForLong("GetFileLength", FunctionArgs.of(file));
+        return callForLong("GetFileLength", FunctionArgs.begin().add(file));
     }
 
     /**
@@ -161,7 +162,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 真实路径, 如果失败, 返回空字符串
      */
     public String getRealPath(String file) {
-        return callForString("GetRealPath", FunctionArgs.of(file));
+        return callForString("GetRealPath", FunctionArgs.begin().add(file));
     }
 
     /**
@@ -175,7 +176,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的读取到的内容
      */
     public String readIni(String section, String key, String file) {
-        return callForString("ReadIni", FunctionArgs.of(section, key, file));
+        return callForString("ReadIni", FunctionArgs.begin().add(section).add(key).add(file));
     }
 
     /**
@@ -191,7 +192,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的读取到的内容
      */
     public String readIniPwd(String section, String key, String file, String pwd) {
-        return callForString("ReadIniPwd", FunctionArgs.of(section, key, file, pwd));
+        return callForString("ReadIniPwd", FunctionArgs.begin().add(section).add(key).add(file).add(pwd));
     }
 
     /**
@@ -200,7 +201,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 选择的文件夹全路径
      */
     public String selectDirectory() {
-        return callForString("SelectDirectory", FunctionArgs.of());
+        return callForString("SelectDirectory", FunctionArgs.begin());
     }
 
     /**
@@ -209,7 +210,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @return 选择的文件全路径
      */
     public String selectFile() {
-        return callForString("SelectFile", FunctionArgs.of());
+        return callForString("SelectFile", FunctionArgs.begin());
     }
 
     /**
@@ -219,7 +220,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param content 写入的字符串.
      */
     public void writeFile(String file, String content) {
-        callExpect1("WriteFile", FunctionArgs.of(file, content));
+        callExpect1("WriteFile", FunctionArgs.begin().add(file).add(content));
     }
 
     /**
@@ -233,7 +234,7 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param file    ini文件名.
      */
     public void writeIni(String section, String key, String value, String file) {
-        callExpect1("WriteIni", FunctionArgs.of(section, key, value, file));
+        callExpect1("WriteIni", FunctionArgs.begin().add(section).add(key).add(value).add(file));
     }
 
     /**
@@ -249,6 +250,6 @@ public class DmFileFunctions extends AbstractDmFunctions {
      * @param pwd     密码.
      */
     public void writeIniPwd(String section, String key, String value, String file, String pwd) {
-        callExpect1("WriteIniPwd", FunctionArgs.of(section, key, value, file, pwd));
+        callExpect1("WriteIniPwd", FunctionArgs.begin().add(section).add(key).add(value).add(file).add(pwd));
     }
 }
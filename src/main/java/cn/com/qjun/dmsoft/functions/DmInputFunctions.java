@@ -2,10 +2,11 @@ package cn.com.qjun.dmsoft.functions;
 
 import cn.com.qjun.commons.geometry.Point;
 import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.backend.DmBackend;
 import cn.com.qjun.dmsoft.enums.KeypadMode;
 import cn.com.qjun.dmsoft.enums.MouseMode;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
+import cn.com.qjun.dmsoft.model.PointHolder;
 import lombok.NonNull;
 
 /**
@@ -16,8 +17,8 @@ import lombok.NonNull;
  */
 public class DmInputFunctions extends AbstractDmFunctions {
 
-    public DmInputFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmInputFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -27,7 +28,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 设置之前的精确度开关.
      */
     public boolean enableMouseAccuracy(boolean enable) {
-        return callForBool("EnableMouseAccuracy", FunctionArgs.of(enable));
+        return callForBool("EnableMouseAccuracy", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -39,9 +40,20 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 鼠标坐标
      */
     public Point getCursorPos() {
-        FunctionArgs args = FunctionArgs.of(new Variant(0, true), new Variant(0, true));
+        PointHolder out = new PointHolder();
+        getCursorPos(out);
+        return out.toPoint();
+    }
+
+    /**
+     * 获取鼠标位置, 坐标写入调用方提供的输出对象
+     *
+     * @param out 鼠标坐标写入此对象, 可以在多次调用间复用
+     */
+    public void getCursorPos(PointHolder out) {
+        FunctionArgs args = FunctionArgs.begin().addOutInt().addOutInt();
         callExpect1("GetCursorPos", args);
-        return args.getPoint(-2, -1);
+        args.getPoint(-2, -1, out);
     }
 
     /**
@@ -54,7 +66,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 成功时，返回鼠标特征码. 失败时，返回空的串.
      */
     public String getCursorShape() {
-        return callForString("GetCursorShape", FunctionArgs.of());
+        return callForString("GetCursorShape", FunctionArgs.begin());
     }
 
     /**
@@ -68,7 +80,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 成功时，返回鼠标特征码. 失败时，返回空的串.
      */
     public String getCursorShapeEx(int type) {
-        return callForString("GetCursorShapeEx", FunctionArgs.of(type));
+        return callForString("GetCursorShapeEx", FunctionArgs.begin().add(type));
     }
 
     /**
@@ -79,7 +91,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 成功时，返回形如"x,y"的字符串  失败时，返回null.
      */
     public Point getCursorSpot() {
-        String result = callForString("GetCursorSpot", FunctionArgs.of());
+        String result = callForString("GetCursorSpot", FunctionArgs.begin());
         return DmResultParser.parsePoint(result);
     }
 
@@ -90,7 +102,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return true-按下 false-弹起
      */
     public boolean getKeyState(int vkCode) {
-        return callForBool("GetKeyState", FunctionArgs.of(vkCode));
+        return callForBool("GetKeyState", FunctionArgs.begin().add(vkCode));
     }
 
     /**
@@ -99,7 +111,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 0:失败 其他值,当前系统鼠标的移动速度
      */
     public int getMouseSpeed() {
-        return (int) callForLong("GetMouseSpeed", FunctionArgs.of());
+        return (int) callForLong("GetMouseSpeed", FunctionArgs.begin());
     }
 
     /**
@@ -108,7 +120,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param vkCode 虚拟按键码
      */
     public void keyDown(int vkCode) {
-        callExpect1("KeyDown", FunctionArgs.of(vkCode));
+        callExpect1("KeyDown", FunctionArgs.begin().add(vkCode));
     }
 
     /**
@@ -117,7 +129,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param keyStr 字符串描述的键码. 大小写无所谓. 点这里查看具体对应关系.
      */
     public void keyDownChar(String keyStr) {
-        callExpect1("KeyDownChar", FunctionArgs.of(keyStr));
+        callExpect1("KeyDownChar", FunctionArgs.begin().add(keyStr));
     }
 
     /**
@@ -126,7 +138,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param vkCode 虚拟按键码
      */
     public void keyPress(int vkCode) {
-        callExpect1("KeyPress", FunctionArgs.of(vkCode));
+        callExpect1("KeyPress", FunctionArgs.begin().add(vkCode));
     }
 
     /**
@@ -135,7 +147,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param keyStr 字符串描述的键码. 大小写无所谓. 点这里查看具体对应关系.
      */
     public void keyPressChar(String keyStr) {
-        callExpect1("KeyPressChar", FunctionArgs.of(keyStr));
+        callExpect1("KeyPressChar", FunctionArgs.begin().add(keyStr));
     }
 
     /**
@@ -148,7 +160,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param delayMills 每按下一个按键，需要延时多久. 单位毫秒.这个值越大，按的速度越慢。
      */
     public void keyPressStr(String keyStr, long delayMills) {
-        callExpect1("KeyPressStr", FunctionArgs.of(keyStr, delayMills));
+        callExpect1("KeyPressStr", FunctionArgs.begin().add(keyStr).add(delayMills));
     }
 
     /**
@@ -157,7 +169,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param vkCode 虚拟按键码
      */
     public void keyUp(int vkCode) {
-        callExpect1("KeyUp", FunctionArgs.of(vkCode));
+        callExpect1("KeyUp", FunctionArgs.begin().add(vkCode));
     }
 
     /**
@@ -166,56 +178,56 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param keyStr 字符串描述的键码. 大小写无所谓. 点这里查看具体对应关系.
      */
     public void keyUpChar(String keyStr) {
-        callExpect1("KeyUpChar", FunctionArgs.of(keyStr));
+        callExpect1("KeyUpChar", FunctionArgs.begin().add(keyStr));
     }
 
     /**
      * 按下鼠标左键
      */
     public void leftClick() {
-        callExpect1("LeftClick", FunctionArgs.of());
+        callExpect1("LeftClick", FunctionArgs.begin());
     }
 
     /**
      * 双击鼠标左键
      */
     public void leftDoubleClick() {
-        callExpect1("LeftDoubleClick", FunctionArgs.of());
+        callExpect1("LeftDoubleClick", FunctionArgs.begin());
     }
 
     /**
      * 按住鼠标左键
      */
     public void leftDown() {
-        callExpect1("LeftDown", FunctionArgs.of());
+        callExpect1("LeftDown", FunctionArgs.begin());
     }
 
     /**
      * 弹起鼠标左键
      */
     public void leftUp() {
-        callExpect1("LeftUp", FunctionArgs.of());
+        callExpect1("LeftUp", FunctionArgs.begin());
     }
 
     /**
      * 按下鼠标中键
      */
     public void middleClick() {
-        callExpect1("MiddleClick", FunctionArgs.of());
+        callExpect1("MiddleClick", FunctionArgs.begin());
     }
 
     /**
      * 按住鼠标中键
      */
     public void middleDown() {
-        callExpect1("MiddleDown", FunctionArgs.of());
+        callExpect1("MiddleDown", FunctionArgs.begin());
     }
 
     /**
      * 弹起鼠标中键
      */
     public void middleUp() {
-        callExpect1("MiddleUp", FunctionArgs.of());
+        callExpect1("MiddleUp", FunctionArgs.begin());
     }
 
     /**
@@ -233,7 +245,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param ry 相对于上次的Y偏移
      */
     public void moveR(int rx, int ry) {
-        callExpect1("MoveR", FunctionArgs.of(rx, ry));
+        callExpect1("MoveR", FunctionArgs.begin().add(rx).add(ry));
     }
 
     /**
@@ -242,7 +254,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param point 目标坐标
      */
     public void moveTo(Point point) {
-        callExpect1("MoveTo", FunctionArgs.of(point));
+        callExpect1("MoveTo", FunctionArgs.begin().add(point));
     }
 
     /**
@@ -252,7 +264,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @return 返回要移动到的目标点. 格式为x,y.  比如MoveToEx 100,100,10,10,返回值可能是101,102
      */
     public Point moveToEx(Rect rect) {
-        String result = callForString("MoveToEx", FunctionArgs.of(rect));
+        String result = callForString("MoveToEx", FunctionArgs.begin().add(rect));
         return DmResultParser.parsePoint(result);
     }
 
@@ -260,21 +272,21 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * 按下鼠标右键
      */
     public void rightClick() {
-        callExpect1("RightClick", FunctionArgs.of());
+        callExpect1("RightClick", FunctionArgs.begin());
     }
 
     /**
      * 按住鼠标右键
      */
     public void rightDown() {
-        callExpect1("RightDown", FunctionArgs.of());
+        callExpect1("RightDown", FunctionArgs.begin());
     }
 
     /**
      * 弹起鼠标右键
      */
     public void rightUp() {
-        callExpect1("RightUp", FunctionArgs.of());
+        callExpect1("RightUp", FunctionArgs.begin());
     }
 
     /**
@@ -289,7 +301,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param delayMills 延时,单位是毫秒
      */
     public void setKeypadDelay(KeypadMode mode, long delayMills) {
-        callExpect1("SetKeypadDelay",FunctionArgs.of(mode, delayMills));
+        callExpect1("SetKeypadDelay",FunctionArgs.begin().add(mode).add(delayMills));
     }
 
     /**
@@ -304,7 +316,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param delayMills 延时,单位是毫秒
      */
     public void setMouseDelay(MouseMode mode, long delayMills) {
-        callExpect1("SetMouseDelay", FunctionArgs.of(mode, delayMills));
+        callExpect1("SetMouseDelay", FunctionArgs.begin().add(mode).add(delayMills));
     }
 
     /**
@@ -313,7 +325,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * @param speed 鼠标移动速度, 最小1，最大11.  居中为6. 推荐设置为6
      */
     public void setMouseSpeed(int speed) {
-        callExpect1("SetMouseSpeed", FunctionArgs.of(speed));
+        callExpect1("SetMouseSpeed", FunctionArgs.begin().add(speed));
     }
 
     /**
@@ -342,7 +354,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * 1  : 成功
      */
     public int setSimMode(int mode) {
-        return (int) callForLong("SetSimMode", FunctionArgs.of(mode));
+        return (int) callForLong("SetSimMode", FunctionArgs.begin().add(mode));
     }
 
     /**
@@ -355,7 +367,7 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * 按下的按键码:(当vk_code为0时)
      */
     public int waitKey(int vkCode, long timeoutMills) {
-        long result = callForLong("WaitKey", FunctionArgs.of(vkCode, timeoutMills));
+        long result = callForLong("WaitKey", FunctionArgs.begin().add(vkCode).add(timeoutMills));
         return (int) result;
     }
 
@@ -363,13 +375,13 @@ public class DmInputFunctions extends AbstractDmFunctions {
      * 滚轮向下滚
      */
     public void wheelDown() {
-        callExpect1("WheelDown", FunctionArgs.of());
+        callExpect1("WheelDown", FunctionArgs.begin());
     }
 
     /**
      * 滚轮向上滚
      */
     public void wheelUp() {
-        callExpect1("WheelUp", FunctionArgs.of());
+        callExpect1("WheelUp", FunctionArgs.begin());
     }
 }
@@ -1,8 +1,14 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
+import cn.com.qjun.dmsoft.model.FindResultFile;
+import cn.com.qjun.dmsoft.model.NativeBufferOwner;
+import cn.com.qjun.dmsoft.model.NativeBufferView;
 import lombok.NonNull;
 
+import java.nio.file.Paths;
+
 /**
  * 内存相关操作
  *
@@ -10,9 +16,22 @@ import lombok.NonNull;
  * @date 2024/2/14
  */
 public class DmMemoryFunctions extends AbstractDmFunctions {
+    /**
+     * ReadDataAddrToBin、ReadDataToBin返回的数据缓冲区
+     */
+    private final NativeBufferOwner binBuffer = new NativeBufferOwner("ReadDataToBin");
+    /**
+     * SetMemoryFindResultToFile设置的结果文件, 没有设置时为null
+     */
+    private volatile FindResultFile findResultFile;
+
+    public DmMemoryFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
+    }
 
-    public DmMemoryFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    @Override
+    public void onClose() {
+        binBuffer.close();
     }
 
     /**
@@ -22,7 +41,10 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的二进制数据. 可以用于WriteData FindData FindDataEx等接口.
      */
     public String doubleToData(double value) {
-        return callForString("DoubleToData", FunctionArgs.of(value));
+        if (DmConversions.isEnabled()) {
+            return DmConversions.doubleToData(value);
+        }
+        return callForString("DoubleToData", FunctionArgs.begin().add(value));
     }
 
     /**
@@ -42,7 +64,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findData(long hwnd, String addressRange, String data) {
-        return callForString("FindData", FunctionArgs.of(hwnd, addressRange, data));
+        return callForString("FindData", FunctionArgs.begin().add(hwnd).add(addressRange).add(data));
     }
 
     /**
@@ -66,7 +88,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findDataEx(long hwnd, String addressRange, String data, int step, boolean multiThread, boolean fastScan) {
-        return callForString("FindDataEx", FunctionArgs.of(hwnd, addressRange, data, step, multiThread, fastScan));
+        return callForString("FindDataEx", FunctionArgs.begin().add(hwnd).add(addressRange).add(data).add(step).add(multiThread).add(fastScan));
     }
 
     /**
@@ -87,7 +109,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findDouble(long hwnd, String addressRange, double minValue, double maxValue) {
-        return callForString("FindDouble", FunctionArgs.of(hwnd, addressRange, minValue, maxValue));
+        return callForString("FindDouble", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue));
     }
 
     /**
@@ -112,7 +134,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findDoubleEx(long hwnd, String addressRange, double minValue, double maxValue, int step, boolean multiThread, boolean fastScan) {
-        return callForString("FindDoubleEx", FunctionArgs.of(hwnd, addressRange, minValue, maxValue, step, multiThread, fastScan));
+        return callForString("FindDoubleEx", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue).add(step).add(multiThread).add(fastScan));
     }
 
     /**
@@ -133,7 +155,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findFloat(long hwnd, String addressRange, float minValue, float maxValue) {
-        return callForString("FindFloat", FunctionArgs.of(hwnd, addressRange, minValue, maxValue));
+        return callForString("FindFloat", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue));
     }
 
     /**
@@ -158,7 +180,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findFloatEx(long hwnd, String addressRange, float minValue, float maxValue, int step, boolean multiThread, boolean fastScan) {
-        return callForString("FindFloatEx", FunctionArgs.of(hwnd, addressRange, minValue, maxValue, step, multiThread, fastScan));
+        return callForString("FindFloatEx", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue).add(step).add(multiThread).add(fastScan));
     }
 
     /**
@@ -184,7 +206,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findInt(long hwnd, String addressRange, long minValue, long maxValue, int type) {
-        return callForString("FindInt", FunctionArgs.of(hwnd, addressRange, minValue, maxValue, type));
+        return callForString("FindInt", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue).add(type));
     }
 
     /**
@@ -214,7 +236,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findIntEx(long hwnd, String addressRange, long minValue, long maxValue, int type, int step, boolean multiThread, boolean fastScan) {
-        return callForString("FindIntEx", FunctionArgs.of(hwnd, addressRange, minValue, maxValue, type, step, multiThread, fastScan));
+        return callForString("FindIntEx", FunctionArgs.begin().add(hwnd).add(addressRange).add(minValue).add(maxValue).add(type).add(step).add(multiThread).add(fastScan));
     }
 
     /**
@@ -237,7 +259,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findString(long hwnd, String addressRange, String value, int type) {
-        return callForString("FindString", FunctionArgs.of(hwnd, addressRange, value, type));
+        return callForString("FindString", FunctionArgs.begin().add(hwnd).add(addressRange).add(value).add(type));
     }
 
     /**
@@ -264,7 +286,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String findStringEx(long hwnd, String addressRange, String value, int type, int step, boolean multiThread, boolean fastScan) {
-        return callForString("FindStringEx", FunctionArgs.of(hwnd, addressRange, value, type, step, multiThread, fastScan));
+        return callForString("FindStringEx", FunctionArgs.begin().add(hwnd).add(addressRange).add(value).add(type).add(step).add(multiThread).add(fastScan));
     }
 
     /**
@@ -274,7 +296,10 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的二进制数据. 可以用于WriteData FindData FindDataEx等接口.
      */
     public String floatToData(float value) {
-        return callForString("FloatToData", FunctionArgs.of(value));
+        if (DmConversions.isEnabled()) {
+            return DmConversions.floatToData(value);
+        }
+        return callForString("FloatToData", FunctionArgs.begin().add(value));
     }
 
     /**
@@ -283,7 +308,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param hwnd 窗口句柄或者进程ID.  默认是窗口句柄. 如果要指定为进程ID,需要调用SetMemoryHwndAsProcessId.
      */
     public void freeProcessMemory(long hwnd) {
-        callExpect1("FreeProcessMemory", FunctionArgs.of(hwnd));
+        callExpect1("FreeProcessMemory", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -293,7 +318,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 读取到的启动命令行
      */
     public String getCommandLine(long hwnd) {
-        return callForString("GetCommandLine", FunctionArgs.of(hwnd));
+        return callForString("GetCommandLine", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -306,7 +331,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 模块的基址
      */
     public long getModuleBaseAddr(long hwnd, String module) {
-        return callForLong("GetModuleBaseAddr", FunctionArgs.of(hwnd, module));
+        return callForLong("GetModuleBaseAddr", FunctionArgs.begin().add(hwnd).add(module));
     }
 
     /**
@@ -319,7 +344,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 模块的大小
      */
     public long getModuleSize(long hwnd, String module) {
-        return callForLong("GetModuleSize", FunctionArgs.of(hwnd, module));
+        return callForLong("GetModuleSize", FunctionArgs.begin().add(hwnd).add(module));
     }
 
     /**
@@ -331,7 +356,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 获取的地址. 如果失败返回0
      */
     public long getRemoteApiAddress(long hwnd, long baseAddress, String funName) {
-        return callForLong("GetRemoteApiAddress", FunctionArgs.of(hwnd, baseAddress, funName));
+        return callForLong("GetRemoteApiAddress", FunctionArgs.begin().add(hwnd).add(baseAddress).add(funName));
     }
 
     /**
@@ -346,7 +371,11 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的二进制数据. 可以用于WriteData FindData FindDataEx等接口.
      */
     public String intToData(long value, int type) {
-        return callForString("IntToData", FunctionArgs.of(value, type));
+        String data = DmConversions.isEnabled() ? DmConversions.intToData(value, type) : null;
+        if (data != null) {
+            return data;
+        }
+        return callForString("IntToData", FunctionArgs.begin().add(value).add(type));
     }
 
     /**
@@ -356,7 +385,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 进程句柄, 可用于进程相关操作(读写操作等),记得操作完成以后，自己调用CloseHandle关闭句柄.
      */
     public long openProcess(long pid) {
-        return callForLong("OpenProcess", FunctionArgs.of(pid));
+        return callForLong("OpenProcess", FunctionArgs.begin().add(pid));
     }
 
     /**
@@ -380,7 +409,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String readData(long hwnd, String address, int length) {
-        return callForString("ReadData", FunctionArgs.of(hwnd, address, length));
+        return callForString("ReadData", FunctionArgs.begin().add(hwnd).add(address).add(length));
     }
 
     /**
@@ -396,7 +425,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String readDataAddr(long hwnd, long address, int length) {
-        return callForString("ReadDataAddr", FunctionArgs.of(hwnd, address, length));
+        return callForString("ReadDataAddr", FunctionArgs.begin().add(hwnd).add(address).add(length));
     }
 
     /**
@@ -413,7 +442,8 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public long readDataAddrToBin(long hwnd, long addr, int len) {
-        return callForLong("ReadDataAddrToBin", FunctionArgs.of(hwnd, addr, len));
+        binBuffer.advance();
+        return callForLong("ReadDataAddrToBin", FunctionArgs.begin().add(hwnd).add(addr).add(len));
     }
 
     /**
@@ -438,7 +468,38 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public long readDataToBin(long hwnd, String addr, int len) {
-        return callForLong("ReadDataToBin", FunctionArgs.of(hwnd, addr, len));
+        binBuffer.advance();
+        return callForLong("ReadDataToBin", FunctionArgs.begin().add(hwnd).add(addr).add(len));
+    }
+
+    /**
+     * 同{@link #readDataAddrToBin(long, long, int)}, 返回插件缓冲区的只读视图, 不复制数据.
+     * <p>
+     * 下次调用ReadDataAddrToBin或ReadDataToBin后视图失效, 再使用时抛出{@link IllegalStateException}.
+     *
+     * @param hwnd 窗口句柄或者进程ID
+     * @param addr 地址
+     * @param len  二进制数据的长度
+     * @return 数据视图, 读取失败时返回null
+     */
+    public NativeBufferView readDataAddrToView(long hwnd, long addr, int len) {
+        long data = readDataAddrToBin(hwnd, addr, len);
+        return data == 0 ? null : binBuffer.view(data, len);
+    }
+
+    /**
+     * 同{@link #readDataToBin(long, String, int)}, 返回插件缓冲区的只读视图, 不复制数据.
+     * <p>
+     * 下次调用ReadDataAddrToBin或ReadDataToBin后视图失效, 再使用时抛出{@link IllegalStateException}.
+     *
+     * @param hwnd 窗口句柄或者进程ID
+     * @param addr CE格式的地址描述, 比如"[<360SE.exe>+DA678]+3A"
+     * @param len  二进制数据的长度
+     * @return 数据视图, 读取失败时返回null
+     */
+    public NativeBufferView readDataToView(long hwnd, String addr, int len) {
+        long data = readDataToBin(hwnd, addr, len);
+        return data == 0 ? null : binBuffer.view(data, len);
     }
 
     /**
@@ -460,7 +521,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public double readDouble(long hwnd, String addr) {
-        return callForDouble("ReadDouble", FunctionArgs.of(hwnd, addr));
+        return callForDouble("ReadDouble", FunctionArgs.begin().add(hwnd).add(addr));
     }
 
     /**
@@ -474,7 +535,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public double readDoubleAddr(long hwnd, long addr) {
-        return callForDouble("ReadDoubleAddr", FunctionArgs.of(hwnd, addr));
+        return callForDouble("ReadDoubleAddr", FunctionArgs.begin().add(hwnd).add(addr));
     }
 
     /**
@@ -496,7 +557,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public float readFloat(long hwnd, String addr) {
-        return callForFloat("ReadFloat", FunctionArgs.of(hwnd, addr));
+        return callForFloat("ReadFloat", FunctionArgs.begin().add(hwnd).add(addr));
     }
 
     /**
@@ -510,7 +571,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public float readFloatAddr(long hwnd, long addr) {
-        return callForFloat("ReadFloatAddr", FunctionArgs.of(hwnd, addr));
+        return callForFloat("ReadFloatAddr", FunctionArgs.begin().add(hwnd).add(addr));
     }
 
     /**
@@ -540,7 +601,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public long readInt(long hwnd, String addr, int type) {
-        return callForLong("ReadInt", FunctionArgs.of(hwnd, addr, type));
+        return callForLong("ReadInt", FunctionArgs.begin().add(hwnd).add(addr).add(type));
     }
 
     /**
@@ -570,7 +631,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public long readIntAddr(long hwnd, long addr, int type) {
-        return callForLong("ReadIntAddr", FunctionArgs.of(hwnd, addr, type));
+        return callForLong("ReadIntAddr", FunctionArgs.begin().add(hwnd).add(addr).add(type));
     }
 
     /**
@@ -597,7 +658,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String readString(long hwnd, String addr, int type, int len) {
-        return callForString("ReadString", FunctionArgs.of(hwnd, addr, type, len));
+        return callForString("ReadString", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(len));
     }
 
     /**
@@ -616,7 +677,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 如果要想知道函数是否执行成功，请查看GetLastError函数.
      */
     public String readStringAddr(long hwnd, long addr, int type, int len) {
-        return callForString("ReadStringAddr", FunctionArgs.of(hwnd, addr, type, len));
+        return callForString("ReadStringAddr", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(len));
     }
 
     /**
@@ -625,10 +686,27 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 注: 部分高级语言无法接纳FindXXX 接口返回的超长字符串，那么需要用这个函数转存入文件,然后再读取分析处理.
      * 同时，设置了此文件后，那么当下次调用FindXXX接口传入的地址参数时，并且地址参数不是范围参数,那么地址参数会从设置的文件中读取. 如果是范围参数,那么插件不会从设置的文件读取,会认为是首次查找.因为部分高级语言对参数的接收也有长度限制，无法接收超长字符串.
      *
+     * 设置后FindXXX接口的返回值不再包含结果, 通过{@link #getFindResultFile()}逐块读取文件, 不会生成超长字符串.
+     *
      * @param file 设置要保存的搜索结果文件名. 如果为空字符串表示取消此功能
      */
     public void setMemoryFindResultToFile(String file) {
-        callExpect1("SetMemoryFindResultToFile", FunctionArgs.of(file));
+        callExpect1("SetMemoryFindResultToFile", FunctionArgs.begin().add(file));
+        findResultFile = file == null || file.isEmpty() ? null : new FindResultFile(Paths.get(file));
+    }
+
+    /**
+     * 读取FindXXX接口写入文件的结果, 需要先通过{@link #setMemoryFindResultToFile(String)}设置结果文件
+     *
+     * @return 结果文件, 每次遍历时重新读取, 所以可以在多次查找之间复用
+     * @throws IllegalStateException 没有设置结果文件
+     */
+    public FindResultFile getFindResultFile() {
+        FindResultFile file = findResultFile;
+        if (file == null) {
+            throw new IllegalStateException("没有通过SetMemoryFindResultToFile设置查找结果文件");
+        }
+        return file;
     }
 
     /**
@@ -638,7 +716,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      *               0 : 关闭  1 : 开启
      */
     public void setMemoryHwndAsProcessId(boolean enable) {
-        callExpect1("SetMemoryHwndAsProcessId", FunctionArgs.of(enable));
+        callExpect1("SetMemoryHwndAsProcessId", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -651,7 +729,11 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 字符串形式表达的二进制数据. 可以用于WriteData FindData FindDataEx等接口.
      */
     public String stringToData(String value, int type) {
-        return callForString("StringToData", FunctionArgs.of(value, type));
+        String data = DmConversions.isEnabled() ? DmConversions.stringToData(value, type) : null;
+        if (data != null) {
+            return data;
+        }
+        return callForString("StringToData", FunctionArgs.begin().add(value).add(type));
     }
 
     /**
@@ -662,7 +744,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param pid 进程ID.
      */
     public void terminateProcess(long pid) {
-        callExpect1("TerminateProcess", FunctionArgs.of(pid));
+        callExpect1("TerminateProcess", FunctionArgs.begin().add(pid));
     }
 
     /**
@@ -673,7 +755,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param pid 进程ID.
      */
     public void terminateProcessTree(long pid) {
-        callExpect1("TerminateProcessTree", FunctionArgs.of(pid));
+        callExpect1("TerminateProcessTree", FunctionArgs.begin().add(pid));
     }
 
     /**
@@ -692,7 +774,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @return 分配的内存地址，如果是0表示分配失败.
      */
     public long virtualAllocEx(long hwnd, long addr, int size, int type) {
-        return callForLong("VirtualAllocEx", FunctionArgs.of(hwnd, addr, size, type));
+        return callForLong("VirtualAllocEx", FunctionArgs.begin().add(hwnd).add(addr).add(size).add(type));
     }
 
     /**
@@ -705,7 +787,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param addr VirtualAllocEx返回的地址
      */
     public void virtualFreeEx(long hwnd, long addr) {
-        callExpect1("VirtualFreeEx", FunctionArgs.of(hwnd, addr));
+        callExpect1("VirtualFreeEx", FunctionArgs.begin().add(hwnd).add(addr));
     }
 
     /**
@@ -724,7 +806,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 1 : 修改之前的读写属性
      */
     public int virtualProtectEx(long hwnd, long addr, int size, int type, int oldProtect) {
-        return (int) callForLong("VirtualProtectEx", FunctionArgs.of(hwnd, addr, size, type, oldProtect));
+        return (int) callForLong("VirtualProtectEx", FunctionArgs.begin().add(hwnd).add(addr).add(size).add(type).add(oldProtect));
     }
 
     /**
@@ -761,7 +843,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * 数值都是10进制表达.
      */
     public String virtualQueryEx(long hwnd, long addr, int pmbi) {
-        return callForString("VirtualQueryEx", FunctionArgs.of(hwnd, addr, pmbi));
+        return callForString("VirtualQueryEx", FunctionArgs.begin().add(hwnd).add(addr).add(pmbi));
     }
 
     /**
@@ -782,7 +864,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param data 二进制数据，以字符串形式描述，比如"12 34 56 78 90 ab cd"
      */
     public void writeData(long hwnd, String addr, String data) {
-        callExpect1("WriteData", FunctionArgs.of(hwnd, addr, data));
+        callExpect1("WriteData", FunctionArgs.begin().add(hwnd).add(addr).add(data));
     }
 
     /**
@@ -795,7 +877,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param data 二进制数据，以字符串形式描述，比如"12 34 56 78 90 ab cd"
      */
     public void writeDataAddr(long hwnd, long addr, String data) {
-        callExpect1("WriteDataAddr", FunctionArgs.of(hwnd, addr, data));
+        callExpect1("WriteDataAddr", FunctionArgs.begin().add(hwnd).add(addr).add(data));
     }
 
     /**
@@ -809,7 +891,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param len  数据长度
      */
     public void writeDataAddrFromBin(long hwnd, long addr, long data, int len) {
-        callExpect1("WriteDataAddrFromBin", FunctionArgs.of(hwnd, addr, data, len));
+        callExpect1("WriteDataAddrFromBin", FunctionArgs.begin().add(hwnd).add(addr).add(data).add(len));
     }
 
     /**
@@ -829,7 +911,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param len  数据长度
      */
     public void writeDataFromBin(long hwnd, String addr, long data, int len) {
-        callExpect1("WriteDataFromBin", FunctionArgs.of(hwnd, addr, data, len));
+        callExpect1("WriteDataFromBin", FunctionArgs.begin().add(hwnd).add(addr).add(data).add(len));
     }
 
     /**
@@ -850,7 +932,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 双精度浮点数
      */
     public void writeDouble(long hwnd, String addr, double value) {
-        callExpect1("WriteDouble", FunctionArgs.of(hwnd, addr, value));
+        callExpect1("WriteDouble", FunctionArgs.begin().add(hwnd).add(addr).add(value));
     }
 
     /**
@@ -863,7 +945,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 双精度浮点数
      */
     public void writeDoubleAddr(long hwnd, long addr, double value) {
-        callExpect1("WriteDoubleAddr", FunctionArgs.of(hwnd, addr, value));
+        callExpect1("WriteDoubleAddr", FunctionArgs.begin().add(hwnd).add(addr).add(value));
     }
 
     /**
@@ -884,7 +966,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 单精度浮点数
      */
     public void writeFloat(long hwnd, String addr, float value) {
-        callExpect1("WriteFloat", FunctionArgs.of(hwnd, addr, value));
+        callExpect1("WriteFloat", FunctionArgs.begin().add(hwnd).add(addr).add(value));
     }
 
     /**
@@ -897,7 +979,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 单精度浮点数
      */
     public void writeFloatAddr(long hwnd, long addr, float value) {
-        callExpect1("WriteFloatAddr", FunctionArgs.of(hwnd, addr, value));
+        callExpect1("WriteFloatAddr", FunctionArgs.begin().add(hwnd).add(addr).add(value));
     }
 
     /**
@@ -923,7 +1005,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 整形数值
      */
     public void writeInt(long hwnd, String addr, int type, int value) {
-        callExpect1("WriteInt", FunctionArgs.of(hwnd, addr, type, value));
+        callExpect1("WriteInt", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(value));
     }
 
     /**
@@ -941,7 +1023,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 整形数值
      */
     public void writeIntAddr(long hwnd, long addr, int type, int value) {
-        callExpect1("WriteIntAddr", FunctionArgs.of(hwnd, addr, type, value));
+        callExpect1("WriteIntAddr", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(value));
     }
 
     /**
@@ -966,7 +1048,7 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 字符串
      */
     public void writeString(long hwnd, String addr, int type, String value) {
-        callExpect1("WriteString", FunctionArgs.of(hwnd, addr, type, value));
+        callExpect1("WriteString", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(value));
     }
 
     /**
@@ -983,6 +1065,6 @@ public class DmMemoryFunctions extends AbstractDmFunctions {
      * @param value 字符串
      */
     public void writeStringAddr(long hwnd, long addr, int type, String value) {
-        callExpect1("WriteStringAddr", FunctionArgs.of(hwnd, addr, type, value));
+        callExpect1("WriteStringAddr", FunctionArgs.begin().add(hwnd).add(addr).add(type).add(value));
     }
 }
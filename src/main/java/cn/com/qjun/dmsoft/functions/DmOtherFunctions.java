@@ -1,6 +1,7 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
 
 /**
@@ -11,8 +12,8 @@ import lombok.NonNull;
  */
 public class DmOtherFunctions extends AbstractDmFunctions {
 
-    public DmOtherFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmOtherFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -26,7 +27,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      *                    以此类推.
      */
     public void activeInputMethod(long hwnd, String inputMethod) {
-        callExpect1("ActiveInputMethod", FunctionArgs.of(hwnd, inputMethod));
+        callExpect1("ActiveInputMethod", FunctionArgs.begin().add(hwnd).add(inputMethod));
     }
 
     /**
@@ -41,7 +42,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * @return 是否开启
      */
     public boolean checkInputMethod(long hwnd, String inputMethod) {
-        return callForBool("CheckInputMethod", FunctionArgs.of(hwnd, inputMethod));
+        return callForBool("CheckInputMethod", FunctionArgs.begin().add(hwnd).add(inputMethod));
     }
 
     /**
@@ -53,7 +54,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * @return false-不可以 true-已经进入临界区
      */
     public boolean enterCri() {
-        return callForBool("EnterCri", FunctionArgs.of());
+        return callForBool("EnterCri", FunctionArgs.begin());
     }
 
     /**
@@ -65,7 +66,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * @return cmd指令的执行结果.  返回空字符串表示执行失败.
      */
     public String executeCmd(String cmd, String currentDir, long timeoutMills) {
-        return callForString("ExecuteCmd", FunctionArgs.of(cmd, currentDir, timeoutMills));
+        return callForString("ExecuteCmd", FunctionArgs.begin().add(cmd).add(currentDir).add(timeoutMills));
     }
 
     /**
@@ -79,7 +80,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * @return 是否安装
      */
     public boolean findInputMethod(String inputMethod) {
-        return callForBool("FindInputMethod", FunctionArgs.of(inputMethod));
+        return callForBool("FindInputMethod", FunctionArgs.begin().add(inputMethod));
     }
 
     /**
@@ -88,7 +89,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * 关于如何前台多开,点这里.
      */
     public void initCri() {
-        callExpect1("InitCri", FunctionArgs.of());
+        callExpect1("InitCri", FunctionArgs.begin());
     }
 
     /**
@@ -98,7 +99,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * 关于如何前台多开,点这里.
      */
     public void leaveCri() {
-        callExpect1("LeaveCri", FunctionArgs.of());
+        callExpect1("LeaveCri", FunctionArgs.begin());
     }
 
     /**
@@ -111,7 +112,7 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * 具体的使用例子，在最新版本的类库生成工具，生成以后有相对应平台的多线程模板，里面有详细介绍.
      */
     public void releaseRef() {
-        callExpect1("ReleaseRef", FunctionArgs.of());
+        callExpect1("ReleaseRef", FunctionArgs.begin());
     }
 
     /**
@@ -127,6 +128,6 @@ public class DmOtherFunctions extends AbstractDmFunctions {
      * @param mode 1和2都为开启标记,0为关闭标记。 1和2的区别是,1会解绑当前对象的绑定,2不会.
      */
     public void setExitThread(int mode) {
-        callExpect1("SetExitThread", FunctionArgs.of(mode));
+        callExpect1("SetExitThread", FunctionArgs.begin().add(mode));
     }
 }
@@ -2,16 +2,26 @@ package cn.com.qjun.dmsoft.functions;
 
 import cn.com.qjun.commons.geometry.Point;
 import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
+import cn.com.qjun.dmsoft.model.LongList;
 import cn.com.qjun.dmsoft.model.ProcessInfo;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
+ * 大漠返回字符串的解析
+ * <p>
+ * 除了兼容旧接口的{@link #parseFindResult(String, Function)}以外, 都通过{@link ResultCursor}在原字符串上逐字符解析,
+ * 数字不会先截取成子串, 也不会创建中间数组.
+ *
  * @author 81062
  * @date 2025/12/5
  */
@@ -21,29 +31,214 @@ public class DmResultParser {
         if (StringUtils.isEmpty(result)) {
             return null;
         }
-        String[] parts = result.split(",");
-        return Point.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        ResultCursor cursor = new ResultCursor(result);
+        return Point.of(cursor.nextInt(), cursor.nextInt());
     }
 
     public static List<String> parseStringList(String result) {
         if (StringUtils.isEmpty(result)) {
             return Collections.emptyList();
         }
-        return Arrays.stream(result.split("\\|"))
-                .collect(Collectors.toList());
+        ResultCursor cursor = new ResultCursor(result);
+        List<String> list = new ArrayList<>();
+        do {
+            list.add(cursor.nextRecordText());
+        } while (cursor.nextRecord());
+        // 和String.split一致, 去掉结尾的空字符串
+        int size = list.size();
+        while (size > 0 && list.get(size - 1).isEmpty()) {
+            list.remove(--size);
+        }
+        return list;
     }
 
+    /**
+     * 解析以","分隔的整数列表
+     *
+     * @param result 大漠返回的字符串
+     * @return 整数列表, 没有结果(null或空字符串)时返回空列表
+     */
     public static List<Long> parseLongList(String result) {
-        return Arrays.stream(result.split(","))
-                .map(Long::parseLong)
-                .collect(Collectors.toList());
+        if (StringUtils.isEmpty(result)) {
+            return new ArrayList<>();
+        }
+        ResultCursor cursor = new ResultCursor(result);
+        List<Long> list = new ArrayList<>();
+        while (cursor.hasRemaining()) {
+            list.add(cursor.nextLong());
+        }
+        return list;
+    }
+
+    /**
+     * 解析以","分隔的整数列表, 不装箱
+     *
+     * @param result 大漠返回的字符串
+     * @return 整数列表, 没有结果(null或空字符串)时返回空列表
+     */
+    public static LongList readLongList(String result) {
+        if (StringUtils.isEmpty(result)) {
+            return LongList.empty();
+        }
+        int count = 1;
+        for (int i = 0, last = result.length() - 1; i < last; i++) {
+            if (result.charAt(i) == ResultCursor.FIELD_SEPARATOR) {
+                count++;
+            }
+        }
+        long[] values = new long[count];
+        ResultCursor cursor = new ResultCursor(result);
+        int size = 0;
+        while (cursor.hasRemaining()) {
+            values[size++] = cursor.nextLong();
+        }
+        return LongList.wrap(size == count ? values : Arrays.copyOf(values, size));
     }
 
     public static ProcessInfo parseProcessInfo(String dmResult) {
-        String[] parts = dmResult.split("\\|");
-        return new ProcessInfo(parts[0], parts[1], Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+        ResultCursor cursor = new ResultCursor(dmResult);
+        String name = cursor.nextRecordText();
+        cursor.nextRecord();
+        String path = cursor.nextRecordText();
+        cursor.nextRecord();
+        int cpuUtilization = cursor.nextInt();
+        cursor.nextRecord();
+        return new ProcessInfo(name, path, cpuUtilization, cursor.nextLong());
+    }
+
+    /**
+     * 解析以"|"分隔多条记录的查找结果
+     *
+     * @param dmResult   大漠返回的字符串
+     * @param itemReader 从游标读取一条记录, 不需要读完所有字段
+     * @return 查找结果, 空字符串表示没有找到
+     */
+    public static FindResult readFindResult(String dmResult, ItemReader itemReader) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return FindResult.ofNone();
+        }
+        ResultCursor cursor = new ResultCursor(dmResult);
+        List<FindResult.Item> items = new ArrayList<>();
+        do {
+            items.add(itemReader.read(cursor));
+        } while (cursor.nextRecord());
+        return FindResult.ofMany(items);
+    }
+
+    /**
+     * 解析"x,y|x,y|..."格式的结果, 比如FindColorEx、FindShapeEx
+     *
+     * @param dmResult 大漠返回的字符串
+     * @return 查找结果, 空字符串表示没有找到
+     */
+    public static FindResults readPoints(String dmResult) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return FindResults.empty();
+        }
+        FindResults.Builder builder = FindResults.points(countRecords(dmResult));
+        ResultCursor cursor = new ResultCursor(dmResult);
+        do {
+            builder.addPoint(cursor.nextInt(), cursor.nextInt());
+        } while (cursor.nextRecord());
+        return builder.build();
     }
 
+    /**
+     * 解析"序号,x,y|序号,x,y|..."格式的结果, 比如FindPicEx、FindPicMemEx
+     *
+     * @param dmResult 大漠返回的字符串
+     * @param names    按序号取名称的列表, 可以为null
+     * @return 查找结果, 空字符串表示没有找到
+     */
+    public static FindResults readIndexedPoints(String dmResult, List<String> names) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return FindResults.empty();
+        }
+        FindResults.Builder builder = FindResults.indexedPoints(countRecords(dmResult), names);
+        ResultCursor cursor = new ResultCursor(dmResult);
+        do {
+            builder.addIndexedPoint(cursor.nextInt(), cursor.nextInt(), cursor.nextInt());
+        } while (cursor.nextRecord());
+        return builder.build();
+    }
+
+    /**
+     * 解析"序号,匹配度,x,y|..."格式的结果, 比如FindPicSimEx、FindPicSimMemEx
+     *
+     * @param dmResult 大漠返回的字符串
+     * @param names    按序号取名称的列表, 可以为null
+     * @return 查找结果, 空字符串表示没有找到
+     */
+    public static FindResults readScoredIndexedPoints(String dmResult, List<String> names) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return FindResults.empty();
+        }
+        FindResults.Builder builder = FindResults.scoredIndexedPoints(countRecords(dmResult), names);
+        ResultCursor cursor = new ResultCursor(dmResult);
+        do {
+            builder.addScoredIndexedPoint(cursor.nextInt(), cursor.nextInt(), cursor.nextInt(), cursor.nextInt());
+        } while (cursor.nextRecord());
+        return builder.build();
+    }
+
+    /**
+     * 解析"名称,置信度,x,y,宽,高|..."格式的结果, 比如AiYoloDetectObjects
+     *
+     * @param dmResult 大漠返回的字符串
+     * @return 查找结果, 空字符串表示没有找到
+     */
+    public static FindResults readLabeledRects(String dmResult) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return FindResults.empty();
+        }
+        FindResults.Builder builder = FindResults.labeledRects(countRecords(dmResult));
+        ResultCursor cursor = new ResultCursor(dmResult);
+        do {
+            builder.addLabeledRect(cursor.nextString(), cursor.nextInt(), cursor.nextInt(), cursor.nextInt(), cursor.nextInt(), cursor.nextInt());
+        } while (cursor.nextRecord());
+        return builder.build();
+    }
+
+    /**
+     * 按需解析"x,y|x,y|..."格式的结果, 坐标打包成int, 使用{@link cn.com.qjun.dmsoft.utils.PackedPoints}读取
+     *
+     * @param dmResult 大漠返回的字符串, 比如FindColorEx的结果
+     * @return 坐标流, 只有消费到的记录才会解析
+     */
+    public static IntStream streamPoints(String dmResult) {
+        return streamPoints(dmResult, 0);
+    }
+
+    /**
+     * 按需解析每条记录中坐标前面还有其它字段的结果
+     *
+     * @param dmResult      大漠返回的字符串
+     * @param leadingFields 坐标前面的字段个数, FindPicEx为1(序号), FindPicSimEx为2(序号,匹配度)
+     * @return 坐标流, 只有消费到的记录才会解析
+     * @see PackedPointSpliterator
+     */
+    public static IntStream streamPoints(String dmResult, int leadingFields) {
+        return StreamSupport.intStream(new PackedPointSpliterator(dmResult, leadingFields), false);
+    }
+
+    /**
+     * 先数一遍记录个数, 让结果数组一次分配到正好的大小
+     */
+    private static int countRecords(String dmResult) {
+        int count = 1;
+        int last = dmResult.length() - 1;
+        for (int i = 0; i < last; i++) {
+            if (dmResult.charAt(i) == ResultCursor.RECORD_SEPARATOR) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @deprecated 每条记录都会拆分成字符串数组, 使用{@link #readFindResult(String, ItemReader)}
+     */
+    @Deprecated
     public static FindResult parseFindResult(String dmResult, Function<String[], FindResult.Item> itemBuilder) {
         if (dmResult == null || dmResult.isEmpty()) {
             return FindResult.ofNone();
@@ -56,4 +251,17 @@ public class DmResultParser {
                 .collect(Collectors.toList());
         return FindResult.ofMany(items);
     }
+
+    /**
+     * 从游标读取一条查找结果
+     */
+    @FunctionalInterface
+    public interface ItemReader {
+
+        /**
+         * @param cursor 位于记录开头的游标, 按顺序读取字段即可
+         * @return 查找结果
+         */
+        FindResult.Item read(ResultCursor cursor);
+    }
 }
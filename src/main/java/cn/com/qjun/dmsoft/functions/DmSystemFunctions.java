@@ -1,6 +1,7 @@
 package cn.com.qjun.dmsoft.functions;
 
-import com.jacob.activeX.ActiveXComponent;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
 import lombok.NonNull;
 
 /**
@@ -11,8 +12,8 @@ import lombok.NonNull;
  */
 public class DmSystemFunctions extends AbstractDmFunctions {
 
-    public DmSystemFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmSystemFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -22,7 +23,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param mills 时长(ms).
      */
     public void beep(int f, long mills) {
-        callExpect1("Beep", FunctionArgs.of(f, mills));
+        callExpect1("Beep", FunctionArgs.begin().add(f).add(mills));
     }
 
     /**
@@ -31,7 +32,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 是否开启
      */
     public boolean checkFontSmooth() {
-        return callForBool("CheckFontSmooth", FunctionArgs.of());
+        return callForBool("CheckFontSmooth", FunctionArgs.begin());
     }
 
     /**
@@ -42,7 +43,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 是否开启
      */
     public boolean checkUac() {
-        return callForBool("CheckUAC", FunctionArgs.of());
+        return callForBool("CheckUAC", FunctionArgs.begin());
     }
 
     /**
@@ -53,7 +54,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param mills 毫秒数. 必须大于0.
      */
     public void delay(long mills) {
-        callExpect1("Delay", FunctionArgs.of(mills));
+        callExpect1("Delay", FunctionArgs.begin().add(mills));
     }
 
     /**
@@ -65,14 +66,14 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param maxMills 最大毫秒数. 必须大于0
      */
     public void delays(long minMills, long maxMills) {
-        callExpect1("Delays", FunctionArgs.of(minMills, maxMills));
+        callExpect1("Delays", FunctionArgs.begin().add(minMills).add(maxMills));
     }
 
     /**
      * 设置当前的电源设置，禁止关闭显示器，禁止关闭硬盘，禁止睡眠，禁止待机. 不支持XP.
      */
     public void disableCloseDisplayAndSleep() {
-        callExpect1("DisableCloseDisplayAndSleep", FunctionArgs.of());
+        callExpect1("DisableCloseDisplayAndSleep", FunctionArgs.begin());
     }
 
     /**
@@ -81,7 +82,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 注: 关闭之后要让系统生效，必须重启系统才有效.
      */
     public void disableFontSmooth() {
-        callExpect1("DisableFontSmooth", FunctionArgs.of());
+        callExpect1("DisableFontSmooth", FunctionArgs.begin());
     }
 
     /**
@@ -91,7 +92,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 此函数经常用在后台操作过程中. 避免被系统干扰.
      */
     public void disablePowerSave() {
-        callExpect1("DisablePowerSave", FunctionArgs.of());
+        callExpect1("DisablePowerSave", FunctionArgs.begin());
     }
 
     /**
@@ -102,7 +103,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 此函数经常用在后台操作过程中. 避免被系统干扰.
      */
     public void disableScreenSave() {
-        callExpect1("DisableScreenSave", FunctionArgs.of());
+        callExpect1("DisableScreenSave", FunctionArgs.begin());
     }
 
     /**
@@ -111,7 +112,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 注: 开启之后要让系统生效，必须重启系统才有效.
      */
     public void enableFontSmooth() {
-        callExpect1("EnableFontSmooth", FunctionArgs.of());
+        callExpect1("EnableFontSmooth", FunctionArgs.begin());
     }
 
     /**
@@ -123,7 +124,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      *             2 : 重新启动
      */
     public void exitOs(int type) {
-        callExpect1("ExitOs", FunctionArgs.of(type));
+        callExpect1("ExitOs", FunctionArgs.begin().add(type));
     }
 
     /**
@@ -132,7 +133,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 以字符串表示的剪贴板内容
      */
     public String getClipboard() {
-        return callForString("GetClipboard", FunctionArgs.of());
+        return callForString("GetClipboard", FunctionArgs.begin());
     }
 
     /**
@@ -143,7 +144,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 2 : AMD cpu
      */
     public int getCpuType() {
-        return (int) callForLong("GetCpuType", FunctionArgs.of());
+        return (int) callForLong("GetCpuType", FunctionArgs.begin());
     }
 
     /**
@@ -152,7 +153,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 0-100表示的百分比
      */
     public int getCpuUsage() {
-        return (int) callForLong("GetCpuUsage", FunctionArgs.of());
+        return (int) callForLong("GetCpuUsage", FunctionArgs.begin());
     }
 
     /**
@@ -167,7 +168,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 返回路径
      */
     public String getDir(int type) {
-        return callForString("GetDir", FunctionArgs.of(type));
+        return callForString("GetDir", FunctionArgs.begin().add(type));
     }
 
     /**
@@ -177,7 +178,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的硬盘厂商信息
      */
     public String getDiskModel(int index) {
-        return callForString("GetDiskModel", FunctionArgs.of(index));
+        return callForString("GetDiskModel", FunctionArgs.begin().add(index));
     }
 
     /**
@@ -187,7 +188,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的修正版本信息
      */
     public String getDiskReversion(int index) {
-        return callForString("GetDiskReversion", FunctionArgs.of(index));
+        return callForString("GetDiskReversion", FunctionArgs.begin().add(index));
     }
 
     /**
@@ -197,7 +198,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的硬盘序列号
      */
     public String getDiskSerial(int index) {
-        return callForString("GetDiskSerial", FunctionArgs.of(index));
+        return callForString("GetDiskSerial", FunctionArgs.begin().add(index));
     }
 
     /**
@@ -206,7 +207,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的显卡描述信息. 如果有多个显卡,用"|"连接
      */
     public String getDisplayInfo() {
-        return callForString("GetDisplayInfo", FunctionArgs.of());
+        return callForString("GetDisplayInfo", FunctionArgs.begin());
     }
 
     /**
@@ -215,7 +216,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 缩放比例是不是100%
      */
     public boolean getDpi() {
-        return callForBool("GetDPI", FunctionArgs.of());
+        return callForBool("GetDPI", FunctionArgs.begin());
     }
 
     /**
@@ -224,7 +225,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符集是不是GB2312(简体中文)
      */
     public boolean getLocale() {
-        return callForBool("GetLocale", FunctionArgs.of());
+        return callForBool("GetLocale", FunctionArgs.begin());
     }
 
     /**
@@ -236,7 +237,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的机器机器码
      */
     public String getMachineCode() {
-        return callForString("GetMachineCode", FunctionArgs.of());
+        return callForString("GetMachineCode", FunctionArgs.begin());
     }
 
     /**
@@ -248,7 +249,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的机器机器码
      */
     public String getMachineCodeNoMac() {
-        return callForString("GetMachineCodeNoMac", FunctionArgs.of());
+        return callForString("GetMachineCodeNoMac", FunctionArgs.begin());
     }
 
     /**
@@ -257,7 +258,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 0-100表示的百分比
      */
     public int getMemoryUsage() {
-        return (int) callForLong("GetMemoryUsage", FunctionArgs.of());
+        return (int) callForLong("GetMemoryUsage", FunctionArgs.begin());
     }
 
     /**
@@ -268,7 +269,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 时间格式. 和now返回一致. 比如"2001-11-01 23:14:08"
      */
     public String getNetTime() {
-        return callForString("GetNetTime", FunctionArgs.of());
+        return callForString("GetNetTime", FunctionArgs.begin());
     }
 
     /**
@@ -281,7 +282,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 时间格式. 和now返回一致. 比如"2001-11-01 23:14:08"
      */
     public String getNetTimeByIp(String ip) {
-        return callForString("GetNetTimeByIp", FunctionArgs.of(ip));
+        return callForString("GetNetTimeByIp", FunctionArgs.begin().add(ip));
     }
 
     /**
@@ -293,7 +294,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 失败返回0
      */
     public int getOsBuildNumber() {
-        return (int) callForLong("GetOsBuildNumber", FunctionArgs.of());
+        return (int) callForLong("GetOsBuildNumber", FunctionArgs.begin());
     }
 
     /**
@@ -309,7 +310,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 7 : win10/2016 TP/win11
      */
     public int getOsType() {
-        return (int) callForLong("GetOsType", FunctionArgs.of());
+        return (int) callForLong("GetOsType", FunctionArgs.begin());
     }
 
     /**
@@ -318,7 +319,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 返回系统颜色深度.(16或者32等)
      */
     public int getScreenDepth() {
-        return (int) callForLong("GetScreenDepth", FunctionArgs.of());
+        return (int) callForLong("GetScreenDepth", FunctionArgs.begin());
     }
 
     /**
@@ -327,7 +328,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 返回屏幕的高度
      */
     public int getScreenHeight() {
-        return (int) callForLong("GetScreenHeight", FunctionArgs.of());
+        return (int) callForLong("GetScreenHeight", FunctionArgs.begin());
     }
 
     /**
@@ -336,7 +337,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 返回屏幕的宽度
      */
     public int getScreenWidth() {
-        return (int) callForLong("GetScreenWidth", FunctionArgs.of());
+        return (int) callForLong("GetScreenWidth", FunctionArgs.begin());
     }
 
     /**
@@ -369,7 +370,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 字符串表达的系统信息.
      */
     public String getSystemInfo(String type, int method) {
-        return callForString("GetSystemInfo", FunctionArgs.of(type, method));
+        return callForString("GetSystemInfo", FunctionArgs.begin().add(type).add(method));
     }
 
     /**
@@ -378,7 +379,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 时间(单位毫秒)
      */
     public long getTime() {
-        return callForLong("GetTime", FunctionArgs.of());
+        return callForLong("GetTime", FunctionArgs.begin());
     }
 
     /**
@@ -387,7 +388,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return 是否是64为操作系统
      */
     public boolean is64Bit() {
-        return callForBool("Is64Bit", FunctionArgs.of());
+        return callForBool("Is64Bit", FunctionArgs.begin());
     }
 
     /**
@@ -396,7 +397,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @return false-当前cpu不是intel的cpu,或者当前cpu不支持vt,或者bios中没打开vt. true-支持
      */
     public boolean isSupportVt() {
-        return callForBool("IsSurrpotVt", FunctionArgs.of());
+        return callForBool("IsSurrpotVt", FunctionArgs.begin());
     }
 
     /**
@@ -407,7 +408,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * 非0表示当前播放的ID。可以用Stop来控制播放结束.
      */
     public int play(String mediaFile) {
-        return (int) callForLong("Play", FunctionArgs.of(mediaFile));
+        return (int) callForLong("Play", FunctionArgs.begin().add(mediaFile));
     }
 
     /**
@@ -419,7 +420,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      *                1 : 加强模式
      */
     public void runApp(String appPath, int mode) {
-        callExpect1("RunApp", FunctionArgs.of(appPath, mode));
+        callExpect1("RunApp", FunctionArgs.begin().add(appPath).add(mode));
     }
 
     /**
@@ -428,7 +429,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param value 以字符串表示的剪贴板内容
      */
     public void setClipboard(String value) {
-        callExpect1("SetClipboard", FunctionArgs.of(value));
+        callExpect1("SetClipboard", FunctionArgs.begin().add(value));
     }
 
     /**
@@ -439,14 +440,14 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param level 取值范围为0-5.  0表示关闭硬件加速。5表示完全打开硬件加速.
      */
     public void setDisplayAcceler(int level) {
-        callExpect1("SetDisplayAcceler", FunctionArgs.of(level));
+        callExpect1("SetDisplayAcceler", FunctionArgs.begin().add(level));
     }
 
     /**
      * 设置当前系统的非UNICOD字符集. 会弹出一个字符集选择列表,用户自己选择到简体中文即可.
      */
     public void setLocale() {
-        callExpect1("SetLocale", FunctionArgs.of());
+        callExpect1("SetLocale", FunctionArgs.begin());
     }
 
     /**
@@ -457,7 +458,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param depth  系统色深
      */
     public void setScreen(int width, int height, int depth) {
-        callExpect1("SetScreen", FunctionArgs.of(width, height, depth));
+        callExpect1("SetScreen", FunctionArgs.begin().add(width).add(height).add(depth));
     }
 
     /**
@@ -469,7 +470,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param enable 是否开启
      */
     public void setUac(boolean enable) {
-        callExpect1("SetUAC", FunctionArgs.of(enable));
+        callExpect1("SetUAC", FunctionArgs.begin().add(enable));
     }
 
     /**
@@ -479,7 +480,7 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param show 0为隐藏,1为显示
      */
     public void showTaskBarIcon(long hwnd, boolean show) {
-        callExpect1("ShowTaskBarIcon", FunctionArgs.of(hwnd, show));
+        callExpect1("ShowTaskBarIcon", FunctionArgs.begin().add(hwnd).add(show));
     }
 
     /**
@@ -488,6 +489,6 @@ public class DmSystemFunctions extends AbstractDmFunctions {
      * @param id Play返回的播放id.
      */
     public void stop(int id) {
-        callExpect1("Stop", FunctionArgs.of(id));
+        callExpect1("Stop", FunctionArgs.begin().add(id));
     }
 }
@@ -1,8 +1,9 @@
 package cn.com.qjun.dmsoft.functions;
 
 import cn.com.qjun.commons.geometry.Point;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
+import cn.com.qjun.dmsoft.backend.DmBackend;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
+import cn.com.qjun.dmsoft.model.PointHolder;
 import lombok.NonNull;
 
 /**
@@ -10,8 +11,8 @@ import lombok.NonNull;
  * @date 2025/12/4
  */
 public class DmTextFunctions extends AbstractDmFunctions {
-    public DmTextFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmTextFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -21,7 +22,10 @@ public class DmTextFunctions extends AbstractDmFunctions {
      * @return 返回ret中的坐标个数
      */
     public int getResultCount(String result) {
-        return (int) callForLong("GetResultCount", FunctionArgs.of(result));
+        if (DmConversions.isEnabled()) {
+            return DmConversions.resultCount(result);
+        }
+        return (int) callForLong("GetResultCount", FunctionArgs.begin().add(result));
     }
 
     /**
@@ -32,8 +36,24 @@ public class DmTextFunctions extends AbstractDmFunctions {
      * @return 坐标点
      */
     public Point getResultPos(String result, int index) {
-        FunctionArgs args = FunctionArgs.of(result, index, new Variant(0, true), new Variant(0, true));
+        PointHolder out = new PointHolder();
+        getResultPos(result, index, out);
+        return out.toPoint();
+    }
+
+    /**
+     * 同{@link #getResultPos(String, int)}, 坐标写入调用方提供的输出对象
+     *
+     * @param result 部分接口的返回串
+     * @param index  第几个坐标
+     * @param out    坐标写入此对象, 可以在多次调用间复用
+     */
+    public void getResultPos(String result, int index, PointHolder out) {
+        if (DmConversions.isEnabled() && DmConversions.resultPos(result, index, out)) {
+            return;
+        }
+        FunctionArgs args = FunctionArgs.begin().add(result).add(index).addOutInt().addOutInt();
         callExpect1("GetResultPos", args);
-        return args.getPoint(-2, -1);
+        args.getPoint(-2, -1, out);
     }
 }
@@ -3,13 +3,15 @@ package cn.com.qjun.dmsoft.functions;
 import cn.com.qjun.commons.geometry.Point;
 import cn.com.qjun.commons.geometry.Rect;
 import cn.com.qjun.commons.geometry.Size;
+import cn.com.qjun.dmsoft.backend.DmBackend;
 import cn.com.qjun.dmsoft.enums.GetWindowFlag;
 import cn.com.qjun.dmsoft.enums.GetWindowStateFlag;
 import cn.com.qjun.dmsoft.enums.WindowFilter;
 import cn.com.qjun.dmsoft.enums.WindowFilterFlag;
+import cn.com.qjun.dmsoft.metrics.DmCallMetrics;
+import cn.com.qjun.dmsoft.model.LongList;
+import cn.com.qjun.dmsoft.model.PointHolder;
 import cn.com.qjun.dmsoft.model.ProcessInfo;
-import com.jacob.activeX.ActiveXComponent;
-import com.jacob.com.Variant;
 import lombok.NonNull;
 
 import java.util.Arrays;
@@ -25,8 +27,8 @@ import java.util.stream.Collectors;
  */
 public class DmWindowFunctions extends AbstractDmFunctions {
 
-    public DmWindowFunctions(@NonNull ActiveXComponent dmSoft) {
-        super(dmSoft);
+    public DmWindowFunctions(@NonNull DmBackend backend, @NonNull DmCallMetrics metrics) {
+        super(backend, metrics);
     }
 
     /**
@@ -37,9 +39,23 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口坐标对应的屏幕坐标
      */
     public Point clientToScreen(long hwnd, Point pointInWindow) {
-        FunctionArgs args = FunctionArgs.of(hwnd, pointInWindow, new Variant(0, true), new Variant(0, true));
+        PointHolder out = new PointHolder();
+        clientToScreen(hwnd, pointInWindow.x(), pointInWindow.y(), out);
+        return out.toPoint();
+    }
+
+    /**
+     * 把窗口坐标转换为屏幕坐标, 结果写入调用方提供的输出对象
+     *
+     * @param hwnd 窗口句柄
+     * @param x    窗口中的X坐标
+     * @param y    窗口中的Y坐标
+     * @param out  对应的屏幕坐标写入此对象, 可以在多次调用间复用
+     */
+    public void clientToScreen(long hwnd, int x, int y, PointHolder out) {
+        FunctionArgs args = FunctionArgs.begin().add(hwnd).addOutInt(x).addOutInt(y);
         callExpect1("ClientToScreen", args);
-        return args.getPoint(-2, -1);
+        args.getPoint(-2, -1, out);
     }
 
     /**
@@ -49,10 +65,20 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回所有匹配的进程PID, 并按打开顺序排序
      */
     public List<Long> enumProcess(String name) {
-        String result = callForString("EnumProcess", FunctionArgs.of(name));
+        String result = callForString("EnumProcess", FunctionArgs.begin().add(name));
         return DmResultParser.parseLongList(result);
     }
 
+    /**
+     * 和{@link #enumProcess(String)}相同, 返回不装箱的列表
+     *
+     * @param name 进程名,比如qq.exe
+     * @return 返回所有匹配的进程PID, 并按打开顺序排序
+     */
+    public LongList enumProcessIds(String name) {
+        return DmResultParser.readLongList(callForString("EnumProcess", FunctionArgs.begin().add(name)));
+    }
+
     /**
      * 根据指定条件,枚举系统中符合条件的窗口,可以枚举到按键自带的无法枚举到的窗口
      *
@@ -63,10 +89,24 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回所有匹配的窗口句柄
      */
     public List<Long> enumWindow(long parent, String title, String className, WindowFilter... filters) {
-        String result = callForString("EnumWindow", FunctionArgs.of(parent, title, className, WindowFilter.calcValue(filters)));
+        String result = callForString("EnumWindow", FunctionArgs.begin().add(parent).add(title).add(className).add(WindowFilter.calcValue(filters)));
         return DmResultParser.parseLongList(result);
     }
 
+    /**
+     * 和{@link #enumWindow(long, String, String, WindowFilter...)}相同, 返回不装箱的列表.
+     * 多次枚举的结果可以通过{@link LongList#diff(LongList)}找出新打开和已关闭的窗口
+     *
+     * @param parent    获得的窗口句柄是该窗口的子窗口的窗口句柄,取0时为获得桌面句柄
+     * @param title     窗口标题. 此参数是模糊匹配.
+     * @param className 窗口类名. 此参数是模糊匹配.
+     * @param filters   过滤条件
+     * @return 返回所有匹配的窗口句柄
+     */
+    public LongList enumWindowHandles(long parent, String title, String className, WindowFilter... filters) {
+        return DmResultParser.readLongList(callForString("EnumWindow", FunctionArgs.begin().add(parent).add(title).add(className).add(WindowFilter.calcValue(filters))));
+    }
+
     /**
      * 根据指定进程以及其它条件,枚举系统中符合条件的窗口,可以枚举到按键自带的无法枚举到的窗口
      *
@@ -77,10 +117,23 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回所有匹配的窗口句柄
      */
     public List<Long> enumWindowByProcess(String processName, String title, String className, WindowFilter... filters) {
-        String result = callForString("EnumWindowByProcess", FunctionArgs.of(processName, title, className, WindowFilter.calcValue(filters)));
+        String result = callForString("EnumWindowByProcess", FunctionArgs.begin().add(processName).add(title).add(className).add(WindowFilter.calcValue(filters)));
         return DmResultParser.parseLongList(result);
     }
 
+    /**
+     * 和{@link #enumWindowByProcess(String, String, String, WindowFilter...)}相同, 返回不装箱的列表
+     *
+     * @param processName 进程映像名.比如(svchost.exe). 此参数是精确匹配,但不区分大小写.
+     * @param title       窗口标题. 此参数是模糊匹配.
+     * @param className   窗口类名. 此参数是模糊匹配.
+     * @param filters     过滤条件
+     * @return 返回所有匹配的窗口句柄
+     */
+    public LongList enumWindowHandlesByProcess(String processName, String title, String className, WindowFilter... filters) {
+        return DmResultParser.readLongList(callForString("EnumWindowByProcess", FunctionArgs.begin().add(processName).add(title).add(className).add(WindowFilter.calcValue(filters))));
+    }
+
     /**
      * 根据指定进程pid以及其它条件,枚举系统中符合条件的窗口,可以枚举到按键自带的无法枚举到的窗口
      *
@@ -91,10 +144,23 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return
      */
     public List<Long> enumWindowByProcessId(long pid, String title, String className, WindowFilter... filters) {
-        String result = callForString("EnumWindowByProcessId", FunctionArgs.of(pid, title, className, WindowFilter.calcValue(filters)));
+        String result = callForString("EnumWindowByProcessId", FunctionArgs.begin().add(pid).add(title).add(className).add(WindowFilter.calcValue(filters)));
         return DmResultParser.parseLongList(result);
     }
 
+    /**
+     * 和{@link #enumWindowByProcessId(long, String, String, WindowFilter...)}相同, 返回不装箱的列表
+     *
+     * @param pid       进程pid
+     * @param title     窗口标题. 此参数是模糊匹配
+     * @param className 窗口类名. 此参数是模糊匹配
+     * @param filters   过滤条件
+     * @return 返回所有匹配的窗口句柄
+     */
+    public LongList enumWindowHandlesByProcessId(long pid, String title, String className, WindowFilter... filters) {
+        return DmResultParser.readLongList(callForString("EnumWindowByProcessId", FunctionArgs.begin().add(pid).add(title).add(className).add(WindowFilter.calcValue(filters))));
+    }
+
     /**
      * 根据两组设定条件来枚举指定窗口.
      *
@@ -108,10 +174,26 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回所有匹配的窗口句柄
      */
     public List<Long> enumWindowSuper(String spec1, WindowFilterFlag flag1, boolean fuzzy1, String spec2, WindowFilterFlag flag2, boolean fuzzy2, boolean orderByOpenTime) {
-        String result = callForString("EnumWindowSuper", FunctionArgs.of(spec1, flag1, fuzzy1, spec2, flag2, fuzzy2, orderByOpenTime));
+        String result = callForString("EnumWindowSuper", FunctionArgs.begin().add(spec1).add(flag1).add(fuzzy1).add(spec2).add(flag2).add(fuzzy2).add(orderByOpenTime));
         return DmResultParser.parseLongList(result);
     }
 
+    /**
+     * 和{@link #enumWindowSuper(String, WindowFilterFlag, boolean, String, WindowFilterFlag, boolean, boolean)}相同, 返回不装箱的列表
+     *
+     * @param spec1           查找串1. (内容取决于flag1的值)
+     * @param flag1           匹配方式1
+     * @param fuzzy1          条件1是否模糊匹配
+     * @param spec2           查找串2. (内容取决于flag2的值)
+     * @param flag2           匹配方式2
+     * @param fuzzy2          条件2是否模糊匹配
+     * @param orderByOpenTime 是否把对枚举出的窗口进行排序,按照窗口打开顺序.
+     * @return 返回所有匹配的窗口句柄
+     */
+    public LongList enumWindowHandlesSuper(String spec1, WindowFilterFlag flag1, boolean fuzzy1, String spec2, WindowFilterFlag flag2, boolean fuzzy2, boolean orderByOpenTime) {
+        return DmResultParser.readLongList(callForString("EnumWindowSuper", FunctionArgs.begin().add(spec1).add(flag1).add(fuzzy1).add(spec2).add(flag2).add(fuzzy2).add(orderByOpenTime)));
+    }
+
     /**
      * 查找符合类名或者标题名的顶层可见窗口
      *
@@ -120,7 +202,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 整形数表示的窗口句柄，没找到返回0
      */
     public long findWindow(String className, String title) {
-        return callForLong("FindWindow", FunctionArgs.of(className, title));
+        return callForLong("FindWindow", FunctionArgs.begin().add(className).add(title));
     }
 
     /**
@@ -132,7 +214,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 整形数表示的窗口句柄，没找到返回0
      */
     public long findWindowByProcess(String processName, String className, String title) {
-        return callForLong("FindWindowByProcess", FunctionArgs.of(processName, className, title));
+        return callForLong("FindWindowByProcess", FunctionArgs.begin().add(processName).add(className).add(title));
     }
 
     /**
@@ -144,7 +226,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 整形数表示的窗口句柄，没找到返回0
      */
     public long findWindowByProcessId(long processId, String className, String title) {
-        return callForLong("FindWindowByProcessId", FunctionArgs.of(processId, className, title));
+        return callForLong("FindWindowByProcessId", FunctionArgs.begin().add(processId).add(className).add(title));
     }
 
     /**
@@ -156,7 +238,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 整形数表示的窗口句柄，没找到返回0
      */
     public long findWindowEx(long parent, String className, String title) {
-        return callForLong("FindWindowEx", FunctionArgs.of(parent, className, title));
+        return callForLong("FindWindowEx", FunctionArgs.begin().add(parent).add(className).add(title));
     }
 
     /**
@@ -171,7 +253,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return
      */
     public long findWindowSuper(String spec1, WindowFilterFlag flag1, boolean fuzzy1, String spec2, WindowFilterFlag flag2, boolean fuzzy2) {
-        return callForLong("FindWindowSuper", FunctionArgs.of(spec1, flag1, fuzzy1, spec2, flag2, fuzzy2));
+        return callForLong("FindWindowSuper", FunctionArgs.begin().add(spec1).add(flag1).add(fuzzy1).add(spec2).add(flag2).add(fuzzy2));
     }
 
     /**
@@ -181,7 +263,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口客户区
      */
     public Rect getClientRect(long hwnd) {
-        FunctionArgs args = FunctionArgs.of(hwnd, new Variant(0, true), new Variant(0, true), new Variant(0, true), new Variant(0, true));
+        FunctionArgs args = FunctionArgs.begin().add(hwnd).addOutInt().addOutInt().addOutInt().addOutInt();
         callExpect1("GetClientRect", args);
         return args.getRect(-4, -3, -2, -1);
     }
@@ -193,7 +275,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口客户区尺寸
      */
     public Size getClientSize(long hwnd) {
-        FunctionArgs args = FunctionArgs.of(hwnd, new Variant(0, true), new Variant(0, true));
+        FunctionArgs args = FunctionArgs.begin().add(hwnd).addOutInt().addOutInt();
         callExpect1("GetClientSize", args);
         return args.getSize(-2, -1);
     }
@@ -204,7 +286,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的窗口句柄
      */
     public long getForegroundFocus() {
-        return callForLong("GetForegroundFocus", FunctionArgs.of());
+        return callForLong("GetForegroundFocus", FunctionArgs.begin());
     }
 
     /**
@@ -213,7 +295,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的窗口句柄
      */
     public long getForegroundWindow() {
-        return callForLong("GetForegroundWindow", FunctionArgs.of());
+        return callForLong("GetForegroundWindow", FunctionArgs.begin());
     }
 
     /**
@@ -222,7 +304,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的窗口句柄
      */
     public long getMousePointWindow() {
-        return callForLong("GetMousePointWindow", FunctionArgs.of());
+        return callForLong("GetMousePointWindow", FunctionArgs.begin());
     }
 
     /**
@@ -232,7 +314,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的窗口句柄
      */
     public long getPointWindow(Point point) {
-        return callForLong("GetPointWindow", FunctionArgs.of(point));
+        return callForLong("GetPointWindow", FunctionArgs.begin().add(point));
     }
 
     /**
@@ -242,7 +324,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 进程信息
      */
     public ProcessInfo getProcessInfo(long pid) {
-        String result = callForString("GetProcessInfo", FunctionArgs.of(pid));
+        String result = callForString("GetProcessInfo", FunctionArgs.begin().add(pid));
         return DmResultParser.parseProcessInfo(result);
     }
 
@@ -255,7 +337,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 以整型数表示的窗口句柄
      */
     public long getSpecialWindow(int flag) {
-        return callForLong("GetSpecialWindow", FunctionArgs.of(flag));
+        return callForLong("GetSpecialWindow", FunctionArgs.begin().add(flag));
     }
 
     /**
@@ -266,7 +348,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的窗口句柄
      */
     public long getWindow(long hwnd, GetWindowFlag flag) {
-        return callForLong("GetWindow", FunctionArgs.of(hwnd, flag));
+        return callForLong("GetWindow", FunctionArgs.begin().add(hwnd).add(flag));
     }
 
     /**
@@ -276,7 +358,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口的类名
      */
     public String getWindowClass(long hwnd) {
-        return callForString("GetWindowClass", FunctionArgs.of(hwnd));
+        return callForString("GetWindowClass", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -286,7 +368,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的进程ID
      */
     public long getWindowProcessId(long hwnd) {
-        return callForLong("GetWindowProcessId", FunctionArgs.of(hwnd));
+        return callForLong("GetWindowProcessId", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -296,7 +378,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回字符串表示的是exe全路径名
      */
     public String getWindowProcessPath(long hwnd) {
-        return callForString("GetWindowProcessPath", FunctionArgs.of(hwnd));
+        return callForString("GetWindowProcessPath", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -306,7 +388,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口在屏幕上的区域
      */
     public Rect getWindowRect(long hwnd) {
-        FunctionArgs args = FunctionArgs.of(hwnd, new Variant(0, true), new Variant(0, true), new Variant(0, true), new Variant(0, true));
+        FunctionArgs args = FunctionArgs.begin().add(hwnd).addOutInt().addOutInt().addOutInt().addOutInt();
         callExpect1("GetWindowRect", args);
         return args.getRect(-4, -3, -2, -1);
     }
@@ -319,7 +401,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 是否处于标识指定的状态
      */
     public boolean getWindowState(long hwnd, GetWindowStateFlag flag) {
-        long result = callForLong("GetWindowState", FunctionArgs.of(hwnd, flag));
+        long result = callForLong("GetWindowState", FunctionArgs.begin().add(hwnd).add(flag));
         return result == 1;
     }
 
@@ -330,7 +412,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 返回整型表示的是线程ID
      */
     public long getWindowThreadId(long hwnd) {
-        return callForLong("GetWindowThreadId", FunctionArgs.of(hwnd));
+        return callForLong("GetWindowThreadId", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -340,7 +422,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @return 窗口的标题
      */
     public String getWindowTitle(long hwnd) {
-        return callForString("GetWindowTitle", FunctionArgs.of(hwnd));
+        return callForString("GetWindowTitle", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -350,7 +432,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param point 要移动到的坐标
      */
     public void moveWindow(long hwnd, Point point) {
-        callExpect1("MoveWindow", FunctionArgs.of(hwnd, point));
+        callExpect1("MoveWindow", FunctionArgs.begin().add(hwnd).add(point));
     }
 
     /**
@@ -358,12 +440,26 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      *
      * @param hwnd          指定的窗口句柄
      * @param pointInScreen 屏幕中的坐标
-     * @return
+     * @return 屏幕坐标对应的窗口坐标
      */
     public Point screenToClient(long hwnd, Point pointInScreen) {
-        FunctionArgs args = FunctionArgs.of(hwnd, pointInScreen, new Variant(0, true), new Variant(0, true));
+        PointHolder out = new PointHolder();
+        screenToClient(hwnd, pointInScreen.x(), pointInScreen.y(), out);
+        return out.toPoint();
+    }
+
+    /**
+     * 把屏幕坐标转换为窗口坐标, 结果写入调用方提供的输出对象
+     *
+     * @param hwnd 指定的窗口句柄
+     * @param x    屏幕中的X坐标
+     * @param y    屏幕中的Y坐标
+     * @param out  对应的窗口坐标写入此对象, 可以在多次调用间复用
+     */
+    public void screenToClient(long hwnd, int x, int y, PointHolder out) {
+        FunctionArgs args = FunctionArgs.begin().add(hwnd).addOutInt(x).addOutInt(y);
         callExpect1("ScreenToClient", args);
-        return args.getPoint(-2, -1);
+        args.getPoint(-2, -1, out);
     }
 
     /**
@@ -372,7 +468,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param hwnd 指定的窗口句柄. 如果为0,则对当前激活的窗口发送.
      */
     public void sendPaste(long hwnd) {
-        callExpect1("SendPaste", FunctionArgs.of(hwnd));
+        callExpect1("SendPaste", FunctionArgs.begin().add(hwnd));
     }
 
     /**
@@ -385,7 +481,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param content 发送的文本数据
      */
     public void sendString(long hwnd, String content) {
-        callExpect1("SendString", FunctionArgs.of(hwnd, content));
+        callExpect1("SendString", FunctionArgs.begin().add(hwnd).add(content));
     }
 
     /**
@@ -400,7 +496,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      */
     @Deprecated
     public void sendString2(long hwnd, String content) {
-        callExpect1("SendString2", FunctionArgs.of(hwnd, content));
+        callExpect1("SendString2", FunctionArgs.begin().add(hwnd).add(content));
     }
 
     /**
@@ -409,7 +505,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param content 发送的文本数据
      */
     public void sendStringIme(String content) {
-        callExpect1("SendStringIme", FunctionArgs.of(content));
+        callExpect1("SendStringIme", FunctionArgs.begin().add(content));
     }
 
     /**
@@ -431,7 +527,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      *                300 : 卸载系统中的输入法. 全局只用卸载一次. 多次调用没关系.
      */
     public void sendStringIme2(long hwnd, String content, int mode) {
-        callExpect1("SendStringIme2", FunctionArgs.of(hwnd, content, mode));
+        callExpect1("SendStringIme2", FunctionArgs.begin().add(hwnd).add(content).add(mode));
     }
 
     /**
@@ -441,7 +537,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param size 要设置的客户区尺寸
      */
     public void setClientSize(long hwnd, Size size) {
-        callExpect1("SetClientSize", FunctionArgs.of(hwnd, size));
+        callExpect1("SetClientSize", FunctionArgs.begin().add(hwnd).add(size));
     }
 
     /**
@@ -451,7 +547,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param size 要设置的窗口尺寸
      */
     public void setWindowSize(long hwnd, Size size) {
-        callExpect1("SetWindowSize", FunctionArgs.of(hwnd, size));
+        callExpect1("SetWindowSize", FunctionArgs.begin().add(hwnd).add(size));
     }
 
     /**
@@ -477,7 +573,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      *             15 : 使指定的窗口获取输入焦点
      */
     public void setWindowState(long hwnd, int flag) {
-        callExpect1("SetWindowState", FunctionArgs.of(hwnd, flag));
+        callExpect1("SetWindowState", FunctionArgs.begin().add(hwnd).add(flag));
     }
 
     /**
@@ -487,7 +583,7 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param title 标题
      */
     public void setWindowText(long hwnd, String title) {
-        callExpect1("SetWindowText", FunctionArgs.of(hwnd, title));
+        callExpect1("SetWindowText", FunctionArgs.begin().add(hwnd).add(title));
     }
 
     /**
@@ -498,6 +594,6 @@ public class DmWindowFunctions extends AbstractDmFunctions {
      * @param trans 透明度取值(0-255) 越小透明度越大 0为完全透明(不可见) 255为完全显示(不透明)
      */
     public void setWindowTransparent(long hwnd, int trans) {
-        callExpect1("SetWindowTransparent", FunctionArgs.of(hwnd, trans));
+        callExpect1("SetWindowTransparent", FunctionArgs.begin().add(hwnd).add(trans));
     }
 }
@@ -5,84 +5,393 @@ import cn.com.qjun.commons.geometry.Rect;
 import cn.com.qjun.commons.geometry.Size;
 import cn.com.qjun.dmsoft.enums.DmEnum;
 import cn.com.qjun.dmsoft.model.MemoryInfo;
-import com.jacob.com.Variant;
-import lombok.Getter;
-import lombok.experimental.Accessors;
-import org.apache.commons.lang3.ArrayUtils;
+import cn.com.qjun.dmsoft.model.PointHolder;
 
-import java.util.stream.Stream;
+import java.util.Arrays;
 
 /**
+ * 大漠函数的调用参数和返回值
+ * <p>
+ * 参数按类型直接写入预先分配好的数组, 每个线程复用同一个实例, 所以稳定状态下组装参数不会产生新的对象.
+ * 这里只记录参数的类型和值, 由{@link cn.com.qjun.dmsoft.backend.DmBackend}负责转换成具体的调用方式(比如COM的Variant),
+ * 调用完成后后端把返回值和输出参数写回这里.
+ * 通过{@link #begin()}获取的实例只在当前这一次调用内有效, 在下一次调用{@link #begin()}之前必须读取完返回值和输出参数.
+ *
  * @author 81062
  * @date 2025/11/25
  */
-@Getter
-@Accessors(fluent = true)
 public class FunctionArgs {
-    private final Variant[] variants;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final ThreadLocal<FunctionArgs> LOCAL_ARGS = ThreadLocal.withInitial(FunctionArgs::new);
 
+    private Type[] types;
+    /**
+     * 整数类型(包括布尔和输出参数)的值
+     */
+    private long[] longs;
+    /**
+     * 浮点类型的值
+     */
+    private double[] doubles;
+    private String[] strings;
+    private int size;
+
+    private Type resultType = Type.EMPTY;
+    private long resultLong;
+    private double resultDouble;
+    private String resultString;
+
+    /**
+     * 获取当前线程复用的参数实例, 并清空上一次调用的参数和返回值
+     *
+     * @return 当前线程的参数实例
+     */
+    public static FunctionArgs begin() {
+        return LOCAL_ARGS.get().reset();
+    }
+
+    /**
+     * 根据参数对象的类型逐个添加. 每次调用都会创建新的实例, 只适合不在热点路径上的调用.
+     *
+     * @param args 参数
+     * @return 新的参数实例
+     * @deprecated 使用{@link #begin()}和类型化的add方法
+     */
+    @Deprecated
     public static FunctionArgs of(Object... args) {
-        return new FunctionArgs(args);
+        FunctionArgs functionArgs = new FunctionArgs();
+        if (args != null) {
+            for (Object arg : args) {
+                functionArgs.addObject(arg);
+            }
+        }
+        return functionArgs;
+    }
+
+    private FunctionArgs() {
+        types = new Type[INITIAL_CAPACITY];
+        longs = new long[INITIAL_CAPACITY];
+        doubles = new double[INITIAL_CAPACITY];
+        strings = new String[INITIAL_CAPACITY];
+    }
+
+    public FunctionArgs add(int value) {
+        longs[next(Type.INT)] = value;
+        return this;
+    }
+
+    public FunctionArgs add(long value) {
+        longs[next(Type.LONG)] = value;
+        return this;
     }
 
-    private FunctionArgs(Object... args) {
-        if (ArrayUtils.isEmpty(args)) {
-            this.variants = new Variant[0];
+    public FunctionArgs add(float value) {
+        doubles[next(Type.FLOAT)] = value;
+        return this;
+    }
+
+    public FunctionArgs add(double value) {
+        doubles[next(Type.DOUBLE)] = value;
+        return this;
+    }
+
+    public FunctionArgs add(boolean value) {
+        return add(value ? 1 : 0);
+    }
+
+    public FunctionArgs add(String value) {
+        if (value == null) {
+            next(Type.EMPTY);
         } else {
-            this.variants = Stream.of(args)
-                    .flatMap(this::argToVariants)
-                    .toArray(Variant[]::new);
+            strings[next(Type.STRING)] = value;
+        }
+        return this;
+    }
+
+    public FunctionArgs add(Point point) {
+        return add(point.x()).add(point.y());
+    }
+
+    public FunctionArgs add(Rect rect) {
+        return add(rect.x1()).add(rect.y1()).add(rect.x2()).add(rect.y2());
+    }
+
+    public FunctionArgs add(Size size) {
+        return add(size.width()).add(size.height());
+    }
+
+    public FunctionArgs add(MemoryInfo memoryInfo) {
+        return add(memoryInfo.getAddress()).add(memoryInfo.getSize());
+    }
+
+    public FunctionArgs add(DmEnum<?> dmEnum) {
+        Object value = dmEnum.getValue();
+        if (value instanceof Integer) {
+            return add(((Integer) value).intValue());
+        }
+        return addObject(value);
+    }
+
+    /**
+     * 添加一个整数类型的输出参数(传引用), 调用完成后通过getXxx方法按下标读取.
+     */
+    public FunctionArgs addOutInt() {
+        return addOutInt(0);
+    }
+
+    /**
+     * 添加一个带初始值的整数类型输入输出参数(传引用), 比如ClientToScreen中既是输入也是输出的坐标
+     *
+     * @param initialValue 初始值
+     */
+    public FunctionArgs addOutInt(int initialValue) {
+        longs[next(Type.OUT_INT)] = initialValue;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index 参数下标
+     * @return 参数类型
+     */
+    public Type type(int index) {
+        return types[index];
+    }
+
+    /**
+     * 读取{@link Type#INT}、{@link Type#LONG}、{@link Type#OUT_INT}类型的参数值
+     */
+    public long longValue(int index) {
+        return longs[index];
+    }
+
+    /**
+     * 读取{@link Type#FLOAT}、{@link Type#DOUBLE}类型的参数值
+     */
+    public double doubleValue(int index) {
+        return doubles[index];
+    }
+
+    /**
+     * 读取{@link Type#STRING}类型的参数值
+     */
+    public String stringValue(int index) {
+        return strings[index];
+    }
+
+    /**
+     * 由后端在调用完成后写回输出参数
+     */
+    public void setOutInt(int index, int value) {
+        longs[index] = value;
+    }
+
+    public void setResult(long value) {
+        resultType = Type.LONG;
+        resultLong = value;
+    }
+
+    public void setResult(double value) {
+        resultType = Type.DOUBLE;
+        resultDouble = value;
+    }
+
+    public void setResult(String value) {
+        if (value == null) {
+            setEmptyResult();
+        } else {
+            resultType = Type.STRING;
+            resultString = value;
+        }
+    }
+
+    public void setEmptyResult() {
+        resultType = Type.EMPTY;
+        resultString = null;
+    }
+
+    public Type resultType() {
+        return resultType;
+    }
+
+    public long resultAsLong() {
+        switch (resultType) {
+            case LONG:
+                return resultLong;
+            case DOUBLE:
+                return (long) resultDouble;
+            default:
+                throw new RuntimeException(String.format("大漠函数返回值类型为%s, 无法转换成整数.", resultType));
+        }
+    }
+
+    public double resultAsDouble() {
+        switch (resultType) {
+            case DOUBLE:
+                return resultDouble;
+            case LONG:
+                return resultLong;
+            default:
+                throw new RuntimeException(String.format("大漠函数返回值类型为%s, 无法转换成小数.", resultType));
+        }
+    }
+
+    public String resultAsString() {
+        switch (resultType) {
+            case STRING:
+                return resultString;
+            case EMPTY:
+                return null;
+            default:
+                throw new RuntimeException(String.format("大漠函数返回值类型为%s, 无法转换成字符串.", resultType));
         }
     }
 
     public Point getPoint(int xIndex, int yIndex) {
-        return Point.of(getVariant(xIndex).getInt(), getVariant(yIndex).getInt());
+        return Point.of(getInt(xIndex), getInt(yIndex));
+    }
+
+    /**
+     * 把坐标写入调用方提供的输出对象, 不创建新的{@link Point}
+     */
+    public void getPoint(int xIndex, int yIndex, PointHolder out) {
+        out.set(getInt(xIndex), getInt(yIndex));
     }
 
     public Size getSize(int widthIndex, int heightIndex) {
-        return Size.of(getVariant(widthIndex).getInt(), getVariant(heightIndex).getInt());
+        return Size.of(getInt(widthIndex), getInt(heightIndex));
     }
 
     public Rect getRect(int x1Index, int y1Index, int x2Index, int y2Index) {
-        return Rect.ofPoint(getVariant(x1Index).getInt(), getVariant(y1Index).getInt(), getVariant(x2Index).getInt(), getVariant(y2Index).getInt());
+        return Rect.ofPoint(getInt(x1Index), getInt(y1Index), getInt(x2Index), getInt(y2Index));
     }
 
     public MemoryInfo getMemoryInfo(int addrIndex, int sizeIndex) {
-        return new MemoryInfo(getVariant(addrIndex).getInt(), getVariant(sizeIndex).getInt());
+        MemoryInfo memoryInfo = new MemoryInfo();
+        getMemoryInfo(addrIndex, sizeIndex, memoryInfo);
+        return memoryInfo;
+    }
+
+    /**
+     * 把内存地址和长度写入调用方提供的输出对象. 插件是32位的, 地址按无符号数读取.
+     */
+    public void getMemoryInfo(int addrIndex, int sizeIndex, MemoryInfo out) {
+        out.setAddress(Integer.toUnsignedLong(getInt(addrIndex)));
+        out.setSize(getInt(sizeIndex));
+    }
+
+    /**
+     * 按下标读取整数参数(一般是输出参数), 负数表示从后往前数
+     */
+    public int getInt(int index) {
+        return (int) longs[resolveIndex(index)];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            switch (types[i]) {
+                case FLOAT:
+                case DOUBLE:
+                    sb.append(doubles[i]);
+                    break;
+                case STRING:
+                    sb.append('"').append(strings[i]).append('"');
+                    break;
+                case EMPTY:
+                    sb.append("null");
+                    break;
+                case OUT_INT:
+                    sb.append('&').append(longs[i]);
+                    break;
+                default:
+                    sb.append(longs[i]);
+            }
+        }
+        return sb.append(']').toString();
     }
 
-    public Variant getVariant(int index) {
-        int len = variants.length;
-        int i = index % len;
+    private int resolveIndex(int index) {
+        int i = index % size;
         if (i < 0) {
-            i += len;
+            i += size;
         }
-        return variants[i];
+        return i;
+    }
+
+    private FunctionArgs reset() {
+        // 清掉字符串引用, 避免一直持有上一次调用的大字符串
+        Arrays.fill(strings, 0, size, null);
+        size = 0;
+        setEmptyResult();
+        return this;
     }
 
-    private Stream<Variant> argToVariants(Object originArg) {
-        if (originArg instanceof Point) {
-            Point point = (Point) originArg;
-            return Stream.of(new Variant(point.x()), new Variant(point.y()));
+    private FunctionArgs addObject(Object originArg) {
+        if (originArg == null) {
+            return add((String) null);
+        } else if (originArg instanceof Integer) {
+            return add(((Integer) originArg).intValue());
+        } else if (originArg instanceof Long) {
+            return add(((Long) originArg).longValue());
+        } else if (originArg instanceof Double) {
+            return add(((Double) originArg).doubleValue());
+        } else if (originArg instanceof Float) {
+            return add(((Float) originArg).floatValue());
+        } else if (originArg instanceof String) {
+            return add((String) originArg);
+        } else if (originArg instanceof Boolean) {
+            return add(((Boolean) originArg).booleanValue());
+        } else if (originArg instanceof Point) {
+            return add((Point) originArg);
         } else if (originArg instanceof Rect) {
-            Rect rect = (Rect) originArg;
-            return Stream.of(new Variant(rect.x1()), new Variant(rect.y1()), new Variant(rect.x2()), new Variant(rect.y2()));
+            return add((Rect) originArg);
         } else if (originArg instanceof Size) {
-            Size size = (Size) originArg;
-            return Stream.of(new Variant(size.width()), new Variant(size.height()));
+            return add((Size) originArg);
         } else if (originArg instanceof DmEnum<?>) {
-            DmEnum<?> dmEnum = (DmEnum<?>) originArg;
-            return Stream.of(new Variant(dmEnum.getValue()));
+            return add((DmEnum<?>) originArg);
         } else if (originArg instanceof MemoryInfo) {
-            MemoryInfo memoryInfo = (MemoryInfo) originArg;
-            return Stream.of(new Variant(memoryInfo.getAddress()), new Variant(memoryInfo.getSize()));
-        } else if (originArg instanceof Variant) {
-            return Stream.of((Variant) originArg);
-        } else if (originArg instanceof Boolean) {
-            boolean arg = (boolean) originArg;
-            return Stream.of(new Variant(arg ? 1 : 0));
+            return add((MemoryInfo) originArg);
         } else {
-            return Stream.of(new Variant(originArg));
+            throw new IllegalArgumentException("不支持的大漠函数参数类型: " + originArg.getClass().getName());
         }
     }
+
+    private int next(Type type) {
+        if (size == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            longs = Arrays.copyOf(longs, capacity);
+            doubles = Arrays.copyOf(doubles, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+        }
+        types[size] = type;
+        return size++;
+    }
+
+    /**
+     * 参数类型
+     */
+    public enum Type {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        STRING,
+        /**
+         * 空值(null)
+         */
+        EMPTY,
+        /**
+         * 整数类型的输出参数(传引用)
+         */
+        OUT_INT
+    }
 }
@@ -0,0 +1,81 @@
+package cn.com.qjun.dmsoft.functions;
+
+import cn.com.qjun.dmsoft.utils.PackedPoints;
+import lombok.NonNull;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * 按需解析大漠返回的多条坐标记录, 每次只解码一条
+ * <p>
+ * 每条记录的格式为"前导字段...,x,y", 比如FindColorEx的"x,y"(没有前导字段)、FindPicEx的"序号,x,y"(1个前导字段)、
+ * FindPicSimEx的"序号,匹配度,x,y"(2个前导字段). 坐标按{@link PackedPoints}打包成int, 前导字段直接跳过.
+ * <p>
+ * 配合{@link java.util.stream.IntStream#filter}、{@code findFirst}、{@code limit}等使用时, 找到需要的结果后不会再解析剩下的记录.
+ * 结果最多几千条, 解析一条的开销远小于并行的调度开销, 所以不支持拆分.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class PackedPointSpliterator implements Spliterator.OfInt {
+    private static final int CHARACTERISTICS = ORDERED | NONNULL | IMMUTABLE;
+
+    private final ResultCursor cursor;
+    private final int leadingFields;
+
+    /**
+     * @param dmResult      大漠返回的字符串, null或空字符串表示没有结果
+     * @param leadingFields 每条记录中坐标前面的字段个数
+     */
+    public PackedPointSpliterator(CharSequence dmResult, int leadingFields) {
+        if (leadingFields < 0) {
+            throw new IllegalArgumentException("前导字段个数不能为负数: " + leadingFields);
+        }
+        this.cursor = new ResultCursor(dmResult);
+        this.leadingFields = leadingFields;
+    }
+
+    @Override
+    public boolean tryAdvance(@NonNull IntConsumer action) {
+        if (!cursor.hasRemaining()) {
+            return false;
+        }
+        action.accept(next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(@NonNull IntConsumer action) {
+        while (cursor.hasRemaining()) {
+            action.accept(next());
+        }
+    }
+
+    @Override
+    public OfInt trySplit() {
+        return null;
+    }
+
+    /**
+     * 不先扫描一遍字符串, 所以条数未知
+     */
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    private int next() {
+        for (int i = 0; i < leadingFields; i++) {
+            cursor.skipField();
+        }
+        int packed = PackedPoints.pack(cursor.nextInt(), cursor.nextInt());
+        cursor.nextRecord();
+        return packed;
+    }
+}
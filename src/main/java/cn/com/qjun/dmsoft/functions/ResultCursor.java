@@ -0,0 +1,184 @@
+package cn.com.qjun.dmsoft.functions;
+
+/**
+ * 大漠返回字符串的游标, 直接在原字符串上按字符读取, 不拆分成子串
+ * <p>
+ * 大漠的结果一般是以"|"分隔的多条记录, 每条记录以","分隔多个字段, 比如"0,100,200|1,30,40".
+ * 读取字段时游标前进到字段之后, 并跳过紧跟的","; 一条记录读完后调用{@link #nextRecord()}进入下一条.
+ * 整数的格式和{@link Integer#parseInt(String)}一致, 格式错误时同样抛出{@link NumberFormatException}.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class ResultCursor {
+    public static final char FIELD_SEPARATOR = ',';
+    public static final char RECORD_SEPARATOR = '|';
+
+    private CharSequence source;
+    private int position;
+    private int end;
+
+    public ResultCursor(CharSequence source) {
+        reset(source);
+    }
+
+    /**
+     * 改为读取新的字符串, 用于复用游标
+     *
+     * @param source 大漠返回的字符串, null按空字符串处理
+     * @return 当前游标
+     */
+    public ResultCursor reset(CharSequence source) {
+        this.source = source == null ? "" : source;
+        this.position = 0;
+        this.end = this.source.length();
+        return this;
+    }
+
+    /**
+     * @return 是否还有未读取的字符
+     */
+    public boolean hasRemaining() {
+        return position < end;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    /**
+     * 读取一个int字段
+     */
+    public int nextInt() {
+        long value = readLong(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int) value;
+    }
+
+    /**
+     * 读取一个long字段
+     */
+    public long nextLong() {
+        return readLong(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * 读取一个字符串字段, 到","、"|"或者结尾为止
+     */
+    public String nextString() {
+        int start = position;
+        while (position < end) {
+            char c = source.charAt(position);
+            if (c == FIELD_SEPARATOR || c == RECORD_SEPARATOR) {
+                break;
+            }
+            position++;
+        }
+        String value = source.subSequence(start, position).toString();
+        skipFieldSeparator();
+        return value;
+    }
+
+    /**
+     * 跳过一个字段, 不创建字符串
+     */
+    public void skipField() {
+        while (position < end) {
+            char c = source.charAt(position);
+            if (c == FIELD_SEPARATOR || c == RECORD_SEPARATOR) {
+                break;
+            }
+            position++;
+        }
+        skipFieldSeparator();
+    }
+
+    /**
+     * 读取当前记录剩下的全部内容(可以包含","), 到"|"或者结尾为止. 用于只以"|"分隔的结果, 比如文件名列表
+     */
+    public String nextRecordText() {
+        int start = position;
+        while (position < end && source.charAt(position) != RECORD_SEPARATOR) {
+            position++;
+        }
+        return source.subSequence(start, position).toString();
+    }
+
+    /**
+     * 跳过当前记录中没有读取的字段, 进入下一条记录
+     *
+     * @return 后面是否还有记录. 和{@link String#split(String)}一致, 结尾的"|"不算新的记录
+     */
+    public boolean nextRecord() {
+        while (position < end && source.charAt(position) != RECORD_SEPARATOR) {
+            position++;
+        }
+        if (position < end) {
+            position++;
+        }
+        return position < end;
+    }
+
+    /**
+     * 按{@link Long#parseLong(String)}的规则读取整数, 累加负数以便正确处理最小值
+     */
+    private long readLong(long min, long max) {
+        int start = position;
+        boolean negative = false;
+        long limit = -max;
+        if (position < end) {
+            char first = source.charAt(position);
+            if (first == '-') {
+                negative = true;
+                limit = min;
+                position++;
+            } else if (first == '+') {
+                position++;
+            }
+        }
+        int digitsStart = position;
+        long multiLimit = limit / 10;
+        long result = 0;
+        while (position < end) {
+            char c = source.charAt(position);
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (result < multiLimit) {
+                throw numberFormatException(start);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(start);
+            }
+            result -= digit;
+            position++;
+        }
+        if (position == digitsStart || (position < end && !isSeparator(source.charAt(position)))) {
+            throw numberFormatException(start);
+        }
+        skipFieldSeparator();
+        return negative ? result : -result;
+    }
+
+    private void skipFieldSeparator() {
+        if (position < end && source.charAt(position) == FIELD_SEPARATOR) {
+            position++;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == FIELD_SEPARATOR || c == RECORD_SEPARATOR;
+    }
+
+    /**
+     * 只有出错时才截取子串, 异常信息和{@link Integer#parseInt(String)}一致
+     */
+    private NumberFormatException numberFormatException(int start) {
+        int stop = start;
+        while (stop < end && !isSeparator(source.charAt(stop))) {
+            stop++;
+        }
+        return new NumberFormatException("For input string: \"" + source.subSequence(start, stop) + "\"");
+    }
+}
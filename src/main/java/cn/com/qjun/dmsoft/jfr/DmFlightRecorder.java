@@ -0,0 +1,68 @@
+package cn.com.qjun.dmsoft.jfr;
+
+/**
+ * 向Java Flight Recorder提交大漠调用事件
+ * <p>
+ * 这是Java 8下的空实现, 所有方法都不做任何事情, 会被JIT直接内联消除.
+ * 在JDK 11及以上运行时, 多版本jar中META-INF/versions/11下的同名类会替换这里的实现, 提交真正的JFR事件.
+ * <p>
+ * 使用方式: 调用前通过beginXxx获取事件, 返回null表示事件未开启, 调用后把事件和结果传给endXxx.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class DmFlightRecorder {
+
+    private DmFlightRecorder() {
+    }
+
+    /**
+     * @return 当前运行环境是否支持JFR事件
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * 开始一次大漠函数调用
+     *
+     * @return 事件, 未开启时返回null
+     */
+    public static Object beginCall() {
+        return null;
+    }
+
+    /**
+     * 结束一次大漠函数调用
+     *
+     * @param event    {@link #beginCall()}返回的事件
+     * @param method   函数名
+     * @param argCount 参数个数
+     * @param dmSoftId 大漠对象ID
+     * @param success  调用是否成功
+     */
+    public static void endCall(Object event, String method, int argCount, long dmSoftId, boolean success) {
+    }
+
+    /**
+     * 开始一次找色/找图
+     *
+     * @return 事件, 未开启时返回null
+     */
+    public static Object beginSearch() {
+        return null;
+    }
+
+    /**
+     * 结束一次找色/找图
+     *
+     * @param event         {@link #beginSearch()}返回的事件
+     * @param method        函数名
+     * @param rectArea      查找区域的面积(像素)
+     * @param templateCount 查找的颜色、图片或者点的个数
+     * @param hitCount      找到的结果个数
+     * @param dmSoftId      大漠对象ID
+     */
+    public static void endSearch(Object event, String method, long rectArea, int templateCount, int hitCount, long dmSoftId) {
+    }
+}
@@ -0,0 +1,315 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 编译好的CE风格地址描述, 比如{@code "[[[<game.exe>+DA678]+3A]+5B]+8"}
+ * <p>
+ * 大漠的ReadInt、WriteInt等接口每次调用都要重新解析地址字符串, 再逐级读取指针. 这里只解析一次,
+ * 通过{@link AddressResolver}计算出最终地址, 然后调用ReadIntAddr、WriteIntAddr等直接使用地址的接口.
+ * 模块基址和中间的指针由{@link AddressResolver}缓存.
+ * <p>
+ * 语法和大漠一致: 数值是16进制, 模块名用{@code <>}括起来, {@code [ ]}表示读取指针, 支持{@code +}和{@code -}, 忽略空白.
+ * 不可变, 可以在多个线程中共享.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class AddressExpression {
+    private final String text;
+    private final Node root;
+    private final int depth;
+
+    private AddressExpression(String text, Node root) {
+        this.text = text;
+        this.root = root;
+        this.depth = root.depth();
+    }
+
+    /**
+     * @param text 地址描述
+     * @return 编译后的地址
+     * @throws IllegalArgumentException 语法错误
+     */
+    public static AddressExpression compile(@NonNull String text) {
+        Parser parser = new Parser(text);
+        Node root = parser.parseSum();
+        parser.skipSpaces();
+        if (parser.position < text.length()) {
+            throw parser.error("多余的字符");
+        }
+        return new AddressExpression(text, root);
+    }
+
+    /**
+     * @return 计算出的地址, 模块不存在或者指针不可读时返回0
+     */
+    public long resolve(@NonNull AddressResolver resolver) {
+        return resolver.resolve(this);
+    }
+
+    /**
+     * @return 指针的级数, 比如{@code "[[<game.exe>+10]+4]+8"}是2
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return 规范化的地址描述: 去掉空白, 数值为大写16进制, 模块名为小写
+     */
+    public String toCanonicalString() {
+        return root.toString();
+    }
+
+    long evaluate(AddressResolver resolver) {
+        return root.evaluate(resolver);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof AddressExpression && toCanonicalString().equals(((AddressExpression) o).toCanonicalString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toCanonicalString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    interface Node {
+
+        /**
+         * @return 计算结果, 0表示失败
+         */
+        long evaluate(AddressResolver resolver);
+
+        int depth();
+    }
+
+    private static final class Constant implements Node {
+        private final long value;
+
+        Constant(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public long evaluate(AddressResolver resolver) {
+            return value;
+        }
+
+        @Override
+        public int depth() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return Long.toHexString(value).toUpperCase();
+        }
+    }
+
+    private static final class Module implements Node {
+        private final String name;
+
+        Module(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public long evaluate(AddressResolver resolver) {
+            return resolver.getModuleBase(name);
+        }
+
+        @Override
+        public int depth() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            // 模块名不区分大小写
+            return "<" + name.toLowerCase(Locale.ROOT) + ">";
+        }
+    }
+
+    private static final class Pointer implements Node {
+        private final Node target;
+        /**
+         * 规范化的内部表达式, 作为指针缓存的键, 不同表达式中相同的前缀共享缓存
+         */
+        private final String key;
+
+        Pointer(Node target) {
+            this.target = target;
+            this.key = target.toString();
+        }
+
+        @Override
+        public long evaluate(AddressResolver resolver) {
+            return resolver.pointer(key, target);
+        }
+
+        @Override
+        public int depth() {
+            return target.depth() + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + key + "]";
+        }
+    }
+
+    private static final class Sum implements Node {
+        private final Node[] terms;
+        private final boolean[] negative;
+
+        Sum(Node[] terms, boolean[] negative) {
+            this.terms = terms;
+            this.negative = negative;
+        }
+
+        @Override
+        public long evaluate(AddressResolver resolver) {
+            long sum = 0;
+            for (int i = 0; i < terms.length; i++) {
+                long value = terms[i].evaluate(resolver);
+                // 常量可以是0, 模块和指针为0表示失败
+                if (value == 0 && !(terms[i] instanceof Constant)) {
+                    return 0;
+                }
+                sum = negative[i] ? sum - value : sum + value;
+            }
+            return sum;
+        }
+
+        @Override
+        public int depth() {
+            int depth = 0;
+            for (Node term : terms) {
+                depth = Math.max(depth, term.depth());
+            }
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < terms.length; i++) {
+                if (i > 0 || negative[i]) {
+                    builder.append(negative[i] ? '-' : '+');
+                }
+                builder.append(terms[i]);
+            }
+            return builder.toString();
+        }
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parseSum() {
+            List<Node> terms = new ArrayList<>();
+            List<Boolean> signs = new ArrayList<>();
+            boolean negative = false;
+            skipSpaces();
+            if (peek() == '+' || peek() == '-') {
+                negative = text.charAt(position++) == '-';
+            }
+            while (true) {
+                terms.add(parseTerm());
+                signs.add(negative);
+                skipSpaces();
+                char c = peek();
+                if (c != '+' && c != '-') {
+                    break;
+                }
+                negative = c == '-';
+                position++;
+            }
+            if (terms.size() == 1 && !signs.get(0)) {
+                return terms.get(0);
+            }
+            boolean[] negatives = new boolean[signs.size()];
+            for (int i = 0; i < negatives.length; i++) {
+                negatives[i] = signs.get(i);
+            }
+            return new Sum(terms.toArray(new Node[0]), negatives);
+        }
+
+        private Node parseTerm() {
+            skipSpaces();
+            char c = peek();
+            if (c == '[') {
+                position++;
+                Node target = parseSum();
+                skipSpaces();
+                expect(']');
+                return new Pointer(target);
+            }
+            if (c == '<') {
+                int end = text.indexOf('>', ++position);
+                if (end < 0) {
+                    throw error("缺少>");
+                }
+                String name = text.substring(position, end).trim();
+                if (name.isEmpty()) {
+                    throw error("模块名为空");
+                }
+                position = end + 1;
+                return new Module(name);
+            }
+            int start = position;
+            long value = 0;
+            while (position < text.length() && Character.digit(text.charAt(position), 16) >= 0) {
+                if (position - start == 16) {
+                    throw error("数值超过64位");
+                }
+                value = (value << 4) | Character.digit(text.charAt(position++), 16);
+            }
+            if (position == start) {
+                throw error("需要16进制数值、模块名或者[");
+            }
+            return new Constant(value);
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("缺少" + c);
+            }
+            position++;
+        }
+
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("地址描述语法错误(位置%d): %s, %s", position, message, text));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 在目标进程中计算{@link AddressExpression}, 缓存模块基址和中间的指针
+ * <p>
+ * 模块基址按(进程, 模块)缓存, 直到进程ID变化. 指针的值在{@code pointerTtl}内有效, 过期后重新读取;
+ * 不同表达式中相同的指针(比如{@code [<game.exe>+DA678]})共享缓存. 进程ID最多每{@code processCheckInterval}检查一次,
+ * 读取指针失败时立即检查, 发现进程重启后清空所有缓存.
+ * <p>
+ * 例如:
+ * <pre>{@code
+ * AddressExpression hp = AddressExpression.compile("[[[<game.exe>+DA678]+3A]+5B]+8");
+ * AddressResolver resolver = new AddressResolver(new DmMemoryReader(memoryFunctions, windowFunctions, hwnd), 4, 200, 1000);
+ * long address = resolver.resolve(hp);
+ * if (address != 0) {
+ *     memoryFunctions.readIntAddr(hwnd, address, 0);
+ * }
+ * }</pre>
+ * 和大漠对象一样不能在多个线程中同时使用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class AddressResolver {
+    private final MemoryReader reader;
+    private final ModuleQuery moduleQuery;
+    private final int pointerSize;
+    private final long pointerTtlNanos;
+    private final long processCheckNanos;
+    private final LongSupplier clock;
+    private final byte[] buffer = new byte[8];
+    private final Map<String, ModuleInfo> modules = new HashMap<>();
+    private final Map<String, CachedPointer> pointers = new HashMap<>();
+    private long processId;
+    private long lastProcessCheck;
+    private boolean processChecked;
+
+    /**
+     * @param reader             读取指针
+     * @param moduleQuery        查询进程ID和模块
+     * @param pointerSize        指针的字节数, 32位进程为4, 64位进程为8
+     * @param pointerTtlMillis   指针缓存的有效时间(毫秒), 0表示不缓存指针
+     * @param processCheckMillis 检查进程是否重启的间隔(毫秒), 0表示每次计算都检查
+     */
+    public AddressResolver(@NonNull MemoryReader reader, @NonNull ModuleQuery moduleQuery, int pointerSize,
+                           long pointerTtlMillis, long processCheckMillis) {
+        this(reader, moduleQuery, pointerSize, pointerTtlMillis, processCheckMillis, System::nanoTime);
+    }
+
+    AddressResolver(MemoryReader reader, ModuleQuery moduleQuery, int pointerSize, long pointerTtlMillis,
+                    long processCheckMillis, LongSupplier clock) {
+        if (pointerSize != 4 && pointerSize != 8) {
+            throw new IllegalArgumentException("指针长度只能是4或8: " + pointerSize);
+        }
+        if (pointerTtlMillis < 0 || processCheckMillis < 0) {
+            throw new IllegalArgumentException("缓存时间不能为负数");
+        }
+        this.reader = reader;
+        this.moduleQuery = moduleQuery;
+        this.pointerSize = pointerSize;
+        this.pointerTtlNanos = TimeUnit.MILLISECONDS.toNanos(pointerTtlMillis);
+        this.processCheckNanos = TimeUnit.MILLISECONDS.toNanos(processCheckMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * @param reader 同时用于读取指针和查询模块, 通过带窗口接口的构造方法创建时才能发现进程重启
+     */
+    public AddressResolver(@NonNull DmMemoryReader reader, int pointerSize, long pointerTtlMillis, long processCheckMillis) {
+        this(reader, reader, pointerSize, pointerTtlMillis, processCheckMillis);
+    }
+
+    /**
+     * 计算地址, 结果可以用于ReadIntAddr、WriteIntAddr等接口
+     *
+     * @param expression 编译好的地址描述
+     * @return 地址, 进程已经退出、模块不存在或者指针不可读时返回0
+     */
+    public long resolve(@NonNull AddressExpression expression) {
+        long now = clock.getAsLong();
+        if (!processChecked || now - lastProcessCheck >= processCheckNanos) {
+            checkProcess(now);
+        }
+        if (processId == 0) {
+            return 0;
+        }
+        long address = expression.evaluate(this);
+        if (address == 0 && expression.getDepth() > 0) {
+            // 可能是进程重启, 或者缓存的某一级指针已经失效, 检查进程后不使用指针缓存再计算一次
+            boolean changed = checkProcess(now);
+            if (processId == 0 || (!changed && pointers.isEmpty())) {
+                return 0;
+            }
+            pointers.clear();
+            address = expression.evaluate(this);
+        }
+        return address;
+    }
+
+    /**
+     * @return 模块基址, 模块不存在时返回0
+     */
+    public long getModuleBase(@NonNull String module) {
+        ModuleInfo info = module(module);
+        return info == null ? 0 : info.base;
+    }
+
+    /**
+     * @return 模块大小, 模块不存在时返回0
+     */
+    public long getModuleSize(@NonNull String module) {
+        ModuleInfo info = module(module);
+        return info == null ? 0 : info.size;
+    }
+
+    /**
+     * 清空所有缓存, 比如知道目标的数据结构已经重新分配时
+     */
+    public void invalidate() {
+        modules.clear();
+        pointers.clear();
+        processChecked = false;
+    }
+
+    long pointer(String key, AddressExpression.Node target) {
+        long now = clock.getAsLong();
+        CachedPointer cached = pointers.get(key);
+        if (cached != null && now - cached.readAt < pointerTtlNanos) {
+            return cached.value;
+        }
+        long address = target.evaluate(this);
+        if (address == 0 || !reader.read(address, buffer, 0, pointerSize)) {
+            pointers.remove(key);
+            return 0;
+        }
+        long value = 0;
+        for (int i = pointerSize - 1; i >= 0; i--) {
+            value = (value << 8) | (buffer[i] & 0xFF);
+        }
+        if (pointerTtlNanos > 0) {
+            if (cached == null) {
+                pointers.put(key, new CachedPointer(value, now));
+            } else {
+                cached.value = value;
+                cached.readAt = now;
+            }
+        }
+        return value;
+    }
+
+    private ModuleInfo module(String module) {
+        String key = module.toLowerCase(Locale.ROOT);
+        ModuleInfo info = modules.get(key);
+        if (info == null) {
+            long base = moduleQuery.moduleBase(module);
+            if (base == 0) {
+                // 模块可能之后才加载, 不缓存
+                return null;
+            }
+            info = new ModuleInfo(base, moduleQuery.moduleSize(module));
+            modules.put(key, info);
+        }
+        return info;
+    }
+
+    /**
+     * @return 进程是否变化
+     */
+    private boolean checkProcess(long now) {
+        long current = moduleQuery.processId();
+        lastProcessCheck = now;
+        boolean changed = processChecked && current != processId;
+        if (changed) {
+            log.debug("目标进程已变化: {} -> {}, 清空地址缓存", processId, current);
+        }
+        if (changed || !processChecked) {
+            modules.clear();
+            pointers.clear();
+        }
+        processId = current;
+        processChecked = true;
+        return changed;
+    }
+
+    private static final class ModuleInfo {
+        private final long base;
+        private final long size;
+
+        ModuleInfo(long base, long size) {
+            this.base = base;
+            this.size = size;
+        }
+    }
+
+    private static final class CachedPointer {
+        private long value;
+        private long readAt;
+
+        CachedPointer(long value, long readAt) {
+            this.value = value;
+            this.readAt = readAt;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 压缩存放的有序地址集合, 用于内存扫描的候选地址
+ * <p>
+ * 地址按高位分成64KB的块, 每块只保存低16位: 块内地址不多时是有序的char数组(每个地址2字节),
+ * 超过{@value #ARRAY_MAX}个时改为65536位的位图(固定8KB). 几百万个候选地址只占几MB,
+ * 而"addr1|addr2|..."形式的字符串每个地址要十几个字节, 并且每次再次扫描都要通过COM复制一遍.
+ * <p>
+ * 集合创建后不可修改, 通过{@link Builder}创建. 地址必须是非负数.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class AddressSet {
+    private static final int BLOCK_BITS = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = (1 << BLOCK_BITS) / 64;
+    private static final int MAGIC = 0x444D4153;
+    private static final int VERSION = 1;
+    private static final AddressSet EMPTY = new AddressSet(new long[0], new Object[0], 0, 0);
+
+    private final long[] keys;
+    /**
+     * char[](有序的低16位)或者long[](位图)
+     */
+    private final Object[] containers;
+    private final int blockCount;
+    private final int size;
+
+    private AddressSet(long[] keys, Object[] containers, int blockCount, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.blockCount = blockCount;
+        this.size = size;
+    }
+
+    public static AddressSet empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static AddressSet of(long... addresses) {
+        Builder builder = new Builder();
+        for (long address : addresses) {
+            builder.add(address);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解析FindInt、FindData等接口返回的"addr1|addr2|..."(十六进制)
+     *
+     * @param dmResult 大漠返回的字符串, null或空字符串表示没有结果
+     * @return 地址集合
+     */
+    public static AddressSet parseDmResult(CharSequence dmResult) {
+        if (dmResult == null || dmResult.length() == 0) {
+            return EMPTY;
+        }
+        Builder builder = new Builder();
+        long value = 0;
+        int digits = 0;
+        for (int i = 0, length = dmResult.length(); i <= length; i++) {
+            char c = i < length ? dmResult.charAt(i) : '|';
+            if (c == '|') {
+                if (digits > 0) {
+                    builder.add(value);
+                }
+                value = 0;
+                digits = 0;
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0 || digits == 16) {
+                throw new NumberFormatException("地址格式错误, 位置" + i + ": " + c);
+            }
+            value = (value << 4) | digit;
+            digits++;
+        }
+        return builder.build();
+    }
+
+    /**
+     * 从{@link #writeTo(OutputStream)}写入的数据恢复
+     *
+     * @param input 输入流, 读取完后不会关闭
+     * @return 地址集合
+     * @throws IOException 读取失败或者格式错误
+     */
+    public static AddressSet readFrom(@NonNull InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是地址集合数据");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("不支持的地址集合版本: " + version);
+        }
+        int size = in.readInt();
+        Builder builder = new Builder();
+        long address = 0;
+        for (int i = 0; i < size; i++) {
+            address += readVarLong(in);
+            builder.add(address);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long address) {
+        int block = Arrays.binarySearch(keys, 0, blockCount, address >>> BLOCK_BITS);
+        if (block < 0) {
+            return false;
+        }
+        int low = (int) (address & LOW_MASK);
+        Object container = containers[block];
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, (char) low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * @return 大于等于address的最小地址, 没有时返回-1
+     */
+    public long ceiling(long address) {
+        long from = Math.max(address, 0);
+        int block = Arrays.binarySearch(keys, 0, blockCount, from >>> BLOCK_BITS);
+        if (block >= 0) {
+            int low = ceilingInBlock(block, (int) (from & LOW_MASK));
+            if (low >= 0) {
+                return (keys[block] << BLOCK_BITS) | low;
+            }
+            block++;
+        } else {
+            block = -block - 1;
+        }
+        return block < blockCount ? (keys[block] << BLOCK_BITS) | ceilingInBlock(block, 0) : -1;
+    }
+
+    /**
+     * 按顺序遍历[from, to)范围内的地址
+     */
+    public void forEachInRange(long from, long to, @NonNull LongConsumer action) {
+        long address = ceiling(from);
+        while (address >= 0 && address < to) {
+            int block = Arrays.binarySearch(keys, 0, blockCount, address >>> BLOCK_BITS);
+            long base = keys[block] << BLOCK_BITS;
+            long blockEnd = Math.min(to, base + (1L << BLOCK_BITS));
+            int low = (int) (address - base);
+            Object container = containers[block];
+            if (container instanceof char[]) {
+                char[] array = (char[]) container;
+                int index = Arrays.binarySearch(array, (char) low);
+                for (int i = index; i < array.length && base + array[i] < blockEnd; i++) {
+                    action.accept(base + array[i]);
+                }
+            } else {
+                long[] bitmap = (long[]) container;
+                int lastWord = (int) ((blockEnd - 1 - base) >>> 6);
+                for (int word = low >>> 6; word <= lastWord; word++) {
+                    long bits = bitmap[word];
+                    if (word == low >>> 6) {
+                        bits &= -1L << low;
+                    }
+                    while (bits != 0) {
+                        long value = base + ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                        if (value >= blockEnd) {
+                            break;
+                        }
+                        action.accept(value);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            address = blockEnd < to ? ceiling(blockEnd) : -1;
+        }
+    }
+
+    /**
+     * @return [from, to)范围内是否有地址
+     */
+    public boolean containsAnyInRange(long from, long to) {
+        long address = ceiling(from);
+        return address >= 0 && address < to;
+    }
+
+    /**
+     * @return 按地址从小到大遍历
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new AddressIterator();
+    }
+
+    public void forEach(@NonNull LongConsumer action) {
+        for (int block = 0; block < blockCount; block++) {
+            long base = keys[block] << BLOCK_BITS;
+            Object container = containers[block];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    action.accept(base | low);
+                }
+            } else {
+                long[] bitmap = (long[]) container;
+                for (int word = 0; word < bitmap.length; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        action.accept(base | ((long) word << 6) | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    public LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    public long[] toArray() {
+        long[] array = new long[size];
+        int[] index = {0};
+        forEach(address -> array[index[0]++] = address);
+        return array;
+    }
+
+    /**
+     * @return 估算占用的堆内存字节数
+     */
+    public long sizeInBytes() {
+        long bytes = 64L + keys.length * 8L + containers.length * 4L;
+        for (int block = 0; block < blockCount; block++) {
+            Object container = containers[block];
+            bytes += 16 + (container instanceof char[] ? ((char[]) container).length * 2L : BITMAP_WORDS * 8L);
+        }
+        return bytes;
+    }
+
+    /**
+     * 转换成大漠的"addr1|addr2|..."格式, 用于传给FindXXX的addressRange参数
+     */
+    public String toDmString() {
+        StringBuilder sb = new StringBuilder(size * 9);
+        forEach(address -> {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            sb.append(Long.toHexString(address).toUpperCase());
+        });
+        return sb.toString();
+    }
+
+    /**
+     * 写入输出流: 地址按顺序保存相邻地址的差值, 使用变长编码, 连续扫描出的地址一般每个只占1到2个字节
+     *
+     * @param output 输出流, 写入完后会flush但不会关闭
+     * @throws IOException 写入失败
+     */
+    public void writeTo(@NonNull OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(size);
+        long previous = 0;
+        PrimitiveIterator.OfLong iterator = iterator();
+        while (iterator.hasNext()) {
+            long address = iterator.nextLong();
+            writeVarLong(out, address - previous);
+            previous = address;
+        }
+        out.flush();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AddressSet)) {
+            return false;
+        }
+        AddressSet other = (AddressSet) o;
+        if (size != other.size || blockCount != other.blockCount) {
+            return false;
+        }
+        PrimitiveIterator.OfLong a = iterator();
+        PrimitiveIterator.OfLong b = other.iterator();
+        while (a.hasNext()) {
+            if (a.nextLong() != b.nextLong()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        forEach(address -> hash[0] = 31 * hash[0] + Long.hashCode(address));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        return "AddressSet(size=" + size + ", blocks=" + blockCount + ")";
+    }
+
+    /**
+     * @return 块内大于等于low的最小低16位, 没有时返回-1
+     */
+    private int ceilingInBlock(int block, int low) {
+        Object container = containers[block];
+        if (container instanceof char[]) {
+            char[] array = (char[]) container;
+            int index = Arrays.binarySearch(array, (char) low);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < array.length ? array[index] : -1;
+        }
+        long[] bitmap = (long[]) container;
+        int word = low >>> 6;
+        long bits = bitmap[word] & (-1L << low);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == bitmap.length) {
+                return -1;
+            }
+            bits = bitmap[word];
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("地址集合数据不完整");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("地址集合数据格式错误");
+    }
+
+    private class AddressIterator implements PrimitiveIterator.OfLong {
+        private int block;
+        private int position;
+        private long word;
+        private int wordIndex = -1;
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            while (true) {
+                Object container = containers[block];
+                long base = keys[block] << BLOCK_BITS;
+                if (container instanceof char[]) {
+                    char[] array = (char[]) container;
+                    if (position < array.length) {
+                        remaining--;
+                        return base | array[position++];
+                    }
+                } else {
+                    long[] bitmap = (long[]) container;
+                    while (word == 0 && wordIndex + 1 < bitmap.length) {
+                        word = bitmap[++wordIndex];
+                    }
+                    if (word != 0) {
+                        long address = base | ((long) wordIndex << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        remaining--;
+                        return address;
+                    }
+                }
+                block++;
+                position = 0;
+                word = 0;
+                wordIndex = -1;
+            }
+        }
+    }
+
+    /**
+     * 逐个添加地址. 按从小到大的顺序添加时直接写入压缩的块; 顺序被打乱后改为先收集再排序
+     */
+    public static final class Builder {
+        private long[] keys = new long[8];
+        private Object[] containers = new Object[8];
+        private int blockCount;
+        private int size;
+
+        private char[] current;
+        private int currentSize;
+        private long currentKey = -1;
+        private long last = -1;
+
+        /**
+         * 顺序被打乱后使用
+         */
+        private long[] unsorted;
+        private int unsortedSize;
+
+        private Builder() {
+        }
+
+        public Builder add(long address) {
+            if (address < 0) {
+                throw new IllegalArgumentException("地址不能为负数: " + address);
+            }
+            if (unsorted != null) {
+                addUnsorted(address);
+            } else if (address > last) {
+                long key = address >>> BLOCK_BITS;
+                if (key != currentKey) {
+                    flush();
+                    currentKey = key;
+                }
+                if (current == null) {
+                    current = new char[1 << BLOCK_BITS];
+                }
+                current[currentSize++] = (char) (address & LOW_MASK);
+                last = address;
+            } else if (address < last) {
+                switchToUnsorted();
+                addUnsorted(address);
+            }
+            return this;
+        }
+
+        public AddressSet build() {
+            if (unsorted != null) {
+                long[] addresses = Arrays.copyOf(unsorted, unsortedSize);
+                Arrays.sort(addresses);
+                Builder sorted = new Builder();
+                for (long address : addresses) {
+                    sorted.add(address);
+                }
+                return sorted.build();
+            }
+            flush();
+            current = null;
+            if (blockCount == 0) {
+                return EMPTY;
+            }
+            return new AddressSet(keys, containers, blockCount, size);
+        }
+
+        private void flush() {
+            if (currentSize == 0) {
+                return;
+            }
+            if (blockCount == keys.length) {
+                int capacity = blockCount * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                containers = Arrays.copyOf(containers, capacity);
+            }
+            Object container;
+            if (currentSize <= ARRAY_MAX) {
+                container = Arrays.copyOf(current, currentSize);
+            } else {
+                long[] bitmap = new long[BITMAP_WORDS];
+                for (int i = 0; i < currentSize; i++) {
+                    char low = current[i];
+                    bitmap[low >>> 6] |= 1L << low;
+                }
+                container = bitmap;
+            }
+            keys[blockCount] = currentKey;
+            containers[blockCount] = container;
+            blockCount++;
+            size += currentSize;
+            currentSize = 0;
+        }
+
+        private void switchToUnsorted() {
+            flush();
+            AddressSet collected = new AddressSet(keys, containers, blockCount, size);
+            unsorted = new long[Math.max(16, size * 2)];
+            collected.forEach(this::addUnsorted);
+            keys = null;
+            containers = null;
+            current = null;
+        }
+
+        private void addUnsorted(long address) {
+            if (unsortedSize == unsorted.length) {
+                unsorted = Arrays.copyOf(unsorted, unsortedSize + (unsortedSize >> 1));
+            }
+            unsorted[unsortedSize++] = address;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package cn.com.qjun.dmsoft.memory;
+
+/**
+ * 接收扫描结果的地址, 地址不装箱
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface AddressSink {
+
+    void accept(long address);
+
+    /**
+     * 接收一批地址, 默认逐个调用{@link #accept(long)}
+     *
+     * @param addresses 地址数组
+     * @param from      起始下标(包含)
+     * @param to        结束下标(不包含)
+     */
+    default void acceptAll(long[] addresses, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(addresses[i]);
+        }
+    }
+}
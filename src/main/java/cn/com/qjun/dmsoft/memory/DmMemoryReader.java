@@ -0,0 +1,91 @@
+package cn.com.qjun.dmsoft.memory;
+
+import cn.com.qjun.dmsoft.functions.DmMemoryFunctions;
+import cn.com.qjun.dmsoft.functions.DmWindowFunctions;
+import cn.com.qjun.dmsoft.model.NativeBufferView;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 通过ReadDataAddrToBin读取内存, 每次读取只调用一次插件, 数据从插件的缓冲区直接复制, 不经过十六进制字符串.
+ * 读取到堆外的ByteBuffer时直接从本地内存复制到本地内存. 内存区域通过VirtualQueryEx查询, 模块通过GetModuleBaseAddr、GetModuleSize查询
+ * <p>
+ * 插件返回的缓冲区在下一次调用ReadDataAddrToBin时释放, 所以读取后立即复制. 和大漠对象一样不能在多个线程中同时使用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmMemoryReader implements MemoryReader, MemoryRegionQuery, ModuleQuery {
+    private final DmMemoryFunctions memoryFunctions;
+    private final DmWindowFunctions windowFunctions;
+    private final long hwnd;
+
+    /**
+     * @param memoryFunctions 大漠内存接口
+     * @param hwnd            窗口句柄或者进程ID(需要先调用SetMemoryHwndAsProcessId)
+     */
+    public DmMemoryReader(@NonNull DmMemoryFunctions memoryFunctions, long hwnd) {
+        this.memoryFunctions = memoryFunctions;
+        this.windowFunctions = null;
+        this.hwnd = hwnd;
+    }
+
+    /**
+     * @param memoryFunctions 大漠内存接口
+     * @param windowFunctions 大漠窗口接口, 用于通过GetWindowProcessId获取进程ID
+     * @param hwnd            窗口句柄
+     */
+    public DmMemoryReader(@NonNull DmMemoryFunctions memoryFunctions, @NonNull DmWindowFunctions windowFunctions, long hwnd) {
+        this.memoryFunctions = memoryFunctions;
+        this.windowFunctions = windowFunctions;
+        this.hwnd = hwnd;
+    }
+
+    public long getHwnd() {
+        return hwnd;
+    }
+
+    @Override
+    public boolean read(long address, byte[] buffer, int offset, int length) {
+        NativeBufferView data = memoryFunctions.readDataAddrToView(hwnd, address, length);
+        if (data == null) {
+            return false;
+        }
+        data.get(0, buffer, offset, length);
+        return true;
+    }
+
+    @Override
+    public boolean read(long address, ByteBuffer target) {
+        NativeBufferView data = memoryFunctions.readDataAddrToView(hwnd, address, target.remaining());
+        if (data == null) {
+            return false;
+        }
+        data.copyTo(target);
+        return true;
+    }
+
+    @Override
+    public MemoryRegion query(long address) {
+        return MemoryRegion.parse(memoryFunctions.virtualQueryEx(hwnd, address, 0));
+    }
+
+    /**
+     * @return 窗口所在的进程ID, 窗口已经关闭时返回0. 没有窗口接口时hwnd就是进程ID, 直接返回hwnd
+     */
+    @Override
+    public long processId() {
+        return windowFunctions == null ? hwnd : windowFunctions.getWindowProcessId(hwnd);
+    }
+
+    @Override
+    public long moduleBase(String module) {
+        return memoryFunctions.getModuleBaseAddr(hwnd, module);
+    }
+
+    @Override
+    public long moduleSize(String module) {
+        return memoryFunctions.getModuleSize(hwnd, module);
+    }
+}
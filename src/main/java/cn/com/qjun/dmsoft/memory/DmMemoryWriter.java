@@ -0,0 +1,60 @@
+package cn.com.qjun.dmsoft.memory;
+
+import cn.com.qjun.dmsoft.functions.DmMemoryFunctions;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 通过WriteDataAddrFromBin写入内存, 数据直接从本地内存传给插件, 不经过十六进制字符串
+ * <p>
+ * 堆外的ByteBuffer直接传入它的地址, 其它ByteBuffer先复制到临时的本地内存. 和大漠对象一样不能在多个线程中同时使用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class DmMemoryWriter implements MemoryWriter {
+    private final DmMemoryFunctions memoryFunctions;
+    private final long hwnd;
+
+    /**
+     * @param memoryFunctions 大漠内存接口
+     * @param hwnd            窗口句柄或者进程ID(需要先调用SetMemoryHwndAsProcessId)
+     */
+    public DmMemoryWriter(@NonNull DmMemoryFunctions memoryFunctions, long hwnd) {
+        this.memoryFunctions = memoryFunctions;
+        this.hwnd = hwnd;
+    }
+
+    public long getHwnd() {
+        return hwnd;
+    }
+
+    @Override
+    public boolean write(long address, ByteBuffer data) {
+        int length = data.remaining();
+        if (length == 0) {
+            return true;
+        }
+        try {
+            if (data.isDirect()) {
+                long pointer = Pointer.nativeValue(Native.getDirectBufferPointer(data)) + data.position();
+                memoryFunctions.writeDataAddrFromBin(hwnd, address, pointer, length);
+                return true;
+            }
+            try (Memory memory = new Memory(length)) {
+                memory.getByteBuffer(0, length).put(data.duplicate());
+                memoryFunctions.writeDataAddrFromBin(hwnd, address, Pointer.nativeValue(memory), length);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("写入内存失败: {}, {}字节", Long.toHexString(address), length, e);
+            return false;
+        }
+    }
+}
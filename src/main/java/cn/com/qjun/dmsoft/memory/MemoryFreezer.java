@@ -0,0 +1,128 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 锁定内存数值: 按周期反复写入{@link WriteBatch}
+ * <p>
+ * 所有锁定共用一个调度线程, 每批数值一个定时任务, 而不是每个数值一个定时器. 一批写入已经合并好并放在堆外缓冲区中,
+ * 每次只需要为每一段调用一次WriteDataAddrFromBin. 写入在调度线程中进行, writer需要能在这个线程中使用.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class MemoryFreezer implements AutoCloseable {
+    private static final AtomicInteger NEXT_FREEZER_ID = new AtomicInteger(1);
+
+    private final MemoryWriter writer;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public MemoryFreezer(@NonNull MemoryWriter writer) {
+        this.writer = writer;
+        String name = "dmsoft-freeze-" + NEXT_FREEZER_ID.getAndIncrement();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 立即写入一次, 之后每隔period写入一次, 直到取消
+     *
+     * @param batch  要锁定的数值, 锁定期间修改会在下一次写入时生效
+     * @param period 写入间隔, 从上一次写入结束开始计算
+     * @param unit   间隔的单位
+     * @return 锁定, 通过{@link Frozen#cancel()}取消
+     */
+    public Frozen freeze(@NonNull WriteBatch batch, long period, @NonNull TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("间隔必须大于0: " + period);
+        }
+        Frozen frozen = new Frozen(batch);
+        frozen.future = scheduler.scheduleWithFixedDelay(frozen::apply, 0, period, unit);
+        return frozen;
+    }
+
+    /**
+     * @return 正在锁定的批数
+     */
+    public int getFrozenCount() {
+        return scheduler.getQueue().size();
+    }
+
+    /**
+     * 取消所有锁定并停止调度线程
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 一批数值的锁定
+     */
+    public final class Frozen implements AutoCloseable {
+        private final WriteBatch batch;
+        private volatile ScheduledFuture<?> future;
+        private volatile long writeCount;
+        private volatile long failureCount;
+
+        private Frozen(WriteBatch batch) {
+            this.batch = batch;
+        }
+
+        public WriteBatch getBatch() {
+            return batch;
+        }
+
+        /**
+         * @return 已经写入的次数
+         */
+        public long getWriteCount() {
+            return writeCount;
+        }
+
+        /**
+         * @return 写入失败的段数总和
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        public void cancel() {
+            future.cancel(false);
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+
+        private void apply() {
+            try {
+                int failures = batch.writeTo(writer);
+                if (failures > 0) {
+                    failureCount += failures;
+                }
+            } catch (RuntimeException e) {
+                // 抛出异常会让定时任务停止, 这里只记录
+                failureCount++;
+                log.warn("锁定数值写入失败", e);
+            }
+            writeCount++;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 读取目标进程的一段内存
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface MemoryReader {
+
+    /**
+     * 把[address, address + length)的内容读取到buffer中
+     *
+     * @param address 起始地址
+     * @param buffer  目标数组
+     * @param offset  写入buffer的位置
+     * @param length  读取的字节数
+     * @return 是否读取成功, 范围内有不可读的页面时返回false, 此时buffer的内容不确定
+     */
+    boolean read(long address, byte[] buffer, int offset, int length);
+
+    /**
+     * 读取到ByteBuffer的当前位置, 读取target.remaining()个字节. 成功时position移动到limit
+     * <p>
+     * 默认通过临时数组复制, 实现可以直接写入堆外内存
+     *
+     * @param address 起始地址
+     * @param target  目标缓冲区
+     * @return 是否读取成功, 失败时target的position不变
+     */
+    default boolean read(long address, ByteBuffer target) {
+        int length = target.remaining();
+        if (target.hasArray()) {
+            if (!read(address, target.array(), target.arrayOffset() + target.position(), length)) {
+                return false;
+            }
+            target.position(target.limit());
+            return true;
+        }
+        byte[] temp = new byte[length];
+        if (!read(address, temp, 0, length)) {
+            return false;
+        }
+        target.put(temp);
+        return true;
+    }
+}
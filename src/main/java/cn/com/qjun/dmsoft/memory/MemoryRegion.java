@@ -0,0 +1,73 @@
+package cn.com.qjun.dmsoft.memory;
+
+import cn.com.qjun.dmsoft.functions.ResultCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * VirtualQueryEx查询到的一个内存区域, 对应MEMORY_BASIC_INFORMATION
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemoryRegion {
+    public static final int MEM_COMMIT = 0x1000;
+    public static final int MEM_FREE = 0x10000;
+    public static final int MEM_IMAGE = 0x1000000;
+    public static final int MEM_MAPPED = 0x40000;
+    public static final int MEM_PRIVATE = 0x20000;
+
+    public static final int PAGE_NOACCESS = 0x01;
+    public static final int PAGE_READWRITE = 0x04;
+    public static final int PAGE_WRITECOPY = 0x08;
+    public static final int PAGE_EXECUTE_READWRITE = 0x40;
+    public static final int PAGE_EXECUTE_WRITECOPY = 0x80;
+    public static final int PAGE_GUARD = 0x100;
+
+    private long baseAddress;
+    private long allocationBase;
+    private int allocationProtect;
+    private long regionSize;
+    private int state;
+    private int protect;
+    private int type;
+
+    /**
+     * 解析VirtualQueryEx返回的"BaseAddress,AllocationBase,AllocationProtect,RegionSize,State,Protect,Type"(十进制)
+     *
+     * @param dmResult 大漠返回的字符串
+     * @return 内存区域, 查询失败(空字符串)时返回null
+     */
+    public static MemoryRegion parse(String dmResult) {
+        if (dmResult == null || dmResult.isEmpty()) {
+            return null;
+        }
+        ResultCursor cursor = new ResultCursor(dmResult);
+        return new MemoryRegion(cursor.nextLong(), cursor.nextLong(), (int) cursor.nextLong(), cursor.nextLong(),
+                (int) cursor.nextLong(), (int) cursor.nextLong(), (int) cursor.nextLong());
+    }
+
+    public long getEndAddress() {
+        return baseAddress + regionSize;
+    }
+
+    public boolean isCommitted() {
+        return state == MEM_COMMIT;
+    }
+
+    /**
+     * @return 已提交并且可以读取(不是PAGE_NOACCESS, 也不是保护页)
+     */
+    public boolean isReadable() {
+        return isCommitted() && (protect & (PAGE_NOACCESS | PAGE_GUARD)) == 0 && protect != 0;
+    }
+
+    public boolean isWritable() {
+        return isReadable()
+                && (protect & (PAGE_READWRITE | PAGE_WRITECOPY | PAGE_EXECUTE_READWRITE | PAGE_EXECUTE_WRITECOPY)) != 0;
+    }
+}
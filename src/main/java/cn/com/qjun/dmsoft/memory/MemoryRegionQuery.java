@@ -0,0 +1,45 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 查询目标进程的内存区域
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface MemoryRegionQuery {
+
+    /**
+     * @param address 地址
+     * @return 包含这个地址的区域, 地址超出用户空间或者查询失败时返回null
+     */
+    MemoryRegion query(long address);
+
+    /**
+     * 从start开始逐个查询区域, 直到end或者查询失败
+     *
+     * @param start  起始地址
+     * @param end    结束地址(不包含)
+     * @param filter 保留哪些区域, 比如{@link MemoryRegion#isWritable()}
+     * @return 按地址排列的区域
+     */
+    default List<MemoryRegion> regions(long start, long end, Predicate<MemoryRegion> filter) {
+        List<MemoryRegion> regions = new ArrayList<>();
+        long address = start;
+        while (address < end) {
+            MemoryRegion region = query(address);
+            if (region == null || region.getRegionSize() <= 0 || region.getEndAddress() <= address) {
+                break;
+            }
+            if (filter.test(region)) {
+                regions.add(region);
+            }
+            address = region.getEndAddress();
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,18 @@
+package cn.com.qjun.dmsoft.memory;
+
+/**
+ * 监视的数值变化时的回调
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface MemoryWatchListener {
+
+    /**
+     * 在监视线程中调用, 不要执行耗时的操作. 第一次读取到数值时也会调用
+     *
+     * @param watch 数值变化的监视, 通过{@link MemoryWatchService.Watch#getLong()}等读取当前值
+     */
+    void onChange(MemoryWatchService.Watch watch);
+}
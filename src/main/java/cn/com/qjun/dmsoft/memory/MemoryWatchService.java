@@ -0,0 +1,434 @@
+package cn.com.qjun.dmsoft.memory;
+
+import cn.com.qjun.dmsoft.metrics.LatencyHistogram;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 定时读取一组地址, 数值变化时回调
+ * <p>
+ * 每一轮只读取到期的地址: 按地址排序后, 间隔不超过{@code mergeGap}字节的地址合并成一次读取(每次最多{@code maxReadSize}字节),
+ * 在本地解码后和上一次的值比较, 只有变化时才回调. 合并读取失败时逐个重试, 不可读的地址本轮跳过.
+ * <p>
+ * 一轮耗时太长时不会补读错过的周期, 到期时间直接顺延到下一个周期, 读取负载不会越积越多;
+ * 错过的周期数和超时的轮次记录在{@link #getStats()}中.
+ * <p>
+ * 可以通过{@link #start()}在独立的监视线程中运行, 也可以由持有大漠对象的线程定期调用{@link #runOnce()}.
+ * 回调在执行读取的线程中调用. 订阅和取消可以在任意线程中进行.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class MemoryWatchService implements AutoCloseable {
+    public static final int DEFAULT_MERGE_GAP = 256;
+    private static final AtomicInteger NEXT_SERVICE_ID = new AtomicInteger(1);
+
+    private final MemoryReader reader;
+    private final int mergeGap;
+    private final int maxReadSize;
+    private final Queue<Watch> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * 按地址排序, 只在执行读取的线程中访问
+     */
+    private final List<Watch> watches = new ArrayList<>();
+    private final List<Watch> due = new ArrayList<>();
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private byte[] buffer = new byte[256];
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    // 只在执行读取的线程中写入
+    private volatile int watchCount;
+    private volatile long tickCount;
+    private volatile long readCount;
+    private volatile long valueCount;
+    private volatile long changeCount;
+    private volatile long failureCount;
+    private volatile long overrunCount;
+    private volatile long skippedCount;
+    private volatile int lastTickReads;
+    private volatile int lastTickValues;
+
+    public MemoryWatchService(@NonNull MemoryReader reader) {
+        this(reader, DEFAULT_MERGE_GAP, ScanSession.MAX_READ_SIZE);
+    }
+
+    /**
+     * @param reader      读取内存
+     * @param mergeGap    相邻两个地址间隔不超过这个字节数时合并读取
+     * @param maxReadSize 每次读取的最大字节数
+     */
+    public MemoryWatchService(@NonNull MemoryReader reader, int mergeGap, int maxReadSize) {
+        if (mergeGap < 0 || maxReadSize < 8) {
+            throw new IllegalArgumentException(String.format("参数错误: mergeGap=%d, maxReadSize=%d", mergeGap, maxReadSize));
+        }
+        this.reader = reader;
+        this.mergeGap = mergeGap;
+        this.maxReadSize = maxReadSize;
+    }
+
+    /**
+     * 订阅一个地址, 下一轮开始读取
+     *
+     * @param address  地址
+     * @param type     数值类型
+     * @param period   读取周期
+     * @param unit     周期的单位
+     * @param listener 数值变化时的回调
+     * @return 监视, 通过{@link Watch#cancel()}取消订阅
+     */
+    public Watch watch(long address, @NonNull ValueType type, long period, @NonNull TimeUnit unit, @NonNull MemoryWatchListener listener) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("周期必须大于0: " + period);
+        }
+        if (closed) {
+            throw new IllegalStateException("内存监视已经关闭");
+        }
+        Watch watch = new Watch(this, address, type, unit.toNanos(period), listener);
+        pending.offer(watch);
+        wakeUp();
+        return watch;
+    }
+
+    /**
+     * 启动监视线程
+     *
+     * @throws IllegalStateException 已经启动或者已经关闭
+     */
+    public synchronized void start() {
+        if (closed || thread != null) {
+            throw new IllegalStateException("内存监视已经启动或者已经关闭");
+        }
+        Thread thread = new Thread(this::loop, "dmsoft-watch-" + NEXT_SERVICE_ID.getAndIncrement());
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * 在当前线程中读取所有到期的地址
+     *
+     * @return 距离下一次到期的纳秒数, 没有任何监视时返回-1
+     */
+    public long runOnce() {
+        return tick(System.nanoTime());
+    }
+
+    public MemoryWatchStats getStats() {
+        MemoryWatchStats stats = new MemoryWatchStats();
+        stats.setWatchCount(watchCount);
+        stats.setTickCount(tickCount);
+        stats.setReadCount(readCount);
+        stats.setValueCount(valueCount);
+        stats.setChangeCount(changeCount);
+        stats.setFailureCount(failureCount);
+        stats.setOverrunCount(overrunCount);
+        stats.setSkippedCount(skippedCount);
+        stats.setLastTickReads(lastTickReads);
+        stats.setLastTickValues(lastTickValues);
+        stats.setCoalescingRatio(readCount == 0 ? 0 : (double) valueCount / readCount);
+        stats.setP50TickNanos(tickLatency.valueAtPercentile(50));
+        stats.setP99TickNanos(tickLatency.valueAtPercentile(99));
+        return stats;
+    }
+
+    /**
+     * 停止监视线程, 不等待正在进行的一轮结束. 在监视线程中调用(比如回调里)也可以
+     */
+    @Override
+    public void close() {
+        closed = true;
+        wakeUp();
+    }
+
+    long tick(long now) {
+        applyPending(now);
+        if (watches.isEmpty()) {
+            return -1;
+        }
+        long minPeriod = Long.MAX_VALUE;
+        // 上一轮读取时抛出异常的话可能没有清空
+        due.clear();
+        for (Watch watch : watches) {
+            if (watch.nextDue - now <= 0) {
+                due.add(watch);
+            }
+            minPeriod = Math.min(minPeriod, watch.periodNanos);
+        }
+        if (!due.isEmpty()) {
+            long started = System.nanoTime();
+            int reads = 0;
+            int from = 0;
+            while (from < due.size()) {
+                int to = spanEnd(from);
+                reads += readSpan(from, to);
+                from = to;
+            }
+            int values = due.size();
+            long elapsed = System.nanoTime() - started;
+            for (Watch watch : due) {
+                schedule(watch, now + elapsed);
+            }
+            due.clear();
+            tickLatency.record(elapsed);
+            tickCount++;
+            readCount += reads;
+            valueCount += values;
+            lastTickReads = reads;
+            lastTickValues = values;
+            if (elapsed > minPeriod) {
+                overrunCount++;
+                log.debug("内存监视超时: 耗时{}us, 最短周期{}us, 读取{}次{}个数值", elapsed / 1000, minPeriod / 1000, reads, values);
+            }
+        }
+        long next = Long.MAX_VALUE;
+        for (Watch watch : watches) {
+            next = Math.min(next, watch.nextDue - now);
+        }
+        return Math.max(next, 0);
+    }
+
+    private void loop() {
+        while (!closed) {
+            long next;
+            try {
+                next = runOnce();
+            } catch (RuntimeException e) {
+                log.warn("内存监视读取失败", e);
+                next = TimeUnit.MILLISECONDS.toNanos(100);
+            }
+            if (closed) {
+                break;
+            }
+            if (next < 0) {
+                LockSupport.park(this);
+            } else if (next > 0) {
+                LockSupport.parkNanos(this, next);
+            }
+        }
+        watches.clear();
+        pending.clear();
+    }
+
+    private void wakeUp() {
+        Thread thread = this.thread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void applyPending(long now) {
+        boolean changed = watches.removeIf(watch -> watch.cancelled);
+        Watch watch;
+        while ((watch = pending.poll()) != null) {
+            if (watch.cancelled) {
+                continue;
+            }
+            watch.nextDue = now;
+            // 按地址插入, 相同地址按订阅顺序
+            int index = watches.size();
+            while (index > 0 && watches.get(index - 1).address > watch.address) {
+                index--;
+            }
+            watches.add(index, watch);
+            changed = true;
+        }
+        if (changed) {
+            watchCount = watches.size();
+        }
+    }
+
+    /**
+     * @return 从due[from]开始可以合并读取的最后一个监视的下一个位置
+     */
+    private int spanEnd(int from) {
+        long start = due.get(from).address;
+        long end = start + due.get(from).type.size();
+        int to = from + 1;
+        while (to < due.size()) {
+            Watch next = due.get(to);
+            long nextEnd = Math.max(end, next.address + next.type.size());
+            if (next.address - end > mergeGap || nextEnd - start > maxReadSize) {
+                break;
+            }
+            end = nextEnd;
+            to++;
+        }
+        return to;
+    }
+
+    /**
+     * @return 读取次数
+     */
+    private int readSpan(int from, int to) {
+        long start = due.get(from).address;
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            Watch watch = due.get(i);
+            length = (int) Math.max(length, watch.address + watch.type.size() - start);
+        }
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        ByteBuffer data = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        if (reader.read(start, buffer, 0, length)) {
+            for (int i = from; i < to; i++) {
+                Watch watch = due.get(i);
+                update(watch, data, (int) (watch.address - start));
+            }
+            return 1;
+        }
+        if (to - from == 1) {
+            failureCount++;
+            return 1;
+        }
+        // 合并读取失败, 逐个重试, 只跳过不可读的地址
+        for (int i = from; i < to; i++) {
+            Watch watch = due.get(i);
+            if (reader.read(watch.address, buffer, 0, watch.type.size())) {
+                update(watch, data, 0);
+            } else {
+                failureCount++;
+            }
+        }
+        return 1 + to - from;
+    }
+
+    private void update(Watch watch, ByteBuffer data, int offset) {
+        long bits;
+        switch (watch.type) {
+            case FLOAT:
+                bits = data.getInt(offset);
+                break;
+            case DOUBLE:
+                bits = data.getLong(offset);
+                break;
+            default:
+                bits = watch.type.readLong(data, offset);
+                break;
+        }
+        if (watch.hasValue && watch.bits == bits) {
+            return;
+        }
+        watch.bits = bits;
+        watch.hasValue = true;
+        changeCount++;
+        if (watch.cancelled) {
+            return;
+        }
+        try {
+            watch.listener.onChange(watch);
+        } catch (RuntimeException e) {
+            log.warn("内存监视回调失败: {}", Long.toHexString(watch.address), e);
+        }
+    }
+
+    private void schedule(Watch watch, long now) {
+        watch.nextDue += watch.periodNanos;
+        if (watch.nextDue - now <= 0) {
+            // 已经错过了下一个周期, 不补读, 从现在开始重新计时
+            long missed = (now - watch.nextDue) / watch.periodNanos + 1;
+            skippedCount += missed;
+            watch.nextDue = now + watch.periodNanos;
+        }
+    }
+
+    /**
+     * 一个地址的监视
+     */
+    public static final class Watch implements AutoCloseable {
+        private final MemoryWatchService service;
+        private final long address;
+        private final ValueType type;
+        private final long periodNanos;
+        private final MemoryWatchListener listener;
+        /**
+         * 加入时设置为当时, 第一轮立即读取
+         */
+        private long nextDue;
+        private volatile long bits;
+        private volatile boolean hasValue;
+        private volatile boolean cancelled;
+
+        private Watch(MemoryWatchService service, long address, ValueType type, long periodNanos, MemoryWatchListener listener) {
+            this.service = service;
+            this.address = address;
+            this.type = type;
+            this.periodNanos = periodNanos;
+            this.listener = listener;
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public ValueType getType() {
+            return type;
+        }
+
+        public long getPeriodNanos() {
+            return periodNanos;
+        }
+
+        /**
+         * @return 是否已经读取到数值
+         */
+        public boolean hasValue() {
+            return hasValue;
+        }
+
+        /**
+         * @return 最近一次读取到的整数
+         * @throws IllegalStateException 不是整数类型
+         */
+        public long getLong() {
+            if (!type.isInteger()) {
+                throw new IllegalStateException("不是整数类型: " + type);
+            }
+            return bits;
+        }
+
+        /**
+         * @return 最近一次读取到的数值, 整数会转换为double
+         */
+        public double getDouble() {
+            long bits = this.bits;
+            switch (type) {
+                case FLOAT:
+                    return Float.intBitsToFloat((int) bits);
+                case DOUBLE:
+                    return Double.longBitsToDouble(bits);
+                default:
+                    return bits;
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 取消订阅, 之后不会再回调
+         */
+        public void cancel() {
+            cancelled = true;
+            service.wakeUp();
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+    }
+}
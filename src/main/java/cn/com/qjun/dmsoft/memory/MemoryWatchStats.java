@@ -0,0 +1,51 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 内存监视统计的快照, 耗时单位均为纳秒
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class MemoryWatchStats implements Serializable {
+    private static final long serialVersionUID = -6021457013872519934L;
+
+    private int watchCount;
+    /**
+     * 有到期监视的轮次
+     */
+    private long tickCount;
+    /**
+     * 调用ReadDataAddrToBin的次数, 包括合并读取失败后逐个重试的次数
+     */
+    private long readCount;
+    /**
+     * 读取到的数值个数
+     */
+    private long valueCount;
+    private long changeCount;
+    /**
+     * 不可读的数值个数
+     */
+    private long failureCount;
+    /**
+     * 耗时超过最短监视周期的轮次
+     */
+    private long overrunCount;
+    /**
+     * 因为来不及读取而跳过的周期个数, 跳过的周期不会补读
+     */
+    private long skippedCount;
+    private int lastTickReads;
+    private int lastTickValues;
+    /**
+     * 平均每次读取得到的数值个数, 越大合并效果越好
+     */
+    private double coalescingRatio;
+    private long p50TickNanos;
+    private long p99TickNanos;
+}
@@ -0,0 +1,22 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 写入目标进程的一段内存
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface MemoryWriter {
+
+    /**
+     * 把data的position到limit之间的内容写入到address. 不修改data的position
+     *
+     * @param address 起始地址
+     * @param data    要写入的数据, {@link WriteBatch}传入的是堆外缓冲区
+     * @return 是否写入成功
+     */
+    boolean write(long address, ByteBuffer data);
+}
@@ -0,0 +1,29 @@
+package cn.com.qjun.dmsoft.memory;
+
+/**
+ * 查询目标进程和进程中的模块
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public interface ModuleQuery {
+
+    /**
+     * 用于判断目标进程是否重启, 进程ID变化时之前缓存的地址全部作废
+     *
+     * @return 目标进程ID, 进程已经退出时返回0
+     */
+    long processId();
+
+    /**
+     * @param module 模块名, 比如"game.exe"
+     * @return 模块的基址, 模块不存在时返回0
+     */
+    long moduleBase(String module);
+
+    /**
+     * @param module 模块名, 比如"game.exe"
+     * @return 模块的大小, 模块不存在时返回0
+     */
+    long moduleSize(String module);
+}
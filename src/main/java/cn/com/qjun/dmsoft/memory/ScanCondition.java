@@ -0,0 +1,24 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 再次扫描时判断候选地址上的值是否满足条件, 常用的条件见{@link ScanConditions}
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public interface ScanCondition {
+
+    /**
+     * @return 需要读取的字节数
+     */
+    int valueSize();
+
+    /**
+     * @param memory 读取到的内存, 小端字节序
+     * @param offset 候选地址在memory中的位置, 保证后面至少有{@link #valueSize()}个字节
+     * @return 是否保留这个地址
+     */
+    boolean test(ByteBuffer memory, int offset);
+}
@@ -0,0 +1,119 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 常用的扫描条件
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class ScanConditions {
+
+    private ScanConditions() {
+    }
+
+    /**
+     * @return 整数等于value
+     */
+    public static ScanCondition intEquals(ValueType type, long value) {
+        return intBetween(type, value, value);
+    }
+
+    /**
+     * @return 整数(按有符号读取)在[min, max]之间
+     */
+    public static ScanCondition intBetween(@NonNull ValueType type, long min, long max) {
+        if (!type.isInteger()) {
+            throw new IllegalArgumentException("不是整数类型: " + type);
+        }
+        return new ScanCondition() {
+            @Override
+            public int valueSize() {
+                return type.size();
+            }
+
+            @Override
+            public boolean test(ByteBuffer memory, int offset) {
+                long value = type.readLong(memory, offset);
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * @return 单精度浮点数在[min, max]之间
+     */
+    public static ScanCondition floatBetween(float min, float max) {
+        return new ScanCondition() {
+            @Override
+            public int valueSize() {
+                return 4;
+            }
+
+            @Override
+            public boolean test(ByteBuffer memory, int offset) {
+                float value = memory.getFloat(offset);
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * @return 双精度浮点数在[min, max]之间
+     */
+    public static ScanCondition doubleBetween(double min, double max) {
+        return new ScanCondition() {
+            @Override
+            public int valueSize() {
+                return 8;
+            }
+
+            @Override
+            public boolean test(ByteBuffer memory, int offset) {
+                double value = memory.getDouble(offset);
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * @return 单精度浮点数和value相差不超过epsilon
+     */
+    public static ScanCondition floatNear(float value, float epsilon) {
+        return floatBetween(value - epsilon, value + epsilon);
+    }
+
+    /**
+     * @return 双精度浮点数和value相差不超过epsilon
+     */
+    public static ScanCondition doubleNear(double value, double epsilon) {
+        return doubleBetween(value - epsilon, value + epsilon);
+    }
+
+    /**
+     * @param pattern 要匹配的字节
+     * @return 内容和pattern完全相同
+     */
+    public static ScanCondition bytesEqual(@NonNull byte[] pattern) {
+        byte[] copy = pattern.clone();
+        return new ScanCondition() {
+            @Override
+            public int valueSize() {
+                return copy.length;
+            }
+
+            @Override
+            public boolean test(ByteBuffer memory, int offset) {
+                for (int i = 0; i < copy.length; i++) {
+                    if (memory.get(offset + i) != copy[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,202 @@
+package cn.com.qjun.dmsoft.memory;
+
+import cn.com.qjun.dmsoft.model.FindResultFile;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * 类似CE的多次扫描: 首次扫描由插件完成(FindInt、FindData等), 之后的再次扫描在本地进行
+ * <p>
+ * 候选地址保存在{@link AddressSet}中. 再次扫描时只读取有候选地址的页面, 相邻的页面合并成一次读取(最多{@value #MAX_READ_SIZE}字节),
+ * 读取到的内存在本地用{@link ScanCondition}判断. 和把上次的结果字符串作为addressRange传回插件相比,
+ * 不需要每次通过COM来回复制几百万个地址的文本.
+ * <p>
+ * 合并读取失败时(比如其中某一页已经释放)改为逐页读取, 不可读页面上的候选地址会被淘汰.
+ * 会话可以通过{@link #save(Path)}保存到文件, 之后用{@link #restore(MemoryReader, Path)}恢复.
+ * <p>
+ * 不是线程安全的.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class ScanSession {
+    public static final int PAGE_SIZE = 4096;
+    public static final int MAX_READ_SIZE = 64 * 1024;
+
+    private final MemoryReader reader;
+    private AddressSet candidates;
+    private int scanCount;
+    private byte[] buffer = new byte[MAX_READ_SIZE];
+    private ByteBuffer view = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+
+    public ScanSession(@NonNull MemoryReader reader, @NonNull AddressSet candidates) {
+        this.reader = reader;
+        this.candidates = candidates;
+    }
+
+    /**
+     * @param reader   读取目标进程内存
+     * @param dmResult 首次扫描(FindInt、FindData等)返回的"addr1|addr2|..."
+     * @return 扫描会话
+     */
+    public static ScanSession fromDmResult(MemoryReader reader, String dmResult) {
+        return new ScanSession(reader, AddressSet.parseDmResult(dmResult));
+    }
+
+    /**
+     * @param reader     读取目标进程内存
+     * @param resultFile 首次扫描写入的结果文件, 见{@link cn.com.qjun.dmsoft.functions.DmMemoryFunctions#setMemoryFindResultToFile(String)}
+     * @return 扫描会话
+     */
+    public static ScanSession fromFindResultFile(MemoryReader reader, @NonNull FindResultFile resultFile) {
+        AddressSet.Builder builder = AddressSet.builder();
+        resultFile.forEach(builder::add);
+        return new ScanSession(reader, builder.build());
+    }
+
+    /**
+     * 从{@link #save(Path)}保存的文件恢复
+     */
+    public static ScanSession restore(MemoryReader reader, @NonNull Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return new ScanSession(reader, AddressSet.readFrom(input));
+        }
+    }
+
+    public AddressSet getCandidates() {
+        return candidates;
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * @return 再次扫描的次数
+     */
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * 再次扫描, 只保留满足条件的候选地址
+     *
+     * @param condition 扫描条件
+     * @return 剩余的候选地址个数
+     */
+    public int nextScan(@NonNull ScanCondition condition) {
+        long start = System.nanoTime();
+        int valueSize = condition.valueSize();
+        ensureBuffer(valueSize + PAGE_SIZE);
+        AddressSet.Builder result = AddressSet.builder();
+        long[] group = new long[256];
+        int groupSize = 0;
+        long groupStart = 0;
+        long groupEnd = 0;
+        int reads = 0;
+        PrimitiveIterator.OfLong iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            long address = iterator.nextLong();
+            long end = address + valueSize;
+            // 和上一组之间隔了没有候选地址的页面, 或者合并后超过单次读取的上限, 先处理上一组
+            if (groupSize > 0 && (pageOf(address) > pageOf(groupEnd - 1) + 1 || end - groupStart > buffer.length)) {
+                reads += scanGroup(group, groupSize, groupStart, groupEnd, condition, result);
+                groupSize = 0;
+            }
+            if (groupSize == 0) {
+                groupStart = pageOf(address) * PAGE_SIZE;
+            }
+            if (groupSize == group.length) {
+                group = Arrays.copyOf(group, groupSize * 2);
+            }
+            group[groupSize++] = address;
+            groupEnd = end;
+        }
+        if (groupSize > 0) {
+            reads += scanGroup(group, groupSize, groupStart, groupEnd, condition, result);
+        }
+        int before = candidates.size();
+        candidates = result.build();
+        scanCount++;
+        log.debug("再次扫描完成: {} -> {}个候选地址, 读取{}次, 耗时{}ms", before, candidates.size(), reads,
+                (System.nanoTime() - start) / 1_000_000);
+        return candidates.size();
+    }
+
+    /**
+     * 保存候选地址, 先写入临时文件再替换, 写入中途失败不会损坏原文件
+     */
+    public void save(@NonNull Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                candidates.writeTo(output);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @return 读取次数
+     */
+    private int scanGroup(long[] group, int groupSize, long groupStart, long groupEnd, ScanCondition condition,
+                          AddressSet.Builder result) {
+        if (reader.read(groupStart, buffer, 0, (int) (groupEnd - groupStart))) {
+            testAll(group, 0, groupSize, groupStart, condition, result);
+            return 1;
+        }
+        // 逐页重试, 一页内的候选地址一起读取
+        int reads = 1;
+        int from = 0;
+        while (from < groupSize) {
+            long page = pageOf(group[from]);
+            int to = from + 1;
+            while (to < groupSize && pageOf(group[to]) == page) {
+                to++;
+            }
+            long pageStart = page * PAGE_SIZE;
+            int length = (int) (group[to - 1] + condition.valueSize() - pageStart);
+            reads++;
+            if (reader.read(pageStart, buffer, 0, length)) {
+                testAll(group, from, to, pageStart, condition, result);
+            }
+            from = to;
+        }
+        return reads;
+    }
+
+    private void testAll(long[] group, int from, int to, long base, ScanCondition condition, AddressSet.Builder result) {
+        for (int i = from; i < to; i++) {
+            long address = group[i];
+            if (condition.test(view, (int) (address - base))) {
+                result.add(address);
+            }
+        }
+    }
+
+    private void ensureBuffer(int capacity) {
+        if (buffer.length < capacity) {
+            buffer = new byte[capacity];
+            view = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static long pageOf(long address) {
+        return address / PAGE_SIZE;
+    }
+}
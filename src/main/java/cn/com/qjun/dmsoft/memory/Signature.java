@@ -0,0 +1,159 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 编译好的特征码(AOB), 比如{@code "8B 0D ?? ?? ?? ?? 85 C9"}
+ * <p>
+ * 每个字节是两位16进制数, {@code ??}或{@code ?}匹配任意字节, {@code 4?}这样的半字节通配只比较确定的那一半.
+ * 编译时生成Horspool跳转表: 从特征码末尾开始比较, 不匹配时按窗口最后一个字节跳过, 通配符会限制最大跳过距离,
+ * 所以最后一个通配符尽量靠前效果更好. 不可变, 可以在多个线程中共享.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class Signature {
+    private final String name;
+    private final String pattern;
+    private final byte[] values;
+    private final byte[] masks;
+    private final int[] shifts;
+
+    private Signature(String name, String pattern, byte[] values, byte[] masks) {
+        this.name = name;
+        this.pattern = pattern;
+        this.values = values;
+        this.masks = masks;
+        this.shifts = buildShifts(masks, values);
+    }
+
+    /**
+     * @param name    名称, 用于缓存和返回结果
+     * @param pattern 以空格分隔的字节, 比如"00 01 ?? ?? 67"
+     * @return 编译后的特征码
+     * @throws IllegalArgumentException 格式错误, 或者全部是通配符
+     */
+    public static Signature compile(@NonNull String name, @NonNull String pattern) {
+        String[] tokens = pattern.trim().split("\\s+");
+        byte[] values = new byte[tokens.length];
+        byte[] masks = new byte[tokens.length];
+        boolean concrete = false;
+        StringBuilder canonical = new StringBuilder(tokens.length * 3);
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if ("?".equals(token)) {
+                token = "??";
+            }
+            if (token.length() != 2) {
+                throw new IllegalArgumentException(String.format("特征码格式错误(第%d个字节): %s", i + 1, pattern));
+            }
+            int high = nibble(token.charAt(0), i, pattern);
+            int low = nibble(token.charAt(1), i, pattern);
+            masks[i] = (byte) ((high < 0 ? 0 : 0xF0) | (low < 0 ? 0 : 0x0F));
+            values[i] = (byte) ((Math.max(high, 0) << 4) | Math.max(low, 0));
+            concrete |= masks[i] != 0;
+            if (i > 0) {
+                canonical.append(' ');
+            }
+            canonical.append(token.toUpperCase());
+        }
+        if (!concrete) {
+            throw new IllegalArgumentException("特征码不能全部是通配符: " + pattern);
+        }
+        return new Signature(name, canonical.toString(), values, masks);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 规范化的特征码: 大写, 单个空格分隔, 通配符为"??"
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int length() {
+        return values.length;
+    }
+
+    /**
+     * 在data[from, to)中查找第一个完整出现的位置
+     *
+     * @return 匹配的起始下标, 没有时返回-1
+     */
+    public int indexOf(@NonNull byte[] data, int from, int to) {
+        int last = values.length - 1;
+        int position = from;
+        while (position + last < to) {
+            int j = last;
+            while ((data[position + j] & masks[j]) == values[j]) {
+                if (j == 0) {
+                    return position;
+                }
+                j--;
+            }
+            position += shifts[data[position + last] & 0xFF];
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Signature)) {
+            return false;
+        }
+        Signature other = (Signature) o;
+        return name.equals(other.name) && pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode() * 31 + pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + pattern;
+    }
+
+    private static int nibble(char c, int index, String pattern) {
+        if (c == '?') {
+            return -1;
+        }
+        int value = Character.digit(c, 16);
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format("特征码格式错误(第%d个字节): %s", index + 1, pattern));
+        }
+        return value;
+    }
+
+    /**
+     * 窗口最后一个字节为b时可以跳过的距离: b在特征码中(不含最后一个字节)最后一次出现的位置到末尾的距离,
+     * 不能超过最后一个不完全确定的字节到末尾的距离
+     */
+    private static int[] buildShifts(byte[] masks, byte[] values) {
+        int last = values.length - 1;
+        int limit = values.length;
+        for (int i = 0; i < last; i++) {
+            if (masks[i] != (byte) 0xFF) {
+                limit = last - i;
+            }
+        }
+        int[] shifts = new int[256];
+        Arrays.fill(shifts, limit);
+        for (int i = 0; i < last; i++) {
+            if (masks[i] == (byte) 0xFF) {
+                int b = values[i] & 0xFF;
+                shifts[b] = Math.min(shifts[b], last - i);
+            }
+        }
+        return shifts;
+    }
+}
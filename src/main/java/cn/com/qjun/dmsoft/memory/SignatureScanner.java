@@ -0,0 +1,265 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * 在模块中查找特征码, 代替FindData、FindDataEx
+ * <p>
+ * 模块按{@value #CHUNK_SIZE}字节分块读取(ReadDataAddrToBin), 每块读取一次后查找所有还没有找到的特征码,
+ * 相邻分块重叠"最长特征码长度-1"个字节, 跨越分块边界的特征码也能找到. 读取失败的分块逐页重试, 只在可读的连续页面中查找.
+ * <p>
+ * 指定缓存目录时, 找到的模块内偏移(找不到的也记录)按模块保存到{@code <模块名>.properties}中.
+ * 缓存以模块大小和模块头(前{@value #HEADER_SIZE}字节, 包含PE头的时间戳和校验和)的CRC32作为版本,
+ * 游戏更新后版本不同, 缓存自动作废; 版本相同并且特征码没有修改时直接使用缓存, 只需要读取一次模块头.
+ * <p>
+ * 不是线程安全的.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class SignatureScanner {
+    public static final int CHUNK_SIZE = 1024 * 1024;
+    public static final int HEADER_SIZE = 4096;
+    private static final String KEY_SIZE = "module.size";
+    private static final String KEY_HASH = "module.headerCrc32";
+    private static final String KEY_PREFIX = "signature.";
+
+    private final MemoryReader reader;
+    private final ModuleQuery moduleQuery;
+    private final Path cacheDirectory;
+    private byte[] buffer;
+
+    /**
+     * @param reader         读取模块内存
+     * @param moduleQuery    查询模块基址和大小
+     * @param cacheDirectory 缓存目录, null表示不缓存
+     */
+    public SignatureScanner(@NonNull MemoryReader reader, @NonNull ModuleQuery moduleQuery, Path cacheDirectory) {
+        this.reader = reader;
+        this.moduleQuery = moduleQuery;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param reader         同时用于读取内存和查询模块
+     * @param cacheDirectory 缓存目录, null表示不缓存
+     */
+    public SignatureScanner(@NonNull DmMemoryReader reader, Path cacheDirectory) {
+        this(reader, reader, cacheDirectory);
+    }
+
+    /**
+     * 查找特征码的绝对地址
+     *
+     * @param module     模块名, 比如"game.exe"
+     * @param signatures 特征码, 名称不能重复
+     * @return 特征码名称到地址的映射, 按signatures的顺序, 没有找到的不包含在内
+     * @throws IllegalStateException 模块不存在
+     */
+    public Map<String, Long> resolve(@NonNull String module, @NonNull List<Signature> signatures) {
+        long base = moduleQuery.moduleBase(module);
+        Map<String, Long> offsets = findOffsets(module, base, signatures);
+        Map<String, Long> addresses = new LinkedHashMap<>();
+        offsets.forEach((name, offset) -> addresses.put(name, base + offset));
+        return addresses;
+    }
+
+    /**
+     * 查找特征码在模块内的偏移
+     *
+     * @param module     模块名, 比如"game.exe"
+     * @param signatures 特征码, 名称不能重复
+     * @return 特征码名称到偏移的映射, 按signatures的顺序, 没有找到的不包含在内
+     * @throws IllegalStateException 模块不存在
+     */
+    public Map<String, Long> findOffsets(@NonNull String module, @NonNull List<Signature> signatures) {
+        return findOffsets(module, moduleQuery.moduleBase(module), signatures);
+    }
+
+    private Map<String, Long> findOffsets(String module, long base, List<Signature> signatures) {
+        long size = moduleQuery.moduleSize(module);
+        if (base == 0 || size <= 0) {
+            throw new IllegalStateException("模块不存在: " + module);
+        }
+        Map<String, Signature> byName = new LinkedHashMap<>();
+        for (Signature signature : signatures) {
+            if (byName.put(signature.getName(), signature) != null) {
+                throw new IllegalArgumentException("特征码名称重复: " + signature.getName());
+            }
+        }
+        Path cacheFile = cacheDirectory == null ? null : cacheDirectory.resolve(module.toLowerCase(Locale.ROOT) + ".properties");
+        Properties cache = new Properties();
+        String version = null;
+        Map<String, Long> found = new LinkedHashMap<>();
+        List<Signature> pending = new ArrayList<>();
+        if (cacheFile != null) {
+            version = headerVersion(base, size);
+            if (version != null) {
+                cache = loadCache(cacheFile, size, version);
+            }
+        }
+        for (Signature signature : signatures) {
+            Long cached = cachedOffset(cache, signature);
+            if (cached == null) {
+                pending.add(signature);
+            } else {
+                found.put(signature.getName(), cached);
+            }
+        }
+        if (!pending.isEmpty()) {
+            long start = System.nanoTime();
+            Map<String, Long> scanned = scan(base, size, pending);
+            log.debug("特征码扫描完成: {}, {}个特征码, 找到{}个, 耗时{}ms", module, pending.size(), scanned.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            for (Signature signature : pending) {
+                Long offset = scanned.get(signature.getName());
+                found.put(signature.getName(), offset == null ? -1L : offset);
+                cache.setProperty(KEY_PREFIX + signature.getName(),
+                        Long.toHexString(offset == null ? -1 : offset) + "|" + signature.getPattern());
+            }
+            if (cacheFile != null && version != null) {
+                cache.setProperty(KEY_SIZE, Long.toString(size));
+                cache.setProperty(KEY_HASH, version);
+                saveCache(cacheFile, cache);
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Signature signature : signatures) {
+            long offset = found.get(signature.getName());
+            if (offset >= 0) {
+                result.put(signature.getName(), offset);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在[base, base + size)中一次遍历查找所有特征码
+     *
+     * @return 名称到偏移的映射, 只包含找到的特征码
+     */
+    Map<String, Long> scan(long base, long size, List<Signature> signatures) {
+        int overlap = 0;
+        for (Signature signature : signatures) {
+            overlap = Math.max(overlap, signature.length() - 1);
+        }
+        if (buffer == null || buffer.length < CHUNK_SIZE + overlap) {
+            buffer = new byte[CHUNK_SIZE + overlap];
+        }
+        List<Signature> remaining = new ArrayList<>(signatures);
+        Map<String, Long> found = new LinkedHashMap<>();
+        for (long offset = 0; offset < size && !remaining.isEmpty(); offset += CHUNK_SIZE) {
+            int length = (int) Math.min(CHUNK_SIZE + overlap, size - offset);
+            if (reader.read(base + offset, buffer, 0, length)) {
+                search(buffer, 0, length, offset, remaining, found);
+                continue;
+            }
+            // 只在可读的连续页面中查找
+            int runStart = -1;
+            for (int position = 0; position < length; position += ScanSession.PAGE_SIZE) {
+                int pageLength = Math.min(ScanSession.PAGE_SIZE, length - position);
+                boolean readable = reader.read(base + offset + position, buffer, position, pageLength);
+                if (readable && runStart < 0) {
+                    runStart = position;
+                } else if (!readable && runStart >= 0) {
+                    search(buffer, runStart, position, offset, remaining, found);
+                    runStart = -1;
+                }
+            }
+            if (runStart >= 0) {
+                search(buffer, runStart, length, offset, remaining, found);
+            }
+        }
+        return found;
+    }
+
+    private static void search(byte[] data, int from, int to, long chunkOffset, List<Signature> remaining, Map<String, Long> found) {
+        for (int i = remaining.size() - 1; i >= 0; i--) {
+            Signature signature = remaining.get(i);
+            int index = signature.indexOf(data, from, to);
+            if (index >= 0) {
+                found.put(signature.getName(), chunkOffset + index);
+                remaining.remove(i);
+            }
+        }
+    }
+
+    /**
+     * @return 模块大小和模块头的CRC32, 模块头不可读时返回null
+     */
+    private String headerVersion(long base, long size) {
+        int length = (int) Math.min(HEADER_SIZE, size);
+        byte[] header = new byte[length];
+        if (!reader.read(base, header, 0, length)) {
+            log.debug("模块头不可读, 不使用缓存: {}", Long.toHexString(base));
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(header, 0, length);
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static Long cachedOffset(Properties cache, Signature signature) {
+        String value = cache.getProperty(KEY_PREFIX + signature.getName());
+        if (value == null) {
+            return null;
+        }
+        int separator = value.indexOf('|');
+        if (separator < 0 || !value.substring(separator + 1).equals(signature.getPattern())) {
+            // 特征码已经修改
+            return null;
+        }
+        try {
+            return Long.parseUnsignedLong(value.substring(0, separator), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Properties loadCache(Path file, long size, String version) {
+        Properties properties = new Properties();
+        if (!Files.isRegularFile(file)) {
+            return properties;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            log.warn("读取特征码缓存失败: {}", file, e);
+            return new Properties();
+        }
+        if (!Long.toString(size).equals(properties.getProperty(KEY_SIZE)) || !version.equals(properties.getProperty(KEY_HASH))) {
+            log.debug("模块已经更新, 特征码缓存作废: {}", file);
+            return new Properties();
+        }
+        return properties;
+    }
+
+    private static void saveCache(Path file, Properties properties) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "signature offsets");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("保存特征码缓存失败: {}", file, e);
+        }
+    }
+}
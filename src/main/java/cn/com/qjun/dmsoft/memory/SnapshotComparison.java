@@ -0,0 +1,74 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 和上一次快照比较的方式, 用于未知初始值的搜索
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public enum SnapshotComparison {
+    /**
+     * 值发生了变化(按字节比较)
+     */
+    CHANGED,
+    /**
+     * 值没有变化(按字节比较)
+     */
+    UNCHANGED,
+    /**
+     * 值变大了, 浮点数为NaN时不满足
+     */
+    INCREASED,
+    /**
+     * 值变小了, 浮点数为NaN时不满足
+     */
+    DECREASED;
+
+    /**
+     * @param type            数值类型
+     * @param previous        上一次快照
+     * @param previousOffset  值在上一次快照中的位置
+     * @param current         当前内存
+     * @param currentOffset   值在当前内存中的位置
+     * @return 是否满足条件
+     */
+    public boolean test(ValueType type, ByteBuffer previous, int previousOffset, ByteBuffer current, int currentOffset) {
+        switch (this) {
+            case CHANGED:
+                return rawBits(type, previous, previousOffset) != rawBits(type, current, currentOffset);
+            case UNCHANGED:
+                return rawBits(type, previous, previousOffset) == rawBits(type, current, currentOffset);
+            case INCREASED:
+                return compare(type, previous, previousOffset, current, currentOffset) > 0;
+            default:
+                return compare(type, previous, previousOffset, current, currentOffset) < 0;
+        }
+    }
+
+    private static long rawBits(ValueType type, ByteBuffer buffer, int offset) {
+        switch (type.size()) {
+            case 1:
+                return buffer.get(offset);
+            case 2:
+                return buffer.getShort(offset);
+            case 4:
+                return buffer.getInt(offset);
+            default:
+                return buffer.getLong(offset);
+        }
+    }
+
+    /**
+     * @return 当前值大于上一次时为正数, 小于时为负数, 相等或者无法比较(NaN)时为0
+     */
+    private static int compare(ValueType type, ByteBuffer previous, int previousOffset, ByteBuffer current, int currentOffset) {
+        if (type.isInteger()) {
+            return Long.compare(type.readLong(current, currentOffset), type.readLong(previous, previousOffset));
+        }
+        double before = type.readDouble(previous, previousOffset);
+        double after = type.readDouble(current, currentOffset);
+        return after > before ? 1 : after < before ? -1 : 0;
+    }
+}
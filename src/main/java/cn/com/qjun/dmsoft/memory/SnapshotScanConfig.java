@@ -0,0 +1,51 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.Data;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 快照扫描的配置
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class SnapshotScanConfig {
+    /**
+     * 要搜索的数值类型
+     */
+    private ValueType valueType = ValueType.INT32;
+    /**
+     * 地址对齐, 0表示按数值大小对齐
+     */
+    private int alignment;
+    /**
+     * 只扫描可写的区域, 和CE的默认设置一致
+     */
+    private boolean writableOnly = true;
+    /**
+     * 扫描范围的起始地址
+     */
+    private long startAddress = 0x10000L;
+    /**
+     * 扫描范围的结束地址(不包含), 默认是32位进程的用户空间
+     */
+    private long endAddress = 0x7FFF0000L;
+    /**
+     * 每次读取的字节数, 也是临时缓冲区的大小
+     */
+    private int chunkSize = 4 * 1024 * 1024;
+    /**
+     * 快照最多占用的堆外内存, 超过时首次扫描抛出异常
+     */
+    private long maxSnapshotBytes = 512L * 1024 * 1024;
+    /**
+     * 比较快照使用的线程池
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    int effectiveAlignment() {
+        return alignment > 0 ? alignment : valueType.size();
+    }
+}
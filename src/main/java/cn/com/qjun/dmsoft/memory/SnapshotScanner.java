@@ -0,0 +1,368 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 未知初始值搜索: 保存内存快照, 之后按"变化了/没变化/变大了/变小了"和上一次快照比较
+ * <p>
+ * 首次扫描通过VirtualQueryEx枚举已提交的区域, 按{@link SnapshotScanConfig#getChunkSize()}分块读取到堆外缓冲区.
+ * 再次扫描逐个区域进行: 当前线程分块读取当前内存(大漠对象只能在一个线程中使用), 每块再拆分成64KB的片段,
+ * 在{@link SnapshotScanConfig#getPool()}上并行比较, 比较完用当前内存更新快照. 除了快照本身只需要一块临时缓冲区,
+ * 没有候选地址的区域会被丢弃, 快照随着搜索逐渐变小.
+ * <p>
+ * 候选地址足够少以后可以通过{@link #toScanSession()}转为{@link ScanSession}, 按具体数值继续搜索.
+ * 不是线程安全的.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class SnapshotScanner {
+    private static final int PAGE_SIZE = ScanSession.PAGE_SIZE;
+    private static final int SLICE_SIZE = 64 * 1024;
+
+    private final MemoryReader reader;
+    private final MemoryRegionQuery regionQuery;
+    private final SnapshotScanConfig config;
+    private final ValueType type;
+    private final int alignment;
+    private List<RegionSnapshot> regions;
+    private ByteBuffer scratch;
+    private int scanCount;
+
+    public SnapshotScanner(@NonNull MemoryReader reader, @NonNull MemoryRegionQuery regionQuery, @NonNull SnapshotScanConfig config) {
+        this.type = config.getValueType();
+        this.alignment = config.effectiveAlignment();
+        if (Integer.bitCount(alignment) != 1 || alignment > PAGE_SIZE) {
+            throw new IllegalArgumentException("对齐必须是不超过页面大小的2的幂: " + alignment);
+        }
+        if (config.getChunkSize() <= 0 || config.getChunkSize() % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException("分块大小必须是页面大小的整数倍: " + config.getChunkSize());
+        }
+        this.reader = reader;
+        this.regionQuery = regionQuery;
+        this.config = config;
+    }
+
+    /**
+     * @param reader 同时用于读取内存和查询区域
+     */
+    public SnapshotScanner(@NonNull DmMemoryReader reader, @NonNull SnapshotScanConfig config) {
+        this(reader, reader, config);
+    }
+
+    /**
+     * 首次扫描: 保存所有区域的快照, 所有对齐的地址都是候选地址
+     *
+     * @return 候选地址个数
+     * @throws IllegalStateException 快照大小超过{@link SnapshotScanConfig#getMaxSnapshotBytes()}
+     */
+    public long firstScan() {
+        long start = System.nanoTime();
+        List<MemoryRegion> found = regionQuery.regions(config.getStartAddress(), config.getEndAddress(),
+                config.isWritableOnly() ? MemoryRegion::isWritable : MemoryRegion::isReadable);
+        long total = 0;
+        List<RegionSnapshot> snapshots = new ArrayList<>(found.size());
+        for (MemoryRegion region : found) {
+            long base = Math.max(region.getBaseAddress(), config.getStartAddress());
+            long size = Math.min(region.getEndAddress(), config.getEndAddress()) - base;
+            if (size <= 0) {
+                continue;
+            }
+            if (size > Integer.MAX_VALUE - PAGE_SIZE) {
+                log.warn("跳过过大的内存区域: {}, {}字节", Long.toHexString(base), size);
+                continue;
+            }
+            total += size;
+            if (total > config.getMaxSnapshotBytes()) {
+                throw new IllegalStateException(String.format("快照大小超过上限: 已经需要%d字节, 上限%d字节",
+                        total, config.getMaxSnapshotBytes()));
+            }
+            snapshots.add(new RegionSnapshot(base, (int) size));
+        }
+        for (RegionSnapshot region : snapshots) {
+            for (int offset = 0; offset < region.size; offset += config.getChunkSize()) {
+                int length = Math.min(config.getChunkSize(), region.size - offset);
+                ByteBuffer target = region.data.duplicate();
+                target.limit(offset + length).position(offset);
+                readChunk(region, offset, target);
+            }
+            region.candidateCount = region.countAll();
+        }
+        this.regions = snapshots;
+        this.scanCount = 0;
+        log.debug("首次扫描完成: {}个区域, 快照{}字节, 耗时{}ms", snapshots.size(), total, (System.nanoTime() - start) / 1_000_000);
+        return getCandidateCount();
+    }
+
+    /**
+     * 和上一次快照比较, 只保留满足条件的地址, 然后用当前内存更新快照
+     *
+     * @param comparison 比较方式
+     * @return 剩余的候选地址个数
+     */
+    public long nextScan(@NonNull SnapshotComparison comparison) {
+        if (regions == null) {
+            throw new IllegalStateException("需要先调用firstScan");
+        }
+        long start = System.nanoTime();
+        int chunkSize = config.getChunkSize();
+        int overlap = type.size() - 1;
+        if (scratch == null || scratch.capacity() < chunkSize + overlap) {
+            scratch = ByteBuffer.allocateDirect(chunkSize + overlap).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        List<RegionSnapshot> remaining = new ArrayList<>(regions.size());
+        for (RegionSnapshot region : regions) {
+            AddressSet.Builder builder = AddressSet.builder();
+            // 上一个分块多读的、还没有写回快照的字节数, 这些字节在scratch中紧跟在上一个分块之后
+            int pendingTail = 0;
+            int previousLength = 0;
+            for (int offset = 0; offset < region.size; offset += chunkSize) {
+                int length = Math.min(chunkSize, region.size - offset);
+                if (region.candidates != null && !region.candidates.containsAnyInRange(region.base + offset, region.base + offset + length)) {
+                    // 跳过的分块不会更新快照, 但它开头的字节属于上一个分块末尾跨越边界的值, 用上一个分块多读的字节更新,
+                    // 否则下次比较这些值时会混用新旧字节
+                    if (pendingTail > 0) {
+                        ByteBuffer snapshot = region.data.duplicate();
+                        snapshot.limit(offset + pendingTail).position(offset);
+                        ByteBuffer tail = scratch.duplicate();
+                        tail.limit(previousLength + pendingTail).position(previousLength);
+                        snapshot.put(tail);
+                        pendingTail = 0;
+                    }
+                    continue;
+                }
+                // 多读取size-1个字节, 跨越分块边界的值也能完整比较
+                int readLength = Math.min(length + overlap, region.size - offset);
+                ByteBuffer target = scratch.duplicate();
+                target.clear().limit(readLength);
+                readChunk(region, offset, target);
+                compareChunk(region, offset, length, comparison, builder);
+                ByteBuffer snapshot = region.data.duplicate();
+                snapshot.limit(offset + length).position(offset);
+                ByteBuffer current = scratch.duplicate();
+                current.clear().limit(length);
+                snapshot.put(current);
+                // 下一个分块比较时要用到它开头的旧值, 所以多读的字节先不写回, 只有下一个分块被跳过时才写回
+                pendingTail = readLength - length;
+                previousLength = length;
+            }
+            region.candidates = builder.build();
+            region.candidateCount = region.candidates.size();
+            if (region.candidateCount > 0) {
+                remaining.add(region);
+            }
+        }
+        regions = remaining;
+        scanCount++;
+        log.debug("快照比较完成({}): 剩余{}个区域, {}个候选地址, 耗时{}ms", comparison, remaining.size(), getCandidateCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        return getCandidateCount();
+    }
+
+    public long getCandidateCount() {
+        long count = 0;
+        if (regions != null) {
+            for (RegionSnapshot region : regions) {
+                count += region.candidateCount;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 所有候选地址
+     * @throws IllegalStateException 首次扫描后还没有比较过, 候选地址是所有地址
+     */
+    public AddressSet getCandidates() {
+        if (regions == null || scanCount == 0) {
+            throw new IllegalStateException("首次扫描后至少需要比较一次");
+        }
+        AddressSet.Builder builder = AddressSet.builder();
+        for (RegionSnapshot region : regions) {
+            region.candidates.forEach(builder::add);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return 快照占用的堆外内存字节数
+     */
+    public long getSnapshotBytes() {
+        long bytes = 0;
+        if (regions != null) {
+            for (RegionSnapshot region : regions) {
+                bytes += region.size;
+            }
+        }
+        return bytes;
+    }
+
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * @return 以当前候选地址创建的{@link ScanSession}
+     */
+    public ScanSession toScanSession() {
+        return new ScanSession(reader, getCandidates());
+    }
+
+    /**
+     * 丢弃快照, 释放堆外内存的引用
+     */
+    public void clear() {
+        regions = null;
+        scratch = null;
+        scanCount = 0;
+    }
+
+    /**
+     * 读取到target(position为区域内的偏移), 整块读取失败时逐页读取, 不可读的页面记录到区域中
+     */
+    private void readChunk(RegionSnapshot region, int offset, ByteBuffer target) {
+        int start = target.position();
+        int end = target.limit();
+        if (reader.read(region.base + offset, target)) {
+            return;
+        }
+        for (int position = start; position < end; position += PAGE_SIZE) {
+            int page = (offset + position - start) / PAGE_SIZE;
+            ByteBuffer pageTarget = target.duplicate();
+            pageTarget.limit(Math.min(position + PAGE_SIZE, end)).position(position);
+            if (region.unreadable.get(page) || !reader.read(region.base + offset + position - start, pageTarget)) {
+                region.unreadable.set(page);
+            }
+        }
+    }
+
+    private void compareChunk(RegionSnapshot region, int offset, int length, SnapshotComparison comparison,
+                              AddressSet.Builder builder) {
+        int sliceCount = (length + SLICE_SIZE - 1) / SLICE_SIZE;
+        long[][] results = new long[sliceCount][];
+        config.getPool().invoke(new CompareTask(region, offset, length, comparison, results, 0, sliceCount));
+        for (long[] result : results) {
+            for (int i = 1; i <= result[0]; i++) {
+                builder.add(result[i]);
+            }
+        }
+    }
+
+    private final class CompareTask extends RecursiveAction {
+        private final RegionSnapshot region;
+        private final int chunkOffset;
+        private final int chunkLength;
+        private final SnapshotComparison comparison;
+        private final long[][] results;
+        private final int from;
+        private final int to;
+
+        CompareTask(RegionSnapshot region, int chunkOffset, int chunkLength, SnapshotComparison comparison,
+                    long[][] results, int from, int to) {
+            this.region = region;
+            this.chunkOffset = chunkOffset;
+            this.chunkLength = chunkLength;
+            this.comparison = comparison;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CompareTask(region, chunkOffset, chunkLength, comparison, results, from, middle),
+                        new CompareTask(region, chunkOffset, chunkLength, comparison, results, middle, to));
+                return;
+            }
+            int sliceStart = chunkOffset + from * SLICE_SIZE;
+            int sliceEnd = Math.min(sliceStart + SLICE_SIZE, chunkOffset + chunkLength);
+            // 第一个元素是个数
+            long[][] matches = {new long[64]};
+            if (region.candidates == null) {
+                for (int offset = sliceStart; offset < sliceEnd; offset += alignment) {
+                    test(offset, matches);
+                }
+            } else {
+                region.candidates.forEachInRange(region.base + sliceStart, region.base + sliceEnd,
+                        address -> test((int) (address - region.base), matches));
+            }
+            results[from] = matches[0];
+        }
+
+        private void test(int offset, long[][] matches) {
+            if (!region.isComplete(offset, type.size())
+                    || !comparison.test(type, region.data, offset, scratch, offset - chunkOffset)) {
+                return;
+            }
+            long[] values = matches[0];
+            int size = (int) values[0] + 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+                matches[0] = values;
+            }
+            values[size] = region.base + offset;
+            values[0] = size;
+        }
+    }
+
+    private final class RegionSnapshot {
+        private final long base;
+        private final int size;
+        private final ByteBuffer data;
+        private final BitSet unreadable = new BitSet();
+        /**
+         * null表示所有对齐的地址
+         */
+        private AddressSet candidates;
+        private long candidateCount;
+
+        RegionSnapshot(long base, int size) {
+            this.base = base;
+            this.size = size;
+            this.data = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * @return [offset, offset + length)在区域内, 并且所在的页面都可以读取
+         */
+        boolean isComplete(int offset, int length) {
+            int end = offset + length;
+            if (end > size) {
+                return false;
+            }
+            return !unreadable.get(offset / PAGE_SIZE) && !unreadable.get((end - 1) / PAGE_SIZE);
+        }
+
+        long countAll() {
+            long count = 0;
+            for (int page = 0; page * (long) PAGE_SIZE < size; page++) {
+                if (unreadable.get(page)) {
+                    continue;
+                }
+                int pageStart = page * PAGE_SIZE;
+                int pageEnd = Math.min(pageStart + PAGE_SIZE, size);
+                int lastStart = pageEnd;
+                // 跨越到下一页的值只有下一页可读时才算
+                if (pageEnd == size || unreadable.get(page + 1)) {
+                    lastStart = pageEnd - type.size() + 1;
+                }
+                if (lastStart > pageStart) {
+                    count += (lastStart - pageStart + alignment - 1) / alignment;
+                }
+            }
+            return count;
+        }
+    }
+}
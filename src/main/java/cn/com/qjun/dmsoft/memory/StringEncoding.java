@@ -0,0 +1,61 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 内存中字符串的编码, 和ReadString、WriteString等接口的type参数对应
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public enum StringEncoding {
+    GBK(0, Charset.forName("GBK"), 1),
+    UNICODE(1, StandardCharsets.UTF_16LE, 2),
+    UTF8(2, StandardCharsets.UTF_8, 1);
+
+    private final int dmType;
+    private final Charset charset;
+    private final int unitSize;
+
+    StringEncoding(int dmType, Charset charset, int unitSize) {
+        this.dmType = dmType;
+        this.charset = charset;
+        this.unitSize = unitSize;
+    }
+
+    public int dmType() {
+        return dmType;
+    }
+
+    public Charset charset() {
+        return charset;
+    }
+
+    /**
+     * 解码到第一个结束符(0)为止
+     *
+     * @param data   数据
+     * @param offset 字符串开始的位置
+     * @param length 最多读取的字节数
+     * @return 字符串
+     */
+    public String decode(byte[] data, int offset, int length) {
+        int end = offset;
+        int limit = offset + length - unitSize + 1;
+        while (end < limit) {
+            boolean zero = true;
+            for (int i = 0; i < unitSize; i++) {
+                if (data[end + i] != 0) {
+                    zero = false;
+                    break;
+                }
+            }
+            if (zero) {
+                break;
+            }
+            end += unitSize;
+        }
+        return new String(data, offset, Math.min(end, offset + length) - offset, charset);
+    }
+}
@@ -0,0 +1,185 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 远程进程中结构体的布局: 每个字段的名称、偏移和类型
+ * <p>
+ * 字段可以是数值、定长字符串、原始字节, 或者指向另一个结构体的指针. 读取时整个结构体只读取一次, 字段在本地按小端解码,
+ * 指针字段指向的结构体再读取一次. 例如:
+ * <pre>{@code
+ * StructLayout position = StructLayout.builder().field("x", 0, ValueType.FLOAT).field("y", 4, ValueType.FLOAT).build();
+ * StructLayout entity = StructLayout.builder()
+ *         .field("id", 0x00, ValueType.INT32)
+ *         .field("hp", 0x10, ValueType.INT32)
+ *         .string("name", 0x20, 32, StringEncoding.GBK)
+ *         .pointer("position", 0x44, position)
+ *         .build();
+ * }</pre>
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class StructLayout {
+    private final List<Field> fields;
+    private final Map<String, Integer> indexes;
+    private final int span;
+    private final int pointerSize;
+
+    private StructLayout(List<Field> fields, int pointerSize) {
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.indexes = new HashMap<>();
+        int span = 0;
+        for (Field field : fields) {
+            if (indexes.put(field.getName(), indexes.size()) != null) {
+                throw new IllegalArgumentException("字段名称重复: " + field.getName());
+            }
+            span = Math.max(span, field.getOffset() + field.getSize());
+        }
+        this.span = span;
+        this.pointerSize = pointerSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return 从偏移0到最后一个字段结尾的字节数, 也就是读取一个结构体需要的字节数
+     */
+    public int getSpan() {
+        return span;
+    }
+
+    public int getPointerSize() {
+        return pointerSize;
+    }
+
+    /**
+     * @throws IllegalArgumentException 没有这个字段
+     */
+    public Field getField(String name) {
+        return fields.get(indexOf(name));
+    }
+
+    /**
+     * @return 字段在{@link #getFields()}中的位置
+     * @throws IllegalArgumentException 没有这个字段
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("结构体中没有字段: " + name);
+        }
+        return index;
+    }
+
+    public enum FieldKind {
+        VALUE,
+        STRING,
+        BYTES,
+        POINTER
+    }
+
+    @Getter
+    public static final class Field {
+        private final String name;
+        private final int offset;
+        private final FieldKind kind;
+        private final int size;
+        /**
+         * 数值字段的类型
+         */
+        private final ValueType valueType;
+        /**
+         * 字符串字段的编码
+         */
+        private final StringEncoding encoding;
+        /**
+         * 指针字段指向的结构体
+         */
+        private final StructLayout target;
+
+        private Field(String name, int offset, FieldKind kind, int size, ValueType valueType, StringEncoding encoding,
+                      StructLayout target) {
+            if (offset < 0 || size <= 0) {
+                throw new IllegalArgumentException(String.format("字段%s的偏移或长度错误: offset=%d, size=%d", name, offset, size));
+            }
+            this.name = name;
+            this.offset = offset;
+            this.kind = kind;
+            this.size = size;
+            this.valueType = valueType;
+            this.encoding = encoding;
+            this.target = target;
+        }
+    }
+
+    public static final class Builder {
+        private final List<Field> fields = new ArrayList<>();
+        private int pointerSize = 4;
+
+        private Builder() {
+        }
+
+        /**
+         * @param pointerSize 指针的字节数, 32位进程为4(默认), 64位进程为8
+         */
+        public Builder pointerSize(int pointerSize) {
+            if (pointerSize != 4 && pointerSize != 8) {
+                throw new IllegalArgumentException("指针长度只能是4或8: " + pointerSize);
+            }
+            this.pointerSize = pointerSize;
+            return this;
+        }
+
+        public Builder field(@NonNull String name, int offset, @NonNull ValueType type) {
+            fields.add(new Field(name, offset, FieldKind.VALUE, type.size(), type, null, null));
+            return this;
+        }
+
+        /**
+         * @param maxBytes 字符串最多占用的字节数, 读取到结束符为止
+         */
+        public Builder string(@NonNull String name, int offset, int maxBytes, @NonNull StringEncoding encoding) {
+            fields.add(new Field(name, offset, FieldKind.STRING, maxBytes, null, encoding, null));
+            return this;
+        }
+
+        public Builder bytes(@NonNull String name, int offset, int length) {
+            fields.add(new Field(name, offset, FieldKind.BYTES, length, null, null, null));
+            return this;
+        }
+
+        /**
+         * 指针字段, 读取时会再读取一次它指向的结构体. 指针长度在{@link #build()}时确定
+         *
+         * @param target 指向的结构体
+         */
+        public Builder pointer(@NonNull String name, int offset, @NonNull StructLayout target) {
+            fields.add(new Field(name, offset, FieldKind.POINTER, 4, null, null, target));
+            return this;
+        }
+
+        public StructLayout build() {
+            List<Field> resolved = new ArrayList<>(fields.size());
+            for (Field field : fields) {
+                resolved.add(field.kind == FieldKind.POINTER && field.size != pointerSize
+                        ? new Field(field.name, field.offset, FieldKind.POINTER, pointerSize, null, null, field.target)
+                        : field);
+            }
+            return new StructLayout(resolved, pointerSize);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按{@link StructLayout}读取远程进程中的结构体
+ * <p>
+ * 一个结构体只读取一次, 而不是每个字段调用一次ReadIntAddr、ReadFloatAddr等接口.
+ * 批量读取时, 地址相近的结构体(间隔不超过{@value #MERGE_GAP}字节)合并成一次读取, 每次最多{@value #MAX_READ_SIZE}字节;
+ * 合并读取失败时逐个重试, 不可读的结构体结果为null. 指针字段指向的结构体按同样的方式批量读取.
+ * <p>
+ * 不是线程安全的.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class StructReader {
+    public static final int MERGE_GAP = 4096;
+    public static final int MAX_READ_SIZE = 1024 * 1024;
+
+    private final MemoryReader reader;
+
+    public StructReader(@NonNull MemoryReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return 读取到的结构体, 不可读时返回null
+     */
+    public StructValue read(long address, @NonNull StructLayout layout) {
+        return readEach(new long[]{address}, layout).get(0);
+    }
+
+    /**
+     * 读取连续存放的结构体数组
+     *
+     * @param address 第一个结构体的地址
+     * @param count   个数
+     * @param stride  相邻两个结构体的间隔, 一般等于结构体大小
+     * @param layout  结构体布局
+     * @return 按顺序排列的结构体, 不可读的为null
+     */
+    public List<StructValue> readArray(long address, int count, int stride, @NonNull StructLayout layout) {
+        if (stride < layout.getSpan()) {
+            throw new IllegalArgumentException(String.format("间隔小于结构体大小: stride=%d, span=%d", stride, layout.getSpan()));
+        }
+        long[] addresses = new long[count];
+        for (int i = 0; i < count; i++) {
+            addresses[i] = address + (long) i * stride;
+        }
+        return readEach(addresses, layout);
+    }
+
+    /**
+     * 读取多个结构体, 地址相近的合并读取
+     *
+     * @param addresses 结构体地址, 0表示空指针, 结果为null
+     * @param layout    结构体布局
+     * @return 和addresses一一对应的结构体, 不可读的为null
+     */
+    public List<StructValue> readEach(@NonNull long[] addresses, @NonNull StructLayout layout) {
+        StructValue[] values = new StructValue[addresses.length];
+        Integer[] order = new Integer[addresses.length];
+        int valid = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0) {
+                order[valid++] = i;
+            }
+        }
+        Arrays.sort(order, 0, valid, (a, b) -> Long.compare(addresses[a], addresses[b]));
+        int span = layout.getSpan();
+        int from = 0;
+        while (from < valid) {
+            long start = addresses[order[from]];
+            long end = start + span;
+            int to = from + 1;
+            while (to < valid) {
+                long next = addresses[order[to]];
+                if (next - end > MERGE_GAP || Math.max(end, next + span) - start > MAX_READ_SIZE) {
+                    break;
+                }
+                end = Math.max(end, next + span);
+                to++;
+            }
+            readGroup(addresses, order, from, to, start, (int) (end - start), layout, values);
+            from = to;
+        }
+        List<StructValue> result = Arrays.asList(values);
+        resolvePointers(result, layout);
+        return result;
+    }
+
+    private void readGroup(long[] addresses, Integer[] order, int from, int to, long start, int length,
+                           StructLayout layout, StructValue[] values) {
+        byte[] buffer = new byte[length];
+        if (reader.read(start, buffer, 0, length)) {
+            ByteBuffer data = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = from; i < to; i++) {
+                long address = addresses[order[i]];
+                values[order[i]] = new StructValue(layout, address, data, (int) (address - start));
+            }
+            return;
+        }
+        if (to - from == 1) {
+            return;
+        }
+        // 合并的范围内有不可读的页面, 逐个读取
+        for (int i = from; i < to; i++) {
+            long address = addresses[order[i]];
+            byte[] single = new byte[layout.getSpan()];
+            if (reader.read(address, single, 0, single.length)) {
+                values[order[i]] = new StructValue(layout, address, ByteBuffer.wrap(single).order(ByteOrder.LITTLE_ENDIAN), 0);
+            }
+        }
+    }
+
+    private void resolvePointers(List<StructValue> values, StructLayout layout) {
+        List<StructLayout.Field> fields = layout.getFields();
+        for (int fieldIndex = 0; fieldIndex < fields.size(); fieldIndex++) {
+            StructLayout.Field field = fields.get(fieldIndex);
+            if (field.getKind() != StructLayout.FieldKind.POINTER) {
+                continue;
+            }
+            long[] pointers = new long[values.size()];
+            boolean any = false;
+            for (int i = 0; i < pointers.length; i++) {
+                StructValue value = values.get(i);
+                pointers[i] = value == null ? 0 : value.readPointer(field);
+                any |= pointers[i] != 0;
+            }
+            List<StructValue> targets = any ? readEach(pointers, field.getTarget()) : Collections.nCopies(pointers.length, null);
+            for (int i = 0; i < pointers.length; i++) {
+                StructValue value = values.get(i);
+                if (value != null) {
+                    value.setTarget(fieldIndex, targets.get(i));
+                }
+            }
+        }
+    }
+}
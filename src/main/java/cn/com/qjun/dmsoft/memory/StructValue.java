@@ -0,0 +1,152 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 读取到的一个结构体, 字段在访问时才从缓冲区解码
+ * <p>
+ * 批量读取的多个结构体共用同一个缓冲区, 不会为每个结构体复制数据.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class StructValue {
+    private final StructLayout layout;
+    private final long address;
+    private final ByteBuffer data;
+    private final int base;
+    /**
+     * 按字段顺序存放指针字段指向的结构体, 其它字段为null
+     */
+    private final StructValue[] targets;
+
+    StructValue(StructLayout layout, long address, ByteBuffer data, int base) {
+        this.layout = layout;
+        this.address = address;
+        this.data = data;
+        this.base = base;
+        this.targets = new StructValue[layout.getFields().size()];
+    }
+
+    public StructLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return 结构体在远程进程中的地址
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * 读取整数字段(有符号), 也可以读取指针字段的值
+     */
+    public long getLong(String name) {
+        StructLayout.Field field = layout.getField(name);
+        if (field.getKind() == StructLayout.FieldKind.POINTER) {
+            return readPointer(field);
+        }
+        return valueType(field).readLong(data, base + field.getOffset());
+    }
+
+    public int getInt(String name) {
+        return (int) getLong(name);
+    }
+
+    public float getFloat(String name) {
+        StructLayout.Field field = layout.getField(name);
+        if (valueType(field) == ValueType.FLOAT) {
+            return data.getFloat(base + field.getOffset());
+        }
+        return (float) valueType(field).readDouble(data, base + field.getOffset());
+    }
+
+    public double getDouble(String name) {
+        StructLayout.Field field = layout.getField(name);
+        return valueType(field).readDouble(data, base + field.getOffset());
+    }
+
+    public String getString(String name) {
+        StructLayout.Field field = layout.getField(name);
+        if (field.getKind() != StructLayout.FieldKind.STRING) {
+            throw new IllegalArgumentException("不是字符串字段: " + name);
+        }
+        return field.getEncoding().decode(data.array(), data.arrayOffset() + base + field.getOffset(), field.getSize());
+    }
+
+    public byte[] getBytes(String name) {
+        StructLayout.Field field = layout.getField(name);
+        int from = data.arrayOffset() + base + field.getOffset();
+        return Arrays.copyOfRange(data.array(), from, from + field.getSize());
+    }
+
+    /**
+     * @return 指针字段指向的结构体, 指针为0或者目标不可读时返回null
+     */
+    public StructValue getStruct(String name) {
+        StructLayout.Field field = layout.getField(name);
+        if (field.getKind() != StructLayout.FieldKind.POINTER) {
+            throw new IllegalArgumentException("不是指针字段: " + name);
+        }
+        return targets[layout.indexOf(name)];
+    }
+
+    /**
+     * @return 按字段类型解码的值: 整数为Long, 浮点为Float或Double, 字符串为String, 字节为byte[], 指针为StructValue
+     */
+    public Object get(String name) {
+        StructLayout.Field field = layout.getField(name);
+        switch (field.getKind()) {
+            case STRING:
+                return getString(name);
+            case BYTES:
+                return getBytes(name);
+            case POINTER:
+                return getStruct(name);
+            default:
+                if (field.getValueType() == ValueType.FLOAT) {
+                    return getFloat(name);
+                }
+                if (field.getValueType() == ValueType.DOUBLE) {
+                    return getDouble(name);
+                }
+                return getLong(name);
+        }
+    }
+
+    /**
+     * @return 所有字段按声明顺序解码后的值
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (StructLayout.Field field : layout.getFields()) {
+            map.put(field.getName(), get(field.getName()));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "StructValue(address=" + Long.toHexString(address).toUpperCase() + ", " + toMap() + ")";
+    }
+
+    long readPointer(StructLayout.Field field) {
+        int offset = base + field.getOffset();
+        return field.getSize() == 8 ? data.getLong(offset) : data.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    void setTarget(int fieldIndex, StructValue target) {
+        targets[fieldIndex] = target;
+    }
+
+    private static ValueType valueType(StructLayout.Field field) {
+        if (field.getKind() != StructLayout.FieldKind.VALUE) {
+            throw new IllegalArgumentException("不是数值字段: " + field.getName());
+        }
+        return field.getValueType();
+    }
+}
@@ -0,0 +1,43 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.Data;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 数值扫描的配置
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class ValueScanConfig {
+    /**
+     * 地址对齐, 0表示按数值大小对齐
+     */
+    private int alignment;
+    /**
+     * 只扫描可写的区域, 和CE的默认设置一致
+     */
+    private boolean writableOnly = true;
+    /**
+     * 扫描范围的起始地址
+     */
+    private long startAddress = 0x10000L;
+    /**
+     * 扫描范围的结束地址(不包含), 默认是32位进程的用户空间上限
+     */
+    private long endAddress = 0x7FFF0000L;
+    /**
+     * 每次读取的字节数, 必须是页面大小的整数倍
+     */
+    private int chunkSize = 1024 * 1024;
+    /**
+     * 同时比较的分块数上限, 也就是最多占用的CPU核数
+     */
+    private int parallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+    /**
+     * 执行比较的线程池
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+}
@@ -0,0 +1,196 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 在Java中进行的首次扫描, 代替FindIntEx、FindFloatEx、FindDoubleEx
+ * <p>
+ * 通过VirtualQueryEx枚举已提交的区域, 按{@link ValueScanConfig#getChunkSize()}分块读取到可以复用的堆外缓冲区,
+ * 每块交给{@link ValueScanConfig#getPool()}按{@link ScanCondition}比较. 读取在当前线程中进行(大漠对象只能在一个线程中使用),
+ * 比较和下一块的读取同时进行, 同时比较的分块不超过{@link ValueScanConfig#getParallelism()}个, 缓冲区也只有这么多加一块.
+ * <p>
+ * 结果按地址顺序在当前线程中交给{@link AddressSink}, 所以sink不需要是线程安全的. 读取失败的分块逐页重试, 跳过不可读的页面.
+ * 不是线程安全的.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class ValueScanner {
+    private static final int PAGE_SIZE = ScanSession.PAGE_SIZE;
+
+    private final MemoryReader reader;
+    private final MemoryRegionQuery regionQuery;
+    private final ValueScanConfig config;
+    /**
+     * 空闲的缓冲区, 最多{@link ValueScanConfig#getParallelism()}加一块
+     */
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    public ValueScanner(@NonNull MemoryReader reader, @NonNull MemoryRegionQuery regionQuery, @NonNull ValueScanConfig config) {
+        if (config.getChunkSize() <= 0 || config.getChunkSize() % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException("分块大小必须是页面大小的整数倍: " + config.getChunkSize());
+        }
+        if (config.getParallelism() <= 0) {
+            throw new IllegalArgumentException("并行数必须大于0: " + config.getParallelism());
+        }
+        this.reader = reader;
+        this.regionQuery = regionQuery;
+        this.config = config;
+    }
+
+    /**
+     * @param reader 同时用于读取内存和查询区域
+     */
+    public ValueScanner(@NonNull DmMemoryReader reader, @NonNull ValueScanConfig config) {
+        this(reader, reader, config);
+    }
+
+    /**
+     * 扫描并收集所有满足条件的地址
+     */
+    public AddressSet scan(@NonNull ScanCondition condition) {
+        AddressSet.Builder builder = AddressSet.builder();
+        scan(condition, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @param condition 判断条件
+     * @param sink      按地址顺序接收满足条件的地址
+     * @return 满足条件的地址个数
+     */
+    public long scan(@NonNull ScanCondition condition, @NonNull AddressSink sink) {
+        int valueSize = condition.valueSize();
+        int alignment = config.getAlignment() > 0 ? config.getAlignment() : Integer.highestOneBit(valueSize);
+        if (Integer.bitCount(alignment) != 1 || alignment > PAGE_SIZE) {
+            throw new IllegalArgumentException("对齐必须是不超过页面大小的2的幂: " + alignment);
+        }
+        long start = System.nanoTime();
+        List<MemoryRegion> regions = regionQuery.regions(config.getStartAddress(), config.getEndAddress(),
+                config.isWritableOnly() ? MemoryRegion::isWritable : MemoryRegion::isReadable);
+        ArrayDeque<ChunkTask> inFlight = new ArrayDeque<>();
+        long count = 0;
+        long bytes = 0;
+        try {
+            for (MemoryRegion region : regions) {
+                // 区域的基址按页面对齐, 起始地址再按alignment对齐后, 分块内的偏移对齐就是地址对齐
+                long regionStart = (Math.max(region.getBaseAddress(), config.getStartAddress()) + alignment - 1) & -alignment;
+                long regionEnd = Math.min(region.getEndAddress(), config.getEndAddress());
+                for (long chunk = regionStart; chunk < regionEnd; chunk += config.getChunkSize()) {
+                    int length = (int) Math.min(config.getChunkSize(), regionEnd - chunk);
+                    // 多读取valueSize-1个字节, 跨越分块边界的值也能完整比较
+                    int readLength = (int) Math.min(length + valueSize - 1, regionEnd - chunk);
+                    ByteBuffer buffer = acquireBuffer(valueSize);
+                    buffer.clear().limit(readLength);
+                    BitSet unreadable = readChunk(chunk, buffer);
+                    bytes += readLength;
+                    if (inFlight.size() == config.getParallelism()) {
+                        count += deliver(inFlight.poll(), sink);
+                    }
+                    ChunkTask task = new ChunkTask(condition, alignment, chunk, length, buffer, unreadable);
+                    config.getPool().execute(task);
+                    inFlight.add(task);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                count += deliver(inFlight.poll(), sink);
+            }
+        } finally {
+            // 出现异常时等待正在比较的分块结束, 缓冲区才能复用
+            for (ChunkTask task : inFlight) {
+                task.quietlyJoin();
+                buffers.add(task.buffer);
+            }
+        }
+        log.debug("数值扫描完成: {}个区域, 读取{}字节, 找到{}个地址, 耗时{}ms", regions.size(), bytes, count,
+                (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private ByteBuffer acquireBuffer(int valueSize) {
+        int capacity = config.getChunkSize() + valueSize - 1;
+        ByteBuffer buffer = buffers.poll();
+        while (buffer != null && buffer.capacity() < capacity) {
+            buffer = buffers.poll();
+        }
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return 不可读的页面(相对于address), 全部可读时返回null
+     */
+    private BitSet readChunk(long address, ByteBuffer buffer) {
+        int end = buffer.limit();
+        if (reader.read(address, buffer.duplicate())) {
+            return null;
+        }
+        BitSet unreadable = new BitSet();
+        for (int position = 0; position < end; position += PAGE_SIZE) {
+            ByteBuffer page = buffer.duplicate();
+            page.limit(Math.min(position + PAGE_SIZE, end)).position(position);
+            if (!reader.read(address + position, page)) {
+                unreadable.set(position / PAGE_SIZE);
+            }
+        }
+        return unreadable;
+    }
+
+    private long deliver(ChunkTask task, AddressSink sink) {
+        task.join();
+        buffers.add(task.buffer);
+        if (task.count > 0) {
+            sink.acceptAll(task.matches, 0, task.count);
+        }
+        return task.count;
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final ScanCondition condition;
+        private final int alignment;
+        private final long address;
+        private final int length;
+        private final ByteBuffer buffer;
+        private final BitSet unreadable;
+        private long[] matches = new long[16];
+        private int count;
+
+        ChunkTask(ScanCondition condition, int alignment, long address, int length, ByteBuffer buffer, BitSet unreadable) {
+            this.condition = condition;
+            this.alignment = alignment;
+            this.address = address;
+            this.length = length;
+            this.buffer = buffer;
+            this.unreadable = unreadable;
+        }
+
+        @Override
+        protected void compute() {
+            int valueSize = condition.valueSize();
+            int last = Math.min(length, buffer.limit() - valueSize + 1);
+            for (int offset = 0; offset < last; offset += alignment) {
+                if (unreadable != null && (unreadable.get(offset / PAGE_SIZE) || unreadable.get((offset + valueSize - 1) / PAGE_SIZE))) {
+                    continue;
+                }
+                if (condition.test(buffer, offset)) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = address + offset;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 内存中数值的类型, 按小端读取
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public enum ValueType {
+    INT8(1, 2),
+    INT16(2, 1),
+    INT32(4, 0),
+    INT64(8, 3),
+    FLOAT(4, -1),
+    DOUBLE(8, -1);
+
+    private final int size;
+    private final int dmIntType;
+
+    ValueType(int size, int dmIntType) {
+        this.size = size;
+        this.dmIntType = dmIntType;
+    }
+
+    /**
+     * @return 占用的字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return FindInt、ReadInt等接口的type参数, 浮点类型返回-1
+     */
+    public int dmIntType() {
+        return dmIntType;
+    }
+
+    public boolean isInteger() {
+        return dmIntType >= 0;
+    }
+
+    /**
+     * 按有符号整数读取
+     *
+     * @param buffer 小端字节序的缓冲区
+     * @param offset 数值在缓冲区中的位置
+     * @return 读取到的数值
+     */
+    public long readLong(ByteBuffer buffer, int offset) {
+        switch (this) {
+            case INT8:
+                return buffer.get(offset);
+            case INT16:
+                return buffer.getShort(offset);
+            case INT32:
+                return buffer.getInt(offset);
+            case INT64:
+                return buffer.getLong(offset);
+            default:
+                throw new IllegalStateException("不是整数类型: " + this);
+        }
+    }
+
+    /**
+     * 按浮点数读取, 整数类型会转换为double
+     */
+    public double readDouble(ByteBuffer buffer, int offset) {
+        switch (this) {
+            case FLOAT:
+                return buffer.getFloat(offset);
+            case DOUBLE:
+                return buffer.getDouble(offset);
+            default:
+                return readLong(buffer, offset);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package cn.com.qjun.dmsoft.memory;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一组内存写入, 合并后一起写入目标进程
+ * <p>
+ * 写入按地址排序, 相邻或者重叠的写入合并成一段连续的数据, 重叠的部分以后添加的为准. 所有数据放在同一块堆外缓冲区中,
+ * 每一段调用一次{@link MemoryWriter#write(long, ByteBuffer)}(WriteDataAddrFromBin), 而不是每个数值调用一次WriteIntAddr.
+ * 不相邻的写入不会合并, 中间的内存不会被覆盖.
+ * <p>
+ * 合并结果会缓存, 同一批写入反复写入时(比如{@link MemoryFreezer}锁定数值)不需要重新合并. 数值都按小端写入.
+ * 所有方法都是同步的, 可以在锁定期间修改.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class WriteBatch {
+    private final List<Entry> entries = new ArrayList<>();
+    private long[] spanAddresses;
+    private int[] spanOffsets;
+    private ByteBuffer staging;
+
+    /**
+     * @param address 地址
+     * @param type    整数类型, 按类型的大小截断value
+     * @param value   数值
+     */
+    public synchronized WriteBatch putInt(long address, @NonNull ValueType type, long value) {
+        if (!type.isInteger()) {
+            throw new IllegalArgumentException("不是整数类型: " + type);
+        }
+        ByteBuffer data = ByteBuffer.allocate(type.size()).order(ByteOrder.LITTLE_ENDIAN);
+        switch (type) {
+            case INT8:
+                data.put((byte) value);
+                break;
+            case INT16:
+                data.putShort((short) value);
+                break;
+            case INT32:
+                data.putInt((int) value);
+                break;
+            default:
+                data.putLong(value);
+                break;
+        }
+        return add(address, data.array());
+    }
+
+    public WriteBatch putInt32(long address, int value) {
+        return putInt(address, ValueType.INT32, value);
+    }
+
+    public synchronized WriteBatch putFloat(long address, float value) {
+        return add(address, ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(value).array());
+    }
+
+    public synchronized WriteBatch putDouble(long address, double value) {
+        return add(address, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(value).array());
+    }
+
+    /**
+     * @param data 原始字节, 会复制一份
+     */
+    public synchronized WriteBatch putBytes(long address, @NonNull byte[] data) {
+        if (data.length == 0) {
+            return this;
+        }
+        return add(address, data.clone());
+    }
+
+    /**
+     * @return 添加的写入个数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return 合并后的段数, 也就是每次写入调用插件的次数
+     */
+    public synchronized int getSpanCount() {
+        compile();
+        return spanAddresses.length;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        invalidate();
+    }
+
+    /**
+     * 写入所有数据, 某一段失败时继续写入其它段
+     *
+     * @param writer 写入目标进程
+     * @return 写入失败的段数, 0表示全部成功
+     */
+    public synchronized int writeTo(@NonNull MemoryWriter writer) {
+        compile();
+        int failures = 0;
+        for (int i = 0; i < spanAddresses.length; i++) {
+            ByteBuffer span = staging.duplicate();
+            span.limit(i + 1 < spanOffsets.length ? spanOffsets[i + 1] : staging.capacity()).position(spanOffsets[i]);
+            if (!writer.write(spanAddresses[i], span)) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private WriteBatch add(long address, byte[] data) {
+        entries.add(new Entry(address, data));
+        invalidate();
+        return this;
+    }
+
+    private void invalidate() {
+        spanAddresses = null;
+        spanOffsets = null;
+        staging = null;
+    }
+
+    private void compile() {
+        if (spanAddresses != null) {
+            return;
+        }
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.address, b.address));
+        long[] addresses = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        int count = 0;
+        for (Entry entry : sorted) {
+            long end = entry.address + entry.data.length;
+            if (count > 0 && entry.address <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                addresses[count] = entry.address;
+                ends[count] = end;
+                count++;
+            }
+        }
+        int[] offsets = new int[count];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = (int) total;
+            total += ends[i] - addresses[i];
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("写入的数据太多: " + total + "字节");
+        }
+        ByteBuffer staging = ByteBuffer.allocateDirect((int) total);
+        // 按添加顺序复制, 重叠的部分后添加的覆盖先添加的
+        long[] spanAddresses = Arrays.copyOf(addresses, count);
+        for (Entry entry : entries) {
+            int span = Arrays.binarySearch(spanAddresses, entry.address);
+            if (span < 0) {
+                span = -span - 2;
+            }
+            ByteBuffer target = staging.duplicate();
+            target.position(offsets[span] + (int) (entry.address - spanAddresses[span]));
+            target.put(entry.data);
+        }
+        this.spanAddresses = spanAddresses;
+        this.spanOffsets = offsets;
+        this.staging = staging;
+    }
+
+    private static final class Entry {
+        private final long address;
+        private final byte[] data;
+
+        Entry(long address, byte[] data) {
+            this.address = address;
+            this.data = data;
+        }
+    }
+}
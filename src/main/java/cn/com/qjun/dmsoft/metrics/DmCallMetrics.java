@@ -0,0 +1,108 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 一个大漠对象的函数调用统计
+ * <p>
+ * 按函数名记录调用次数、失败次数和耗时分布. 记录时只有计数器自增和一次无锁的直方图更新,
+ * 可以通过{@link DmMetricsRegistry#setEnabled(boolean)}全局关闭.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmCallMetrics {
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private volatile long dmSoftId;
+
+    /**
+     * 绑定大漠对象ID, 大漠对象创建完成后才能获取到ID
+     *
+     * @param dmSoftId 大漠对象ID
+     */
+    public void bind(long dmSoftId) {
+        this.dmSoftId = dmSoftId;
+    }
+
+    public long getDmSoftId() {
+        return dmSoftId;
+    }
+
+    /**
+     * @return 是否需要记录, 调用方据此决定是否计时
+     */
+    public boolean isEnabled() {
+        return DmMetricsRegistry.enabled;
+    }
+
+    /**
+     * 记录一次调用
+     *
+     * @param method  函数名
+     * @param nanos   耗时(纳秒)
+     * @param success 调用是否成功
+     */
+    public void record(String method, long nanos, boolean success) {
+        metrics(method).record(nanos, success);
+    }
+
+    /**
+     * 记录一次返回值不符合预期的调用, 调用本身已经通过{@link #record(String, long, boolean)}记录过
+     *
+     * @param method 函数名
+     */
+    public void recordFailure(String method) {
+        if (isEnabled()) {
+            metrics(method).errorCount.increment();
+        }
+    }
+
+    /**
+     * @return 所有函数的统计快照, 按函数名排序
+     */
+    public List<DmMethodStats> snapshot() {
+        List<DmMethodStats> result = new ArrayList<>();
+        long[] buckets = new long[LatencyHistogram.BUCKET_COUNT];
+        for (MethodMetrics metrics : methods.values()) {
+            Arrays.fill(buckets, 0L);
+            result.add(snapshot(metrics, buckets));
+        }
+        result.sort(Comparator.comparing(DmMethodStats::getMethod));
+        return result;
+    }
+
+    /**
+     * 清空所有统计
+     */
+    public void reset() {
+        methods.values().forEach(MethodMetrics::reset);
+    }
+
+    Iterable<MethodMetrics> methods() {
+        return methods.values();
+    }
+
+    private DmMethodStats snapshot(MethodMetrics metrics, long[] buckets) {
+        metrics.histogram.addTo(buckets);
+        // 以直方图的计数为准, 避免与其它计数器读取时机不同导致百分位计算越界
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        return DmMethodStats.of(dmSoftId, metrics.method, count, metrics.errorCount.sum(),
+                metrics.totalNanos.sum(), metrics.maxNanos.get(), buckets);
+    }
+
+    private MethodMetrics metrics(String method) {
+        MethodMetrics metrics = methods.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method, MethodMetrics::new);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,54 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 大漠函数调用统计的快照, 耗时单位均为纳秒
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class DmMethodStats implements Serializable {
+    private static final long serialVersionUID = -3164820592174860531L;
+
+    /**
+     * 大漠对象ID, 按函数汇总多个大漠对象时为0
+     */
+    private long dmSoftId;
+    /**
+     * 函数名
+     */
+    private String method;
+    /**
+     * 调用次数
+     */
+    private long count;
+    /**
+     * 失败次数, 包括调用抛出异常和返回值不符合预期
+     */
+    private long errorCount;
+    private long totalNanos;
+    private long meanNanos;
+    private long p50Nanos;
+    private long p90Nanos;
+    private long p99Nanos;
+    private long maxNanos;
+
+    static DmMethodStats of(long dmSoftId, String method, long count, long errorCount, long totalNanos, long maxNanos, long[] buckets) {
+        DmMethodStats stats = new DmMethodStats();
+        stats.setDmSoftId(dmSoftId);
+        stats.setMethod(method);
+        stats.setCount(count);
+        stats.setErrorCount(errorCount);
+        stats.setTotalNanos(totalNanos);
+        stats.setMeanNanos(count == 0 ? 0 : totalNanos / count);
+        stats.setP50Nanos(Math.min(LatencyHistogram.valueAtPercentile(buckets, count, 50), maxNanos));
+        stats.setP90Nanos(Math.min(LatencyHistogram.valueAtPercentile(buckets, count, 90), maxNanos));
+        stats.setP99Nanos(Math.min(LatencyHistogram.valueAtPercentile(buckets, count, 99), maxNanos));
+        stats.setMaxNanos(maxNanos);
+        return stats;
+    }
+}
@@ -0,0 +1,39 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import java.util.List;
+
+/**
+ * 大漠函数调用统计的JMX接口, 注册名为{@value DmMetricsRegistry#OBJECT_NAME}
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public interface DmMetricsMXBean {
+
+    /**
+     * @return 是否记录调用统计
+     */
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return 当前存活的大漠对象个数
+     */
+    int getDmSoftCount();
+
+    /**
+     * @return 按大漠对象和函数分别统计的快照
+     */
+    List<DmMethodStats> getStatsByDmSoft();
+
+    /**
+     * @return 按函数汇总所有大漠对象的快照
+     */
+    List<DmMethodStats> getStatsByMethod();
+
+    /**
+     * 清空所有统计
+     */
+    void reset();
+}
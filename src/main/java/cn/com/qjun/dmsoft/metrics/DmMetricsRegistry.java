@@ -0,0 +1,133 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 所有大漠对象的调用统计
+ * <p>
+ * 大漠对象创建时注册, 关闭时移除. 第一次注册时自动把自己注册为JMX MBean,
+ * 可以在JConsole、VisualVM等工具中实时查看各个函数的耗时.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class DmMetricsRegistry implements DmMetricsMXBean {
+    public static final String OBJECT_NAME = "cn.com.qjun.dmsoft:type=DmMetrics";
+    private static final DmMetricsRegistry INSTANCE = new DmMetricsRegistry();
+
+    static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("dmsoft.metrics.enabled"));
+
+    private final Set<DmCallMetrics> metricsSet = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean mbeanRegistered = new AtomicBoolean();
+
+    public static DmMetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private DmMetricsRegistry() {
+    }
+
+    public void register(DmCallMetrics metrics) {
+        metricsSet.add(metrics);
+        if (mbeanRegistered.compareAndSet(false, true)) {
+            registerMBean();
+        }
+    }
+
+    public void unregister(DmCallMetrics metrics) {
+        metricsSet.remove(metrics);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        DmMetricsRegistry.enabled = enabled;
+    }
+
+    @Override
+    public int getDmSoftCount() {
+        return metricsSet.size();
+    }
+
+    @Override
+    public List<DmMethodStats> getStatsByDmSoft() {
+        List<DmMethodStats> result = new ArrayList<>();
+        for (DmCallMetrics metrics : metricsSet) {
+            result.addAll(metrics.snapshot());
+        }
+        result.sort(Comparator.comparingLong(DmMethodStats::getDmSoftId).thenComparing(DmMethodStats::getMethod));
+        return result;
+    }
+
+    @Override
+    public List<DmMethodStats> getStatsByMethod() {
+        Map<String, Aggregate> aggregates = new TreeMap<>();
+        for (DmCallMetrics metrics : metricsSet) {
+            for (MethodMetrics methodMetrics : metrics.methods()) {
+                aggregates.computeIfAbsent(methodMetrics.method, m -> new Aggregate()).add(methodMetrics);
+            }
+        }
+        List<DmMethodStats> result = new ArrayList<>(aggregates.size());
+        aggregates.forEach((method, aggregate) -> result.add(aggregate.toStats(method)));
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        metricsSet.forEach(DmCallMetrics::reset);
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            log.warn("注册大漠调用统计MBean失败", e);
+        }
+    }
+
+    /**
+     * 按函数汇总多个大漠对象的统计
+     */
+    private static class Aggregate {
+        private final long[] buckets = new long[LatencyHistogram.BUCKET_COUNT];
+        private long errorCount;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(MethodMetrics metrics) {
+            metrics.histogram.addTo(buckets);
+            errorCount += metrics.errorCount.sum();
+            totalNanos += metrics.totalNanos.sum();
+            maxNanos = Math.max(maxNanos, metrics.maxNanos.get());
+        }
+
+        DmMethodStats toStats(String method) {
+            long count = 0;
+            for (long bucket : buckets) {
+                count += bucket;
+            }
+            return DmMethodStats.of(0L, method, count, errorCount, totalNanos, maxNanos, buckets);
+        }
+    }
+}
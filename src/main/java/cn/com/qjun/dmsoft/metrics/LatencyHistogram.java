@@ -0,0 +1,120 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的耗时直方图
+ * <p>
+ * 按2的幂分段, 每段再等分成8个桶, 相对误差不超过12.5%. 记录时只对一个桶做一次原子自增, 不加锁.
+ * 小于8纳秒的值各占一个桶, 超过2^40纳秒(约18分钟)的值都记入最后一个桶.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时(纳秒), 负数按0处理
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketIndex(nanos));
+    }
+
+    /**
+     * @return 记录的总次数
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile 百分位, 取值0-100
+     * @return 对应百分位的耗时(纳秒), 误差不超过12.5%
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        addTo(snapshot);
+        long total = 0;
+        for (long bucket : snapshot) {
+            total += bucket;
+        }
+        return valueAtPercentile(snapshot, total, percentile);
+    }
+
+    /**
+     * 把各个桶的计数累加到指定数组中, 用于生成快照或合并多个直方图
+     *
+     * @param into 长度至少为{@link #BUCKET_COUNT}的数组
+     */
+    void addTo(long[] into) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            into[i] += counts.get(i);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return 桶内的最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * 根据桶计数计算百分位数
+     *
+     * @param counts     各个桶的计数
+     * @param total      总次数
+     * @param percentile 百分位, 取值0-100
+     * @return 对应百分位的耗时(纳秒), 取所在桶的最大值
+     */
+    static long valueAtPercentile(long[] counts, long total, double percentile) {
+        if (total <= 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+}
@@ -0,0 +1,41 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个大漠函数的调用统计
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+class MethodMetrics {
+    final String method;
+    final LongAdder errorCount = new LongAdder();
+    final LongAdder totalNanos = new LongAdder();
+    final AtomicLong maxNanos = new AtomicLong();
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    MethodMetrics(String method) {
+        this.method = method;
+    }
+
+    void record(long nanos, boolean success) {
+        if (!success) {
+            errorCount.increment();
+        }
+        totalNanos.add(nanos);
+        histogram.record(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    void reset() {
+        errorCount.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+        histogram.reset();
+    }
+}
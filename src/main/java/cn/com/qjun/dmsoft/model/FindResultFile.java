@@ -0,0 +1,212 @@
+package cn.com.qjun.dmsoft.model;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * SetMemoryFindResultToFile设置的内存查找结果文件, 内容和FindXXX的返回值一样是"addr1|addr2|..."(十六进制)
+ * <p>
+ * 文件按{@value #CHUNK_SIZE}字节分块读取到一块复用的堆外缓冲区, 直接在缓冲区中逐字节解析成long,
+ * 几百万个结果也不会生成String或者装箱的Long. 除了'|'之外, 换行、空格和逗号也当作分隔符.
+ * <p>
+ * 没有使用内存映射: Windows下被映射的文件不能被覆盖, 而Java 8没有办法主动解除映射,
+ * 映射会一直保留到垃圾回收, 期间插件下次查找时无法写入结果文件. 每次遍历都重新打开文件, 遍历结束后立即关闭.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class FindResultFile {
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    @Getter
+    private final Path path;
+    private final int chunkSize;
+
+    public FindResultFile(@NonNull Path path) {
+        this(path, CHUNK_SIZE);
+    }
+
+    FindResultFile(Path path, int chunkSize) {
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 按文件中的顺序遍历所有地址
+     *
+     * @return 地址个数
+     * @throws UncheckedIOException  读取失败
+     * @throws NumberFormatException 文件格式错误
+     */
+    public long forEach(@NonNull LongConsumer action) {
+        long count = 0;
+        try (Parser parser = new Parser(path, chunkSize)) {
+            while (parser.hasNext()) {
+                action.accept(parser.nextLong());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 按文件中的顺序排列的所有地址
+     */
+    public long[] toArray() {
+        long[] addresses = new long[1024];
+        int size = 0;
+        try (Parser parser = new Parser(path, chunkSize)) {
+            while (parser.hasNext()) {
+                if (size == addresses.length) {
+                    addresses = Arrays.copyOf(addresses, size * 2);
+                }
+                addresses[size++] = parser.nextLong();
+            }
+        }
+        return Arrays.copyOf(addresses, size);
+    }
+
+    public LongList toLongList() {
+        return LongList.wrap(toArray());
+    }
+
+    /**
+     * 按需分块读取的地址流, 使用完后需要关闭(try-with-resources), 否则文件直到垃圾回收才会关闭
+     */
+    public LongStream stream() {
+        Parser parser = new Parser(path, chunkSize);
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(parser,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false).onClose(parser::close);
+    }
+
+    /**
+     * 逐字节解析, 地址可以跨越分块边界
+     */
+    private static final class Parser implements PrimitiveIterator.OfLong, AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        /**
+         * 缓冲区第一个字节在文件中的位置, 用于异常信息
+         */
+        private long bufferStart;
+        private boolean eof;
+        private boolean ready;
+        private long next;
+
+        Parser(Path path, int chunkSize) {
+            try {
+                this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException("打开查找结果文件失败: " + path, e);
+            }
+            this.buffer = ByteBuffer.allocateDirect(chunkSize);
+            this.buffer.limit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready) {
+                ready = parseNext();
+            }
+            return ready;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return next;
+        }
+
+        private boolean parseNext() {
+            long value = 0;
+            int digits = 0;
+            while (true) {
+                if (!buffer.hasRemaining() && !fill()) {
+                    break;
+                }
+                int c = buffer.get();
+                int digit = hexDigit(c);
+                if (digit >= 0) {
+                    if (digits == 16) {
+                        throw formatError(c);
+                    }
+                    value = (value << 4) | digit;
+                    digits++;
+                } else if (c == '|' || c == '\r' || c == '\n' || c == ' ' || c == ',' || c == 0) {
+                    if (digits > 0) {
+                        break;
+                    }
+                } else {
+                    throw formatError(c);
+                }
+            }
+            next = value;
+            return digits > 0;
+        }
+
+        private boolean fill() {
+            if (eof) {
+                return false;
+            }
+            bufferStart += buffer.limit();
+            buffer.clear();
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取查找结果文件失败", e);
+            }
+            buffer.flip();
+            return buffer.hasRemaining();
+        }
+
+        private NumberFormatException formatError(int c) {
+            return new NumberFormatException(String.format("查找结果文件格式错误, 位置%d: 0x%02X",
+                    bufferStart + buffer.position() - 1, c & 0xFF));
+        }
+
+        private static int hexDigit(int c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("关闭查找结果文件失败", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package cn.com.qjun.dmsoft.model;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 多个查找结果, 按字段存放在并列的int数组中
+ * <p>
+ * 找图、找色一次可能返回上千个结果, 每个结果一个{@link FindResult.Item}(再加上Point、Rect和装箱的Integer)会产生大量短命对象.
+ * 这里每个字段只占一个数组, 通过下标读取: {@link #x(int)}、{@link #y(int)}等, 不创建任何对象.
+ * <p>
+ * {@link #getItems()}返回按需创建Item的只读视图, 需要可修改的{@link FindResult}时通过{@link #toFindResult()}转换.
+ * 不可修改. 没有的字段(比如找色结果没有序号和宽高)读取时返回0.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class FindResults {
+    private static final FindResults EMPTY = new FindResults(0, null, null, null, null, null, null, null, null);
+
+    private final int size;
+    private final int[] indexes;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] widths;
+    private final int[] heights;
+    private final int[] scores;
+    /**
+     * 按序号取名称, 比如找图时传入的图片名列表
+     */
+    private final List<String> names;
+    /**
+     * 每个结果各自的名称, 比如AI检测的类别
+     */
+    private final String[] labels;
+
+    private FindResults(int size, int[] indexes, int[] xs, int[] ys, int[] widths, int[] heights, int[] scores,
+                        List<String> names, String[] labels) {
+        this.size = size;
+        this.indexes = indexes;
+        this.xs = xs;
+        this.ys = ys;
+        this.widths = widths;
+        this.heights = heights;
+        this.scores = scores;
+        this.names = names;
+        this.labels = labels;
+    }
+
+    /**
+     * @return 没有任何结果的实例
+     */
+    public static FindResults empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param expectedSize 预计的结果个数
+     * @return 只有坐标的结果(比如找色)
+     */
+    public static Builder points(int expectedSize) {
+        return new Builder(expectedSize, false, true, false, false, null);
+    }
+
+    /**
+     * @param expectedSize 预计的结果个数
+     * @param names        按序号取名称的列表, 可以为null
+     * @return 带序号和坐标的结果(比如找图)
+     */
+    public static Builder indexedPoints(int expectedSize, List<String> names) {
+        return new Builder(expectedSize, true, true, false, false, names);
+    }
+
+    /**
+     * @param expectedSize 预计的结果个数
+     * @param names        按序号取名称的列表, 可以为null
+     * @return 带序号、匹配度和坐标的结果(比如按百分比找图)
+     */
+    public static Builder scoredIndexedPoints(int expectedSize, List<String> names) {
+        return new Builder(expectedSize, true, true, false, true, names);
+    }
+
+    /**
+     * @param expectedSize 预计的结果个数
+     * @return 带名称、置信度和区域的结果(比如AI检测)
+     */
+    public static Builder labeledRects(int expectedSize) {
+        return new Builder(expectedSize, false, true, true, true, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFound() {
+        return size > 0;
+    }
+
+    public int index(int i) {
+        return read(indexes, i);
+    }
+
+    public int x(int i) {
+        return read(xs, i);
+    }
+
+    public int y(int i) {
+        return read(ys, i);
+    }
+
+    public int width(int i) {
+        return read(widths, i);
+    }
+
+    public int height(int i) {
+        return read(heights, i);
+    }
+
+    /**
+     * @return 匹配度或置信度, 没有时返回0
+     */
+    public int score(int i) {
+        return read(scores, i);
+    }
+
+    public boolean hasScore() {
+        return scores != null;
+    }
+
+    /**
+     * @return 结果的名称, 没有时返回null
+     */
+    public String name(int i) {
+        checkIndex(i);
+        if (labels != null) {
+            return labels[i];
+        }
+        return names == null ? null : names.get(indexes[i]);
+    }
+
+    /**
+     * @return 坐标, 每次调用都会创建新的对象
+     */
+    public Point point(int i) {
+        return Point.of(x(i), y(i));
+    }
+
+    /**
+     * @return 区域, 每次调用都会创建新的对象
+     */
+    public Rect rect(int i) {
+        return Rect.of(x(i), y(i), width(i), height(i));
+    }
+
+    /**
+     * @return 所有坐标的只读视图, 读取时才创建Point
+     */
+    public List<Point> points() {
+        return new PointView();
+    }
+
+    /**
+     * @return 所有结果的只读视图, 读取时才创建Item
+     */
+    public List<FindResult.Item> getItems() {
+        return new ItemView();
+    }
+
+    /**
+     * @return 创建好所有Item的查找结果, 和以前的FindXXX接口返回的一样可以修改
+     */
+    public FindResult toFindResult() {
+        return size == 0 ? FindResult.ofNone() : FindResult.ofMany(new ArrayList<>(getItems()));
+    }
+
+    private FindResult.Item item(int i) {
+        FindResult.Item item;
+        if (widths != null) {
+            item = new FindResult.Item(name(i), score(i), rect(i));
+        } else if (names != null) {
+            item = new FindResult.Item(index(i), name(i), point(i));
+        } else {
+            item = new FindResult.Item(index(i), point(i));
+        }
+        if (scores != null) {
+            item.setProbability(scores[i]);
+        }
+        return item;
+    }
+
+    private int read(int[] values, int i) {
+        checkIndex(i);
+        return values == null ? 0 : values[i];
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    private class ItemView extends AbstractList<FindResult.Item> implements RandomAccess {
+        @Override
+        public FindResult.Item get(int index) {
+            return item(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class PointView extends AbstractList<Point> implements RandomAccess {
+        @Override
+        public Point get(int index) {
+            return point(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * 逐个添加结果, 容量不够时按1.5倍扩容
+     */
+    public static class Builder {
+        private final List<String> names;
+        private int size;
+        private int[] indexes;
+        private int[] xs;
+        private int[] ys;
+        private int[] widths;
+        private int[] heights;
+        private int[] scores;
+        private String[] labels;
+
+        private Builder(int expectedSize, boolean indexed, boolean positioned, boolean sized, boolean scored, List<String> names) {
+            int capacity = Math.max(expectedSize, 4);
+            this.names = names;
+            this.indexes = indexed ? new int[capacity] : null;
+            this.xs = positioned ? new int[capacity] : null;
+            this.ys = positioned ? new int[capacity] : null;
+            this.widths = sized ? new int[capacity] : null;
+            this.heights = sized ? new int[capacity] : null;
+            this.scores = scored ? new int[capacity] : null;
+            this.labels = sized ? new String[capacity] : null;
+        }
+
+        public Builder addPoint(int x, int y) {
+            int i = next();
+            xs[i] = x;
+            ys[i] = y;
+            return this;
+        }
+
+        public Builder addIndexedPoint(int index, int x, int y) {
+            int i = next();
+            indexes[i] = index;
+            xs[i] = x;
+            ys[i] = y;
+            return this;
+        }
+
+        public Builder addScoredIndexedPoint(int index, int score, int x, int y) {
+            int i = next();
+            indexes[i] = index;
+            scores[i] = score;
+            xs[i] = x;
+            ys[i] = y;
+            return this;
+        }
+
+        public Builder addLabeledRect(String label, int score, int x, int y, int width, int height) {
+            int i = next();
+            labels[i] = label;
+            scores[i] = score;
+            xs[i] = x;
+            ys[i] = y;
+            widths[i] = width;
+            heights[i] = height;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return 结果, 数组长度正好等于结果个数. 之后不能再使用这个Builder
+         */
+        public FindResults build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new FindResults(size, trim(indexes), trim(xs), trim(ys), trim(widths), trim(heights), trim(scores),
+                    names, labels == null ? null : Arrays.copyOf(labels, size));
+        }
+
+        private int[] trim(int[] values) {
+            return values == null || values.length == size ? values : Arrays.copyOf(values, size);
+        }
+
+        private int next() {
+            if (size == xs.length) {
+                int capacity = size + (size >> 1);
+                indexes = grow(indexes, capacity);
+                xs = grow(xs, capacity);
+                ys = grow(ys, capacity);
+                widths = grow(widths, capacity);
+                heights = grow(heights, capacity);
+                scores = grow(scores, capacity);
+                if (labels != null) {
+                    labels = Arrays.copyOf(labels, capacity);
+                }
+            }
+            return size++;
+        }
+
+        private static int[] grow(int[] values, int capacity) {
+            return values == null ? null : Arrays.copyOf(values, capacity);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package cn.com.qjun.dmsoft.model;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * 不可变的long列表, 用于窗口句柄、进程PID等枚举结果, 元素不装箱
+ * <p>
+ * 提供{@link #diff(LongList)}和{@link #intersect(LongList)}比较两次枚举的结果, 比如找出新打开和已关闭的窗口.
+ * 比较时会对参数列表排序后二分查找, 排序结果缓存在列表中, 所以每次都和上一次的结果比较时, 上一次的列表只排序一次.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class LongList {
+    private static final LongList EMPTY = new LongList(new long[0]);
+
+    private final long[] values;
+    /**
+     * 排好序的副本, 第一次比较时创建
+     */
+    private volatile long[] sorted;
+
+    private LongList(long[] values) {
+        this.values = values;
+    }
+
+    public static LongList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param values 元素, 会复制一份
+     */
+    public static LongList of(@NonNull long... values) {
+        return values.length == 0 ? EMPTY : new LongList(values.clone());
+    }
+
+    /**
+     * 直接使用传入的数组, 调用方之后不能再修改它
+     */
+    public static LongList wrap(@NonNull long[] values) {
+        return values.length == 0 ? EMPTY : new LongList(values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public long get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return 第一个等于value的下标, 没有时返回-1
+     */
+    public int indexOf(long value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * 在当前列表中但不在other中的元素, 保持当前列表的顺序
+     * <p>
+     * 比如{@code current.diff(previous)}是新出现的窗口, {@code previous.diff(current)}是已经消失的窗口
+     *
+     * @param other 要排除的元素
+     * @return 差集
+     */
+    public LongList diff(@NonNull LongList other) {
+        return filter(other, false);
+    }
+
+    /**
+     * 同时在当前列表和other中的元素, 保持当前列表的顺序
+     *
+     * @param other 另一个列表
+     * @return 交集
+     */
+    public LongList intersect(@NonNull LongList other) {
+        return filter(other, true);
+    }
+
+    public long[] toArray() {
+        return values.clone();
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(values);
+    }
+
+    public void forEach(@NonNull LongConsumer action) {
+        for (long value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * @return 只读的装箱视图, 读取时才装箱, 用于需要{@code List<Long>}的旧代码
+     */
+    public List<Long> boxed() {
+        return new BoxedView();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof LongList && Arrays.equals(values, ((LongList) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+
+    private LongList filter(LongList other, boolean keepContained) {
+        if (values.length == 0) {
+            return this;
+        }
+        if (other.values.length == 0) {
+            return keepContained ? EMPTY : this;
+        }
+        long[] otherSorted = other.sorted();
+        long[] result = new long[values.length];
+        int size = 0;
+        for (long value : values) {
+            if ((Arrays.binarySearch(otherSorted, value) >= 0) == keepContained) {
+                result[size++] = value;
+            }
+        }
+        if (size == values.length) {
+            return this;
+        }
+        return wrap(Arrays.copyOf(result, size));
+    }
+
+    private long[] sorted() {
+        long[] sorted = this.sorted;
+        if (sorted == null) {
+            sorted = values.clone();
+            Arrays.sort(sorted);
+            this.sorted = sorted;
+        }
+        return sorted;
+    }
+
+    private class BoxedView extends AbstractList<Long> implements RandomAccess {
+        @Override
+        public Long get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package cn.com.qjun.dmsoft.model;
+
+import com.sun.jna.Pointer;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 大漠插件内部的一块结果缓冲区, 比如ReadDataAddrToBin、GetScreenDataBmp返回的数据地址
+ * <p>
+ * 插件在下次调用同一类函数时会释放或者覆盖这块缓冲区. 每次调用前{@link #advance()}一次,
+ * 之前创建的{@link NativeBufferView}就会失效, 再使用时立即抛出异常, 而不是读到被覆盖或者已经释放的内存.
+ * 大漠对象关闭时插件释放所有缓冲区, 此时{@link #close()}, 之前的视图全部失效, 也不能再创建新的视图.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class NativeBufferOwner {
+    /**
+     * 缓冲区的名称, 用于异常信息
+     */
+    @Getter
+    private final String name;
+    private volatile long generation;
+    private volatile boolean closed;
+
+    public NativeBufferOwner(@NonNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * 插件即将覆盖缓冲区, 之前的视图全部失效. 只能在大漠对象所在的线程中调用.
+     */
+    public void advance() {
+        generation++;
+    }
+
+    /**
+     * 所属的大漠对象已经关闭, 插件已经释放缓冲区, 之前的视图全部失效
+     */
+    public void close() {
+        closed = true;
+        generation++;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return 当前的代数, 每次{@link #advance()}加一
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * 为插件刚刚返回的数据地址创建视图
+     *
+     * @param address 插件返回的数据地址, 不能为0
+     * @param length  数据长度
+     * @return 当前代数的视图
+     * @throws IllegalStateException 已经关闭
+     */
+    public NativeBufferView view(long address, int length) {
+        if (closed) {
+            throw new IllegalStateException(name + "所属的大漠对象已经关闭");
+        }
+        if (address == 0) {
+            throw new IllegalArgumentException("数据地址不能为0");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("数据长度不能小于0: " + length);
+        }
+        return new NativeBufferView(this, generation,
+                length == 0 ? ByteBuffer.allocateDirect(0) : new Pointer(address).getByteBuffer(0, length));
+    }
+}
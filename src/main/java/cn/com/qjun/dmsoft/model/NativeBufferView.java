@@ -0,0 +1,132 @@
+package cn.com.qjun.dmsoft.model;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 大漠插件结果缓冲区的只读视图, 不复制数据
+ * <p>
+ * 只在创建它的{@link NativeBufferOwner}没有再次调用插件、所属的大漠对象没有关闭之前有效. 每个方法都会检查代数,
+ * 缓冲区已经被覆盖时抛出{@link IllegalStateException}; 下标超出范围时抛出{@link IndexOutOfBoundsException}.
+ * 需要长期保存数据时使用{@link #copyTo(ByteBuffer)}或{@link #toByteArray()}复制一份.
+ * <p>
+ * 多字节数值按小端读取.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class NativeBufferView {
+    private final NativeBufferOwner owner;
+    private final long generation;
+    private final ByteBuffer buffer;
+
+    NativeBufferView(NativeBufferOwner owner, long generation, ByteBuffer buffer) {
+        this.owner = owner;
+        this.generation = generation;
+        this.buffer = buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return 数据长度
+     */
+    public int length() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return 缓冲区是否还没有被插件覆盖
+     */
+    public boolean isValid() {
+        return owner.generation() == generation;
+    }
+
+    public byte getByte(int index) {
+        checkValid();
+        return buffer.get(index);
+    }
+
+    public short getShort(int index) {
+        checkValid();
+        return buffer.getShort(index);
+    }
+
+    public int getInt(int index) {
+        checkValid();
+        return buffer.getInt(index);
+    }
+
+    public long getLong(int index) {
+        checkValid();
+        return buffer.getLong(index);
+    }
+
+    public float getFloat(int index) {
+        checkValid();
+        return buffer.getFloat(index);
+    }
+
+    public double getDouble(int index) {
+        checkValid();
+        return buffer.getDouble(index);
+    }
+
+    /**
+     * 复制[index, index + length)到dst[offset, offset + length)
+     */
+    public void get(int index, @NonNull byte[] dst, int offset, int length) {
+        checkValid();
+        checkRange(index, length);
+        ByteBuffer source = buffer.duplicate();
+        source.position(index);
+        source.get(dst, offset, length);
+    }
+
+    /**
+     * 复制全部数据到target的当前位置, target的位置前进{@link #length()}
+     *
+     * @throws java.nio.BufferOverflowException target剩余空间不足
+     */
+    public void copyTo(@NonNull ByteBuffer target) {
+        checkValid();
+        target.put(buffer.duplicate());
+    }
+
+    /**
+     * @return 全部数据的副本
+     */
+    public byte[] toByteArray() {
+        byte[] data = new byte[length()];
+        get(0, data, 0, data.length);
+        return data;
+    }
+
+    /**
+     * 不复制数据的只读缓冲区, 适合交给需要ByteBuffer的接口一次性处理
+     * <p>
+     * 返回的缓冲区本身不检查代数, 只能在下次调用插件之前使用, 之后读到的数据没有意义, 甚至可能导致进程崩溃.
+     *
+     * @return 位置为0、界限为{@link #length()}的只读缓冲区, 小端
+     */
+    public ByteBuffer asByteBuffer() {
+        checkValid();
+        return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void checkValid() {
+        if (owner.isClosed()) {
+            throw new IllegalStateException(String.format("%s所属的大漠对象已经关闭, 视图失效", owner.getName()));
+        }
+        if (!isValid()) {
+            throw new IllegalStateException(String.format("%s的数据已经被插件覆盖, 视图失效(代数%d, 当前%d)",
+                    owner.getName(), generation, owner.generation()));
+        }
+    }
+
+    private void checkRange(int index, int length) {
+        if (index < 0 || length < 0 || index > buffer.capacity() - length) {
+            throw new IndexOutOfBoundsException(String.format("下标越界: index=%d, length=%d, 数据长度=%d", index, length, buffer.capacity()));
+        }
+    }
+}
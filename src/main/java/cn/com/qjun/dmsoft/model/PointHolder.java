@@ -0,0 +1,40 @@
+package cn.com.qjun.dmsoft.model;
+
+import cn.com.qjun.commons.geometry.Point;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 可复用的坐标输出参数
+ * <p>
+ * 查找类接口把找到的坐标直接写入此对象, 调用方在循环中反复使用同一个实例, 不会为每次结果创建新的{@link Point}.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+@NoArgsConstructor
+public class PointHolder {
+    /**
+     * X坐标
+     */
+    private int x;
+    /**
+     * Y坐标
+     */
+    private int y;
+
+    public void set(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * 转换成不可变的坐标点
+     *
+     * @return 坐标点
+     */
+    public Point toPoint() {
+        return Point.of(x, y);
+    }
+}
@@ -0,0 +1,54 @@
+package cn.com.qjun.dmsoft.pool;
+
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+
+/**
+ * 从对象池借出的大漠对象, 用完后关闭即归还, 适合配合try-with-resources使用
+ * <p>
+ * 借出期间只能由借用方使用, 归还后不能再访问{@link #dmSoft()}返回的对象.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftLease implements AutoCloseable {
+    private final DmSoftPool pool;
+    private final DmSoftPool.PooledDmSoft pooled;
+    private final long leasedAt;
+    private boolean broken;
+    private boolean returned;
+
+    DmSoftLease(DmSoftPool pool, DmSoftPool.PooledDmSoft pooled, long leasedAt) {
+        this.pool = pool;
+        this.pooled = pooled;
+        this.leasedAt = leasedAt;
+    }
+
+    /**
+     * @return 借出的大漠对象
+     */
+    public DmSoftWrapper dmSoft() {
+        if (returned) {
+            throw new IllegalStateException("大漠对象已经归还");
+        }
+        return pooled.dmSoft;
+    }
+
+    /**
+     * 标记大漠对象不可用, 归还时直接关闭而不是放回对象池. 比如调用出现了无法恢复的异常, 或者绑定状态无法还原.
+     */
+    public void invalidate() {
+        this.broken = true;
+    }
+
+    /**
+     * 归还大漠对象, 重复调用无效
+     */
+    @Override
+    public void close() {
+        if (returned) {
+            return;
+        }
+        returned = true;
+        pool.release(pooled, broken, leasedAt);
+    }
+}
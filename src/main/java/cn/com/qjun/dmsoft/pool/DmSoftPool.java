@@ -0,0 +1,350 @@
+package cn.com.qjun.dmsoft.pool;
+
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+import cn.com.qjun.dmsoft.metrics.LatencyHistogram;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数量有限的大漠对象池
+ * <p>
+ * 大漠对象的个数受授权限制, 每个线程各创建一个({@link cn.com.qjun.dmsoft.DmSoftThreadSafe})在线程多的时候会超出限制.
+ * 对象池最多同时存在{@link DmSoftPoolConfig#getMaxSize()}个大漠对象, 借出时优先复用最近归还的对象,
+ * 全部借出后借用方等待其它线程归还. 后台线程定期回收空闲太久的对象, 并检查空闲对象是否可用.
+ * <pre>{@code
+ * try (DmSoftLease lease = pool.lease()) {
+ *     lease.dmSoft().colourFunctions().findColor(...);
+ * }
+ * }</pre>
+ * 大漠对象可以交给其它线程使用, 调用后端会在新线程第一次调用时为它初始化COM.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class DmSoftPool implements AutoCloseable {
+    private final DmSoftPoolConfig config;
+    /**
+     * 许可数即还能借出的个数, 借出时获取, 归还时释放
+     */
+    private final Semaphore permits;
+    /**
+     * 空闲对象, 从头部借出和归还(后进先出), 从尾部回收, 这样不常用的对象会留在尾部慢慢过期
+     */
+    private final LinkedBlockingDeque<PooledDmSoft> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledDmSoft> all = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    /**
+     * 借出中的对象个数. 不能用maxSize减去剩余许可计算, 空闲检查和补足最少对象时也会短暂占用许可
+     */
+    private final AtomicInteger leasedCount = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+    private final LongAdder leaseCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder unhealthyCount = new LongAdder();
+    private final LongAdder leasedNanos = new LongAdder();
+    private volatile long statsStartNanos = System.nanoTime();
+
+    public DmSoftPool(@NonNull DmSoftPoolConfig config) {
+        if (config.getMaxSize() <= 0 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException(String.format("对象池大小配置错误: minSize=%d, maxSize=%d",
+                    config.getMinSize(), config.getMaxSize()));
+        }
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        fillToMinSize();
+        long intervalMillis = config.getEvictionInterval().toMillis();
+        if (intervalMillis > 0) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dmsoft-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.evictor.scheduleWithFixedDelay(this::evict, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    /**
+     * 借出一个大漠对象, 没有可用的对象时一直等待
+     *
+     * @return 借出的大漠对象, 用完后必须关闭
+     * @throws InterruptedException 等待时线程被中断
+     */
+    public DmSoftLease lease() throws InterruptedException {
+        checkOpen();
+        long start = System.nanoTime();
+        permits.acquire();
+        return leaseWithPermit(start);
+    }
+
+    /**
+     * 借出一个大漠对象, 最多等待指定的时间
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 借出的大漠对象, 用完后必须关闭. 超时返回null
+     * @throws InterruptedException 等待时线程被中断
+     */
+    public DmSoftLease tryLease(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        long start = System.nanoTime();
+        if (!permits.tryAcquire(timeout, unit)) {
+            timeoutCount.increment();
+            waitHistogram.record(System.nanoTime() - start);
+            return null;
+        }
+        return leaseWithPermit(start);
+    }
+
+    /**
+     * 关闭所有空闲的大漠对象, 借出中的对象在归还时关闭. 之后仍然可以借出, 会重新创建大漠对象.
+     * 一般在大漠插件状态异常(比如更换了授权)时使用.
+     */
+    public void closeAll() {
+        PooledDmSoft pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        for (PooledDmSoft leased : all) {
+            leased.expired = true;
+        }
+    }
+
+    /**
+     * @return 当前的统计快照
+     */
+    public DmSoftPoolStats stats() {
+        DmSoftPoolStats stats = new DmSoftPoolStats();
+        stats.setMaxSize(config.getMaxSize());
+        stats.setTotalCount(totalCount.get());
+        stats.setIdleCount(idle.size());
+        stats.setLeasedCount(leasedCount.get());
+        stats.setWaitingCount(permits.getQueueLength());
+        stats.setLeaseCount(leaseCount.sum());
+        stats.setTimeoutCount(timeoutCount.sum());
+        stats.setCreatedCount(createdCount.sum());
+        stats.setDestroyedCount(destroyedCount.sum());
+        stats.setUnhealthyCount(unhealthyCount.sum());
+        stats.setP50WaitNanos(waitHistogram.valueAtPercentile(50));
+        stats.setP99WaitNanos(waitHistogram.valueAtPercentile(99));
+        stats.setMaxWaitNanos(waitHistogram.valueAtPercentile(100));
+        long elapsed = System.nanoTime() - statsStartNanos;
+        stats.setUtilisation(elapsed <= 0 ? 0 : Math.min(1.0, (double) leasedNanos.sum() / ((double) config.getMaxSize() * elapsed)));
+        return stats;
+    }
+
+    /**
+     * 清空统计数据, 使用率从现在开始重新计算
+     */
+    public void resetStats() {
+        waitHistogram.reset();
+        leaseCount.reset();
+        timeoutCount.reset();
+        createdCount.reset();
+        destroyedCount.reset();
+        unhealthyCount.reset();
+        leasedNanos.reset();
+        statsStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 关闭对象池和所有空闲的大漠对象, 借出中的对象在归还时关闭
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        closeAll();
+    }
+
+    void release(PooledDmSoft pooled, boolean broken, long leasedAt) {
+        long now = System.nanoTime();
+        leasedNanos.add(now - leasedAt);
+        leasedCount.decrementAndGet();
+        try {
+            if (broken) {
+                unhealthyCount.increment();
+                destroy(pooled);
+            } else if (closed || pooled.expired) {
+                destroy(pooled);
+            } else {
+                pooled.lastReturnedNanos = now;
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private DmSoftLease leaseWithPermit(long start) {
+        try {
+            PooledDmSoft pooled = takeIdleOrCreate();
+            long now = System.nanoTime();
+            waitHistogram.record(now - start);
+            leaseCount.increment();
+            leasedCount.incrementAndGet();
+            return new DmSoftLease(this, pooled, now);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledDmSoft takeIdleOrCreate() {
+        PooledDmSoft pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (!config.isTestOnLease() || isHealthy(pooled)) {
+                return pooled;
+            }
+            unhealthyCount.increment();
+            destroy(pooled);
+        }
+        // 持有许可时借出中的对象不会超过maxSize, 所以这里创建不会超出限制
+        return create();
+    }
+
+    private PooledDmSoft create() {
+        DmSoftWrapper dmSoft = new DmSoftWrapper(config.getBackendFactory().create());
+        try {
+            if (config.getInitFunction() != null) {
+                config.getInitFunction().accept(dmSoft);
+            }
+        } catch (RuntimeException e) {
+            dmSoft.close();
+            throw e;
+        }
+        PooledDmSoft pooled = new PooledDmSoft(dmSoft, dmSoft.basicFunctions().getId());
+        all.add(pooled);
+        totalCount.incrementAndGet();
+        createdCount.increment();
+        return pooled;
+    }
+
+    private void destroy(PooledDmSoft pooled) {
+        if (!all.remove(pooled)) {
+            return;
+        }
+        totalCount.decrementAndGet();
+        destroyedCount.increment();
+        try {
+            pooled.dmSoft.close();
+        } catch (RuntimeException e) {
+            log.warn("关闭大漠对象失败: ID={}", pooled.id, e);
+        }
+    }
+
+    private boolean isHealthy(PooledDmSoft pooled) {
+        try {
+            return pooled.dmSoft.basicFunctions().getId() == pooled.id;
+        } catch (RuntimeException e) {
+            log.warn("大漠对象不可用: ID={}", pooled.id, e);
+            return false;
+        }
+    }
+
+    private void evict() {
+        try {
+            long idleTimeoutNanos = config.getIdleTimeout().toNanos();
+            long now = System.nanoTime();
+            Iterator<PooledDmSoft> iterator = idle.descendingIterator();
+            while (iterator.hasNext()) {
+                PooledDmSoft pooled = iterator.next();
+                boolean expired = idleTimeoutNanos > 0 && now - pooled.lastReturnedNanos > idleTimeoutNanos
+                        && totalCount.get() > config.getMinSize();
+                if (expired) {
+                    if (idle.removeLastOccurrence(pooled)) {
+                        destroy(pooled);
+                    }
+                } else if (config.isTestWhileIdle()) {
+                    testIdle(pooled);
+                }
+            }
+            fillToMinSize();
+        } catch (RuntimeException e) {
+            log.warn("回收空闲大漠对象失败", e);
+        }
+    }
+
+    /**
+     * 检查空闲对象是否可用. 检查期间对象不在空闲队列中, 同时占用一个许可, 这样借用方不会因为拿不到它而多创建一个对象.
+     */
+    private void testIdle(PooledDmSoft pooled) {
+        if (!permits.tryAcquire()) {
+            return;
+        }
+        try {
+            if (!idle.removeLastOccurrence(pooled)) {
+                return;
+            }
+            if (!closed && isHealthy(pooled)) {
+                idle.offerLast(pooled);
+            } else {
+                if (!closed) {
+                    unhealthyCount.increment();
+                }
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 补足最少保留的大漠对象, 借出中的对象也计算在内
+     */
+    private void fillToMinSize() {
+        while (!closed && totalCount.get() < config.getMinSize() && permits.tryAcquire()) {
+            try {
+                PooledDmSoft pooled = create();
+                pooled.lastReturnedNanos = System.nanoTime();
+                idle.offerLast(pooled);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("大漠对象池已经关闭");
+        }
+    }
+
+    static class PooledDmSoft {
+        final DmSoftWrapper dmSoft;
+        final long id;
+        volatile long lastReturnedNanos;
+        /**
+         * 调用{@link #closeAll()}时借出中的对象, 归还时直接关闭
+         */
+        volatile boolean expired;
+
+        PooledDmSoft(DmSoftWrapper dmSoft, long id) {
+            this.dmSoft = dmSoft;
+            this.id = id;
+        }
+    }
+}
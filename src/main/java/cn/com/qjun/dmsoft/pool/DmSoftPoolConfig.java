@@ -0,0 +1,50 @@
+package cn.com.qjun.dmsoft.pool;
+
+import cn.com.qjun.dmsoft.DmSoftInitFunction;
+import cn.com.qjun.dmsoft.backend.DmBackendFactory;
+import cn.com.qjun.dmsoft.backend.JacobDmBackend;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 大漠对象池配置
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class DmSoftPoolConfig {
+    /**
+     * 最少保留的大漠对象个数, 创建对象池时预先创建, 空闲回收时不会低于这个数量
+     */
+    private int minSize = 0;
+    /**
+     * 最多同时存在的大漠对象个数, 一般根据授权数量设置
+     */
+    private int maxSize = 4;
+    /**
+     * 空闲超过这个时间的大漠对象会被回收
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    /**
+     * 空闲回收和健康检查的执行间隔
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    /**
+     * 借出前是否检查大漠对象是否可用, 会多一次插件调用
+     */
+    private boolean testOnLease = false;
+    /**
+     * 空闲回收时是否检查空闲的大漠对象是否可用
+     */
+    private boolean testWhileIdle = true;
+    /**
+     * 调用后端的创建方式
+     */
+    private DmBackendFactory backendFactory = JacobDmBackend::new;
+    /**
+     * 大漠对象创建后的初始化逻辑, 比如注册、设置路径和字库, 可以为null
+     */
+    private DmSoftInitFunction initFunction;
+}
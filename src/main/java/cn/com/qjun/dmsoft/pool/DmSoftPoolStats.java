@@ -0,0 +1,49 @@
+package cn.com.qjun.dmsoft.pool;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 大漠对象池统计的快照, 耗时单位均为纳秒
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Data
+public class DmSoftPoolStats implements Serializable {
+    private static final long serialVersionUID = 2841735104672318843L;
+
+    private int maxSize;
+    /**
+     * 当前存在的大漠对象个数
+     */
+    private int totalCount;
+    private int idleCount;
+    /**
+     * 当前借出中的大漠对象个数, 不包括空闲检查等对象池内部的短暂占用
+     */
+    private int leasedCount;
+    /**
+     * 正在等待借出的线程数(估计值)
+     */
+    private int waitingCount;
+    private long leaseCount;
+    /**
+     * 限时借出超时的次数
+     */
+    private long timeoutCount;
+    private long createdCount;
+    private long destroyedCount;
+    /**
+     * 健康检查失败或者被使用方标记为不可用的次数
+     */
+    private long unhealthyCount;
+    private long p50WaitNanos;
+    private long p99WaitNanos;
+    private long maxWaitNanos;
+    /**
+     * 统计周期内的平均使用率: 借出时间总和 / (最大数量 * 统计时长), 取值0-1
+     */
+    private double utilisation;
+}
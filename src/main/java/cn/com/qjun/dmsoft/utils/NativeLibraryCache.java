@@ -0,0 +1,245 @@
+package cn.com.qjun.dmsoft.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+
+/**
+ * 本地库(dll)的持久化缓存
+ * <p>
+ * 资源文件按内容的CRC32和长度释放到缓存目录下的"哈希-长度/文件名", 内容不变时后续启动直接复用, 不再每次创建临时目录和复制文件,
+ * 也不依赖deleteOnExit清理. 资源在jar中时CRC32和长度直接取自jar条目(打包时已经计算好并写在zip目录里), 不读取资源内容;
+ * 不在jar中(比如开发时的classes目录)时才读一遍资源计算.
+ * <p>
+ * 释放完成后在同一目录写入标记文件"文件名.ok", 内容为"哈希-长度". 标记在文件完整写入并移动到位之后才写,
+ * 复用时校验标记内容、文件长度和CRC32, 写了一半、被截断、损坏或者被替换成其它内容的文件都会重新释放.
+ * CRC32只能发现意外的改动, 不能防止有意构造的同CRC文件.
+ * <p>
+ * 多个进程同时释放同一个文件时通过文件锁串行化, 写入先写临时文件再原子移动到目标位置, 其它进程不会读到写了一半的文件.
+ * <p>
+ * 缓存目录默认为"用户目录/.dmsoft-java/native", 可以通过系统属性{@value #CACHE_DIR_PROPERTY}修改.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class NativeLibraryCache {
+    public static final String CACHE_DIR_PROPERTY = "dmsoft.native.cacheDir";
+    private static final String MARKER_SUFFIX = ".ok";
+    private static final int BUFFER_SIZE = 8192;
+    private static final ConcurrentMap<Path, Object> IN_PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path cacheDir;
+
+    public NativeLibraryCache(@NonNull Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * @return 使用默认缓存目录的实例
+     */
+    public static NativeLibraryCache getDefault() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        return new NativeLibraryCache(dir != null ? Paths.get(dir)
+                : Paths.get(System.getProperty("user.home"), ".dmsoft-java", "native"));
+    }
+
+    public Path getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * 释放类路径下的资源文件到缓存目录, 已经存在并且内容一致时直接返回
+     *
+     * @param resourcePath 资源文件路径(相对于类路径，以 / 开头)
+     * @param fileName     释放后的文件名, 加载dll时文件名有意义, 所以保留原名
+     * @return 缓存中的文件
+     * @throws IOException 读取资源或者写入缓存失败
+     */
+    public Path extract(@NonNull String resourcePath, @NonNull String fileName) throws IOException {
+        URL resource = NativeLibraryCache.class.getResource(resourcePath);
+        if (resource == null) {
+            throw new RuntimeException("Could not find resource file: " + resourcePath);
+        }
+        return extract(resource, fileName);
+    }
+
+    /**
+     * 释放指定的资源到缓存目录, 已经存在并且内容一致时直接返回
+     *
+     * @param resource 资源地址
+     * @param fileName 释放后的文件名
+     * @return 缓存中的文件
+     * @throws IOException 读取资源或者写入缓存失败
+     */
+    public Path extract(@NonNull URL resource, @NonNull String fileName) throws IOException {
+        ContentKey key = ContentKey.of(resource);
+        Path dir = cacheDir.resolve(key.toString());
+        Path target = dir.resolve(fileName);
+        Path marker = dir.resolve(fileName + MARKER_SUFFIX);
+        if (isValid(target, marker, key)) {
+            return target;
+        }
+        Files.createDirectories(dir);
+        // 文件锁只在进程之间互斥, 同一个进程内的线程先在这里排队, 否则会抛出OverlappingFileLockException
+        synchronized (IN_PROCESS_LOCKS.computeIfAbsent(target.toAbsolutePath().normalize(), k -> new Object())) {
+            return extractLocked(resource, dir, target, marker, fileName, key);
+        }
+    }
+
+    private static Path extractLocked(URL resource, Path dir, Path target, Path marker, String fileName, ContentKey key) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(dir.resolve(fileName + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            // 等锁期间其它进程可能已经释放好了
+            if (isValid(target, marker, key)) {
+                return target;
+            }
+            Files.deleteIfExists(marker);
+            Path tempFile = Files.createTempFile(dir, fileName, ".tmp");
+            try {
+                ContentKey written = write(resource, tempFile);
+                if (written.crc != key.crc || written.size != key.size) {
+                    throw new IOException("资源内容和预期不一致: " + resource + ", 预期" + key + ", 实际" + written);
+                }
+                move(tempFile, target);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            Files.write(marker, key.toString().getBytes(StandardCharsets.US_ASCII));
+            log.debug("释放本地库到缓存目录: {}", target);
+            return target;
+        }
+    }
+
+    /**
+     * 把资源写入文件, 同时计算写入内容的CRC32和长度
+     */
+    private static ContentKey write(URL resource, Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream input = openStream(resource);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int read;
+            while ((read = input.read(bytes)) != -1) {
+                crc.update(bytes, 0, read);
+                size += read;
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        }
+        return new ContentKey(crc.getValue(), size);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 标记文件的内容和预期一致, 并且文件的长度和CRC32都和资源一致. 缓存目录用户可写, 文件会被加载到进程中,
+     * 所以命中时也要校验内容; 几百KB的dll计算一次CRC32不到1毫秒.
+     */
+    private static boolean isValid(Path file, Path marker, ContentKey key) {
+        try {
+            if (!Files.isRegularFile(marker) || !Files.isRegularFile(file) || Files.size(file) != key.size
+                    || !key.toString().equals(new String(Files.readAllBytes(marker), StandardCharsets.US_ASCII))) {
+                return false;
+            }
+            return checksum(file) == key.crc;
+        } catch (IOException e) {
+            log.debug("校验缓存文件失败: {}", file, e);
+            return false;
+        }
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static InputStream openStream(URL resource) throws IOException {
+        URLConnection connection = resource.openConnection();
+        // 不共用JarFile缓存, 否则关闭流时可能关掉其它地方正在使用的jar
+        connection.setUseCaches(false);
+        return connection.getInputStream();
+    }
+
+    /**
+     * 资源内容的CRC32和长度, 用作缓存目录名
+     */
+    @AllArgsConstructor
+    private static final class ContentKey {
+        private final long crc;
+        private final long size;
+
+        /**
+         * jar中的资源使用jar条目记录的CRC32和长度, 其它资源读取内容计算
+         */
+        static ContentKey of(URL resource) throws IOException {
+            URLConnection connection = resource.openConnection();
+            if (connection instanceof JarURLConnection) {
+                connection.setUseCaches(false);
+                JarURLConnection jarConnection = (JarURLConnection) connection;
+                try (JarFile jarFile = jarConnection.getJarFile()) {
+                    JarEntry entry = jarFile.getJarEntry(jarConnection.getEntryName());
+                    if (entry != null && entry.getCrc() != -1 && entry.getSize() != -1) {
+                        return new ContentKey(entry.getCrc(), entry.getSize());
+                    }
+                }
+            }
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream input = openStream(resource)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return new ContentKey(crc.getValue(), size);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%08x-%d", crc, size);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package cn.com.qjun.dmsoft.utils;
+
+import cn.com.qjun.commons.geometry.Point;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 把坐标打包成一个int: 高16位是x, 低16位是y
+ * <p>
+ * 用于{@link java.util.stream.IntStream}等基本类型的流, 遍历坐标时不需要创建{@link Point}.
+ * x和y都按有符号16位存放, 范围是-32768到32767, 屏幕坐标(包括多显示器时的负坐标)都在这个范围内,
+ * 超出范围时{@link #pack(int, int)}抛出异常, 不会截断成别的坐标.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class PackedPoints {
+
+    private PackedPoints() {
+    }
+
+    /**
+     * 打包坐标
+     *
+     * @param x x坐标, 范围-32768到32767
+     * @param y y坐标, 范围-32768到32767
+     * @return 打包后的坐标
+     * @throws IllegalArgumentException 坐标超出有符号16位的范围
+     */
+    public static int pack(int x, int y) {
+        if (x != (short) x || y != (short) y) {
+            throw new IllegalArgumentException("坐标超出打包范围(-32768到32767): " + x + "," + y);
+        }
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int x(int packed) {
+        return packed >> 16;
+    }
+
+    public static int y(int packed) {
+        return (short) packed;
+    }
+
+    public static Point toPoint(int packed) {
+        return Point.of(x(packed), y(packed));
+    }
+
+    /**
+     * @return 到指定坐标距离的平方
+     */
+    public static long distanceSquared(int packed, int x, int y) {
+        long dx = x(packed) - x;
+        long dy = y(packed) - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * 用于{@link java.util.stream.IntStream#reduce(IntBinaryOperator)}求离指定坐标最近的点, 距离相同时保留先出现的
+     *
+     * @param x 目标x坐标
+     * @param y 目标y坐标
+     * @return 返回两个点中较近的一个
+     */
+    public static IntBinaryOperator closerTo(int x, int y) {
+        return (a, b) -> distanceSquared(b, x, y) < distanceSquared(a, x, y) ? b : a;
+    }
+}
@@ -0,0 +1,33 @@
+package cn.com.qjun.dmsoft.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次大漠函数调用, 持续时间和所在线程由JFR自动记录
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Name("cn.com.qjun.dmsoft.Call")
+@Label("大漠函数调用")
+@Category({"dmsoft"})
+@Description("通过COM调用大漠插件的一个函数")
+@StackTrace(false)
+class DmCallEvent extends Event {
+    @Label("函数名")
+    String method;
+
+    @Label("参数个数")
+    int argCount;
+
+    @Label("大漠对象ID")
+    long dmSoftId;
+
+    @Label("是否成功")
+    boolean success;
+}
@@ -0,0 +1,72 @@
+package cn.com.qjun.dmsoft.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * 向Java Flight Recorder提交大漠调用事件, JDK 11及以上的实现
+ * <p>
+ * 事件没有在任何录制中开启时, beginXxx只读取一次开关并返回null, 不创建事件对象.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class DmFlightRecorder {
+    private static final EventType CALL_EVENT_TYPE = EventType.getEventType(DmCallEvent.class);
+    private static final EventType SEARCH_EVENT_TYPE = EventType.getEventType(DmSearchEvent.class);
+
+    private DmFlightRecorder() {
+    }
+
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    public static Object beginCall() {
+        if (!CALL_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        DmCallEvent event = new DmCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endCall(Object event, String method, int argCount, long dmSoftId, boolean success) {
+        if (event == null) {
+            return;
+        }
+        DmCallEvent callEvent = (DmCallEvent) event;
+        callEvent.end();
+        if (callEvent.shouldCommit()) {
+            callEvent.method = method;
+            callEvent.argCount = argCount;
+            callEvent.dmSoftId = dmSoftId;
+            callEvent.success = success;
+            callEvent.commit();
+        }
+    }
+
+    public static Object beginSearch() {
+        if (!SEARCH_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        DmSearchEvent event = new DmSearchEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endSearch(Object event, String method, long rectArea, int templateCount, int hitCount, long dmSoftId) {
+        if (event == null) {
+            return;
+        }
+        DmSearchEvent searchEvent = (DmSearchEvent) event;
+        searchEvent.end();
+        if (searchEvent.shouldCommit()) {
+            searchEvent.method = method;
+            searchEvent.rectArea = rectArea;
+            searchEvent.templateCount = templateCount;
+            searchEvent.hitCount = hitCount;
+            searchEvent.dmSoftId = dmSoftId;
+            searchEvent.commit();
+        }
+    }
+}
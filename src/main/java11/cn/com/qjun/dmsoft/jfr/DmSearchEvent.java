@@ -0,0 +1,36 @@
+package cn.com.qjun.dmsoft.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 一次找色/找图, 包含内部所有的大漠函数调用
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Name("cn.com.qjun.dmsoft.Search")
+@Label("大漠找色找图")
+@Category({"dmsoft"})
+@Description("一次找色、找图或找形状的操作")
+class DmSearchEvent extends Event {
+    @Label("函数名")
+    String method;
+
+    @Label("区域面积")
+    @Description("查找区域的像素个数")
+    long rectArea;
+
+    @Label("模板个数")
+    @Description("查找的颜色、图片或者点的个数")
+    int templateCount;
+
+    @Label("结果个数")
+    int hitCount;
+
+    @Label("大漠对象ID")
+    long dmSoftId;
+}
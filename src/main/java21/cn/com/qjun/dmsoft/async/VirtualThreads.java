@@ -0,0 +1,28 @@
+package cn.com.qjun.dmsoft.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 创建执行脚本任务的线程, JDK 21及以上使用虚拟线程
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        return thread.isVirtual();
+    }
+
+    public static ExecutorService newTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}
@@ -0,0 +1,111 @@
+package cn.com.qjun.dmsoft;
+
+import cn.com.qjun.dmsoft.functions.DmConversions;
+import cn.com.qjun.dmsoft.model.PointHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用插件核对或录制转换函数的对照数据(functions/conversion-corpus.tsv), 需要在Windows上注册插件后运行
+ * <p>
+ * 默认逐条比较插件的返回值和对照数据; 指定系统属性{@value #OUTPUT_PROPERTY}时改为录制,
+ * 用插件的返回值重写每行的最后一列, 写入指定的文件.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@Slf4j
+public class DmConversionsPluginTest {
+    private static final String OUTPUT_PROPERTY = "dmsoft.corpus.output";
+    private static final String CORPUS = "/cn/com/qjun/dmsoft/functions/conversion-corpus.tsv";
+    private static final String STATE_PREFIX = "# 录制状态: ";
+
+    private static DmSoftWrapper dmSoft;
+    private static boolean enabled;
+
+    @BeforeAll
+    public static void init() {
+        enabled = DmConversions.isEnabled();
+        DmConversions.setEnabled(false);
+        dmSoft = new DmSoftWrapper();
+    }
+
+    @Test
+    public void testCorpus() throws IOException {
+        String output = System.getProperty(OUTPUT_PROPERTY);
+        String version = dmSoft.basicFunctions().ver();
+        List<String> lines = new ArrayList<>();
+        try (InputStream input = DmConversionsPluginTest.class.getResourceAsStream(CORPUS);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(STATE_PREFIX)) {
+                    lines.add(STATE_PREFIX + "已录制, 插件版本" + version);
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#")) {
+                    lines.add(line);
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                String actual = call(fields);
+                if (output == null) {
+                    assertEquals(fields[fields.length - 1], actual, line);
+                }
+                fields[fields.length - 1] = actual;
+                lines.add(String.join("\t", fields));
+            }
+        }
+        if (output != null) {
+            Files.write(Paths.get(output), lines, StandardCharsets.UTF_8);
+            log.info("已用插件{}录制对照数据: {}", version, output);
+        }
+    }
+
+    private static String call(String[] fields) {
+        switch (fields[0]) {
+            case "IntToData":
+                return dmSoft.memoryFunctions().intToData(Long.parseLong(fields[1]), Integer.parseInt(fields[2]));
+            case "FloatToData":
+                return dmSoft.memoryFunctions().floatToData(Float.parseFloat(fields[1]));
+            case "DoubleToData":
+                return dmSoft.memoryFunctions().doubleToData(Double.parseDouble(fields[1]));
+            case "StringToData":
+                return dmSoft.memoryFunctions().stringToData(fields[1], Integer.parseInt(fields[2]));
+            case "BGR2RGB":
+                return dmSoft.colourFunctions().bgr2Rgb(fields[1]);
+            case "RGB2BGR":
+                return dmSoft.colourFunctions().rgb2Bgr(fields[1]);
+            case "GetResultCount":
+                return String.valueOf(dmSoft.textFunctions().getResultCount(fields[1]));
+            case "GetResultPos":
+                PointHolder out = new PointHolder();
+                dmSoft.textFunctions().getResultPos(fields[1], Integer.parseInt(fields[2]), out);
+                return out.getX() + "," + out.getY();
+            default:
+                throw new IllegalArgumentException("未知的函数: " + fields[0]);
+        }
+    }
+
+    @AfterAll
+    public static void close() {
+        DmConversions.setEnabled(enabled);
+        if (dmSoft != null) {
+            dmSoft.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试大量脚本任务通过分发器共用少量大漠对象
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftDispatcherTest {
+
+    @Test
+    public void testManyScriptsShareWorkers() throws InterruptedException {
+        Set<String> workerThreads = ConcurrentHashMap.newKeySet();
+        Set<Long> dmSoftIds = ConcurrentHashMap.newKeySet();
+        int tasks = 1000;
+        try (DmSoftDispatcher dispatcher = new DmSoftDispatcher(2, InMemoryDmBackend::new, null)) {
+            ExecutorService scripts = dispatcher.newScriptExecutor();
+            CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                scripts.execute(() -> {
+                    try {
+                        dmSoftIds.add(dispatcher.call(dmSoft -> {
+                            workerThreads.add(Thread.currentThread().getName());
+                            return dmSoft.basicFunctions().getId();
+                        }));
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            scripts.shutdown();
+        }
+        assertTrue(workerThreads.size() <= 2);
+        assertTrue(dmSoftIds.size() <= 2);
+    }
+
+    @Test
+    public void testCallRethrowsRuntimeException() {
+        try (DmSoftDispatcher dispatcher = new DmSoftDispatcher(1, InMemoryDmBackend::new, null)) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> dispatcher.call(dmSoft -> dmSoft.basicFunctions().ver()));
+            assertTrue(e.getMessage().contains("Ver"));
+        }
+    }
+}
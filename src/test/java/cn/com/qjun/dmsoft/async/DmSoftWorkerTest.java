@@ -0,0 +1,87 @@
+package cn.com.qjun.dmsoft.async;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import cn.com.qjun.dmsoft.enums.FindDirection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用进程内的模拟后端测试大漠工作线程
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftWorkerTest {
+
+    @Test
+    public void testCallsRunOnWorkerThreadInOrder() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        try (DmSoftWorker worker = new DmSoftWorker(InMemoryDmBackend::new, dmSoft -> threads.add(Thread.currentThread().getName()))) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int n = i;
+                futures.add(worker.submit(dmSoft -> {
+                    threads.add(Thread.currentThread().getName());
+                    order.add(n);
+                    return n;
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            assertEquals(99, futures.get(99).join().intValue());
+        }
+        assertEquals(1, threads.stream().distinct().count());
+        assertNotEquals(Thread.currentThread().getName(), threads.get(0));
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, order.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testAsyncColourFunctions() {
+        InMemoryDmBackend backend = new InMemoryDmBackend()
+                .on("FindColor", args -> {
+                    args.setOutInt(7, 10);
+                    args.setOutInt(8, 20);
+                    return 1;
+                })
+                .returning("GetColor", "ffffff")
+                .latency(1, TimeUnit.MILLISECONDS);
+        try (DmSoftWorkerGroup group = new DmSoftWorkerGroup(1, () -> backend, null)) {
+            CompletableFuture<Point> point = group.colourFunctions()
+                    .findColorAsync(Rect.ofPoint(0, 0, 100, 100), "ffffff-000000", 0.9, FindDirection.L_TO_R_AND_T_TO_B);
+            CompletableFuture<String> color = group.colourFunctions().getColorAsync(Point.of(1, 1));
+            assertEquals(10, point.join().x());
+            assertEquals(20, point.join().y());
+            assertEquals("ffffff", color.join());
+        }
+        assertTrue(backend.isClosed());
+    }
+
+    @Test
+    public void testFailures() {
+        DmSoftWorker worker = new DmSoftWorker(InMemoryDmBackend::new, null);
+        CompletableFuture<String> missing = worker.submit(dmSoft -> dmSoft.basicFunctions().ver());
+        CompletionException e = assertThrows(CompletionException.class, missing::join);
+        assertTrue(e.getCause() instanceof RuntimeException);
+        worker.close();
+        assertTrue(worker.isClosed());
+        CompletableFuture<Long> afterClose = worker.submit(dmSoft -> dmSoft.basicFunctions().getId());
+        e = assertThrows(CompletionException.class, afterClose::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        assertThrows(RuntimeException.class, () -> new DmSoftWorker(InMemoryDmBackend::new, dmSoft -> {
+            throw new IllegalStateException("注册失败");
+        }));
+    }
+}
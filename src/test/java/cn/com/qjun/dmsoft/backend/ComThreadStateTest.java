@@ -0,0 +1,128 @@
+package cn.com.qjun.dmsoft.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 模拟Jacob的行为: 释放COM时当前线程上创建的Dispatch和Variant全部失效
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class ComThreadStateTest {
+    private final ThreadLocal<List<ComObject>> registered = ThreadLocal.withInitial(ArrayList::new);
+    private final ThreadLocal<Boolean> comInitialized = new ThreadLocal<>();
+    private int initCount;
+    private int releaseCount;
+
+    private final ComThreadState<ComObject> state = new ComThreadState<>(
+            () -> {
+                initCount++;
+                comInitialized.set(Boolean.TRUE);
+            },
+            () -> {
+                releaseCount++;
+                comInitialized.remove();
+                registered.get().forEach(object -> object.released = true);
+                registered.get().clear();
+            },
+            this::register);
+
+    @Test
+    public void testRecreateOnSameThread() {
+        // 第一个实例: 创建、调用、关闭
+        Backend first = new Backend();
+        ComObject slots = state.resources();
+        assertSame(slots, state.resources());
+        first.close();
+        assertTrue(first.component.released);
+        assertTrue(slots.released);
+
+        // 同一个线程上的第二个实例重新初始化COM, 不会拿到已经释放的Variant
+        Backend second = new Backend();
+        assertEquals(2, initCount);
+        ComObject secondSlots = state.resources();
+        assertNotSame(slots, secondSlots);
+        assertFalse(secondSlots.released);
+        second.close();
+        assertEquals(2, releaseCount);
+    }
+
+    @Test
+    public void testCloseOneOfTwoOnSameThread() {
+        Backend first = new Backend();
+        Backend second = new Backend();
+        assertEquals(1, initCount);
+        ComObject slots = state.resources();
+
+        // 关闭一个实例不释放COM, 另一个实例和复用的Variant都还能用
+        first.close();
+        assertEquals(0, releaseCount);
+        assertFalse(second.component.released);
+        assertFalse(slots.released);
+        assertSame(slots, state.resources());
+
+        second.close();
+        assertEquals(1, releaseCount);
+        assertTrue(second.component.released);
+        assertTrue(slots.released);
+    }
+
+    @Test
+    public void testCloseOnOtherThread() throws InterruptedException {
+        Backend first = new Backend();
+        Backend second = new Backend();
+
+        // 在其它线程上关闭只减少计数, 不释放任何线程的COM
+        Thread thread = new Thread(first::close);
+        thread.start();
+        thread.join();
+        assertEquals(0, releaseCount);
+        assertFalse(second.component.released);
+
+        // 其它线程通过实例调用时在那个线程上创建自己的资源
+        AtomicReference<ComObject> other = new AtomicReference<>();
+        thread = new Thread(() -> other.set(state.resources()));
+        thread.start();
+        thread.join();
+        assertNotSame(state.resources(), other.get());
+
+        second.close();
+        assertEquals(1, releaseCount);
+        assertFalse(other.get().released);
+    }
+
+    private ComObject register() {
+        assertEquals(Boolean.TRUE, comInitialized.get(), "创建COM对象前必须初始化COM");
+        ComObject object = new ComObject();
+        registered.get().add(object);
+        return object;
+    }
+
+    /**
+     * 和JacobDmBackend一样: 创建时登记, 组件注册在当前线程上, 关闭时释放组件再登记关闭
+     */
+    private final class Backend {
+        private final ComThreadState.Owner owner;
+        private final ComObject component;
+
+        private Backend() {
+            this.owner = state.acquire();
+            this.component = register();
+        }
+
+        private void close() {
+            component.released = true;
+            state.release(owner);
+        }
+    }
+
+    private static final class ComObject {
+        private boolean released;
+    }
+}
@@ -0,0 +1,126 @@
+package cn.com.qjun.dmsoft.backend;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.DmSoftThreadSafe;
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+import cn.com.qjun.dmsoft.enums.FindDirection;
+import cn.com.qjun.dmsoft.model.NativeBufferView;
+import cn.com.qjun.dmsoft.model.PointHolder;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用进程内的模拟后端测试大漠对象的创建、调用和关闭, 不依赖Windows环境
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class InMemoryDmBackendTest {
+
+    @Test
+    public void testLifecycle() {
+        InMemoryDmBackend backend = new InMemoryDmBackend().returning("Ver", "7.2450");
+        DmSoftWrapper dmSoft = new DmSoftWrapper(backend);
+        assertEquals("7.2450", dmSoft.basicFunctions().ver());
+        assertEquals(1L, backend.invocationCount("GetID"));
+        dmSoft.close();
+        assertEquals(1L, backend.invocationCount("ReleaseRef"));
+        assertTrue(backend.isClosed());
+    }
+
+    @Test
+    public void testViewsInvalidAfterClose() {
+        try (Memory memory = new Memory(64)) {
+            memory.setInt(0, 42);
+            InMemoryDmBackend backend = new InMemoryDmBackend()
+                    .returning("ReadDataAddrToBin", Pointer.nativeValue(memory))
+                    .returning("GetScreenData", Pointer.nativeValue(memory));
+            DmSoftWrapper dmSoft = new DmSoftWrapper(backend);
+            NativeBufferView bin = dmSoft.memoryFunctions().readDataAddrToView(1, 0x400000, 4);
+            NativeBufferView screen = dmSoft.colourFunctions().getScreenDataView(Rect.ofPoint(0, 0, 4, 4));
+            assertEquals(42, bin.getInt(0));
+            assertEquals(42, screen.getInt(0));
+
+            // 插件对象释放后缓冲区也被释放, 视图不能再读取
+            dmSoft.close();
+            assertFalse(bin.isValid());
+            assertFalse(screen.isValid());
+            assertThrows(IllegalStateException.class, () -> bin.getInt(0));
+            assertThrows(IllegalStateException.class, () -> screen.getInt(0));
+        }
+    }
+
+    @Test
+    public void testOutParams() {
+        InMemoryDmBackend backend = new InMemoryDmBackend()
+                .on("FindColor", args -> {
+                    // 参数依次为x1, y1, x2, y2, color, sim, dir, &x, &y
+                    assertEquals("ffffff-000000", args.stringValue(4));
+                    args.setOutInt(7, 120);
+                    args.setOutInt(8, 45);
+                    return 1;
+                });
+        DmSoftWrapper dmSoft = new DmSoftWrapper(backend);
+        PointHolder out = new PointHolder();
+        assertTrue(dmSoft.colourFunctions().findColor(Rect.ofPoint(0, 0, 800, 600), "ffffff-000000", 0.9, FindDirection.L_TO_R_AND_T_TO_B, out));
+        assertEquals(120, out.getX());
+        assertEquals(45, out.getY());
+
+        backend.returning("FindColor", 0);
+        assertNull(dmSoft.colourFunctions().findColor(Rect.ofPoint(0, 0, 800, 600), "ffffff-000000", 0.9, FindDirection.L_TO_R_AND_T_TO_B));
+        dmSoft.close();
+    }
+
+    @Test
+    public void testFailureWithErrorCode() {
+        InMemoryDmBackend backend = new InMemoryDmBackend()
+                .returning("MoveTo", 0)
+                .returning("GetLastError", -2);
+        DmSoftWrapper dmSoft = new DmSoftWrapper(backend);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> dmSoft.inputFunctions().moveTo(Point.of(10, 20)));
+        assertTrue(e.getMessage().contains("MoveTo"));
+        assertTrue(e.getMessage().contains("-2"));
+        dmSoft.close();
+    }
+
+    @Test
+    public void testThreadSafePerThreadInstance() throws InterruptedException {
+        AtomicLong created = new AtomicLong();
+        DmSoftThreadSafe dmSoft = new DmSoftThreadSafe(() -> {
+            created.incrementAndGet();
+            return new InMemoryDmBackend();
+        }, null);
+        long mainId = dmSoft.basicFunctions().getId();
+        assertEquals(mainId, dmSoft.basicFunctions().getId());
+
+        AtomicLong otherId = new AtomicLong();
+        Thread thread = new Thread(() -> otherId.set(dmSoft.basicFunctions().getId()));
+        thread.start();
+        thread.join();
+        assertNotEquals(mainId, otherId.get());
+        assertEquals(2L, created.get());
+        dmSoft.close();
+
+        // 关闭后任何线程都拿不到已经关闭的对象
+        assertThrows(IllegalStateException.class, dmSoft::basicFunctions);
+        AtomicReference<Throwable> otherError = new AtomicReference<>();
+        Thread after = new Thread(() -> {
+            try {
+                dmSoft.basicFunctions();
+            } catch (Throwable e) {
+                otherError.set(e);
+            }
+        });
+        after.start();
+        after.join();
+        assertTrue(otherError.get() instanceof IllegalStateException);
+        assertEquals(2L, created.get());
+    }
+}
@@ -0,0 +1,103 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.dmsoft.functions.DispatchIdCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按函数名调用与按DISPID调用的对比
+ * <p>
+ * 使用进程内的假分发层代替COM, 可以在Linux上运行. 假分发层的名称解析模拟了IDispatch实现的典型做法:
+ * 把函数名转换后在不区分大小写的函数表中查找. 真实的GetIDsOfNames还要额外承担JNI和BSTR转换的开销,
+ * 所以实际节省的时间只会比这里测出来的更多.
+ * <p>
+ * 运行: 在IDE中直接运行main方法, 或者 mvn test-compile 后以 org.openjdk.jmh.Main 为入口运行
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchIdBenchmark {
+    private static final String[] METHODS = {
+            "FindColor", "FindColorEx", "FindPic", "FindPicEx", "FindPicSim", "FindMultiColor", "GetColor",
+            "GetColorHSV", "CmpColor", "ReadIntAddr", "ReadFloatAddr", "ReadDoubleAddr", "ReadDataAddrToBin",
+            "WriteIntAddr", "WriteDataAddrFromBin", "FindWindow", "EnumWindow", "GetWindowRect", "MoveTo",
+            "LeftClick", "KeyPress", "GetLastError", "GetID", "Ver", "BindWindowEx", "UnBindWindow",
+            "AiYoloDetectObjects", "GetResultCount", "GetResultPos", "Capture"
+    };
+
+    @Param({"FindColor", "ReadIntAddr"})
+    private String method;
+
+    private FakeDispatch dispatch;
+    private DispatchIdCache dispatchIds;
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        dispatch = new FakeDispatch(METHODS);
+        dispatchIds = new DispatchIdCache(dispatch::getIdOfName);
+        args = new Object[]{0, 0, 800, 600, "ffffff-000000", 0.9, 0};
+    }
+
+    @Benchmark
+    public int invokeByName() {
+        return dispatch.invoke(dispatch.getIdOfName(method), args);
+    }
+
+    @Benchmark
+    public int invokeByDispatchId() {
+        return dispatch.invoke(dispatchIds.get(method), args);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DispatchIdBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * 进程内的假分发层
+     */
+    private static class FakeDispatch {
+        private final Map<String, Integer> idsOfNames = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        FakeDispatch(String[] methods) {
+            for (int i = 0; i < methods.length; i++) {
+                idsOfNames.put(methods[i], i + 1);
+            }
+        }
+
+        int getIdOfName(String name) {
+            Integer dispatchId = idsOfNames.get(name.toUpperCase(Locale.ROOT));
+            if (dispatchId == null) {
+                throw new IllegalArgumentException("Unknown name: " + name);
+            }
+            return dispatchId;
+        }
+
+        int invoke(int dispatchId, Object[] args) {
+            return dispatchId + args.length;
+        }
+    }
+}
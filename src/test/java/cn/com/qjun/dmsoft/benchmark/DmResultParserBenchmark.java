@@ -0,0 +1,108 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.dmsoft.functions.DmResultParser;
+import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 解析FindPicEx和EnumWindow结果的开销对比: 原来基于split的实现、{@link cn.com.qjun.dmsoft.functions.ResultCursor}
+ * 以及按数组存放的{@link FindResults}
+ * <p>
+ * 以gc profiler运行, gc.alloc.rate.norm即每次解析分配的字节数. 10条对应一般的找图结果,
+ * 1500条是FindPicEx的返回上限, 10万条对应大范围的内存扫描结果.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DmResultParserBenchmark {
+
+    @Param({"10", "1500", "100000"})
+    private int entries;
+
+    private String findResult;
+    private String longList;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder find = new StringBuilder();
+        StringBuilder longs = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                find.append('|');
+                longs.append(',');
+            }
+            find.append(random.nextInt(10)).append(',').append(random.nextInt(1920)).append(',').append(random.nextInt(1080));
+            longs.append(random.nextInt() & 0xFFFFFFFFL);
+        }
+        findResult = find.toString();
+        longList = longs.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public FindResult splitFindResult() {
+        return DmResultParser.parseFindResult(findResult, parts ->
+                new FindResult.Item(Integer.parseInt(parts[0]), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+    }
+
+    @Benchmark
+    public FindResult cursorFindResult() {
+        return DmResultParser.readFindResult(findResult, cursor ->
+                new FindResult.Item(cursor.nextInt(), Point.of(cursor.nextInt(), cursor.nextInt())));
+    }
+
+    @Benchmark
+    public FindResults arrayFindResults() {
+        return DmResultParser.readIndexedPoints(findResult, null);
+    }
+
+    /**
+     * 原来的parseLongList实现
+     */
+    @Benchmark
+    public List<Long> splitLongList() {
+        return Arrays.stream(longList.split(","))
+                .map(Long::parseLong)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Long> cursorLongList() {
+        return DmResultParser.parseLongList(longList);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DmResultParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import cn.com.qjun.dmsoft.enums.FindDirection;
+import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.PointHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于模拟后端测量封装层本身的开销: 参数组装、输出参数回写、结果解析以及大漠对象的创建和关闭
+ * <p>
+ * 模拟后端不产生任何调用耗时, 测出来的就是插件之外的全部开销, 可以在Linux上的CI中运行.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryBackendBenchmark {
+    private DmSoftWrapper dmSoft;
+    private Rect rect;
+    private PointHolder out;
+    private List<String> picNames;
+
+    @Setup
+    public void setup() {
+        String findPicExResult = String.join("|", Arrays.asList("0,12,34", "1,100,200", "0,640,480", "2,5,6"));
+        InMemoryDmBackend backend = new InMemoryDmBackend()
+                .on("FindColor", args -> {
+                    args.setOutInt(args.size() - 2, 120);
+                    args.setOutInt(args.size() - 1, 45);
+                    return 1;
+                })
+                .returning("FindPicEx", findPicExResult);
+        dmSoft = new DmSoftWrapper(backend);
+        rect = Rect.ofPoint(0, 0, 800, 600);
+        out = new PointHolder();
+        picNames = Arrays.asList("a.bmp", "b.bmp", "c.bmp");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dmSoft.close();
+    }
+
+    @Benchmark
+    public PointHolder findColor() {
+        dmSoft.colourFunctions().findColor(rect, "ffffff-000000", 0.9, FindDirection.L_TO_R_AND_T_TO_B, out);
+        return out;
+    }
+
+    @Benchmark
+    public FindResult findPicEx() {
+        return dmSoft.colourFunctions().findPicEx(rect, picNames, "000000", 0.9, FindDirection.L_TO_R_AND_T_TO_B);
+    }
+
+    @Benchmark
+    public long createAndClose() {
+        DmSoftWrapper wrapper = new DmSoftWrapper(new InMemoryDmBackend());
+        wrapper.close();
+        return wrapper.hashCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InMemoryBackendBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.dmsoft.functions.DmResultParser;
+import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
+import cn.com.qjun.dmsoft.utils.PackedPoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FindPicEx结果的两种常见查询: 第一个满足条件的结果, 以及离指定坐标最近的结果.
+ * 对比先全部解析(split、{@link FindResults})和{@link DmResultParser#streamPoints(String, int)}按需解析.
+ * <p>
+ * 满足条件的结果(x大于1800)约占6%, 一般在前几十条就能找到, 按需解析只需要读到那里;
+ * 求最近点必须读完所有记录, 按需解析省掉的是对象分配.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyFindResultBenchmark {
+    private static final int MIN_X = 1800;
+    private static final int TARGET_X = 960;
+    private static final int TARGET_Y = 540;
+
+    @Param({"10", "1500", "100000"})
+    private int entries;
+
+    private String findResult;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder find = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                find.append('|');
+            }
+            find.append(random.nextInt(10)).append(',').append(random.nextInt(1920)).append(',').append(random.nextInt(1080));
+        }
+        findResult = find.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Point splitFirstHit() {
+        FindResult result = DmResultParser.parseFindResult(findResult, parts ->
+                new FindResult.Item(Integer.parseInt(parts[0]), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+        for (FindResult.Item item : result.getItems()) {
+            if (item.getPint().x() > MIN_X) {
+                return item.getPint();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int arrayFirstHit() {
+        FindResults result = DmResultParser.readIndexedPoints(findResult, null);
+        for (int i = 0; i < result.size(); i++) {
+            if (result.x(i) > MIN_X) {
+                return PackedPoints.pack(result.x(i), result.y(i));
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int lazyFirstHit() {
+        return DmResultParser.streamPoints(findResult, 1).filter(p -> PackedPoints.x(p) > MIN_X).findFirst().orElse(-1);
+    }
+
+    @Benchmark
+    public int arrayNearest() {
+        FindResults result = DmResultParser.readIndexedPoints(findResult, null);
+        int nearest = -1;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < result.size(); i++) {
+            long dx = result.x(i) - TARGET_X;
+            long dy = result.y(i) - TARGET_Y;
+            long distance = dx * dx + dy * dy;
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    @Benchmark
+    public int lazyNearest() {
+        return DmResultParser.streamPoints(findResult, 1).reduce(PackedPoints.closerTo(TARGET_X, TARGET_Y)).orElse(-1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LazyFindResultBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
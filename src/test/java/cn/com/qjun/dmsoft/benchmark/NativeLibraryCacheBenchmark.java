@@ -0,0 +1,63 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.dmsoft.utils.NativeLibraryCache;
+import cn.com.qjun.dmsoft.utils.RuntimeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动时释放dll的耗时对比: 每次释放到新的临时目录与复用按内容哈希缓存的文件
+ * <p>
+ * 以DmReg.dll为样本. 缓存命中时校验标记文件和缓存文件的CRC32, 资源在jar中时哈希取自jar条目, 不读取资源.
+ * 临时目录方式每次调用都会留下一个目录(deleteOnExit在进程退出时才删除), 所以只做少量迭代.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 200)
+@Fork(1)
+public class NativeLibraryCacheBenchmark {
+    private static final String RESOURCE = "/win32-x86/DmReg.dll";
+
+    private NativeLibraryCache cache;
+
+    @Setup
+    public void setup() throws IOException {
+        cache = new NativeLibraryCache(Files.createTempDirectory("dmsoft-native-cache"));
+        cache.extract(RESOURCE, "DmReg.dll");
+    }
+
+    @Benchmark
+    public Path releaseToTempDir() throws IOException {
+        return RuntimeUtils.releaseFileToTempDir(RESOURCE, "DmReg", ".dll");
+    }
+
+    @Benchmark
+    public Path cachedExtract() throws IOException {
+        return cache.extract(RESOURCE, "DmReg.dll");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NativeLibraryCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
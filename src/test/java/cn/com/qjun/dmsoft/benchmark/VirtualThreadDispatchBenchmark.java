@@ -0,0 +1,107 @@
+package cn.com.qjun.dmsoft.benchmark;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.dmsoft.async.DmSoftDispatcher;
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一万个脚本任务通过{@link DmSoftDispatcher}共用4个大漠对象时的吞吐量和每个任务的内存开销
+ * <p>
+ * 每次测量启动10000个任务, 每个任务做4次调用, 结果是平均每个任务的耗时, gc profiler的gc.alloc.rate.norm即每个任务分配的字节数.
+ * virtual模式每个任务一个虚拟线程, 需要在JDK 21及以上运行; platform模式用200个普通线程执行同样的任务作为对比.
+ * 测试代码按Java 8编译, 所以虚拟线程执行器通过反射创建.
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadDispatchBenchmark {
+    private static final int TASKS = 10_000;
+    private static final int CALLS_PER_TASK = 4;
+    private static final int WORKERS = 4;
+
+    @Param({"virtual", "platform"})
+    private String threads;
+
+    @Param({"0", "20"})
+    private long backendLatencyMicros;
+
+    private DmSoftDispatcher dispatcher;
+    private ExecutorService executor;
+    private final AtomicLong sink = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        dispatcher = new DmSoftDispatcher(WORKERS, () -> new InMemoryDmBackend()
+                .returning("GetColor", "ffffff")
+                .latency(backendLatencyMicros, TimeUnit.MICROSECONDS), null);
+        if ("virtual".equals(threads)) {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } else {
+            executor = Executors.newFixedThreadPool(200);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dispatcher.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public long scripts() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            int x = i;
+            executor.execute(() -> {
+                try {
+                    for (int c = 0; c < CALLS_PER_TASK; c++) {
+                        Point point = Point.of(x, c);
+                        String color = dispatcher.call(dmSoft -> dmSoft.colourFunctions().getColor(point));
+                        sink.addAndGet(color.length());
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return sink.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadDispatchBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package cn.com.qjun.dmsoft.functions;
+
+import cn.com.qjun.dmsoft.model.PointHolder;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmConversionsTest {
+
+    @Test
+    public void testCorpus() throws IOException {
+        int count = 0;
+        try (InputStream input = getClass().getResourceAsStream("conversion-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                assertEquals(fields[fields.length - 1], convert(fields), line);
+                count++;
+            }
+        }
+        assertTrue(count > 0);
+    }
+
+    /**
+     * 对照数据还没有用插件录制时不能默认开启
+     */
+    @Test
+    public void testDisabledUntilRecorded() throws IOException {
+        boolean recorded = false;
+        try (InputStream input = getClass().getResourceAsStream("conversion-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                recorded |= line.startsWith("# 录制状态: 已录制");
+            }
+        }
+        if (!recorded && System.getProperty("dmsoft.localConversion.enabled") == null) {
+            assertFalse(DmConversions.isEnabled());
+        }
+    }
+
+    @Test
+    public void testFallback() {
+        assertNull(DmConversions.intToData(1, 4));
+        assertNull(DmConversions.stringToData("abc", 2));
+        assertNull(DmConversions.swapRedBlue("12345"));
+        assertNull(DmConversions.swapRedBlue("12345g"));
+        PointHolder out = new PointHolder();
+        assertFalse(DmConversions.resultPos("10,20|30,40", 2, out));
+        assertFalse(DmConversions.resultPos("10,20|30", 1, out));
+        assertFalse(DmConversions.resultPos("1,2,3,4", 0, out));
+        assertFalse(DmConversions.resultPos("a,20", 0, out));
+        assertFalse(DmConversions.resultPos("", 0, out));
+    }
+
+    private static String convert(String[] fields) {
+        switch (fields[0]) {
+            case "IntToData":
+                return DmConversions.intToData(Long.parseLong(fields[1]), Integer.parseInt(fields[2]));
+            case "FloatToData":
+                return DmConversions.floatToData(Float.parseFloat(fields[1]));
+            case "DoubleToData":
+                return DmConversions.doubleToData(Double.parseDouble(fields[1]));
+            case "StringToData":
+                return DmConversions.stringToData(fields[1], Integer.parseInt(fields[2]));
+            case "BGR2RGB":
+            case "RGB2BGR":
+                return DmConversions.swapRedBlue(fields[1]);
+            case "GetResultCount":
+                return String.valueOf(DmConversions.resultCount(fields[1]));
+            case "GetResultPos":
+                PointHolder out = new PointHolder();
+                assertTrue(DmConversions.resultPos(fields[1], Integer.parseInt(fields[2]), out));
+                return out.getX() + "," + out.getY();
+            default:
+                throw new IllegalArgumentException("未知的函数: " + fields[0]);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package cn.com.qjun.dmsoft.functions;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+import cn.com.qjun.dmsoft.model.FindResult;
+import cn.com.qjun.dmsoft.model.FindResults;
+import cn.com.qjun.dmsoft.model.LongList;
+import cn.com.qjun.dmsoft.model.ProcessInfo;
+import cn.com.qjun.dmsoft.utils.PackedPoints;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标解析的结果必须和原来基于split的实现一致
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmResultParserTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFindResultMatchesSplit() {
+        Random random = new Random(42);
+        for (int n : new int[]{1, 10, 1500}) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    sb.append('|');
+                }
+                sb.append(random.nextInt(5)).append(',').append(random.nextInt(4000) - 100).append(',').append(random.nextInt(3000));
+            }
+            String result = sb.toString();
+            FindResult expected = DmResultParser.parseFindResult(result, parts ->
+                    new FindResult.Item(Integer.parseInt(parts[0]), Point.of(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+            FindResult actual = DmResultParser.readFindResult(result, cursor ->
+                    new FindResult.Item(cursor.nextInt(), Point.of(cursor.nextInt(), cursor.nextInt())));
+            assertEquals(expected, actual);
+        }
+        assertEquals(FindResult.ofNone(), DmResultParser.readFindResult("", cursor -> fail("不应该读取")));
+        // 结尾的"|"和split一样不产生新记录, 多余的字段被忽略
+        assertEquals(2, DmResultParser.readFindResult("1,2,3|4,5,6,7|", cursor ->
+                new FindResult.Item(cursor.nextInt(), Point.of(cursor.nextInt(), cursor.nextInt()))).getItems().size());
+    }
+
+    @Test
+    public void testFindResults() {
+        FindResults pics = DmResultParser.readIndexedPoints("1,10,20|0,30,40|", Arrays.asList("a.bmp", "b.bmp"));
+        assertEquals(2, pics.size());
+        assertEquals("b.bmp", pics.name(0));
+        assertEquals(Point.of(30, 40), pics.point(1));
+
+        // FindPicSimEx返回"序号,匹配度,x,y"
+        FindResults sims = DmResultParser.readScoredIndexedPoints("0,93,100,200", null);
+        assertEquals(93, sims.score(0));
+        assertEquals(Point.of(100, 200), sims.point(0));
+
+        FindResults objects = DmResultParser.readLabeledRects("person,88,1,2,30,40|car,70,5,6,7,8");
+        assertEquals(new FindResult.Item("car", 70, Rect.of(5, 6, 7, 8)), objects.getItems().get(1));
+
+        assertEquals(Arrays.asList(Point.of(1, 2), Point.of(3, 4)), DmResultParser.readPoints("1,2|3,4").points());
+        assertSame(FindResults.empty(), DmResultParser.readPoints(""));
+    }
+
+    @Test
+    public void testStreamPoints() {
+        int[] packed = DmResultParser.streamPoints("0,93,-5,20|1,88,1919,1079|", 2).toArray();
+        assertEquals(2, packed.length);
+        assertEquals(Point.of(-5, 20), PackedPoints.toPoint(packed[0]));
+        assertEquals(1919, PackedPoints.x(packed[1]));
+        assertEquals(1079, PackedPoints.y(packed[1]));
+        assertEquals(0, DmResultParser.streamPoints("").count());
+        assertEquals(0, DmResultParser.streamPoints(null).count());
+
+        // 找到第一个满足条件的结果后不再解析, 后面格式错误的记录不会被读取
+        int first = DmResultParser.streamPoints("1,2|30,40|bad").filter(p -> PackedPoints.x(p) > 10).findFirst().getAsInt();
+        assertEquals(PackedPoints.pack(30, 40), first);
+        assertThrows(NumberFormatException.class, () -> DmResultParser.streamPoints("1,2|30,40|bad").count());
+
+        int nearest = DmResultParser.streamPoints("0,0|100,100|12,9|9,12", 0).reduce(PackedPoints.closerTo(10, 10)).getAsInt();
+        assertEquals(PackedPoints.pack(12, 9), nearest);
+    }
+
+    @Test
+    public void testLists() {
+        assertEquals(Arrays.asList(123L, 4294967295L, -1L), DmResultParser.parseLongList("123,4294967295,-1"));
+        assertEquals(Collections.emptyList(), DmResultParser.parseLongList(""));
+        assertEquals(LongList.of(123L, 4294967295L, -1L), DmResultParser.readLongList("123,4294967295,-1,"));
+        assertSame(LongList.empty(), DmResultParser.readLongList(null));
+        for (String s : new String[]{"a.bmp|b,c.bmp|d.bmp", "|a|", "a||b||", "|", "a"}) {
+            assertEquals(Arrays.stream(s.split("\\|")).collect(Collectors.toList()), DmResultParser.parseStringList(s), s);
+        }
+        assertEquals(Collections.emptyList(), DmResultParser.parseStringList(null));
+    }
+
+    @Test
+    public void testPointAndProcessInfo() {
+        assertEquals(Point.of(-12, 345), DmResultParser.parsePoint("-12,345"));
+        assertNull(DmResultParser.parsePoint(""));
+        ProcessInfo info = DmResultParser.parseProcessInfo("game.exe|C:\\Program Files\\a,b\\game.exe|35|104857600");
+        assertEquals(new ProcessInfo("game.exe", "C:\\Program Files\\a,b\\game.exe", 35, 104857600L), info);
+    }
+
+    @Test
+    public void testNumberFormat() {
+        for (String s : new String[]{"2147483647", "-2147483648", "+7", "0"}) {
+            assertEquals(Integer.parseInt(s), new ResultCursor(s).nextInt());
+        }
+        assertEquals(Long.MIN_VALUE, new ResultCursor("-9223372036854775808").nextLong());
+        for (String s : new String[]{"2147483648", "-2147483649", "", "-", "12a", " 1", "1.5"}) {
+            assertThrows(NumberFormatException.class, () -> Integer.parseInt(s));
+            NumberFormatException e = assertThrows(NumberFormatException.class, () -> new ResultCursor(s).nextInt());
+            assertTrue(e.getMessage().startsWith("For input string"), s);
+        }
+        ResultCursor cursor = new ResultCursor("7,abc|8");
+        assertEquals(7, cursor.nextInt());
+        assertEquals("abc", cursor.nextString());
+        assertTrue(cursor.nextRecord());
+        assertEquals(8, cursor.nextInt());
+        assertFalse(cursor.nextRecord());
+    }
+}
@@ -0,0 +1,116 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class AddressResolverTest {
+
+    @Test
+    public void testCompile() {
+        AddressExpression expression = AddressExpression.compile(" [ [<Game.exe> + da678] + 3a ] - 8");
+        assertEquals("[[<game.exe>+DA678]+3A]-8", expression.toCanonicalString());
+        assertEquals(2, expression.getDepth());
+        assertEquals(expression, AddressExpression.compile("[[<Game.exe>+DA678]+3A]-8"));
+        assertEquals(0, AddressExpression.compile("4DA678").getDepth());
+
+        assertThrows(IllegalArgumentException.class, () -> AddressExpression.compile("[4DA678+3A"));
+        assertThrows(IllegalArgumentException.class, () -> AddressExpression.compile("<game.exe+10"));
+        assertThrows(IllegalArgumentException.class, () -> AddressExpression.compile("4DA678]"));
+        assertThrows(IllegalArgumentException.class, () -> AddressExpression.compile("4DAG78"));
+        assertThrows(IllegalArgumentException.class, () -> AddressExpression.compile("[]+8"));
+    }
+
+    @Test
+    public void testResolve() {
+        FakeMemory memory = new FakeMemory();
+        FakeProcess process = new FakeProcess(100, 0x00400000L);
+        memory.writeInt(0x00400000L + 0xDA678, 0x00500000);
+        memory.writeInt(0x00500000L + 0x3A, 0x00600000);
+        long[] now = {0};
+        AddressResolver resolver = new AddressResolver(memory, process, 4, 200, 1000, () -> now[0]);
+        AddressExpression hp = AddressExpression.compile("[[<game.exe>+DA678]+3A]+8");
+        AddressExpression mp = AddressExpression.compile("[[<GAME.EXE>+DA678]+3A]+C");
+        AddressExpression level = AddressExpression.compile("[<game.exe>+DA678]+10");
+
+        assertEquals(0x00600008L, hp.resolve(resolver));
+        assertEquals(2, memory.reads);
+        // 模块基址和指针都已经缓存, 大小写不同的模块名也一样
+        assertEquals(0x0060000CL, resolver.resolve(mp));
+        assertEquals(0x00500010L, resolver.resolve(level));
+        assertEquals(2, memory.reads);
+        assertEquals(1, process.moduleQueries);
+
+        // 指针过期后重新读取
+        memory.writeInt(0x00500000L + 0x3A, 0x00700000);
+        now[0] += TimeUnit.MILLISECONDS.toNanos(200);
+        assertEquals(0x00700008L, resolver.resolve(hp));
+        assertEquals(4, memory.reads);
+        assertEquals(1, process.moduleQueries);
+
+        assertEquals(0, resolver.resolve(AddressExpression.compile("[<other.dll>+10]")));
+    }
+
+    @Test
+    public void testProcessRestart() {
+        FakeMemory memory = new FakeMemory();
+        FakeProcess process = new FakeProcess(100, 0x00400000L);
+        memory.writeInt(0x00400010L, 0x00500000);
+        long[] now = {0};
+        AddressResolver resolver = new AddressResolver(memory, process, 4, 200, 1000, () -> now[0]);
+        AddressExpression expression = AddressExpression.compile("[<game.exe>+10]+4");
+        assertEquals(0x00500004L, resolver.resolve(expression));
+
+        // 进程重启, 模块加载到新的基址, 旧的指针仍然缓存着
+        process.processId = 200;
+        process.base = 0x00800000L;
+        memory.writeInt(0x00800010L, 0x00900000);
+        now[0] += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(0x00900004L, resolver.resolve(expression));
+
+        // 还没到检查间隔, 但是指针过期后按旧的模块基址读取失败, 立即检查进程
+        process.processId = 300;
+        process.base = 0x01000000L;
+        memory.unmap(0x00800010L);
+        memory.writeInt(0x01000010L, 0x01100000);
+        now[0] += TimeUnit.MILLISECONDS.toNanos(200);
+        assertEquals(0x01100004L, resolver.resolve(expression));
+
+        process.processId = 0;
+        now[0] += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(0, resolver.resolve(expression));
+    }
+
+    private static class FakeProcess implements ModuleQuery {
+        private long processId;
+        private long base;
+        private int moduleQueries;
+
+        FakeProcess(long processId, long base) {
+            this.processId = processId;
+            this.base = base;
+        }
+
+        @Override
+        public long processId() {
+            return processId;
+        }
+
+        @Override
+        public long moduleBase(String module) {
+            moduleQueries++;
+            return "game.exe".equalsIgnoreCase(module) ? base : 0;
+        }
+
+        @Override
+        public long moduleSize(String module) {
+            return "game.exe".equalsIgnoreCase(module) ? 0x200000 : 0;
+        }
+    }
+}
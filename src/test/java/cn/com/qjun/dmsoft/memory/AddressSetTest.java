@@ -0,0 +1,90 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class AddressSetTest {
+
+    @Test
+    public void testSparseAndDenseBlocks() throws IOException {
+        Random random = new Random(7);
+        long[] addresses = new long[20000];
+        for (int i = 0; i < 10000; i++) {
+            // 同一块内超过4096个地址, 使用位图
+            addresses[i] = 0x00400000L + i * 4L;
+            // 分散的地址, 使用数组
+            addresses[10000 + i] = 0x10000000L + random.nextInt(1 << 28);
+        }
+        long[] expected = Arrays.stream(addresses).sorted().distinct().toArray();
+        // 打乱顺序并加入重复地址
+        long[] shuffled = Arrays.copyOf(addresses, addresses.length + 100);
+        System.arraycopy(addresses, 0, shuffled, addresses.length, 100);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long t = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = t;
+        }
+        AddressSet set = AddressSet.of(shuffled);
+        assertEquals(expected.length, set.size());
+        assertArrayEquals(expected, set.toArray());
+        assertArrayEquals(expected, set.stream().toArray());
+        assertTrue(set.contains(0x00400000L + 9999 * 4L));
+        assertFalse(set.contains(0x00400002L));
+        assertTrue(set.sizeInBytes() < expected.length * 8L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        set.writeTo(out);
+        assertEquals(set, AddressSet.readFrom(new ByteArrayInputStream(out.toByteArray())));
+        assertThrows(IOException.class, () -> AddressSet.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    @Test
+    public void testDmString() {
+        AddressSet set = AddressSet.parseDmResult("453430|400050|423435|7FFE0000ABCD");
+        assertArrayEquals(new long[]{0x400050L, 0x423435L, 0x453430L, 0x7FFE0000ABCDL}, set.toArray());
+        assertEquals("400050|423435|453430|7FFE0000ABCD", set.toDmString());
+        assertTrue(AddressSet.parseDmResult("").isEmpty());
+        assertThrows(NumberFormatException.class, () -> AddressSet.parseDmResult("40G050"));
+    }
+
+    @Test
+    public void testRange() {
+        long[] addresses = new long[6000];
+        for (int i = 0; i < 5000; i++) {
+            addresses[i] = 0x00400000L + i * 8L;
+        }
+        for (int i = 0; i < 1000; i++) {
+            addresses[5000 + i] = 0x00500000L + i * 12L;
+        }
+        AddressSet set = AddressSet.of(addresses);
+        assertEquals(0x00400000L, set.ceiling(0));
+        assertEquals(0x00400008L, set.ceiling(0x00400001L));
+        assertEquals(0x00500000L, set.ceiling(0x00400000L + 5000 * 8L));
+        assertEquals(-1, set.ceiling(0x00500000L + 1000 * 12L));
+
+        long from = 0x00400000L + 4990 * 8L + 3;
+        long to = 0x00500000L + 10 * 12L;
+        long[] expected = Arrays.stream(addresses).filter(address -> address >= from && address < to).toArray();
+        long[] actual = new long[expected.length];
+        int[] count = {0};
+        set.forEachInRange(from, to, address -> actual[count[0]++] = address);
+        assertEquals(expected.length, count[0]);
+        assertArrayEquals(expected, actual);
+
+        assertTrue(set.containsAnyInRange(0x00400004L, 0x00400009L));
+        assertFalse(set.containsAnyInRange(0x00400001L, 0x00400008L));
+        assertFalse(set.containsAnyInRange(0x00410000L, 0x00500000L));
+    }
+}
@@ -0,0 +1,118 @@
+package cn.com.qjun.dmsoft.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.TreeMap;
+
+/**
+ * 测试用的进程内存: 按页保存, 没有映射的页面不可读
+ * <p>
+ * 连续映射的页面是一个可读写的已提交区域, 中间没有映射的部分是空闲区域
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+class FakeMemory implements MemoryReader, MemoryWriter, MemoryRegionQuery {
+    static final int PAGE_SIZE = 4096;
+
+    private final TreeMap<Long, byte[]> pages = new TreeMap<>();
+    int reads;
+    long bytesRead;
+    volatile int writes;
+
+    /**
+     * 映射[address, address + length)覆盖的页面, 内容为0
+     */
+    FakeMemory map(long address, int length) {
+        for (long page = address / PAGE_SIZE; page <= (address + length - 1) / PAGE_SIZE; page++) {
+            pages.computeIfAbsent(page, key -> new byte[PAGE_SIZE]);
+        }
+        return this;
+    }
+
+    FakeMemory unmap(long address) {
+        pages.remove(address / PAGE_SIZE);
+        return this;
+    }
+
+    synchronized FakeMemory write(long address, byte[] data) {
+        map(address, data.length);
+        for (int i = 0; i < data.length; i++) {
+            long target = address + i;
+            pages.get(target / PAGE_SIZE)[(int) (target % PAGE_SIZE)] = data[i];
+        }
+        return this;
+    }
+
+    FakeMemory writeInt(long address, int value) {
+        return write(address, ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+    }
+
+    @Override
+    public synchronized boolean read(long address, byte[] buffer, int offset, int length) {
+        reads++;
+        for (long page = address / PAGE_SIZE; page <= (address + length - 1) / PAGE_SIZE; page++) {
+            if (!pages.containsKey(page)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            long source = address + i;
+            buffer[offset + i] = pages.get(source / PAGE_SIZE)[(int) (source % PAGE_SIZE)];
+        }
+        bytesRead += length;
+        return true;
+    }
+
+    /**
+     * 和读取一样, 范围内有没有映射的页面时失败
+     */
+    @Override
+    public synchronized boolean write(long address, ByteBuffer data) {
+        writes++;
+        int length = data.remaining();
+        for (long page = address / PAGE_SIZE; page <= (address + length - 1) / PAGE_SIZE; page++) {
+            if (!pages.containsKey(page)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            long target = address + i;
+            pages.get(target / PAGE_SIZE)[(int) (target % PAGE_SIZE)] = data.get(data.position() + i);
+        }
+        return true;
+    }
+
+    @Override
+    public MemoryRegion query(long address) {
+        long page = address / PAGE_SIZE;
+        MemoryRegion region = new MemoryRegion();
+        if (pages.containsKey(page)) {
+            long first = page;
+            while (pages.containsKey(first - 1)) {
+                first--;
+            }
+            long last = page;
+            while (pages.containsKey(last + 1)) {
+                last++;
+            }
+            region.setBaseAddress(first * PAGE_SIZE);
+            region.setAllocationBase(first * PAGE_SIZE);
+            region.setRegionSize((last - first + 1) * PAGE_SIZE);
+            region.setState(MemoryRegion.MEM_COMMIT);
+            region.setProtect(MemoryRegion.PAGE_READWRITE);
+            region.setAllocationProtect(MemoryRegion.PAGE_READWRITE);
+            region.setType(MemoryRegion.MEM_PRIVATE);
+            return region;
+        }
+        Long next = pages.higherKey(page);
+        if (next == null) {
+            return null;
+        }
+        region.setBaseAddress(page * PAGE_SIZE);
+        region.setRegionSize((next - page) * PAGE_SIZE);
+        region.setState(MemoryRegion.MEM_FREE);
+        region.setProtect(MemoryRegion.PAGE_NOACCESS);
+        return region;
+    }
+}
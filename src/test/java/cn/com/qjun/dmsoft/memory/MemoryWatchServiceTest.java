@@ -0,0 +1,95 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class MemoryWatchServiceTest {
+    // 周期足够长, 测试中真实的读取耗时不会造成超时
+    private static final long S = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testCoalescedReads() {
+        FakeMemory memory = new FakeMemory();
+        memory.writeInt(0x00400000L, 1);
+        memory.writeInt(0x00400004L, 2);
+        memory.write(0x00400100L, new byte[]{0, 0, (byte) 0xC0, 0x3F});
+        memory.writeInt(0x00500000L, 4);
+        MemoryWatchService service = new MemoryWatchService(memory);
+        List<String> changes = new ArrayList<>();
+        MemoryWatchListener listener = watch -> changes.add(Long.toHexString(watch.getAddress()) + "=" + watch.getDouble());
+        service.watch(0x00400000L, ValueType.INT32, 10, TimeUnit.SECONDS, listener);
+        MemoryWatchService.Watch second = service.watch(0x00400004L, ValueType.INT32, 10, TimeUnit.SECONDS, listener);
+        MemoryWatchService.Watch third = service.watch(0x00400100L, ValueType.FLOAT, 10, TimeUnit.SECONDS, listener);
+        service.watch(0x00500000L, ValueType.INT32, 30, TimeUnit.SECONDS, listener);
+
+        assertEquals(10 * S, service.tick(0));
+        // 前三个地址合并成一次读取
+        assertEquals(2, memory.reads);
+        assertEquals(4, changes.size());
+        assertTrue(changes.contains("400100=1.5"));
+
+        memory.writeInt(0x00400004L, 20);
+        assertEquals(5 * S, service.tick(5 * S));
+        assertEquals(2, memory.reads);
+
+        changes.clear();
+        service.tick(10 * S);
+        assertEquals(3, memory.reads);
+        assertEquals(1, changes.size());
+        assertEquals(20, second.getLong());
+        assertEquals("400004=20.0", changes.get(0));
+
+        second.cancel();
+        memory.writeInt(0x00400004L, 21);
+        memory.writeInt(0x00500000L, 5);
+        changes.clear();
+        service.tick(30 * S);
+        assertEquals(1, changes.size());
+        assertEquals("500000=5.0", changes.get(0));
+
+        MemoryWatchStats stats = service.getStats();
+        assertEquals(3, stats.getWatchCount());
+        assertEquals(3, stats.getTickCount());
+        assertEquals(2, stats.getLastTickReads());
+        assertEquals(3, stats.getLastTickValues());
+        assertEquals(10.0 / 5, stats.getCoalescingRatio(), 1e-9);
+        assertThrows(IllegalStateException.class, third::getLong);
+    }
+
+    @Test
+    public void testUnreadableAndSkipped() {
+        FakeMemory memory = new FakeMemory();
+        memory.writeInt(0x00400FFCL, 7);
+        memory.writeInt(0x00401000L, 8);
+        MemoryWatchService service = new MemoryWatchService(memory);
+        List<Long> values = new ArrayList<>();
+        service.watch(0x00400FFCL, ValueType.INT32, 10, TimeUnit.SECONDS, watch -> values.add(watch.getLong()));
+        service.watch(0x00401000L, ValueType.INT32, 10, TimeUnit.SECONDS, watch -> values.add(watch.getLong()));
+        service.tick(0);
+        assertEquals(1, memory.reads);
+
+        // 合并读取失败后逐个重试, 可读的地址不受影响
+        memory.unmap(0x00401000L);
+        memory.writeInt(0x00400FFCL, 9);
+        values.clear();
+        service.tick(10 * S);
+        assertEquals(4, memory.reads);
+        assertEquals(1, values.size());
+        assertEquals(9L, (long) values.get(0));
+        assertEquals(1, service.getStats().getFailureCount());
+
+        // 错过的周期不补读, 从这一轮结束时重新计时
+        long next = service.tick(100 * S);
+        assertTrue(next >= 10 * S && next < 20 * S);
+        assertEquals(16, service.getStats().getSkippedCount());
+    }
+}
@@ -0,0 +1,52 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class ScanSessionTest {
+
+    @Test
+    public void testNextScan(@TempDir Path dir) throws IOException {
+        FakeMemory memory = new FakeMemory().map(0x400000L, 16 * FakeMemory.PAGE_SIZE).map(0x900000L, FakeMemory.PAGE_SIZE);
+        StringBuilder firstScan = new StringBuilder();
+        int expected = 0;
+        for (long address = 0x400000L; address < 0x400000L + 16 * FakeMemory.PAGE_SIZE; address += 256) {
+            boolean match = address % 3 == 0;
+            memory.writeInt(address, match ? 100 : 50);
+            expected += match ? 1 : 0;
+            firstScan.append(Long.toHexString(address)).append('|');
+        }
+        // 值跨越到没有映射的下一页
+        firstScan.append("900FFE");
+
+        ScanSession session = ScanSession.fromDmResult(memory, firstScan.toString());
+        assertEquals(257, session.size());
+        int remaining = session.nextScan(ScanConditions.intEquals(ValueType.INT32, 100));
+        assertEquals(expected, remaining);
+        assertFalse(session.getCandidates().contains(0x900FFEL));
+        // 连续的16页合并为一次读取; 0x900FFE合并读取失败后再逐页读取一次
+        assertEquals(3, memory.reads);
+
+        Path file = dir.resolve("session.bin");
+        session.save(file);
+        ScanSession restored = ScanSession.restore(memory, file);
+        assertEquals(session.getCandidates(), restored.getCandidates());
+
+        // 其中一页被释放, 只淘汰这一页上的地址
+        memory.unmap(0x400000L + 5 * FakeMemory.PAGE_SIZE);
+        memory.reads = 0;
+        restored.nextScan(ScanConditions.intBetween(ValueType.INT32, 90, 110));
+        assertEquals(remaining - session.getCandidates().stream()
+                .filter(a -> a >= 0x405000L && a < 0x406000L).count(), restored.size());
+        assertTrue(memory.reads > 1);
+    }
+}
@@ -0,0 +1,147 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class SignatureScannerTest {
+    private static final long BASE = 0x00400000L;
+    private static final int SIZE = 3 * 1024 * 1024;
+
+    @Test
+    public void testCompile() {
+        Signature signature = Signature.compile("hp", " 8b 0d ?? ? 4?  85 c9 ");
+        assertEquals("8B 0D ?? ?? 4? 85 C9", signature.getPattern());
+        assertEquals(7, signature.length());
+
+        assertThrows(IllegalArgumentException.class, () -> Signature.compile("a", "8B 0D 1"));
+        assertThrows(IllegalArgumentException.class, () -> Signature.compile("a", "8B 0G"));
+        assertThrows(IllegalArgumentException.class, () -> Signature.compile("a", "?? ??"));
+        assertThrows(IllegalArgumentException.class, () -> Signature.compile("a", ""));
+    }
+
+    @Test
+    public void testIndexOf() {
+        byte[] data = bytes("00 8B 0D 11 22 48 85 C9 8B 0D 11 22 43 85 C9 00");
+        assertEquals(1, Signature.compile("a", "8B 0D ?? ?? 4? 85 C9").indexOf(data, 0, data.length));
+        assertEquals(8, Signature.compile("a", "8B 0D ?? ?? 4? 85 C9").indexOf(data, 2, data.length));
+        assertEquals(8, Signature.compile("a", "8B 0D ?? ?? ?3 85").indexOf(data, 0, data.length));
+        assertEquals(-1, Signature.compile("a", "8B 0D ?? ?? 5? 85").indexOf(data, 0, data.length));
+        // 不完整的匹配不算
+        assertEquals(-1, Signature.compile("a", "85 C9 00 00").indexOf(data, 0, data.length));
+        assertEquals(-1, Signature.compile("a", "8B 0D ?? ?? 4? 85 C9").indexOf(data, 9, 14));
+    }
+
+    @Test
+    public void testScan() {
+        FakeMemory memory = module();
+        // 跨越第一个分块边界
+        memory.write(BASE + SignatureScanner.CHUNK_SIZE - 3, bytes("E8 12 34 56 78 C3"));
+        memory.write(BASE + 0x2345, bytes("55 8B EC 83 EC 10"));
+        // 不可读的页面后面
+        memory.unmap(BASE + 2 * SignatureScanner.CHUNK_SIZE);
+        memory.write(BASE + 2 * SignatureScanner.CHUNK_SIZE + 0x1100, bytes("A1 00 00 00 00 C3"));
+        SignatureScanner scanner = new SignatureScanner(memory, new FakeModule(), null);
+        List<Signature> signatures = Arrays.asList(
+                Signature.compile("call", "E8 12 34 ?? 78 C3"),
+                Signature.compile("prologue", "55 8B EC 83 EC ??"),
+                Signature.compile("global", "A1 ?? ?? ?? ?? C3"),
+                Signature.compile("missing", "DE AD BE EF"));
+
+        Map<String, Long> offsets = scanner.findOffsets("Game.exe", signatures);
+        assertEquals(Arrays.asList("call", "prologue", "global"), Arrays.asList(offsets.keySet().toArray()));
+        assertEquals(SignatureScanner.CHUNK_SIZE - 3L, (long) offsets.get("call"));
+        assertEquals(0x2345L, (long) offsets.get("prologue"));
+        assertEquals(2L * SignatureScanner.CHUNK_SIZE + 0x1100, (long) offsets.get("global"));
+        assertEquals(BASE + 0x2345, (long) scanner.resolve("game.exe", signatures).get("prologue"));
+
+        assertThrows(IllegalStateException.class, () -> scanner.findOffsets("other.dll", signatures));
+        assertThrows(IllegalArgumentException.class, () -> scanner.findOffsets("game.exe",
+                Arrays.asList(Signature.compile("a", "01"), Signature.compile("a", "02"))));
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path directory = Files.createTempDirectory("signatures");
+        try {
+            FakeMemory memory = module();
+            memory.write(BASE, bytes("4D 5A 90 00"));
+            memory.write(BASE + 0x2345, bytes("55 8B EC 83 EC 10"));
+            List<Signature> signatures = Arrays.asList(
+                    Signature.compile("prologue", "55 8B EC 83 EC ??"),
+                    Signature.compile("missing", "DE AD BE EF"));
+            Map<String, Long> cold = new SignatureScanner(memory, new FakeModule(), directory).findOffsets("game.exe", signatures);
+            assertEquals(0x2345L, (long) cold.get("prologue"));
+            assertTrue(Files.isRegularFile(directory.resolve("game.exe.properties")));
+
+            // 热启动只读取模块头, 没有找到的特征码也不再扫描
+            memory.reads = 0;
+            Map<String, Long> warm = new SignatureScanner(memory, new FakeModule(), directory).findOffsets("GAME.EXE", signatures);
+            assertEquals(cold, warm);
+            assertEquals(1, memory.reads);
+
+            // 新增的特征码只扫描它自己
+            memory.reads = 0;
+            Map<String, Long> added = new SignatureScanner(memory, new FakeModule(), directory).findOffsets("game.exe",
+                    Arrays.asList(signatures.get(0), Signature.compile("header", "4D 5A")));
+            assertEquals(0L, (long) added.get("header"));
+            assertEquals(2, memory.reads);
+
+            // 模块头变化后缓存作废
+            memory.write(BASE + 0x80, bytes("01"));
+            memory.write(BASE + 0x2345, bytes("00"));
+            memory.write(BASE + 0x3000, bytes("55 8B EC 83 EC 20"));
+            memory.reads = 0;
+            Map<String, Long> updated = new SignatureScanner(memory, new FakeModule(), directory).findOffsets("game.exe", signatures);
+            assertEquals(0x3000L, (long) updated.get("prologue"));
+            assertTrue(memory.reads > 1);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static FakeMemory module() {
+        return new FakeMemory().map(BASE, SIZE);
+    }
+
+    private static byte[] bytes(String hex) {
+        String[] tokens = hex.split(" ");
+        byte[] data = new byte[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            data[i] = (byte) Integer.parseInt(tokens[i], 16);
+        }
+        return data;
+    }
+
+    private static class FakeModule implements ModuleQuery {
+        @Override
+        public long processId() {
+            return 100;
+        }
+
+        @Override
+        public long moduleBase(String module) {
+            return "game.exe".equalsIgnoreCase(module) ? BASE : 0;
+        }
+
+        @Override
+        public long moduleSize(String module) {
+            return "game.exe".equalsIgnoreCase(module) ? SIZE : 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class SnapshotScannerTest {
+
+    @Test
+    public void testUnknownValueSearch() {
+        FakeMemory memory = new FakeMemory();
+        // 两个区域, 第二个区域跨越多个分块
+        memory.map(0x00400000L, 3 * FakeMemory.PAGE_SIZE);
+        memory.map(0x00800000L, 40 * FakeMemory.PAGE_SIZE);
+        long target = 0x00800000L + 10 * FakeMemory.PAGE_SIZE - 2;
+        long other = 0x00400100L;
+        memory.writeInt(target, 100);
+        memory.writeInt(other, 100);
+
+        SnapshotScanConfig config = new SnapshotScanConfig();
+        config.setAlignment(1);
+        config.setChunkSize(2 * FakeMemory.PAGE_SIZE);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        config.setPool(pool);
+        try {
+            SnapshotScanner scanner = new SnapshotScanner(memory, memory, config);
+            // 区域末尾放不下一个int的地址不算
+            assertEquals(43 * FakeMemory.PAGE_SIZE - 2 * 3, scanner.firstScan());
+            assertEquals(43L * FakeMemory.PAGE_SIZE, scanner.getSnapshotBytes());
+            assertThrows(IllegalStateException.class, scanner::getCandidates);
+
+            memory.writeInt(target, 120);
+            memory.writeInt(other, 90);
+            scanner.nextScan(SnapshotComparison.CHANGED);
+            // 跨越分块边界的值(target)和与它重叠的地址都变了
+            assertTrue(scanner.getCandidates().contains(target));
+            assertTrue(scanner.getCandidates().contains(other));
+
+            memory.writeInt(target, 130);
+            scanner.nextScan(SnapshotComparison.INCREASED);
+            assertTrue(scanner.getCandidates().contains(target));
+            assertFalse(scanner.getCandidates().contains(other));
+
+            scanner.nextScan(SnapshotComparison.UNCHANGED);
+            memory.writeInt(target, 125);
+            // 按1字节对齐时, 和target重叠并且高位字节跟着变化的地址也会留下
+            assertEquals(3, scanner.nextScan(SnapshotComparison.DECREASED));
+            assertArrayEquals(new long[]{target - 2, target - 1, target}, scanner.getCandidates().toArray());
+            // 只剩下一个区域
+            assertEquals(40L * FakeMemory.PAGE_SIZE, scanner.getSnapshotBytes());
+            assertEquals(4, scanner.getScanCount());
+
+            ScanSession session = scanner.toScanSession();
+            assertEquals(1, session.nextScan(ScanConditions.intEquals(ValueType.INT32, 125)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSkippedChunkAfterBoundary() {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, 4 * FakeMemory.PAGE_SIZE);
+        // 跨越第一个和第二个分块的边界
+        long target = 0x00400000L + FakeMemory.PAGE_SIZE - 2;
+        SnapshotScanConfig config = new SnapshotScanConfig();
+        config.setAlignment(1);
+        config.setChunkSize(FakeMemory.PAGE_SIZE);
+        SnapshotScanner scanner = new SnapshotScanner(memory, memory, config);
+        scanner.firstScan();
+
+        // 只改变第一个分块中的字节, 第二个分块之后没有候选地址
+        memory.writeInt(target, 100);
+        scanner.nextScan(SnapshotComparison.CHANGED);
+        assertArrayEquals(new long[]{target - 3, target - 2, target - 1, target}, scanner.getCandidates().toArray());
+
+        // 改变target在第二个分块中的字节, 第二个分块被跳过, 快照中的这个字节也要更新
+        memory.writeInt(target, 0x00010064);
+        scanner.nextScan(SnapshotComparison.CHANGED);
+        assertArrayEquals(new long[]{target - 1, target}, scanner.getCandidates().toArray());
+        assertEquals(2, scanner.nextScan(SnapshotComparison.UNCHANGED));
+
+        memory.writeInt(target, 0x00020064);
+        assertEquals(2, scanner.nextScan(SnapshotComparison.INCREASED));
+        assertEquals(2, scanner.nextScan(SnapshotComparison.UNCHANGED));
+    }
+
+    @Test
+    public void testAlignedScanAndUnmappedPages() {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, 8 * FakeMemory.PAGE_SIZE);
+        SnapshotScanConfig config = new SnapshotScanConfig();
+        config.setChunkSize(4 * FakeMemory.PAGE_SIZE);
+        SnapshotScanner scanner = new SnapshotScanner(memory, memory, config);
+        assertEquals(8 * FakeMemory.PAGE_SIZE / 4, scanner.firstScan());
+
+        // 不对齐的地址不会出现在结果中
+        memory.writeInt(0x00400011L, 0x01010101);
+        memory.writeInt(0x00402000L, 5);
+        memory.unmap(0x00402000L);
+        scanner.nextScan(SnapshotComparison.CHANGED);
+        assertArrayEquals(new long[]{0x00400010L, 0x00400014L}, scanner.getCandidates().toArray());
+
+        // 页面不可读以后, 上面的地址所在的分块仍然可以正常比较
+        assertEquals(2, scanner.nextScan(SnapshotComparison.UNCHANGED));
+        memory.unmap(0x00400000L);
+        assertEquals(0, scanner.nextScan(SnapshotComparison.UNCHANGED));
+        assertEquals(0, scanner.getSnapshotBytes());
+
+        assertThrows(IllegalStateException.class, () -> new SnapshotScanner(memory, memory, config).nextScan(SnapshotComparison.CHANGED));
+        config.setMaxSnapshotBytes(FakeMemory.PAGE_SIZE);
+        memory.map(0x00400000L, FakeMemory.PAGE_SIZE);
+        assertThrows(IllegalStateException.class, () -> new SnapshotScanner(memory, memory, config).firstScan());
+    }
+}
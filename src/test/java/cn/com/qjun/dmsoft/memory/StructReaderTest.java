@@ -0,0 +1,98 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class StructReaderTest {
+    private static final StructLayout POSITION = StructLayout.builder()
+            .field("x", 0, ValueType.FLOAT)
+            .field("y", 4, ValueType.FLOAT)
+            .build();
+    private static final StructLayout ENTITY = StructLayout.builder()
+            .field("id", 0x00, ValueType.INT32)
+            .field("level", 0x04, ValueType.INT16)
+            .field("flags", 0x06, ValueType.INT8)
+            .field("hp", 0x08, ValueType.INT32)
+            .field("mp", 0x0C, ValueType.INT32)
+            .field("exp", 0x10, ValueType.INT64)
+            .field("speed", 0x18, ValueType.FLOAT)
+            .field("scale", 0x1C, ValueType.DOUBLE)
+            .string("name", 0x24, 16, StringEncoding.GBK)
+            .string("title", 0x34, 16, StringEncoding.UNICODE)
+            .bytes("raw", 0x44, 4)
+            .pointer("position", 0x48, POSITION)
+            .build();
+    private static final int STRIDE = 0x50;
+
+    @Test
+    public void testArrayInOneRead() {
+        FakeMemory memory = new FakeMemory();
+        long base = 0x01000000L;
+        for (int i = 0; i < 200; i++) {
+            writeEntity(memory, base + (long) i * STRIDE, i, 0x02000000L + i * 8L);
+        }
+        List<StructValue> entities = new StructReader(memory).readArray(base, 200, STRIDE, ENTITY);
+        // 结构体数组一次读取, 200个位置结构体连续存放, 也是一次读取
+        assertEquals(2, memory.reads);
+        StructValue entity = entities.get(123);
+        assertEquals(123, entity.getInt("id"));
+        assertEquals(-2, entity.getInt("level"));
+        assertEquals(-1, entity.getInt("flags"));
+        assertEquals(1230, entity.getInt("hp"));
+        assertEquals(1L << 40, entity.getLong("exp"));
+        assertEquals(1.5f, entity.getFloat("speed"));
+        assertEquals(0.25, entity.getDouble("scale"));
+        assertEquals("npc123", entity.getString("name"));
+        assertEquals("标题", entity.getString("title"));
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, entity.getBytes("raw"));
+        assertEquals(123f, entity.getStruct("position").getFloat("x"));
+        assertEquals(0x02000000L + 123 * 8L, entity.getLong("position"));
+        assertThrows(IllegalArgumentException.class, () -> entity.getInt("name"));
+        assertThrows(IllegalArgumentException.class, () -> entity.get("missing"));
+    }
+
+    @Test
+    public void testScatteredAndUnreadable() {
+        FakeMemory memory = new FakeMemory();
+        long[] addresses = new long[20];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = 0x03000000L + (long) (addresses.length - i) * 0x10000;
+            writeEntity(memory, addresses[i], i, 0);
+        }
+        addresses[5] = 0;
+        memory.unmap(addresses[7]);
+        List<StructValue> entities = new StructReader(memory).readEach(addresses, ENTITY);
+        assertEquals(19, memory.reads);
+        assertNull(entities.get(5));
+        assertNull(entities.get(7));
+        assertEquals(8, entities.get(8).getInt("id"));
+        assertNull(entities.get(8).getStruct("position"));
+    }
+
+    private static void writeEntity(FakeMemory memory, long address, int id, long position) {
+        ByteBuffer buffer = ByteBuffer.allocate(STRIDE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, id).putShort(4, (short) -2).put(6, (byte) -1).putInt(8, id * 10).putInt(0x0C, 5)
+                .putLong(0x10, 1L << 40).putFloat(0x18, 1.5f).putDouble(0x1C, 0.25);
+        byte[] name = ("npc" + id).getBytes();
+        System.arraycopy(name, 0, buffer.array(), 0x24, name.length);
+        byte[] title = "标题".getBytes(StandardCharsets.UTF_16LE);
+        System.arraycopy(title, 0, buffer.array(), 0x34, title.length);
+        buffer.put(0x44, (byte) 1).put(0x45, (byte) 2).put(0x46, (byte) 3).put(0x47, (byte) 4);
+        buffer.putInt(0x48, (int) position);
+        memory.write(address, buffer.array());
+        if (position != 0) {
+            ByteBuffer xy = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putFloat(0, id).putFloat(4, -id);
+            memory.write(position, xy.array());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class ValueScannerTest {
+
+    @Test
+    public void testParallelScan() {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, 64 * FakeMemory.PAGE_SIZE);
+        memory.map(0x00600000L, 3 * FakeMemory.PAGE_SIZE);
+        Random random = new Random(11);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long address = 0x00400000L + random.nextInt(64 * FakeMemory.PAGE_SIZE / 4) * 4L;
+            memory.writeInt(address, 12345);
+            if (!expected.contains(address)) {
+                expected.add(address);
+            }
+        }
+        // 跨越分块边界的值只有按1字节对齐时才能找到
+        long crossing = 0x00400000L + 4 * FakeMemory.PAGE_SIZE - 2;
+        memory.writeInt(crossing, 12345);
+        memory.writeInt(0x00600000L + 3 * FakeMemory.PAGE_SIZE - 4, 12345);
+        expected.add(0x00600000L + 3 * FakeMemory.PAGE_SIZE - 4);
+        expected.sort(Long::compare);
+
+        ValueScanConfig config = new ValueScanConfig();
+        config.setChunkSize(4 * FakeMemory.PAGE_SIZE);
+        config.setParallelism(3);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        config.setPool(pool);
+        try {
+            ValueScanner scanner = new ValueScanner(memory, memory, config);
+            List<Long> found = new ArrayList<>();
+            assertEquals(expected.size(), scanner.scan(ScanConditions.intEquals(ValueType.INT32, 12345), found::add));
+            assertEquals(expected, found);
+
+            config.setAlignment(1);
+            AddressSet unaligned = scanner.scan(ScanConditions.intEquals(ValueType.INT32, 12345));
+            assertTrue(unaligned.contains(crossing));
+            assertEquals(expected.size() + 1, unaligned.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreadablePagesAndEpsilon() {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, 8 * FakeMemory.PAGE_SIZE);
+        memory.write(0x00400100L, floatBytes(99.98f));
+        memory.write(0x00402000L, floatBytes(100.01f));
+        memory.write(0x00405000L, floatBytes(100f));
+        memory.write(0x00407000L, floatBytes(100.5f));
+        memory.unmap(0x00405000L);
+        // 区域信息已经过时, 其中一页已经不可读
+        MemoryRegionQuery stale = address -> address >= 0x00400000L + 8 * FakeMemory.PAGE_SIZE ? null
+                : new MemoryRegion(0x00400000L, 0x00400000L, MemoryRegion.PAGE_READWRITE, 8 * FakeMemory.PAGE_SIZE,
+                MemoryRegion.MEM_COMMIT, MemoryRegion.PAGE_READWRITE, MemoryRegion.MEM_PRIVATE);
+        ValueScanConfig config = new ValueScanConfig();
+        config.setChunkSize(8 * FakeMemory.PAGE_SIZE);
+        config.setStartAddress(0x00400000L);
+        ValueScanner scanner = new ValueScanner(memory, stale, config);
+        AddressSet found = scanner.scan(ScanConditions.floatNear(100f, 0.05f));
+        assertArrayEquals(new long[]{0x00400100L, 0x00402000L}, found.toArray());
+    }
+
+    private static byte[] floatBytes(float value) {
+        int bits = Float.floatToIntBits(value);
+        return new byte[]{(byte) bits, (byte) (bits >> 8), (byte) (bits >> 16), (byte) (bits >> 24)};
+    }
+}
@@ -0,0 +1,86 @@
+package cn.com.qjun.dmsoft.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class WriteBatchTest {
+
+    @Test
+    public void testMergeSpans() {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, FakeMemory.PAGE_SIZE);
+        memory.writeInt(0x00400010L, -1);
+        WriteBatch batch = new WriteBatch()
+                .putInt32(0x00400008L, 3)
+                .putInt32(0x00400000L, 1)
+                .putInt32(0x00400004L, 2)
+                .putFloat(0x00400014L, 1.5f)
+                .putInt(0x00400018L, ValueType.INT16, 0x12345)
+                // 覆盖前面的第二个字节
+                .putBytes(0x00400001L, new byte[]{9});
+        // 0x400010没有写入, 不会被覆盖
+        assertEquals(2, batch.getSpanCount());
+        assertEquals(0, batch.writeTo(memory));
+        assertEquals(2, memory.writes);
+
+        ByteBuffer data = read(memory, 0x00400000L, 0x1A);
+        assertEquals(1 | (9 << 8), data.getInt(0));
+        assertEquals(2, data.getInt(4));
+        assertEquals(3, data.getInt(8));
+        assertEquals(-1, data.getInt(0x10));
+        assertEquals(1.5f, data.getFloat(0x14));
+        assertEquals(0x2345, data.getShort(0x18));
+
+        // 修改后重新合并
+        batch.putInt(0x0040000CL, ValueType.INT32, 4).putInt(0x00400010L, ValueType.INT32, 5);
+        assertEquals(1, batch.getSpanCount());
+        batch.putDouble(0x00500000L, 2.5);
+        assertEquals(1, batch.writeTo(memory));
+        assertEquals(4, read(memory, 0x00400000L, 0x14).getInt(0x0C));
+        assertEquals(5, read(memory, 0x00400000L, 0x14).getInt(0x10));
+        assertThrows(IllegalArgumentException.class, () -> batch.putInt(0, ValueType.FLOAT, 1));
+    }
+
+    @Test
+    public void testFreeze() throws InterruptedException {
+        FakeMemory memory = new FakeMemory();
+        memory.map(0x00400000L, FakeMemory.PAGE_SIZE);
+        WriteBatch batch = new WriteBatch().putInt32(0x00400000L, 100).putInt32(0x00400004L, 200);
+        try (MemoryFreezer freezer = new MemoryFreezer(memory)) {
+            MemoryFreezer.Frozen frozen = freezer.freeze(batch, 1, TimeUnit.MILLISECONDS);
+            waitForWrites(frozen, 1);
+            memory.writeInt(0x00400000L, 1);
+            long written = frozen.getWriteCount();
+            waitForWrites(frozen, written + 2);
+            assertEquals(100, read(memory, 0x00400000L, 8).getInt(0));
+            assertEquals(1, freezer.getFrozenCount());
+
+            frozen.cancel();
+            assertTrue(frozen.isCancelled());
+            assertEquals(0, freezer.getFrozenCount());
+        }
+    }
+
+    private static void waitForWrites(MemoryFreezer.Frozen frozen, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (frozen.getWriteCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "等待写入超时");
+            Thread.sleep(1);
+        }
+    }
+
+    private static ByteBuffer read(FakeMemory memory, long address, int length) {
+        byte[] data = new byte[length];
+        assertTrue(memory.read(address, data, 0, length));
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
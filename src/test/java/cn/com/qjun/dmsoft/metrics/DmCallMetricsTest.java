@@ -0,0 +1,59 @@
+package cn.com.qjun.dmsoft.metrics;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.dmsoft.DmSoftWrapper;
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmCallMetricsTest {
+
+    @Test
+    public void testPercentiles() {
+        DmCallMetrics metrics = new DmCallMetrics();
+        for (int i = 1; i <= 1000; i++) {
+            metrics.record("FindPic", i * 1000L, true);
+        }
+        metrics.record("FindPic", 5000L, false);
+        DmMethodStats stats = metrics.snapshot().get(0);
+        assertEquals("FindPic", stats.getMethod());
+        assertEquals(1001L, stats.getCount());
+        assertEquals(1L, stats.getErrorCount());
+        assertEquals(1_000_000L, stats.getMaxNanos());
+        // 直方图相对误差不超过12.5%
+        assertTrue(Math.abs(stats.getP50Nanos() - 500_000L) <= 500_000L / 8, "p50=" + stats.getP50Nanos());
+        assertTrue(Math.abs(stats.getP99Nanos() - 990_000L) <= 990_000L / 8, "p99=" + stats.getP99Nanos());
+    }
+
+    @Test
+    public void testRecordedByWrapper() {
+        InMemoryDmBackend backend = new InMemoryDmBackend()
+                .returning("MoveTo", 1)
+                .returning("LeftClick", 0);
+        DmSoftWrapper dmSoft = new DmSoftWrapper(backend);
+        dmSoft.inputFunctions().moveTo(Point.of(1, 2));
+        dmSoft.inputFunctions().moveTo(Point.of(3, 4));
+        assertThrows(RuntimeException.class, () -> dmSoft.inputFunctions().leftClick());
+
+        List<DmMethodStats> stats = dmSoft.metrics().snapshot();
+        DmMethodStats moveTo = stats.stream().filter(s -> s.getMethod().equals("MoveTo")).findFirst().orElse(null);
+        assertNotNull(moveTo);
+        assertEquals(2L, moveTo.getCount());
+        assertEquals(0L, moveTo.getErrorCount());
+        assertEquals(dmSoft.metrics().getDmSoftId(), moveTo.getDmSoftId());
+        DmMethodStats leftClick = stats.stream().filter(s -> s.getMethod().equals("LeftClick")).findFirst().orElse(null);
+        assertNotNull(leftClick);
+        assertEquals(1L, leftClick.getErrorCount());
+
+        assertTrue(DmMetricsRegistry.getInstance().getStatsByMethod().stream().anyMatch(s -> s.getMethod().equals("MoveTo")));
+        dmSoft.close();
+        assertFalse(DmMetricsRegistry.getInstance().getStatsByDmSoft().stream().anyMatch(s -> s.getDmSoftId() == moveTo.getDmSoftId()));
+    }
+}
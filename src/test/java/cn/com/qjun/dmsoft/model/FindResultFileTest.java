@@ -0,0 +1,47 @@
+package cn.com.qjun.dmsoft.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class FindResultFileTest {
+
+    @Test
+    public void testParse() throws IOException {
+        Path path = Files.createTempFile("find", ".txt");
+        try {
+            Files.write(path, "400050|423435|7ffe0000|\r\n453430|FFFFFFFFFFFF".getBytes(StandardCharsets.US_ASCII));
+            long[] expected = {0x400050L, 0x423435L, 0x7FFE0000L, 0x453430L, 0xFFFFFFFFFFFFL};
+            // 很小的分块, 地址跨越分块边界
+            FindResultFile file = new FindResultFile(path, 4);
+            assertArrayEquals(expected, file.toArray());
+            assertArrayEquals(expected, new FindResultFile(path).toArray());
+            assertEquals(5, file.forEach(address -> {
+            }));
+            try (LongStream stream = file.stream()) {
+                assertEquals(0x7FFE0000L, stream.skip(2).findFirst().getAsLong());
+            }
+            assertEquals(LongList.of(expected), file.toLongList());
+
+            Files.write(path, new byte[0]);
+            assertEquals(0, file.toArray().length);
+
+            Files.write(path, "400050|4234x5".getBytes(StandardCharsets.US_ASCII));
+            assertThrows(NumberFormatException.class, file::toArray);
+            Files.write(path, "10000000000000000".getBytes(StandardCharsets.US_ASCII));
+            assertThrows(NumberFormatException.class, file::toArray);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package cn.com.qjun.dmsoft.model;
+
+import cn.com.qjun.commons.geometry.Point;
+import cn.com.qjun.commons.geometry.Rect;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class FindResultsTest {
+
+    @Test
+    public void testIndexedPoints() {
+        List<String> names = Arrays.asList("a.bmp", "b.bmp");
+        FindResults.Builder builder = FindResults.indexedPoints(1, names);
+        for (int i = 0; i < 100; i++) {
+            builder.addIndexedPoint(i % 2, i, -i);
+        }
+        FindResults results = builder.build();
+        assertEquals(100, results.size());
+        assertTrue(results.isFound());
+        assertEquals(1, results.index(99));
+        assertEquals("b.bmp", results.name(99));
+        assertEquals(Point.of(99, -99), results.point(99));
+        assertEquals(0, results.width(0));
+        assertFalse(results.hasScore());
+        assertThrows(IndexOutOfBoundsException.class, () -> results.x(100));
+
+        // 旧接口看到的结果和逐个创建Item一样
+        FindResult.Item item = results.getItems().get(3);
+        assertEquals(new FindResult.Item(1, "b.bmp", Point.of(3, -3)), item);
+        assertEquals(100, results.getItems().size());
+        assertThrows(UnsupportedOperationException.class, () -> results.getItems().add(item));
+
+        // 转换后的结果和以前一样可以修改
+        FindResult findResult = results.toFindResult();
+        assertTrue(findResult.isFound());
+        assertEquals(results.getItems(), findResult.getItems());
+        findResult.getItems().removeIf(each -> each.getIndex() == 0);
+        assertEquals(50, findResult.getItems().size());
+        findResult.setFound(false);
+        assertFalse(findResult.isFound());
+    }
+
+    @Test
+    public void testScoresAndRects() {
+        FindResults scored = FindResults.scoredIndexedPoints(2, null).addScoredIndexedPoint(0, 95, 10, 20).build();
+        assertEquals(95, scored.score(0));
+        assertNull(scored.name(0));
+        assertEquals(Integer.valueOf(95), scored.getItems().get(0).getProbability());
+
+        FindResults detected = FindResults.labeledRects(2)
+                .addLabeledRect("person", 87, 1, 2, 30, 40)
+                .addLabeledRect("car", 66, 5, 6, 70, 80)
+                .build();
+        assertEquals("car", detected.name(1));
+        assertEquals(Rect.of(5, 6, 70, 80), detected.rect(1));
+        assertEquals(new FindResult.Item("person", 87, Rect.of(1, 2, 30, 40)), detected.getItems().get(0));
+    }
+
+    @Test
+    public void testEmpty() {
+        FindResults empty = FindResults.points(16).build();
+        assertSame(FindResults.empty(), empty);
+        assertFalse(empty.isFound());
+        assertTrue(empty.points().isEmpty());
+        assertEquals(FindResult.ofNone(), empty.toFindResult());
+    }
+}
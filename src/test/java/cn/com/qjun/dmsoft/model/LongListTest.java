@@ -0,0 +1,45 @@
+package cn.com.qjun.dmsoft.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class LongListTest {
+
+    @Test
+    public void testDiffAndIntersect() {
+        LongList previous = LongList.of(4294967295L, 1001, 1002, 1003);
+        LongList current = LongList.of(1003, 1005, 1001, 1004);
+
+        assertEquals(LongList.of(1005, 1004), current.diff(previous));
+        assertEquals(LongList.of(4294967295L, 1002), previous.diff(current));
+        assertEquals(LongList.of(1003, 1001), current.intersect(previous));
+
+        assertSame(current, current.diff(LongList.empty()));
+        assertSame(current, current.diff(LongList.of(1, 2)));
+        assertSame(LongList.empty(), current.intersect(LongList.empty()));
+        assertTrue(LongList.empty().diff(current).isEmpty());
+    }
+
+    @Test
+    public void testAccessors() {
+        long[] source = {3, 1, 2};
+        LongList list = LongList.of(source);
+        source[0] = 9;
+        assertEquals(3, list.get(0));
+        assertEquals(2, list.indexOf(2));
+        assertFalse(list.contains(9));
+        assertEquals(6, list.stream().sum());
+        assertEquals(Arrays.asList(3L, 1L, 2L), list.boxed());
+        assertEquals("[3, 1, 2]", list.toString());
+        // 比较时的排序不影响原顺序
+        list.intersect(LongList.of(1));
+        assertArrayEquals(new long[]{3, 1, 2}, list.toArray());
+    }
+}
@@ -0,0 +1,64 @@
+package cn.com.qjun.dmsoft.model;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class NativeBufferViewTest {
+
+    @Test
+    public void testRead() {
+        try (Memory memory = new Memory(16)) {
+            memory.write(0, new byte[]{0x78, 0x56, 0x34, 0x12, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, 0, 16);
+            NativeBufferView view = new NativeBufferOwner("test").view(Pointer.nativeValue(memory), 16);
+            assertEquals(16, view.length());
+            assertEquals(0x12345678, view.getInt(0));
+            assertEquals(9, view.getByte(12));
+            byte[] part = new byte[4];
+            view.get(4, part, 0, 4);
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, part);
+            assertTrue(view.asByteBuffer().isReadOnly());
+
+            // 数据来自插件的缓冲区, 不是副本
+            memory.setByte(12, (byte) 99);
+            assertEquals(99, view.getByte(12));
+
+            assertThrows(IndexOutOfBoundsException.class, () -> view.getInt(13));
+            assertThrows(IndexOutOfBoundsException.class, () -> view.get(12, new byte[8], 0, 8));
+            assertThrows(IndexOutOfBoundsException.class, () -> view.get(-1, new byte[8], 0, 1));
+        }
+    }
+
+    @Test
+    public void testGeneration() {
+        try (Memory memory = new Memory(8)) {
+            memory.setLong(0, 42);
+            NativeBufferOwner owner = new NativeBufferOwner("test");
+            NativeBufferView view = owner.view(Pointer.nativeValue(memory), 8);
+            ByteBuffer copy = ByteBuffer.allocate(8);
+            view.copyTo(copy);
+            byte[] array = view.toByteArray();
+
+            owner.advance();
+            assertFalse(view.isValid());
+            assertThrows(IllegalStateException.class, () -> view.getLong(0));
+            assertThrows(IllegalStateException.class, () -> view.copyTo(ByteBuffer.allocate(8)));
+            assertThrows(IllegalStateException.class, view::asByteBuffer);
+
+            // 复制出来的数据不受影响
+            memory.setLong(0, 0);
+            assertEquals(8, copy.position());
+            assertEquals(42, ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN).getLong());
+            assertTrue(owner.view(Pointer.nativeValue(memory), 8).isValid());
+        }
+    }
+}
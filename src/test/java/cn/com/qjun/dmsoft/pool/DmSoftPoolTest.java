@@ -0,0 +1,134 @@
+package cn.com.qjun.dmsoft.pool;
+
+import cn.com.qjun.dmsoft.backend.InMemoryDmBackend;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用进程内的模拟后端测试对象池的借出、归还和回收
+ *
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class DmSoftPoolTest {
+    private final List<InMemoryDmBackend> backends = new CopyOnWriteArrayList<>();
+
+    private DmSoftPoolConfig config(int minSize, int maxSize) {
+        DmSoftPoolConfig config = new DmSoftPoolConfig();
+        config.setMinSize(minSize);
+        config.setMaxSize(maxSize);
+        config.setEvictionInterval(Duration.ZERO);
+        config.setBackendFactory(() -> {
+            InMemoryDmBackend backend = new InMemoryDmBackend();
+            backends.add(backend);
+            return backend;
+        });
+        return config;
+    }
+
+    @Test
+    public void testLeaseReusesReturnedInstance() throws InterruptedException {
+        try (DmSoftPool pool = new DmSoftPool(config(0, 2))) {
+            long firstId;
+            try (DmSoftLease lease = pool.lease()) {
+                firstId = lease.dmSoft().basicFunctions().getId();
+            }
+            try (DmSoftLease lease = pool.lease()) {
+                assertEquals(firstId, lease.dmSoft().basicFunctions().getId());
+            }
+            DmSoftPoolStats stats = pool.stats();
+            assertEquals(1, stats.getTotalCount());
+            assertEquals(1, stats.getIdleCount());
+            assertEquals(2L, stats.getLeaseCount());
+            assertEquals(1L, stats.getCreatedCount());
+        }
+        assertTrue(backends.get(0).isClosed());
+    }
+
+    @Test
+    public void testMaxSizeAndTimeout() throws InterruptedException {
+        try (DmSoftPool pool = new DmSoftPool(config(0, 1))) {
+            DmSoftLease lease = pool.lease();
+            assertNull(pool.tryLease(20, TimeUnit.MILLISECONDS));
+            assertEquals(1L, pool.stats().getTimeoutCount());
+            assertEquals(1, pool.stats().getLeasedCount());
+            lease.close();
+            lease.close();
+            DmSoftLease again = pool.tryLease(20, TimeUnit.MILLISECONDS);
+            assertNotNull(again);
+            again.close();
+            assertEquals(1, backends.size());
+            assertThrows(IllegalStateException.class, lease::dmSoft);
+        }
+    }
+
+    @Test
+    public void testLeasedCountExcludesIdleCheck() throws InterruptedException {
+        DmSoftPoolConfig config = config(1, 2);
+        config.setEvictionInterval(Duration.ofMillis(10));
+        try (DmSoftPool pool = new DmSoftPool(config)) {
+            InMemoryDmBackend backend = backends.get(0);
+            long created = backend.invocationCount("GetID");
+            // 空闲检查调用GetID时变慢, 检查期间后台线程一直占用一个许可
+            backend.latency(300, TimeUnit.MILLISECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (backend.invocationCount("GetID") == created && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(backend.invocationCount("GetID") > created);
+            assertEquals(0, pool.stats().getLeasedCount());
+
+            backend.latency(0, TimeUnit.MILLISECONDS);
+            try (DmSoftLease ignored = pool.lease()) {
+                assertEquals(1, pool.stats().getLeasedCount());
+            }
+            assertEquals(0, pool.stats().getLeasedCount());
+        }
+    }
+
+    @Test
+    public void testInvalidateAndCloseAll() throws InterruptedException {
+        try (DmSoftPool pool = new DmSoftPool(config(1, 2))) {
+            assertEquals(1, backends.size());
+            try (DmSoftLease lease = pool.lease()) {
+                lease.invalidate();
+            }
+            assertTrue(backends.get(0).isClosed());
+            assertEquals(1L, pool.stats().getUnhealthyCount());
+
+            DmSoftLease leased = pool.lease();
+            pool.closeAll();
+            assertFalse(backends.get(1).isClosed());
+            leased.close();
+            assertTrue(backends.get(1).isClosed());
+            assertEquals(0, pool.stats().getTotalCount());
+        }
+    }
+
+    @Test
+    public void testHealthCheckOnLease() throws InterruptedException {
+        DmSoftPoolConfig config = config(1, 1);
+        config.setTestOnLease(true);
+        try (DmSoftPool pool = new DmSoftPool(config)) {
+            backends.get(0).returning("GetID", -1);
+            try (DmSoftLease lease = pool.lease()) {
+                assertNotNull(lease.dmSoft());
+            }
+            assertTrue(backends.get(0).isClosed());
+            assertEquals(2, backends.size());
+            assertEquals(1L, pool.stats().getUnhealthyCount());
+        }
+    }
+
+    @Test
+    public void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new DmSoftPool(config(3, 2)));
+        assertThrows(IllegalArgumentException.class, () -> new DmSoftPool(config(0, 0)));
+    }
+}
@@ -0,0 +1,135 @@
+package cn.com.qjun.dmsoft.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class NativeLibraryCacheTest {
+    private static final String RESOURCE = "/win32-x86/DmReg.dll";
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    public void testExtractOnceAndReuse() throws IOException {
+        NativeLibraryCache cache = new NativeLibraryCache(cacheDir);
+        Path first = cache.extract(RESOURCE, "DmReg.dll");
+        assertEquals("DmReg.dll", first.getFileName().toString());
+        assertArrayEquals(readResource(), Files.readAllBytes(first));
+
+        FileTime modified = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(first, modified);
+        Path second = cache.extract(RESOURCE, "DmReg.dll");
+        assertEquals(first, second);
+        assertEquals(modified, Files.getLastModifiedTime(second));
+    }
+
+    @Test
+    public void testInvalidFileIsReplaced() throws IOException {
+        NativeLibraryCache cache = new NativeLibraryCache(cacheDir);
+        Path file = cache.extract(RESOURCE, "DmReg.dll");
+        byte[] content = Files.readAllBytes(file);
+        Path marker = file.resolveSibling("DmReg.dll.ok");
+        assertTrue(Files.isRegularFile(marker));
+
+        // 长度不对
+        Files.write(file, Arrays.copyOf(content, content.length / 2));
+        assertEquals(file, cache.extract(RESOURCE, "DmReg.dll"));
+        assertArrayEquals(content, Files.readAllBytes(file));
+
+        // 长度相同, 内容损坏
+        byte[] corrupted = content.clone();
+        corrupted[corrupted.length / 2] ^= 0x5A;
+        Files.write(file, corrupted);
+        assertEquals(file, cache.extract(RESOURCE, "DmReg.dll"));
+        assertArrayEquals(content, Files.readAllBytes(file));
+
+        // 标记内容不对
+        Files.write(marker, "00000000-1".getBytes(StandardCharsets.US_ASCII));
+        Files.write(file, corrupted);
+        assertEquals(file, cache.extract(RESOURCE, "DmReg.dll"));
+        assertArrayEquals(content, Files.readAllBytes(file));
+
+        // 没有标记文件(释放过程中断)
+        Files.delete(marker);
+        assertEquals(file, cache.extract(RESOURCE, "DmReg.dll"));
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertTrue(Files.isRegularFile(marker));
+    }
+
+    @Test
+    public void testExtractFromJar() throws IOException {
+        byte[] content = readResource();
+        Path jar = Files.createTempFile("native", ".jar");
+        try {
+            try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+                output.putNextEntry(new JarEntry("win32-x86/DmReg.dll"));
+                output.write(content);
+                output.closeEntry();
+            }
+            URL resource = new URL("jar:" + jar.toUri() + "!/win32-x86/DmReg.dll");
+            NativeLibraryCache cache = new NativeLibraryCache(cacheDir);
+            Path file = cache.extract(resource, "DmReg.dll");
+            assertArrayEquals(content, Files.readAllBytes(file));
+            // 从jar条目取的哈希和读取内容计算的一致, 两种方式共用缓存
+            assertEquals(file, cache.extract(RESOURCE, "DmReg.dll"));
+        } finally {
+            Files.deleteIfExists(jar);
+        }
+    }
+
+    @Test
+    public void testConcurrentExtract() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                // 每个任务使用独立的实例, 只共享缓存目录, 模拟多个进程
+                futures.add(executor.submit(() -> new NativeLibraryCache(cacheDir).extract(RESOURCE, "DmReg.dll")));
+            }
+            Path expected = futures.get(0).get();
+            for (Future<Path> future : futures) {
+                assertEquals(expected, future.get());
+            }
+            assertArrayEquals(readResource(), Files.readAllBytes(expected));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] readResource() throws IOException {
+        try (InputStream input = NativeLibraryCacheTest.class.getResourceAsStream(RESOURCE)) {
+            assertNotNull(input);
+            byte[] buffer = new byte[1 << 20];
+            int total = 0;
+            int read;
+            while ((read = input.read(buffer, total, buffer.length - total)) > 0) {
+                total += read;
+            }
+            byte[] content = new byte[total];
+            System.arraycopy(buffer, 0, content, 0, total);
+            return content;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package cn.com.qjun.dmsoft.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author RenQiang
+ * @date 2026/10/18
+ */
+public class PackedPointsTest {
+
+    @Test
+    public void testPack() {
+        int[][] points = {{0, 0}, {1920, 1080}, {-1920, -1}, {32767, -32768}, {-32768, 32767}};
+        for (int[] point : points) {
+            int packed = PackedPoints.pack(point[0], point[1]);
+            assertEquals(point[0], PackedPoints.x(packed));
+            assertEquals(point[1], PackedPoints.y(packed));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PackedPoints.pack(32768, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedPoints.pack(0, -32769));
+        assertThrows(IllegalArgumentException.class, () -> PackedPoints.pack(65536, 65536));
+    }
+}